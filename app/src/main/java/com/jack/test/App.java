@@ -2,8 +2,11 @@ package com.jack.test;
 
 import android.app.Application;
 
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
 import com.jack.rx.bluetooth.RxBluetooth;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * 描述:
  *
@@ -11,9 +14,40 @@ import com.jack.rx.bluetooth.RxBluetooth;
  * @since : 2019/10/29 0029
  */
 public final class App extends Application {
+    /**
+     * 启动时同时恢复连接的设备数量
+     */
+    private static final int RESTORE_CONCURRENCY = 4;
+    private static final SessionRepository m_sessionRepository = new SessionRepository();
+
     @Override
     public void onCreate() {
         super.onCreate();
         RxBluetooth.init(this);
+        //界面反复打开电量等通知时，2s内重新订阅不重写CCCD
+        RxBluetooth.getInstance().setNotifyGracePeriod(2, TimeUnit.SECONDS);
+        restoreSession();
+    }
+
+    /**
+     * 启动时恢复的设备和采集，界面订阅{@link SessionRepository#restored()}获取
+     *
+     * @return
+     */
+    public static SessionRepository getSessionRepository() {
+        return m_sessionRepository;
+    }
+
+    /**
+     * 恢复上次进程中连接的设备，并重新开始上次正在进行的采集
+     */
+    private void restoreSession() {
+        BleConnectOptions options = new BleConnectOptions.Builder()
+                .setConnectRetry(3)               // 连接如果失败重试3次
+                .setConnectTimeout(10000)         // 连接超时10s
+                .setServiceDiscoverRetry(3)       // 发现服务如果失败重试3次
+                .setServiceDiscoverTimeout(5000)  // 发现服务超时5s
+                .build();
+        m_sessionRepository.restore(options, RESTORE_CONCURRENCY);
     }
 }
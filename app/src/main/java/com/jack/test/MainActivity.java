@@ -13,11 +13,12 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.afollestad.materialdialogs.MaterialDialog;
 import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
 import com.inuker.bluetooth.library.model.BleGattService;
-import com.inuker.bluetooth.library.search.SearchRequest;
 import com.inuker.bluetooth.library.search.SearchResult;
 import com.inuker.bluetooth.library.utils.StringUtils;
 import com.jack.bluetooth.R;
 import com.jack.rx.bluetooth.RxBluetooth;
+import com.jack.rx.bluetooth.scan.ScanOperators;
+import com.jack.rx.bluetooth.scan.ScanResult;
 import com.jack.test.sensor.SensorBluetoothHolder;
 import com.jack.test.sensor.SensorBluetoothHolderFactory;
 import com.jack.test.sensor.SensorData;
@@ -27,14 +28,13 @@ import com.tbruyelle.rxpermissions2.RxPermissions;
 import com.trello.rxlifecycle3.components.support.RxAppCompatActivity;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.Unbinder;
+import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
 
@@ -43,6 +43,10 @@ import static android.Manifest.permission.ACCESS_FINE_LOCATION;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
 public class MainActivity extends RxAppCompatActivity {
+    /**
+     * 一次搜索最多去重的设备数量
+     */
+    private static final int MAX_SCAN_DEVICES = 512;
     @BindView(R.id.ble_list)
     RecyclerView bleList;
     @BindView(R.id.search_ble)
@@ -60,6 +64,7 @@ public class MainActivity extends RxAppCompatActivity {
         bleList.setLayoutManager(new LinearLayoutManager(this));
         bleList.setAdapter(adapter);
         searchBle.setOnClickListener(v -> searchBluetooth(adapter));
+        observeRestored();
     }
 
     @Override
@@ -68,6 +73,21 @@ public class MainActivity extends RxAppCompatActivity {
         m_unbinder.unbind();
     }
 
+    /**
+     * 显示启动时恢复的采集，界面销毁时取消订阅，采集本身在{@link SessionRepository}中继续
+     */
+    @SuppressLint("CheckResult")
+    private void observeRestored() {
+        App.getSessionRepository().restored()
+                .flatMap(acquisition -> acquisition.getData()
+                        .sample(1, TimeUnit.SECONDS)
+                        .map(data -> acquisition.getHolder().getMac() + " : " + data)
+                        .onErrorResumeNext(Observable.empty()))
+                .observeOn(AndroidSchedulers.mainThread())
+                .compose(bindToLifecycle())
+                .subscribe(text -> Logger.i("恢复采集 %s", text));
+    }
+
     @SuppressLint("CheckResult")
     private void connectBluetooth(SearchResult searchResult) {
         String nameOrAddr = StringUtils.isBlank(searchResult.getName()) ? searchResult.getAddress() : searchResult.getName();
@@ -146,22 +166,18 @@ public class MainActivity extends RxAppCompatActivity {
                 .progress(true, 0)
                 .show();
         adapter.removeAllItem();
-        final Set<String> searchResultSet = new HashSet<>();
-        final SearchRequest searchRequest = new SearchRequest.Builder()
-                .searchBluetoothLeDevice(1000, 3)
-                .searchBluetoothClassicDevice(5000)
-                .searchBluetoothLeDevice(2000)
-                .build();
         new RxPermissions(this).request(ACCESS_COARSE_LOCATION, ACCESS_FINE_LOCATION)
                 .subscribe(aBoolean -> {
                     if (aBoolean) {
-                        RxBluetooth.getInstance().search(searchRequest, 5, TimeUnit.SECONDS)
+                        //共享扫描，不会停掉其它订阅者的扫描
+                        RxBluetooth.getInstance().getScanService().results()
+                                .take(5, TimeUnit.SECONDS)
                                 .subscribeOn(Schedulers.newThread())
-                                .filter(searchResult -> !searchResultSet.contains(searchResult.getAddress()) && searchResult.rssi != 0)
+                                .compose(ScanOperators.dedup(MAX_SCAN_DEVICES))
+                                .map(ScanResult::getSearchResult)
                                 .observeOn(AndroidSchedulers.mainThread())
                                 .doFinally(dialog::dismiss)
                                 .subscribe(searchResult -> {
-                                    searchResultSet.add(searchResult.getAddress());
                                     adapter.addItem(adapter.getItemCount(), searchResult);
                                     adapter.notifyDataSetChanged();
                                 });
@@ -0,0 +1,93 @@
+package com.jack.test;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.jack.rx.bluetooth.RxBluetooth;
+import com.jack.test.sensor.js100.JS100BluetoothHolder;
+import com.jack.test.sensor.js100.JS100Param;
+import com.jack.test.sensor.js100.JS100SensorData;
+import com.orhanobut.logger.Logger;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.observables.ConnectableObservable;
+import io.reactivex.subjects.ReplaySubject;
+
+/**
+ * 描述: 进程启动时恢复的设备和采集<br>
+ * 1, 采集在后台持续进行，不依赖界面是否打开;<br>
+ * 2, 界面通过{@link #restored()}订阅，晚订阅的界面也能收到已恢复的全部采集;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class SessionRepository {
+    /**
+     * 每个采集缓存的最新数据条数，界面订阅时先收到这些数据
+     */
+    private static final int REPLAY_SIZE = 64;
+    private final ReplaySubject<Acquisition> m_restored = ReplaySubject.create();
+    private final CompositeDisposable m_disposable = new CompositeDisposable();
+
+    /**
+     * 恢复上次进程中连接的设备，并重新开始上次正在进行的采集
+     *
+     * @param options
+     * @param maxConcurrency
+     */
+    void restore(BleConnectOptions options, int maxConcurrency) {
+        m_disposable.add(RxBluetooth.getInstance().restoreSession(options, maxConcurrency)
+                .subscribe(bluetoothHolder -> {
+                    Logger.i("恢复蓝牙连接 %s", bluetoothHolder.getMac());
+                    if (bluetoothHolder instanceof JS100BluetoothHolder) {
+                        JS100BluetoothHolder holder = (JS100BluetoothHolder) bluetoothHolder;
+                        JS100Param param = holder.getSessionParam();
+                        if (null != param) {
+                            ConnectableObservable<JS100SensorData> data = holder.sensorObservable(param)
+                                    .doOnError(throwable -> Logger.e("恢复采集 %s 失败 : %s", holder.getMac(), throwable.getMessage()))
+                                    .replay(REPLAY_SIZE);
+                            m_disposable.add(data.connect());
+                            m_restored.onNext(new Acquisition(holder, data));
+                        }
+                    }
+                }, throwable -> Logger.e("恢复蓝牙连接失败 : %s", throwable.getMessage())));
+    }
+
+    /**
+     * 已恢复的采集
+     *
+     * @return
+     */
+    public Observable<Acquisition> restored() {
+        return m_restored.hide();
+    }
+
+    /**
+     * 停止所有恢复的采集
+     */
+    public void clear() {
+        m_disposable.clear();
+    }
+
+    public static final class Acquisition {
+        private final JS100BluetoothHolder m_holder;
+        private final Observable<JS100SensorData> m_data;
+
+        Acquisition(JS100BluetoothHolder holder, Observable<JS100SensorData> data) {
+            m_holder = holder;
+            m_data = data;
+        }
+
+        public JS100BluetoothHolder getHolder() {
+            return m_holder;
+        }
+
+        /**
+         * 采集数据，多个订阅者共享同一个采集
+         *
+         * @return
+         */
+        public Observable<JS100SensorData> getData() {
+            return m_data;
+        }
+    }
+}
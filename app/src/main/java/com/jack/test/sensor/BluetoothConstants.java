@@ -19,6 +19,7 @@ public interface BluetoothConstants {
      * @see #UUID_2A19: 电量特征UUID
      * @see #UUID_180A: 制造商服务UUID
      * @see #UUID_2A29: 制造商UUID
+     * @see #UUID_2A26: 固件版本UUID
      */
     UUID UUID_FFF0 = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
     UUID UUID_FFF1 = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
@@ -27,6 +28,7 @@ public interface BluetoothConstants {
     UUID UUID_2A19 = UUID.fromString("00002a19-0000-1000-8000-00805f9b34fb");
     UUID UUID_180A = UUID.fromString("0000180a-0000-1000-8000-00805f9b34fb");
     UUID UUID_2A29 = UUID.fromString("00002a29-0000-1000-8000-00805f9b34fb");
+    UUID UUID_2A26 = UUID.fromString("00002a26-0000-1000-8000-00805f9b34fb");
     /**
      * ZC1000 蓝牙笔<br>
      *
@@ -1,9 +1,9 @@
 package com.jack.test.sensor;
 
-import android.util.Log;
-
 import com.inuker.bluetooth.library.model.BleGattProfile;
 import com.jack.rx.bluetooth.BluetoothHolderFactory;
+import com.jack.rx.bluetooth.DeviceRecord;
+import com.jack.rx.bluetooth.DeviceRegistry;
 import com.jack.rx.bluetooth.RxBluetooth;
 import com.jack.test.sensor.js100.JS100BluetoothHolder;
 import com.jack.test.sensor.unknow.UnKnowBluetoothHolder;
@@ -19,20 +19,64 @@ import io.reactivex.Single;
  * @since : 2019/8/13
  */
 public final class SensorBluetoothHolderFactory implements BluetoothHolderFactory, BluetoothConstants {
+    static final String TYPE_JS100 = "JS100";
+    static final String TYPE_ZC1000 = "ZC1000";
+    static final String TYPE_UNKNOWN = "UNKNOWN";
 
+    /**
+     * 注册表中已有且profile没有变化的设备直接创建，否则按profile解析设备类型并记录
+     *
+     * @param mac
+     * @param bleGattProfile
+     * @return
+     */
     @Override
     public Single<SensorBluetoothHolder> create(final String mac, final BleGattProfile bleGattProfile) {
         Logger.i("SensorBluetoothHolderFactory.create mac : %s", mac);
+        DeviceRegistry registry = RxBluetooth.getInstance().getDeviceRegistry();
+        DeviceRecord record = registry.lookup(mac, bleGattProfile);
+        if (null != record && null != record.getHolderType()) {
+            Logger.i("已知蓝牙设备 %s", record);
+            registry.put(record.newBuilder().setLastSeen(System.currentTimeMillis()).build());
+            return Single.just(create(record.getHolderType(), mac, bleGattProfile));
+        }
+        return resolve(mac, bleGattProfile).map(newRecord -> {
+            registry.put(newRecord);
+            return create(newRecord.getHolderType(), mac, bleGattProfile);
+        });
+    }
+
+    private Single<DeviceRecord> resolve(final String mac, final BleGattProfile bleGattProfile) {
+        DeviceRecord.Builder builder = new DeviceRecord.Builder(mac)
+                .setProfileFingerprint(DeviceRegistry.fingerprint(bleGattProfile));
         if (bleGattProfile.containsCharacter(UUID_180A, UUID_2A29)) {
-            return RxBluetooth.getInstance().read(mac, UUID_180A, UUID_2A29).map(bytes -> {
-                String name = new String(bytes).trim();
-                Logger.i("当前蓝牙设备制造商名字", name);
-                return new JS100BluetoothHolder(mac, bleGattProfile);
-            });
+            return RxBluetooth.getInstance().read(mac, UUID_180A, UUID_2A29)
+                    .map(bytes -> {
+                        String name = new String(bytes).trim();
+                        Logger.i("当前蓝牙设备制造商名字 %s", name);
+                        return builder.setHolderType(TYPE_JS100).setManufacturer(name);
+                    })
+                    .flatMap(recordBuilder -> bleGattProfile.containsCharacter(UUID_180A, UUID_2A26)
+                            ? RxBluetooth.getInstance().read(mac, UUID_180A, UUID_2A26)
+                            .map(bytes -> recordBuilder.setFirmware(new String(bytes).trim()))
+                            .onErrorReturnItem(recordBuilder)
+                            : Single.just(recordBuilder))
+                    .map(DeviceRecord.Builder::build);
         } else if (bleGattProfile.containsCharacter(UUID_FFE0, UUID_FFE4)) {
-            return Single.just(new ZC1000BluetoothHolder(mac, bleGattProfile));
+            return Single.just(builder.setHolderType(TYPE_ZC1000).build());
         } else {
-            return Single.just(new UnKnowBluetoothHolder(mac, bleGattProfile));
+            return Single.just(builder.setHolderType(TYPE_UNKNOWN).build());
+        }
+    }
+
+    private static SensorBluetoothHolder create(String holderType, String mac, BleGattProfile bleGattProfile) {
+        switch (holderType) {
+            case TYPE_JS100:
+                return new JS100BluetoothHolder(mac, bleGattProfile);
+            case TYPE_ZC1000:
+                return new ZC1000BluetoothHolder(mac, bleGattProfile);
+            default:
+                return new UnKnowBluetoothHolder(mac, bleGattProfile);
         }
     }
 
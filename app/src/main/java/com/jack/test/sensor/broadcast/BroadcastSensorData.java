@@ -0,0 +1,78 @@
+package com.jack.test.sensor.broadcast;
+
+import com.jack.test.sensor.SensorData;
+
+/**
+ * 描述: 从广播中解析的传感器摘要数据，由{@link BroadcastSensorDecoder}创建
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class BroadcastSensorData extends SensorData<BroadcastSensorData, Float, Float, Void, Void> {
+    private final String m_mac;
+    private final float m_temperature;
+    private final float m_vibrate;
+    private final int m_power;
+    private final float m_rssi;
+
+    BroadcastSensorData(String mac, float temperature, float vibrate, int power, float rssi) {
+        m_mac = mac;
+        m_temperature = temperature;
+        m_vibrate = vibrate;
+        m_power = power;
+        m_rssi = rssi;
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    @Override
+    public Float getTemperature() {
+        return m_temperature;
+    }
+
+    /**
+     * 振动速度有效值 mm/s
+     *
+     * @return
+     */
+    @Override
+    public Float getVibrate() {
+        return m_vibrate;
+    }
+
+    @Override
+    public Void getSpeed() {
+        return null;
+    }
+
+    @Override
+    public Void getDistance() {
+        return null;
+    }
+
+    @Override
+    public String getRFID() {
+        return null;
+    }
+
+    public int getPower() {
+        return m_power;
+    }
+
+    public float getRssi() {
+        return m_rssi;
+    }
+
+    @Override
+    public String toString() {
+        return "BroadcastSensorData{" +
+                "mac='" + m_mac + '\'' +
+                ", temperature=" + m_temperature +
+                ", vibrate=" + m_vibrate +
+                ", power=" + m_power +
+                ", rssi=" + m_rssi +
+                '}';
+    }
+}
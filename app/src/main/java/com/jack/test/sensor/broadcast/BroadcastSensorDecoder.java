@@ -0,0 +1,36 @@
+package com.jack.test.sensor.broadcast;
+
+import com.jack.rx.bluetooth.scan.AdvertisementDecoder;
+import com.jack.rx.bluetooth.scan.ScanResult;
+
+/**
+ * 描述: 解析广播模式传感器的厂家数据<br>
+ * 厂家ID {@link #COMPANY_ID}，数据格式(小端序):<br>
+ * [0] 版本 {@link #VERSION}<br>
+ * [1..2] 温度 int16，单位0.01℃<br>
+ * [3..4] 振动速度有效值 uint16，单位0.01mm/s<br>
+ * [5] 电量 %<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class BroadcastSensorDecoder implements AdvertisementDecoder<BroadcastSensorData> {
+    public static final int COMPANY_ID = 0xFFFF;
+    public static final int VERSION = 1;
+    private static final int PAYLOAD_LEN = 6;
+
+    @Override
+    public BroadcastSensorData decode(ScanResult result) {
+        byte[] data = result.getAdvertisement().getManufacturerData(COMPANY_ID);
+        if (null == data || data.length < PAYLOAD_LEN || VERSION != data[0]) {
+            return null;
+        }
+        short temperature = (short) ((data[1] & 0xFF) | ((data[2] & 0xFF) << 8));
+        int vibrate = (data[3] & 0xFF) | ((data[4] & 0xFF) << 8);
+        return new BroadcastSensorData(result.getAddress(),
+                temperature / 100.0f,
+                vibrate / 100.0f,
+                data[5] & 0xFF,
+                result.getRssi());
+    }
+}
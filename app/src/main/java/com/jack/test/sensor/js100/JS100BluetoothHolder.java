@@ -2,15 +2,20 @@ package com.jack.test.sensor.js100;
 
 import com.inuker.bluetooth.library.model.BleGattProfile;
 import com.jack.rx.bluetooth.BluetoothException;
+import com.jack.rx.bluetooth.GattPriority;
 import com.jack.rx.bluetooth.RxBluetooth;
+import com.jack.rx.bluetooth.SessionEntry;
+import com.jack.rx.bluetooth.Transaction;
 import com.jack.test.sensor.SensorBluetoothHolder;
 
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Observable;
 import io.reactivex.ObservableOperator;
 import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
 import io.reactivex.SingleTransformer;
 
 import static com.jack.test.sensor.BluetoothConstants.BATTERY_SERVICE_UUID;
@@ -19,6 +24,7 @@ import static com.jack.test.sensor.BluetoothConstants.UUID_2A19;
 import static com.jack.test.sensor.BluetoothConstants.UUID_FFF0;
 import static com.jack.test.sensor.BluetoothConstants.UUID_FFF1;
 import static com.jack.test.sensor.BluetoothConstants.UUID_FFF2;
+import static com.jack.test.sensor.BluetoothConstants.UUID_FFF3;
 
 /**
  * 描述:
@@ -26,16 +32,23 @@ import static com.jack.test.sensor.BluetoothConstants.UUID_FFF2;
  * @author :jack.gu
  * @since : 2019/8/13
  */
-public final class JS100BluetoothHolder extends SensorBluetoothHolder<JS100SensorData, JS100Param> {
+public final class JS100BluetoothHolder extends SensorBluetoothHolder<JS100SensorData, JS100Param> implements JS100SensorData.LostPackageRequester {
+    private static final String SESSION_PARAM = "js100.param";
+    /**
+     * 采样完成后等待第一个数据包的时间
+     */
+    private static final long SAMPLE_START_MARGIN_MILLIS = 10_000;
+
     public JS100BluetoothHolder(final String mac, BleGattProfile bleGattProfile) {
         super(mac, RxBluetooth.getInstance(), bleGattProfile);
     }
 
     @Override
     public Observable<Float> readPower() {
-        return m_rxBluetooth.notify(m_mac, BATTERY_SERVICE_UUID, UUID_2A19)
+        return m_rxBluetooth.read(m_mac, BATTERY_SERVICE_UUID, UUID_2A19, GattPriority.LOW)
                 .map(bytes -> bytes[0] & 0xFF)
-                .map(Integer::floatValue);
+                .map(Integer::floatValue)
+                .toObservable();
     }
 
     @Override
@@ -43,7 +56,7 @@ public final class JS100BluetoothHolder extends SensorBluetoothHolder<JS100Senso
         //UUID_FFF0, UUID_FFF1
         if (UUID_FFF0.equals(serviceUUID) && UUID_FFF2.equals(characterUUID)) {
             //noinspection unchecked
-            return upstream -> upstream.lift((ObservableOperator<T, byte[]>) new JS100SensorData.Operator(this));
+            return upstream -> upstream.lift((ObservableOperator<T, byte[]>) new JS100SensorOperator(this));
         } else {
             return upstream -> upstream.map(bytes -> (T) bytes);
         }
@@ -75,12 +88,60 @@ public final class JS100BluetoothHolder extends SensorBluetoothHolder<JS100Senso
         }
     }
 
+    /**
+     * 先打开{@code UUID_FFF2}通知再写入采集参数，第一个数据包不会丢失<br>
+     * 采集期间参数记录在会话快照中，进程重启恢复连接后可以用{@link #getSessionParam()}重新采集
+     *
+     * @param param
+     * @return
+     */
     @Override
     public Observable<JS100SensorData> sensorObservable(JS100Param param) {
-        return m_rxBluetooth.write(m_mac, UUID_FFF0, UUID_FFF1, param.toByteArray())
-                .toObservable()
-                .concatMap(aBoolean -> m_rxBluetooth.notify(m_mac, UUID_FFF0, UUID_FFF2))
-                .compose(notifyTransformer(UUID_FFF0, UUID_FFF2));
+        Transaction transaction = new Transaction.Builder()
+                .setCommand(UUID_FFF0, UUID_FFF1, param.toByteArray())
+                .setResponse(UUID_FFF0, UUID_FFF2)
+                .setTimeout(sampleMillis(param) + SAMPLE_START_MARGIN_MILLIS, TimeUnit.MILLISECONDS)
+                .setPriority(GattPriority.HIGH)
+                .build();
+        //数据包直接在蓝牙库回调的数组上解码，不经过FramePool再复制一次
+        return stream(transaction)
+                .lift(new JS100SensorOperator(this))
+                .doOnSubscribe(disposable -> m_rxBluetooth.getSessionStore().putExtra(m_mac, SESSION_PARAM, param.encode()))
+                .doFinally(() -> m_rxBluetooth.getSessionStore().removeExtra(m_mac, SESSION_PARAM));
+
+    }
+
+    /**
+     * 向{@link com.jack.test.sensor.BluetoothConstants#UUID_FFF3}写入丢失的数据包索引，请求重取
+     *
+     * @param lostIndex
+     */
+    @Override
+    public void requestLostPackages(byte[] lostIndex) {
+        Single.timer(200, TimeUnit.MICROSECONDS)
+                .flatMap(aLong -> m_rxBluetooth.write(m_mac, UUID_FFF0, UUID_FFF3, lostIndex, GattPriority.HIGH))
+                .onErrorReturn(throwable -> false)
+                .subscribe();
+    }
+
+    /**
+     * 设备采样完成后才开始发送数据包
+     *
+     * @param param
+     * @return 采样耗时
+     */
+    private static long sampleMillis(JS100Param param) {
+        return param.getPoint().point * 1000L / param.getFrequency().frequency;
+    }
 
+    /**
+     * 上次进程中正在采集的参数
+     *
+     * @return 没有采集时返回null
+     */
+    public JS100Param getSessionParam() {
+        SessionEntry entry = m_rxBluetooth.getSessionStore().get(m_mac);
+        String encoded = null == entry ? null : entry.getExtra(SESSION_PARAM);
+        return null == encoded ? null : JS100Param.decode(encoded);
     }
 }
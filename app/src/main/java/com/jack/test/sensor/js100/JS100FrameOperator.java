@@ -0,0 +1,68 @@
+package com.jack.test.sensor.js100;
+
+import com.jack.rx.bluetooth.Frame;
+
+import io.reactivex.ObservableOperator;
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * 描述: 与{@link JS100SensorOperator}相同，但直接在{@link Frame}的缓冲区上解码，解码后立即归还{@link Frame}<br>
+ * 用于已经通过{@link com.jack.rx.bluetooth.BluetoothHolder#notifyFrames}接收数据的场景，{@link JS100SensorOperator}本身也不复制数据包
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class JS100FrameOperator implements ObservableOperator<JS100SensorData, Frame> {
+    private JS100BluetoothHolder m_js100BluetoothHolder;
+
+    public JS100FrameOperator(JS100BluetoothHolder js100BluetoothHolder) {
+        this.m_js100BluetoothHolder = js100BluetoothHolder;
+    }
+
+    @Override
+    public Observer<? super Frame> apply(Observer<? super JS100SensorData> observer) throws Exception {
+        return new Observer<Frame>() {
+            private Disposable m_disposable;
+            private final JS100SensorData.Assembler m_assembler = new JS100SensorData.Assembler();
+
+            @Override
+            public void onSubscribe(final Disposable d) {
+                m_disposable = d;
+                observer.onSubscribe(d);
+            }
+
+            @Override
+            public void onNext(final Frame frame) {
+                int result;
+                try {
+                    result = m_assembler.offer(frame.array(), frame.offset(), frame.length());
+                } finally {
+                    frame.release();
+                }
+                switch (result) {
+                    case JS100SensorData.Assembler.LOST:
+                        m_js100BluetoothHolder.requestLostPackages(m_assembler.lostIndex());
+                        break;
+                    case JS100SensorData.Assembler.COMPLETE:
+                        observer.onNext(m_assembler.take());
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            @Override
+            public void onError(final Throwable e) {
+                observer.onError(e);
+                m_disposable.dispose();
+            }
+
+            @Override
+            public void onComplete() {
+                observer.onComplete();
+                m_disposable.dispose();
+            }
+        };
+    }
+}
@@ -51,6 +51,33 @@ public final class JS100Param {
         return this;
     }
 
+    /**
+     * 会话快照中保存的格式: type,frequency,point,factor
+     *
+     * @return
+     */
+    public String encode() {
+        return m_type.name() + ',' + m_frequency.name() + ',' + m_point.name() + ',' + m_factor;
+    }
+
+    /**
+     * 解析{@link #encode()}的结果
+     *
+     * @param encoded
+     * @return
+     */
+    public static JS100Param decode(String encoded) {
+        String[] fields = encoded.split(",");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("JS100Param: " + encoded);
+        }
+        return new JS100Param()
+                .setType(JS100SampleType.valueOf(fields[0]))
+                .setFrequency(JS100SampleFrequency.valueOf(fields[1]))
+                .setPoint(JS100SamplePoint.valueOf(fields[2]))
+                .setFactor(Integer.parseInt(fields[3]));
+    }
+
     public byte[] toByteArray() {
         byte[] bytes = new byte[20];
         bytes[0] = 'S';
@@ -1,19 +1,13 @@
 package com.jack.test.sensor.js100;
 
-import android.util.Pair;
-
-import com.jack.rx.bluetooth.RxBluetooth;
 import com.jack.test.sensor.SensorData;
 
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
 
 import io.reactivex.ObservableOperator;
 import io.reactivex.Observer;
-import io.reactivex.Single;
 import io.reactivex.disposables.Disposable;
 
-import static com.jack.test.sensor.BluetoothConstants.UUID_FFF0;
-import static com.jack.test.sensor.BluetoothConstants.UUID_FFF3;
 import static com.jack.test.sensor.BluetoothConstants.WRITE_DATA_MAX_LEN;
 
 /**
@@ -69,7 +63,7 @@ public class JS100SensorData extends SensorData<JS100SensorData, Float, Float, F
      * @return 返回值: <br>
      * [  绝对值最大值*系数, <br>(最大-最小)*系数, <br>平均值*系数, <br> 绝对值均值*系数, <br> 平方根均值*系数,<br> 平方均值*系数 ]
      */
-    private void calcCachedRelateValue() {
+    void calcCachedRelateValue() {
         int max = this.data[0];         //最大值
         float absMax = Math.abs(max);   //绝对值最大值
         int min = this.data[0];         //最小值
@@ -103,142 +97,247 @@ public class JS100SensorData extends SensorData<JS100SensorData, Float, Float, F
         };
     }
 
+    /**
+     * 发现丢包时请求设备重发，由{@link JS100BluetoothHolder}实现
+     */
+    public interface LostPackageRequester {
+        /**
+         * @param lostIndex 丢失的数据包索引，见{@link Assembler#lostIndex()}
+         */
+        void requestLostPackages(byte[] lostIndex);
+    }
+
+    /**
+     * 保留给已有的调用方，内部使用{@link Assembler}重组
+     *
+     * @deprecated 使用{@link JS100SensorOperator}
+     */
+    @Deprecated
     public static class Operator implements ObservableOperator<JS100SensorData, byte[]> {
-        private JS100BluetoothHolder m_js100BluetoothHolder;
+        private final LostPackageRequester m_requester;
 
-        public Operator(JS100BluetoothHolder js100BluetoothHolder) {
-            this.m_js100BluetoothHolder = js100BluetoothHolder;
+        public Operator(LostPackageRequester requester) {
+            m_requester = requester;
         }
 
         @Override
         public Observer<? super byte[]> apply(Observer<? super JS100SensorData> observer) throws Exception {
-            return new Observer<byte[]>() {
-                private Disposable m_disposable;
-                private JS100SensorData m_js100SensorData = new JS100SensorData();
-                private byte[] m_buffer;
-                private boolean[] m_recvFlag;
-                private int m_maxIndex = 0;
-                private boolean m_firstPackageReceived = false;
-
-                @Override
-                public void onSubscribe(final Disposable d) {
-                    m_disposable = d;
-                    observer.onSubscribe(d);
-                }
+            return new PackageObserver(observer, m_requester);
+        }
+    }
 
-                @Override
-                public void onNext(final byte[] value) {
-                    int index = (value[0] & 0xFF);
-                    //如果未接接受到第一个数据包，则只接受第一个包。
-                    if (!m_firstPackageReceived && 0 == index) {
-                        m_firstPackageReceived = true;
-                        if (0 == firstDataPackage(value)) {
-                            m_js100SensorData.data = new short[0];
-                            observer.onNext(m_js100SensorData);
-                            reset();
-                        } else {
-                            m_buffer = new byte[m_js100SensorData.totalPackages * (WRITE_DATA_MAX_LEN - 1)];
-                            m_recvFlag = new boolean[1 + m_js100SensorData.totalPackages];
-                            m_recvFlag[0] = true;
-                        }
-                    } else if (m_firstPackageReceived && index > 0) {
-                        //如果已经接受到了第一个数据包，那么只接受后续的数据包。
-                        if (!m_recvFlag[index]) {
-                            m_recvFlag[index] = true;
-                            System.arraycopy(value, 1, m_buffer, (index - 1) * (WRITE_DATA_MAX_LEN - 1), (WRITE_DATA_MAX_LEN - 1));
-                            m_maxIndex = index > m_maxIndex ? index : m_maxIndex;
-                        }
-                        Pair<Integer, byte[]> pair = getLostDataPackageCountAndIndexArray();
-                        if (0 != pair.first) {
-                            Single.timer(200, TimeUnit.MICROSECONDS)
-                                    .flatMap(aLong -> RxBluetooth.getInstance()
-                                            .write(m_js100BluetoothHolder.getMac(), UUID_FFF0, UUID_FFF3, pair.second))
-                                    .onErrorReturn(throwable -> false)
-                                    .subscribe();
-                        } else if (m_maxIndex == m_recvFlag.length - 1) {
-                            m_js100SensorData.data = new short[m_buffer.length / 2];
-                            for (int i = 0; i < m_js100SensorData.data.length; ++i) {
-                                m_js100SensorData.data[i] = (short) (m_buffer[i * 2] & 0xFF | m_buffer[i * 2 + 1] << 8 & 0xFF00);
-                            }
-                            m_js100SensorData.calcCachedRelateValue();
-                            observer.onNext(m_js100SensorData);
-                            reset();
-                        }
-                    }
-                }
+    /**
+     * 把数据包交给{@link Assembler}，发出重组完成的采样数据，丢包时通过{@link LostPackageRequester}请求重发
+     */
+    static final class PackageObserver implements Observer<byte[]> {
+        private final Observer<? super JS100SensorData> m_observer;
+        private final LostPackageRequester m_requester;
+        private final Assembler m_assembler = new Assembler();
+        private Disposable m_disposable;
 
-                @Override
-                public void onError(final Throwable e) {
-                    observer.onError(e);
-                    m_disposable.dispose();
-                }
+        PackageObserver(Observer<? super JS100SensorData> observer, LostPackageRequester requester) {
+            m_observer = observer;
+            m_requester = requester;
+        }
 
-                @Override
-                public void onComplete() {
-                    observer.onComplete();
-                    m_disposable.dispose();
-                }
+        @Override
+        public void onSubscribe(final Disposable d) {
+            m_disposable = d;
+            m_observer.onSubscribe(d);
+        }
 
-                private void reset() {
-                    this.m_js100SensorData = new JS100SensorData();
-                    this.m_buffer = null;
-                    this.m_recvFlag = null;
-                    this.m_maxIndex = 0;
-                    this.m_firstPackageReceived = false;
-                }
+        @Override
+        public void onNext(final byte[] value) {
+            switch (m_assembler.offer(value)) {
+                case Assembler.LOST:
+                    m_requester.requestLostPackages(m_assembler.lostIndex());
+                    break;
+                case Assembler.COMPLETE:
+                    m_observer.onNext(m_assembler.take());
+                    break;
+                default:
+                    break;
+            }
+        }
 
-                /**
-                 * 返回丢失的数据索引数量和索引数组
-                 * @return
-                 */
-                private Pair<Integer, byte[]> getLostDataPackageCountAndIndexArray() {
-                    byte[] lostIndex = new byte[WRITE_DATA_MAX_LEN];
-                    //初始化丢失的索引数组。
-                    for (int i = 0; i < lostIndex.length; ++i) {
-                        lostIndex[i] = (byte) 0xFF;
+        @Override
+        public void onError(final Throwable e) {
+            m_observer.onError(e);
+            m_disposable.dispose();
+        }
+
+        @Override
+        public void onComplete() {
+            m_observer.onComplete();
+            m_disposable.dispose();
+        }
+    }
+
+    /**
+     * 数据包重组，不依赖android和rx，由{@link PackageObserver}驱动<br>
+     * {@link #offer(byte[])}返回{@link #PENDING}、{@link #LOST}或{@link #COMPLETE}
+     */
+    static final class Assembler {
+        static final int PENDING = 0;  //等待后续数据包
+        static final int LOST = 1;     //存在丢失的数据包，通过 {@link #lostIndex()} 获取需要重取的索引
+        static final int COMPLETE = 2; //一次采样接收完成，通过 {@link #take()} 获取
+        /**
+         * 第一个数据包的最小长度，见{@link #firstDataPackage(byte[], int)}
+         */
+        private static final int FIRST_PACKAGE_LEN = 13;
+
+        private JS100SensorData m_js100SensorData = new JS100SensorData();
+        private JS100SensorData m_completed;
+        private byte[] m_buffer;
+        private boolean[] m_recvFlag;
+        private int m_maxIndex = 0;
+        private boolean m_firstPackageReceived = false;
+
+        int offer(final byte[] value) {
+            return offer(value, 0, value.length);
+        }
+
+        /**
+         * 直接从{@code array}的{@code offset}处读取一个数据包，不复制，用于{@link com.jack.rx.bluetooth.Frame}
+         *
+         * @param array
+         * @param offset
+         * @param length 数据包长度，不足时抛出{@link IllegalArgumentException}，不会读到缓冲区中其他数据包的内容
+         * @return
+         */
+        int offer(final byte[] array, final int offset, final int length) {
+            if (length < 1) {
+                throw new IllegalArgumentException("JS100 empty package");
+            }
+            int index = (array[offset] & 0xFF);
+            int required = 0 == index ? FIRST_PACKAGE_LEN : WRITE_DATA_MAX_LEN;
+            if (length < required) {
+                throw new IllegalArgumentException("JS100 package " + index + " length = " + length + " < " + required);
+            }
+            //如果未接接受到第一个数据包，则只接受第一个包。
+            if (!m_firstPackageReceived && 0 == index) {
+                m_firstPackageReceived = true;
+                if (0 == firstDataPackage(array, offset)) {
+                    m_js100SensorData.data = new short[0];
+                    complete();
+                    return COMPLETE;
+                } else {
+                    int bufferLength = m_js100SensorData.totalPackages * (WRITE_DATA_MAX_LEN - 1);
+                    //采样参数不变时复用上一次的缓冲区，数据包全部收到前缓冲区会被完整覆盖
+                    if (null == m_buffer || m_buffer.length != bufferLength) {
+                        m_buffer = new byte[bufferLength];
+                        m_recvFlag = new boolean[1 + m_js100SensorData.totalPackages];
+                    } else {
+                        Arrays.fill(m_recvFlag, false);
                     }
-                    int nextIndex = 0;
-                    /**
-                     * 1,i之所以从1开始，因为0表示第一个数据包，并且已经设置为true
-                     * 2,i需要小于{@link m_maxIndex}因为当前最大的数据包索引为{@link m_maxIndex}
-                     * 3,增加nextIndex < WRITE_DATA_MAX_LEN 判断是因为一次最多重取{@link WRITE_DATA_MAX_LEN}
-                     */
-                    for (int i = 1; i < m_maxIndex && i < m_recvFlag.length && nextIndex < WRITE_DATA_MAX_LEN; ++i) {
-                        if (!m_recvFlag[i]) {
-                            lostIndex[nextIndex++] = (byte) i;
-                        }
+                    m_recvFlag[0] = true;
+                }
+            } else if (m_firstPackageReceived && index > 0) {
+                //如果已经接受到了第一个数据包，那么只接受后续的数据包。
+                if (!m_recvFlag[index]) {
+                    m_recvFlag[index] = true;
+                    System.arraycopy(array, offset + 1, m_buffer, (index - 1) * (WRITE_DATA_MAX_LEN - 1), (WRITE_DATA_MAX_LEN - 1));
+                    m_maxIndex = index > m_maxIndex ? index : m_maxIndex;
+                }
+                if (0 != lostCount()) {
+                    return LOST;
+                } else if (m_maxIndex == m_recvFlag.length - 1) {
+                    m_js100SensorData.data = new short[m_buffer.length / 2];
+                    for (int i = 0; i < m_js100SensorData.data.length; ++i) {
+                        m_js100SensorData.data[i] = (short) (m_buffer[i * 2] & 0xFF | m_buffer[i * 2 + 1] << 8 & 0xFF00);
                     }
-                    return Pair.create(nextIndex, lostIndex);
+                    m_js100SensorData.calcCachedRelateValue();
+                    complete();
+                    return COMPLETE;
                 }
+            }
+            return PENDING;
+        }
+
+        /**
+         * 取出接收完成的采样数据
+         *
+         * @return
+         */
+        JS100SensorData take() {
+            JS100SensorData data = m_completed;
+            m_completed = null;
+            return data;
+        }
 
-                /**
-                 * 处理接受到的第一个数据包，返回数据包总长度
-                 * @param value
-                 * @return
-                 */
-                private int firstDataPackage(byte[] value) {
-                    int temp = (value[1] << 8 & 0xFF00)
-                            | (value[2] & 0xFF);
-                    int sampleType = value[3] & 0xFF;
-                    int bandwidth = (value[4] << 8 & 0xFF00)
-                            | (value[5] & 0xFF);
-                    int samplePoints = (value[6] << 8 & 0xFF00)
-                            | (value[7] & 0xFF);
-                    int totalPackages = samplePoints * 2 / (WRITE_DATA_MAX_LEN - 1)
-                            + (0 == (samplePoints * 2) % (WRITE_DATA_MAX_LEN - 1) ? 0 : 1);
-                    int factor = (value[12] << 24 & 0xFF000000)
-                            | (value[11] << 16 & 0xFF0000)
-                            | (value[10] << 8 & 0xFF00)
-                            | (value[9] & 0xFF);
-                    m_js100SensorData.temp = temp / 100.0f;
-                    m_js100SensorData.sampleType = sampleType;
-                    m_js100SensorData.bandwidth = bandwidth;
-                    m_js100SensorData.samplePoints = samplePoints;
-                    m_js100SensorData.totalPackages = totalPackages;
-                    m_js100SensorData.factor = Float.intBitsToFloat(factor);
-                    return m_js100SensorData.totalPackages;
+        /**
+         * 返回丢失的数据包索引数组，未使用的位置为0xFF
+         *
+         * @return
+         */
+        byte[] lostIndex() {
+            byte[] lostIndex = new byte[WRITE_DATA_MAX_LEN];
+            //初始化丢失的索引数组。
+            for (int i = 0; i < lostIndex.length; ++i) {
+                lostIndex[i] = (byte) 0xFF;
+            }
+            int nextIndex = 0;
+            for (int i = 1; i < m_maxIndex && i < m_recvFlag.length && nextIndex < WRITE_DATA_MAX_LEN; ++i) {
+                if (!m_recvFlag[i]) {
+                    lostIndex[nextIndex++] = (byte) i;
                 }
-            };
+            }
+            return lostIndex;
+        }
+
+        /**
+         * 返回丢失的数据包数量<br>
+         * 1,i之所以从1开始，因为0表示第一个数据包，并且已经设置为true<br>
+         * 2,i需要小于{@link #m_maxIndex}因为当前最大的数据包索引为{@link #m_maxIndex}<br>
+         * 3,最多统计{@link com.jack.test.sensor.BluetoothConstants#WRITE_DATA_MAX_LEN}个，因为一次最多重取这么多<br>
+         *
+         * @return
+         */
+        private int lostCount() {
+            int count = 0;
+            for (int i = 1; i < m_maxIndex && i < m_recvFlag.length && count < WRITE_DATA_MAX_LEN; ++i) {
+                if (!m_recvFlag[i]) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        private void complete() {
+            m_completed = m_js100SensorData;
+            this.m_js100SensorData = new JS100SensorData();
+            this.m_maxIndex = 0;
+            this.m_firstPackageReceived = false;
+        }
+
+        /**
+         * 处理接受到的第一个数据包，返回数据包总长度
+         *
+         * @param value
+         * @param offset
+         * @return
+         */
+        private int firstDataPackage(byte[] value, int offset) {
+            int temp = (value[offset + 1] << 8 & 0xFF00)
+                    | (value[offset + 2] & 0xFF);
+            int sampleType = value[offset + 3] & 0xFF;
+            int bandwidth = (value[offset + 4] << 8 & 0xFF00)
+                    | (value[offset + 5] & 0xFF);
+            int samplePoints = (value[offset + 6] << 8 & 0xFF00)
+                    | (value[offset + 7] & 0xFF);
+            int totalPackages = samplePoints * 2 / (WRITE_DATA_MAX_LEN - 1)
+                    + (0 == (samplePoints * 2) % (WRITE_DATA_MAX_LEN - 1) ? 0 : 1);
+            int factor = (value[offset + 12] << 24 & 0xFF000000)
+                    | (value[offset + 11] << 16 & 0xFF0000)
+                    | (value[offset + 10] << 8 & 0xFF00)
+                    | (value[offset + 9] & 0xFF);
+            m_js100SensorData.temp = temp / 100.0f;
+            m_js100SensorData.sampleType = sampleType;
+            m_js100SensorData.bandwidth = bandwidth;
+            m_js100SensorData.samplePoints = samplePoints;
+            m_js100SensorData.totalPackages = totalPackages;
+            m_js100SensorData.factor = Float.intBitsToFloat(factor);
+            return m_js100SensorData.totalPackages;
         }
     }
 }
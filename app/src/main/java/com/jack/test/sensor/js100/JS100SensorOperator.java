@@ -0,0 +1,23 @@
+package com.jack.test.sensor.js100;
+
+import io.reactivex.ObservableOperator;
+import io.reactivex.Observer;
+
+/**
+ * 描述: JS100数据包重组为{@link JS100SensorData}，发现丢包时向{@link com.jack.test.sensor.BluetoothConstants#UUID_FFF3}请求重取
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class JS100SensorOperator implements ObservableOperator<JS100SensorData, byte[]> {
+    private final JS100BluetoothHolder m_js100BluetoothHolder;
+
+    public JS100SensorOperator(JS100BluetoothHolder js100BluetoothHolder) {
+        this.m_js100BluetoothHolder = js100BluetoothHolder;
+    }
+
+    @Override
+    public Observer<? super byte[]> apply(Observer<? super JS100SensorData> observer) throws Exception {
+        return new JS100SensorData.PackageObserver(observer, m_js100BluetoothHolder);
+    }
+}
@@ -1,6 +1,7 @@
 package com.jack.test.sensor.zc1000;
 
 import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.GattPriority;
 import com.jack.rx.bluetooth.RxBluetooth;
 import com.jack.test.sensor.SensorBluetoothHolder;
 
@@ -28,9 +29,10 @@ public final class ZC1000BluetoothHolder extends SensorBluetoothHolder<ZC1000Sen
 
     @Override
     public Observable<Float> readPower() {
-        return m_rxBluetooth.notify(m_mac, BATTERY_SERVICE_UUID, BATTERY_LEVEL_UUID)
+        return m_rxBluetooth.read(m_mac, BATTERY_SERVICE_UUID, BATTERY_LEVEL_UUID, GattPriority.LOW)
                 .map(bytes -> (bytes[0] & 0xFF))
-                .map(Integer::floatValue);
+                .map(Integer::floatValue)
+                .toObservable();
     }
 
     @Override
@@ -51,7 +53,6 @@ public final class ZC1000BluetoothHolder extends SensorBluetoothHolder<ZC1000Sen
 
     @Override
     public Observable<ZC1000SensorData> sensorObservable(Void param) {
-        return m_rxBluetooth.notify(m_mac, UUID_FFE0, UUID_FFE4)
-                .compose(notifyTransformer(UUID_FFE0, UUID_FFE4));
+        return notify(UUID_FFE0, UUID_FFE4);
     }
 }
@@ -0,0 +1,58 @@
+package com.jack.test.sensor.js100;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 描述: {@link JS100Param}在会话快照中的编码和解析
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class JS100ParamTest {
+
+    @Test
+    public void decodeRestoresEncoded() {
+        for (JS100SampleType type : JS100SampleType.values()) {
+            for (JS100SampleFrequency frequency : JS100SampleFrequency.values()) {
+                for (JS100SamplePoint point : JS100SamplePoint.values()) {
+                    JS100Param param = new JS100Param()
+                            .setType(type)
+                            .setFrequency(frequency)
+                            .setPoint(point)
+                            .setFactor(95);
+                    JS100Param decoded = JS100Param.decode(param.encode());
+
+                    assertEquals(type, decoded.getType());
+                    assertEquals(frequency, decoded.getFrequency());
+                    assertEquals(point, decoded.getPoint());
+                    assertEquals(95, decoded.getFactor());
+                    //恢复后下发的命令与原来一致
+                    assertArrayEquals(param.toByteArray(), decoded.toByteArray());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void encodeUsesNames() {
+        JS100Param param = new JS100Param()
+                .setType(JS100SampleType.Temperature_Vibrate)
+                .setFrequency(JS100SampleFrequency.Freq_1kHz)
+                .setPoint(JS100SamplePoint.Point_1024)
+                .setFactor(0);
+        assertEquals("Temperature_Vibrate,Freq_1kHz,Point_1024,0", param.encode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRejectsMissingField() {
+        JS100Param.decode("Temperature_Vibrate,Freq_1kHz,Point_1024");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRejectsUnknownName() {
+        JS100Param.decode("Temperature_Vibrate,Freq_3kHz,Point_1024,0");
+    }
+}
@@ -0,0 +1,62 @@
+package com.jack.test.sensor.js100;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static com.jack.test.sensor.BluetoothConstants.WRITE_DATA_MAX_LEN;
+
+/**
+ * 描述: 一次完整采样(首包+全部数据包)的重组和统计耗时，对应{@link JS100SensorOperator#apply}中每个数据包的处理
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+@State(Scope.Thread)
+public class JS100AssemblerBenchmark {
+    @Param({"Point_256", "Point_512", "Point_1024", "Point_2048"})
+    public JS100SamplePoint point;
+    @Param({"Freq_100Hz", "Freq_200Hz", "Freq_500Hz", "Freq_1kHz", "Freq_2kHz", "Freq_5kHz", "Freq_10kHz"})
+    public JS100SampleFrequency frequency;
+
+    private byte[][] m_packets;
+    private byte[] m_ring;
+    private JS100SensorData.Assembler m_assembler;
+
+    @Setup
+    public void setup() {
+        m_packets = JS100PacketStream.synthetic(JS100SampleType.Temperature_Vibrate, frequency, point, 42);
+        //与FramePool相同的布局: 所有数据包依次放在一个环形缓冲区中
+        m_ring = new byte[m_packets.length * WRITE_DATA_MAX_LEN];
+        for (int i = 0; i < m_packets.length; ++i) {
+            System.arraycopy(m_packets[i], 0, m_ring, i * WRITE_DATA_MAX_LEN, WRITE_DATA_MAX_LEN);
+        }
+        m_assembler = new JS100SensorData.Assembler();
+    }
+
+    @Benchmark
+    public void assembleSample(Blackhole blackhole) {
+        for (byte[] packet : m_packets) {
+            if (JS100SensorData.Assembler.COMPLETE == m_assembler.offer(packet)) {
+                blackhole.consume(m_assembler.take());
+            }
+        }
+    }
+
+    /**
+     * 对应{@link JS100FrameOperator}，直接从环形缓冲区解码
+     *
+     * @param blackhole
+     */
+    @Benchmark
+    public void assembleSampleInPlace(Blackhole blackhole) {
+        for (int offset = 0; offset < m_ring.length; offset += WRITE_DATA_MAX_LEN) {
+            if (JS100SensorData.Assembler.COMPLETE == m_assembler.offer(m_ring, offset, WRITE_DATA_MAX_LEN)) {
+                blackhole.consume(m_assembler.take());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.jack.test.sensor.js100;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.jack.test.sensor.BluetoothConstants.WRITE_DATA_MAX_LEN;
+
+/**
+ * 描述: JS100通知数据包流，格式与{@link JS100SensorData.Assembler}解析的一致<br>
+ * 1, {@link #synthetic(JS100SampleType, JS100SampleFrequency, JS100SamplePoint, long)}: 按采样参数生成正弦加噪声的数据包;<br>
+ * 2, {@link #recorded(String)}: 读取录制的数据包，每行一个16进制数据包，'#'开头为注释;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class JS100PacketStream {
+    static final String RECORDING_PROPERTY = "js100.recording";
+    private static final int PAYLOAD_LEN = WRITE_DATA_MAX_LEN - 1;
+
+    private JS100PacketStream() {
+    }
+
+    static byte[][] synthetic(JS100SampleType type, JS100SampleFrequency frequency, JS100SamplePoint point, long seed) {
+        Random random = new Random(seed);
+        int bytes = point.point * 2;
+        int totalPackages = bytes / PAYLOAD_LEN + (0 == bytes % PAYLOAD_LEN ? 0 : 1);
+        byte[][] packets = new byte[1 + totalPackages][];
+
+        byte[] first = new byte[WRITE_DATA_MAX_LEN];
+        int temp = 3650;
+        int factor = Float.floatToIntBits(0.01f);
+        first[0] = 0;
+        first[1] = (byte) ((temp >> 8) & 0xFF);
+        first[2] = (byte) (temp & 0xFF);
+        first[3] = (byte) (type.type & 0xFF);
+        first[4] = (byte) ((frequency.frequency >> 8) & 0xFF);
+        first[5] = (byte) (frequency.frequency & 0xFF);
+        first[6] = (byte) ((point.point >> 8) & 0xFF);
+        first[7] = (byte) (point.point & 0xFF);
+        first[9] = (byte) (factor & 0xFF);
+        first[10] = (byte) ((factor >> 8) & 0xFF);
+        first[11] = (byte) ((factor >> 16) & 0xFF);
+        first[12] = (byte) ((factor >> 24) & 0xFF);
+        packets[0] = first;
+
+        byte[] samples = new byte[totalPackages * PAYLOAD_LEN];
+        double step = 2 * Math.PI * 50.0 / frequency.frequency;
+        for (int i = 0; i < point.point; ++i) {
+            short value = (short) (Math.sin(i * step) * 8000 + random.nextGaussian() * 200);
+            samples[i * 2] = (byte) (value & 0xFF);
+            samples[i * 2 + 1] = (byte) ((value >> 8) & 0xFF);
+        }
+        for (int index = 1; index <= totalPackages; ++index) {
+            byte[] packet = new byte[WRITE_DATA_MAX_LEN];
+            packet[0] = (byte) index;
+            System.arraycopy(samples, (index - 1) * PAYLOAD_LEN, packet, 1, PAYLOAD_LEN);
+            packets[index] = packet;
+        }
+        return packets;
+    }
+
+    static byte[][] recorded(String path) throws IOException {
+        List<byte[]> packets = new ArrayList<>(256);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.US_ASCII))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                line = line.replace(" ", "").trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                byte[] packet = new byte[line.length() / 2];
+                for (int i = 0; i < packet.length; ++i) {
+                    packet[i] = (byte) Integer.parseInt(line.substring(i * 2, i * 2 + 2), 16);
+                }
+                packets.add(packet);
+            }
+        }
+        return packets.toArray(new byte[0][]);
+    }
+}
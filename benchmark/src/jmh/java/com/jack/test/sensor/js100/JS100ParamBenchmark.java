@@ -0,0 +1,37 @@
+package com.jack.test.sensor.js100;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 描述: {@link JS100Param#toByteArray()}编码耗时
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+@State(Scope.Thread)
+public class JS100ParamBenchmark {
+    @Param({"Point_256", "Point_512", "Point_1024", "Point_2048"})
+    public JS100SamplePoint point;
+    @Param({"Freq_100Hz", "Freq_200Hz", "Freq_500Hz", "Freq_1kHz", "Freq_2kHz", "Freq_5kHz", "Freq_10kHz"})
+    public JS100SampleFrequency frequency;
+
+    private JS100Param m_param;
+
+    @Setup
+    public void setup() {
+        m_param = new JS100Param()
+                .setType(JS100SampleType.Temperature_Vibrate)
+                .setFrequency(frequency)
+                .setPoint(point)
+                .setFactor(100);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return m_param.toByteArray();
+    }
+}
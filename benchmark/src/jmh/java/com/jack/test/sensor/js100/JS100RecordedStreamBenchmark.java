@@ -0,0 +1,43 @@
+package com.jack.test.sensor.js100;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+
+/**
+ * 描述: 回放录制的数据包流，通过 -Djs100.recording=文件路径 指定，未指定时不运行
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+@State(Scope.Thread)
+public class JS100RecordedStreamBenchmark {
+    private byte[][] m_packets;
+    private JS100SensorData.Assembler m_assembler;
+
+    @Setup
+    public void setup() throws IOException {
+        String path = System.getProperty(JS100PacketStream.RECORDING_PROPERTY);
+        if (null == path) {
+            throw new IllegalStateException("-D" + JS100PacketStream.RECORDING_PROPERTY + " is not set");
+        }
+        m_packets = JS100PacketStream.recorded(path);
+        m_assembler = new JS100SensorData.Assembler();
+    }
+
+    @Benchmark
+    public void replay(Blackhole blackhole) {
+        for (byte[] packet : m_packets) {
+            int result = m_assembler.offer(packet);
+            if (JS100SensorData.Assembler.COMPLETE == result) {
+                blackhole.consume(m_assembler.take());
+            } else if (JS100SensorData.Assembler.LOST == result) {
+                blackhole.consume(m_assembler.lostIndex());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.jack.test.sensor.js100;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 描述: {@link JS100SensorData#calcCachedRelateValue()}统计耗时
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+@State(Scope.Thread)
+public class JS100StatisticsBenchmark {
+    @Param({"Point_256", "Point_512", "Point_1024", "Point_2048"})
+    public JS100SamplePoint point;
+    @Param({"Freq_100Hz", "Freq_200Hz", "Freq_500Hz", "Freq_1kHz", "Freq_2kHz", "Freq_5kHz", "Freq_10kHz"})
+    public JS100SampleFrequency frequency;
+
+    private JS100SensorData m_data;
+
+    @Setup
+    public void setup() {
+        JS100SensorData.Assembler assembler = new JS100SensorData.Assembler();
+        for (byte[] packet : JS100PacketStream.synthetic(JS100SampleType.Temperature_Vibrate, frequency, point, 42)) {
+            if (JS100SensorData.Assembler.COMPLETE == assembler.offer(packet)) {
+                m_data = assembler.take();
+            }
+        }
+    }
+
+    @Benchmark
+    public Float calcCachedRelateValue() {
+        m_data.calcCachedRelateValue();
+        return m_data.getVibrate();
+    }
+}
@@ -0,0 +1,41 @@
+package com.jack.test.sensor.zc1000;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 描述: {@link ZC1000SensorData}字符串解析耗时，每个数据包构造一次并读取对应的值
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+@State(Scope.Thread)
+public class ZC1000SensorDataBenchmark {
+    @Param({"T:36.52", "D:1.254", "R:0012345678"})
+    public String payload;
+
+    private byte[] m_packet;
+
+    @Setup
+    public void setup() {
+        m_packet = payload.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String parse() {
+        ZC1000SensorData data = new ZC1000SensorData(m_packet);
+        switch (payload.charAt(0)) {
+            case 'T':
+                return data.getTemperature();
+            case 'D':
+                return data.getVibrate();
+            default:
+                return data.getRFID();
+        }
+    }
+}
@@ -2,29 +2,50 @@ package com.jack.rx.bluetooth;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
-import android.os.Looper;
 import android.util.Log;
-import android.util.Pair;
 
-import com.inuker.bluetooth.library.BluetoothClient;
-import com.inuker.bluetooth.library.connect.listener.BleConnectStatusListener;
-import com.inuker.bluetooth.library.connect.listener.BluetoothStateListener;
 import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
 import com.inuker.bluetooth.library.connect.response.BleNotifyResponse;
 import com.inuker.bluetooth.library.model.BleGattProfile;
 import com.inuker.bluetooth.library.search.SearchRequest;
 import com.inuker.bluetooth.library.search.SearchResult;
 import com.inuker.bluetooth.library.search.response.SearchResponse;
+import com.jack.rx.bluetooth.metrics.BluetoothMetrics;
+import com.jack.rx.bluetooth.scan.ScanFilter;
+import com.jack.rx.bluetooth.scan.ScanResult;
+import com.jack.rx.bluetooth.transfer.ReliableTransfer;
+import com.jack.rx.bluetooth.transfer.TransferProgress;
+import com.jack.rx.bluetooth.transfer.TransferSession;
+import com.jack.rx.bluetooth.transport.BluetoothClientTransport;
+import com.jack.rx.bluetooth.transport.BluetoothTransport;
 import com.orhanobut.logger.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
 import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
 import io.reactivex.Single;
-import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.observers.DisposableSingleObserver;
+import io.reactivex.schedulers.Schedulers;
 
+import static com.inuker.bluetooth.library.Constants.REQUEST_NOTIFY;
+import static com.inuker.bluetooth.library.Constants.REQUEST_READ;
+import static com.inuker.bluetooth.library.Constants.REQUEST_RSSI;
 import static com.inuker.bluetooth.library.Constants.REQUEST_SUCCESS;
+import static com.inuker.bluetooth.library.Constants.REQUEST_WRITE;
 
 /**
  * 描述:
@@ -32,11 +53,91 @@ import static com.inuker.bluetooth.library.Constants.REQUEST_SUCCESS;
  * @author :jack.gu
  * @since : 2019/7/6
  */
+@SuppressWarnings("ResultOfMethodCallIgnored")
 public abstract class BaseRxBluetooth {
-    protected final BluetoothClient m_client;
+    /**
+     * BLE默认MTU，协商前单帧最多 DEFAULT_MTU - ATT_HEADER_LEN 字节
+     */
+    public static final int DEFAULT_MTU = 23;
+    public static final int ATT_HEADER_LEN = 3;
+    /**
+     * 批量写入时同时排队的帧数
+     */
+    public static final int DEFAULT_BULK_WRITE_WINDOW = 8;
+    /**
+     * 可靠传输检查超时重传的间隔
+     */
+    private static final long TRANSFER_TICK_MILLIS = 20;
+    private static final byte[] END_OF_PAYLOAD = new byte[0];
+
+    protected final BluetoothTransport m_transport;
+    protected final GattOperationScheduler m_scheduler;
+    private final NotificationHub m_notificationHub = new NotificationHub();
+    private final Map<String, Integer> m_mtus = new ConcurrentHashMap<>(8);
+    protected final BluetoothMetrics m_metrics = new BluetoothMetrics();
+    /**
+     * 写时复制，没有拦截器时GATT操作不经过责任链
+     */
+    private volatile GattInterceptor[] m_interceptors = new GattInterceptor[0];
+    private final Object m_searchLock = new Object();
+    /**
+     * 进行中的底层扫描，没有扫描时为null
+     */
+    private SharedSearch m_search;
+
+    protected BaseRxBluetooth(Context client, GattOperationScheduler scheduler) {
+        this(new BluetoothClientTransport(client), scheduler);
+    }
+
+    protected BaseRxBluetooth(BluetoothTransport transport, GattOperationScheduler scheduler) {
+        m_transport = transport;
+        m_scheduler = scheduler;
+    }
+
+    /**
+     * 获得按设备串行化GATT操作的调度器，可用于查询排队深度、设置操作超时时间
+     *
+     * @return
+     */
+    public GattOperationScheduler getScheduler() {
+        return m_scheduler;
+    }
+
+    /**
+     * 获得GATT操作指标，包括各操作延迟分布、错误码统计和通知吞吐量
+     *
+     * @return
+     */
+    public BluetoothMetrics getMetrics() {
+        return m_metrics;
+    }
+
+    /**
+     * 在责任链末尾添加拦截器，先添加的先执行，只对之后发起的操作生效
+     *
+     * @param interceptor
+     */
+    public synchronized void addInterceptor(GattInterceptor interceptor) {
+        GattInterceptor[] interceptors = Arrays.copyOf(m_interceptors, m_interceptors.length + 1);
+        interceptors[interceptors.length - 1] = interceptor;
+        m_interceptors = interceptors;
+    }
 
-    protected BaseRxBluetooth(Context client) {
-        m_client = new BluetoothClient(client);
+    public synchronized void removeInterceptor(GattInterceptor interceptor) {
+        List<GattInterceptor> interceptors = new ArrayList<>(Arrays.asList(m_interceptors));
+        if (interceptors.remove(interceptor)) {
+            m_interceptors = interceptors.toArray(new GattInterceptor[0]);
+        }
+    }
+
+    /**
+     * 最后一个订阅者取消后，等待{@code gracePeriod}再关闭通知，期间重新订阅不会重写CCCD
+     *
+     * @param gracePeriod
+     * @param unit
+     */
+    public void setNotifyGracePeriod(long gracePeriod, TimeUnit unit) {
+        m_notificationHub.setGracePeriod(gracePeriod, unit);
     }
 
     /**
@@ -45,7 +146,7 @@ public abstract class BaseRxBluetooth {
      * @return
      */
     public boolean isBluetoothOpened() {
-        return m_client.isBluetoothOpened();
+        return m_transport.isBluetoothOpened();
     }
 
     /**
@@ -54,7 +155,7 @@ public abstract class BaseRxBluetooth {
      * @return
      */
     public boolean isBleSupported() {
-        return m_client.isBleSupported();
+        return m_transport.isBleSupported();
     }
 
     /**
@@ -63,21 +164,18 @@ public abstract class BaseRxBluetooth {
      * @return
      */
     public Single<Boolean> openBluetooth() {
-        final BluetoothStateListener[] listeners = new BluetoothStateListener[1];
+        final BluetoothTransport.OnBluetoothStateChangedListener[] listeners = new BluetoothTransport.OnBluetoothStateChangedListener[1];
         return Single.<Boolean>create(emitter -> {
-            listeners[0] = new BluetoothStateListener() {
-                @Override
-                public void onBluetoothStateChanged(final boolean openOrClosed) {
-                    if (!emitter.isDisposed()) {
-                        emitter.onSuccess(openOrClosed);
-                    }
+            listeners[0] = openOrClosed -> {
+                if (!emitter.isDisposed()) {
+                    emitter.onSuccess(openOrClosed);
                 }
             };
-            m_client.registerBluetoothStateListener(listeners[0]);
-            if (!m_client.openBluetooth()) {
+            m_transport.registerBluetoothStateListener(listeners[0]);
+            if (!m_transport.openBluetooth()) {
                 emitter.onSuccess(false);
             }
-        }).doFinally(() -> m_client.unregisterBluetoothStateListener(listeners[0]));
+        }).doFinally(() -> m_transport.unregisterBluetoothStateListener(listeners[0]));
     }
 
     /**
@@ -86,25 +184,23 @@ public abstract class BaseRxBluetooth {
      * @return
      */
     public Single<Boolean> closeBluetooth() {
-        final BluetoothStateListener[] listeners = new BluetoothStateListener[1];
+        final BluetoothTransport.OnBluetoothStateChangedListener[] listeners = new BluetoothTransport.OnBluetoothStateChangedListener[1];
         return Single.<Boolean>create(emitter -> {
-            listeners[0] = new BluetoothStateListener() {
-                @Override
-                public void onBluetoothStateChanged(final boolean openOrClosed) {
-                    if (!emitter.isDisposed()) {
-                        emitter.onSuccess(!openOrClosed);
-                    }
+            listeners[0] = openOrClosed -> {
+                if (!emitter.isDisposed()) {
+                    emitter.onSuccess(!openOrClosed);
                 }
             };
-            m_client.registerBluetoothStateListener(listeners[0]);
-            if (!m_client.closeBluetooth()) {
+            m_transport.registerBluetoothStateListener(listeners[0]);
+            if (!m_transport.closeBluetooth()) {
                 emitter.onSuccess(false);
             }
-        }).doFinally(() -> m_client.unregisterBluetoothStateListener(listeners[0]));
+        }).doFinally(() -> m_transport.unregisterBluetoothStateListener(listeners[0]));
     }
 
     /**
-     * 搜索蓝牙设备
+     * 搜索蓝牙设备，多个搜索共享同一个底层扫描，最后一个搜索结束后才停止扫描<br>
+     * 已经在扫描时加入正在进行的扫描，{@code request}不生效，底层扫描结束时一起结束
      *
      * @param request
      * @param time：扫描时间
@@ -112,136 +208,593 @@ public abstract class BaseRxBluetooth {
      * @return
      */
     public Observable<SearchResult> search(SearchRequest request, int time, TimeUnit unit) {
-        return Observable.<SearchResult>create(emitter -> m_client.search(request,
-                new SearchResponse() {
-                    @Override
-                    public void onSearchStarted() {
+        return Observable.<SearchResult>create(emitter -> joinSearch(request, emitter, new SearchResponse() {
+            @Override
+            public void onSearchStarted() {
 
-                    }
+            }
 
-                    @Override
-                    public void onDeviceFounded(final SearchResult device) {
-                        emitter.onNext(device);
-                    }
+            @Override
+            public void onDeviceFounded(final SearchResult device) {
+                emitter.onNext(device);
+            }
 
-                    @Override
-                    public void onSearchStopped() {
-                        emitter.onComplete();
-                    }
+            @Override
+            public void onSearchStopped() {
+                emitter.onComplete();
+            }
 
-                    @Override
-                    public void onSearchCanceled() {
-                        emitter.onComplete();
-                    }
-                }))
-                .take(time, unit)
-                .doFinally(this::stopSearch);
+            @Override
+            public void onSearchCanceled() {
+                emitter.onComplete();
+            }
+        }))
+                .take(time, unit);
 
     }
 
+    /**
+     * 搜索蓝牙设备，{@code filter}在扫描回调中执行，不满足条件的广播不会进入Rx<br>
+     * 与{@link #search(SearchRequest, int, TimeUnit)}共享同一个底层扫描
+     *
+     * @param request
+     * @param filter
+     * @param time：扫描时间
+     * @param unit：时间单位
+     * @return
+     */
+    public Observable<ScanResult> search(SearchRequest request, ScanFilter filter, int time, TimeUnit unit) {
+        return Observable.<ScanResult>create(emitter -> joinSearch(request, emitter, new SearchResponse() {
+            @Override
+            public void onSearchStarted() {
+
+            }
+
+            @Override
+            public void onDeviceFounded(final SearchResult device) {
+                ScanResult result = new ScanResult(device);
+                if (filter.matches(result)) {
+                    emitter.onNext(result);
+                }
+            }
+
+            @Override
+            public void onSearchStopped() {
+                emitter.onComplete();
+            }
+
+            @Override
+            public void onSearchCanceled() {
+                emitter.onComplete();
+            }
+        }))
+                .take(time, unit);
+    }
+
     public BluetoothStatus getConnectStatus(String mac) {
-        return BluetoothStatus.valueOf(m_client.getConnectStatus(mac));
+        return BluetoothStatus.valueOf(m_transport.getConnectStatus(mac));
     }
 
     public Single<byte[]> read(String mac, UUID serviceUUID, UUID characterUUID) {
-        return Single.create(emitter -> {
-            m_client.read(mac, serviceUUID, characterUUID, (code, data) -> {
+        return read(mac, serviceUUID, characterUUID, GattPriority.NORMAL);
+    }
+
+    public Single<byte[]> read(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority) {
+        if (0 == m_interceptors.length) {
+            return read0(mac, serviceUUID, characterUUID, priority);
+        }
+        return intercept(new GattRequest.Builder(GattOperation.READ, mac, serviceUUID, characterUUID).setPriority(priority).build())
+                .singleOrError();
+    }
+
+    private Single<byte[]> read0(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority) {
+        return m_scheduler.schedule(mac, priority, Single.<byte[]>create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.read(mac, serviceUUID, characterUUID, (code, data) -> {
                 if (code == REQUEST_SUCCESS) {
+                    m_metrics.recordLatency(GattOperation.READ, mac, characterUUID, System.nanoTime() - start);
+                    onTraffic(mac);
                     emitter.onSuccess(data);
                 } else {
+                    m_metrics.recordError(GattOperation.READ, mac, characterUUID, code);
                     @SuppressLint("DefaultLocale")
                     String msg = String.format("read %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
                     emitter.onError(new BluetoothException(msg));
                 }
             });
-        });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_READ)));
     }
 
     public Single<Boolean> write(String mac, UUID serviceUUID, UUID characterUUID, byte[] value) {
-        return Single.create(emitter -> {
-            m_client.write(mac, serviceUUID, characterUUID, value, code -> {
+        return write(mac, serviceUUID, characterUUID, value, GattPriority.NORMAL);
+    }
+
+    public Single<Boolean> write(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, GattPriority priority) {
+        if (0 == m_interceptors.length) {
+            return write0(mac, serviceUUID, characterUUID, value, priority);
+        }
+        return intercept(new GattRequest.Builder(GattOperation.WRITE, mac, serviceUUID, characterUUID).setValue(value).setPriority(priority).build())
+                .singleOrError().map(bytes -> true);
+    }
+
+    private Single<Boolean> write0(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, GattPriority priority) {
+        return m_scheduler.schedule(mac, priority, Single.<Boolean>create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.write(mac, serviceUUID, characterUUID, value, code -> {
                 if (code == REQUEST_SUCCESS) {
+                    m_metrics.recordLatency(GattOperation.WRITE, mac, characterUUID, System.nanoTime() - start);
+                    onTraffic(mac);
                     emitter.onSuccess(true);
                 } else {
+                    m_metrics.recordError(GattOperation.WRITE, mac, characterUUID, code);
                     @SuppressLint("DefaultLocale")
                     String msg = String.format("write %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
                     emitter.onError(new BluetoothException(msg));
                 }
             });
-        });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_WRITE)));
     }
 
-    public Observable<byte[]> notify(String mac, UUID serviceUUID, UUID characterUUID) {
-        return Observable.<byte[]>create(emitter -> m_client.notify(mac, serviceUUID, characterUUID, new BleNotifyResponse() {
-            @Override
-            public void onNotify(final UUID service, final UUID character, final byte[] value) {
-                if (service.equals(serviceUUID) && character.equals(characterUUID)) {
-                    emitter.onNext(value);
+    public Single<Boolean> writeNoRsp(String mac, UUID serviceUUID, UUID characterUUID, byte[] value) {
+        return writeNoRsp(mac, serviceUUID, characterUUID, value, GattPriority.NORMAL);
+    }
+
+    public Single<Boolean> writeNoRsp(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, GattPriority priority) {
+        if (0 == m_interceptors.length) {
+            return writeNoRsp0(mac, serviceUUID, characterUUID, value, priority);
+        }
+        return intercept(new GattRequest.Builder(GattOperation.WRITE_NO_RSP, mac, serviceUUID, characterUUID).setValue(value).setPriority(priority).build())
+                .singleOrError().map(bytes -> true);
+    }
+
+    private Single<Boolean> writeNoRsp0(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, GattPriority priority) {
+        return m_scheduler.schedule(mac, priority, Single.<Boolean>create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.writeNoRsp(mac, serviceUUID, characterUUID, value, code -> {
+                if (code == REQUEST_SUCCESS) {
+                    m_metrics.recordLatency(GattOperation.WRITE_NO_RSP, mac, characterUUID, System.nanoTime() - start);
+                    onTraffic(mac);
+                    emitter.onSuccess(true);
+                } else {
+                    m_metrics.recordError(GattOperation.WRITE_NO_RSP, mac, characterUUID, code);
+                    @SuppressLint("DefaultLocale")
+                    String msg = String.format("writeNoRsp %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
+                    emitter.onError(new BluetoothException(msg));
                 }
-            }
+            });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_WRITE)));
+    }
 
-            @Override
-            public void onResponse(final int code) {
-                if (code != REQUEST_SUCCESS) {
+    /**
+     * 协商MTU，成功后{@link #getMtu(String)}返回协商结果
+     *
+     * @param mac
+     * @param mtu
+     * @return 实际协商的MTU
+     */
+    public Single<Integer> requestMtu(String mac, int mtu) {
+        return m_scheduler.schedule(mac, GattPriority.HIGH, Single.create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.requestMtu(mac, mtu, (code, data) -> {
+                if (code == REQUEST_SUCCESS) {
+                    m_metrics.recordLatency(GattOperation.REQUEST_MTU, mac, null, System.nanoTime() - start);
+                    m_mtus.put(mac, data);
+                    emitter.onSuccess(data);
+                } else {
+                    m_metrics.recordError(GattOperation.REQUEST_MTU, mac, null, code);
                     @SuppressLint("DefaultLocale")
-                    String msg = String.format("notify %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
+                    String msg = String.format("requestMtu %s : %d error = %d", mac, mtu, code);
                     emitter.onError(new BluetoothException(msg));
                 }
-            }
-        })).doFinally(() -> m_client.unnotify(mac, serviceUUID, characterUUID, code -> {
-            Logger.i("unnotify %s %b", mac, code == REQUEST_SUCCESS);
+            });
         }));
     }
 
+    /**
+     * 当前协商的MTU，未协商时返回{@link #DEFAULT_MTU}
+     *
+     * @param mac
+     * @return
+     */
+    public int getMtu(String mac) {
+        Integer mtu = m_mtus.get(mac);
+        return null == mtu ? DEFAULT_MTU : mtu;
+    }
+
+    /**
+     * 连接断开后MTU恢复为{@link #DEFAULT_MTU}
+     *
+     * @param mac
+     */
+    protected void resetMtu(String mac) {
+        m_mtus.remove(mac);
+    }
+
+    public Flowable<BulkWriteProgress> bulkWrite(String mac, UUID serviceUUID, UUID characterUUID, byte[] payload) {
+        return bulkWrite(mac, serviceUUID, characterUUID, payload, DEFAULT_BULK_WRITE_WINDOW);
+    }
+
+    /**
+     * 批量写入{@code payload}<br>
+     * 1, 订阅时按{@link #getMtu(String)}分帧，需要更大的帧先调用{@link #requestMtu(String, int)};<br>
+     * 2, 每帧以无应答写入，在{@link GattPriority#LOW}通道排队，不阻塞控制命令;<br>
+     * 3, 最多{@code window}帧同时排队，写完一帧才从上游取下一帧;<br>
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param payload
+     * @param window
+     * @return 每写完一帧发出一次进度
+     */
+    public Flowable<BulkWriteProgress> bulkWrite(String mac, UUID serviceUUID, UUID characterUUID, byte[] payload, int window) {
+        return bulkWrite0(mac, serviceUUID, characterUUID, Flowable.just(payload), payload.length, window);
+    }
+
+    /**
+     * 批量写入数据流，数据块不需要按帧对齐，见{@link #bulkWrite(String, UUID, UUID, byte[], int)}
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param payload
+     * @param window
+     * @return
+     */
+    public Flowable<BulkWriteProgress> bulkWrite(String mac, UUID serviceUUID, UUID characterUUID, Flowable<byte[]> payload, int window) {
+        return bulkWrite0(mac, serviceUUID, characterUUID, payload, -1, window);
+    }
+
+    private Flowable<BulkWriteProgress> bulkWrite0(String mac, UUID serviceUUID, UUID characterUUID, Flowable<byte[]> payload, long totalBytes, int window) {
+        return Flowable.defer(() -> {
+            final int frameSize = getMtu(mac) - ATT_HEADER_LEN;
+            final byte[] pending = new byte[frameSize];
+            final int[] pendingLength = {0};
+            final long[] bytesWritten = {0};
+            final int[] frames = {0};
+            final long start = System.nanoTime();
+            return payload.concatWith(Flowable.just(END_OF_PAYLOAD))
+                    .concatMapIterable(chunk -> {
+                        List<byte[]> out = new ArrayList<>(chunk.length / frameSize + 1);
+                        if (END_OF_PAYLOAD == chunk) {
+                            if (pendingLength[0] > 0) {
+                                out.add(Arrays.copyOf(pending, pendingLength[0]));
+                            }
+                            return out;
+                        }
+                        int offset = 0;
+                        while (offset < chunk.length) {
+                            int n = Math.min(frameSize - pendingLength[0], chunk.length - offset);
+                            System.arraycopy(chunk, offset, pending, pendingLength[0], n);
+                            pendingLength[0] += n;
+                            offset += n;
+                            if (pendingLength[0] == frameSize) {
+                                out.add(Arrays.copyOf(pending, frameSize));
+                                pendingLength[0] = 0;
+                            }
+                        }
+                        return out;
+                    })
+                    .flatMapSingle(frame -> writeNoRsp(mac, serviceUUID, characterUUID, frame, GattPriority.LOW)
+                            .map(aBoolean -> frame.length), false, window)
+                    .map(length -> {
+                        bytesWritten[0] += length;
+                        ++frames[0];
+                        return new BulkWriteProgress(bytesWritten[0], totalBytes, frames[0], frameSize, System.nanoTime() - start);
+                    });
+        });
+    }
+
+    /**
+     * 可靠传输{@code session}，见{@link ReliableTransfer}<br>
+     * 1, 数据帧以无应答写发往{@code dataCharacterUUID}，外设通过{@code ackCharacterUUID}的通知确认;<br>
+     * 2, 打开确认通知和数据帧都在{@link GattPriority#LOW}通道排队，不阻塞控制命令，确认通知打开后才开始传输;<br>
+     * 3, 数据帧写入失败且链路已经断开时以写入的错误结束，之后用同一个{@code session}重新订阅，从外设已收到的位置继续;<br>
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param dataCharacterUUID
+     * @param ackCharacterUUID
+     * @param session
+     * @param window            未确认分片的最大数量
+     * @return 每次有新的分片被确认时发出进度，外设校验通过后完成
+     */
+    public Flowable<TransferProgress> transfer(String mac, UUID serviceUUID, UUID dataCharacterUUID, UUID ackCharacterUUID, TransferSession session, int window) {
+        return Flowable.<TransferProgress>create(source -> {
+            //写入失败、确认通知和定时器在不同线程回调
+            FlowableEmitter<TransferProgress> emitter = source.serialize();
+            CompositeDisposable disposables = new CompositeDisposable();
+            ReliableTransfer transfer = new ReliableTransfer.Builder(session,
+                    frame -> disposables.add(writeNoRsp(mac, serviceUUID, dataCharacterUUID, frame, GattPriority.LOW)
+                            .subscribeWith(new DisposableSingleObserver<Boolean>() {
+                                @Override
+                                public void onSuccess(Boolean aBoolean) {
+                                    disposables.delete(this);
+                                }
+
+                                @Override
+                                public void onError(Throwable e) {
+                                    disposables.delete(this);
+                                    //丢失的帧由ReliableTransfer超时重传，链路已经断开时重传没有意义，直接结束
+                                    if (BluetoothStatus.CONNECTED != getConnectStatus(mac)) {
+                                        emitter.tryOnError(e);
+                                    }
+                                }
+                            })),
+                    new ReliableTransfer.Listener() {
+                        @Override
+                        public void onProgress(TransferProgress progress) {
+                            emitter.onNext(progress);
+                        }
+
+                        @Override
+                        public void onComplete(TransferProgress progress) {
+                            emitter.onNext(progress);
+                            emitter.onComplete();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            emitter.tryOnError(e);
+                        }
+                    })
+                    .setWindow(window)
+                    .build();
+            emitter.setCancellable(() -> {
+                transfer.cancel();
+                disposables.dispose();
+            });
+            //确认通知打开后才发送START，否则外设对START的确认会丢失，只能等超时重传
+            disposables.add(notifyThen(mac, serviceUUID, ackCharacterUUID, GattPriority.LOW, Completable.fromAction(() -> transfer.start(System.nanoTime())))
+                    .subscribe(value -> transfer.onReceive(value, System.nanoTime()), emitter::tryOnError));
+            disposables.add(Observable.interval(TRANSFER_TICK_MILLIS, TRANSFER_TICK_MILLIS, TimeUnit.MILLISECONDS)
+                    .subscribe(tick -> transfer.onTick(System.nanoTime()), emitter::tryOnError));
+        }, BackpressureStrategy.LATEST);
+    }
+
+    public Observable<byte[]> notify(String mac, UUID serviceUUID, UUID characterUUID) {
+        return notify(mac, serviceUUID, characterUUID, GattPriority.NORMAL);
+    }
+
+    /**
+     * 同一个(mac, service, character)的多个订阅者共享一次通知，见{@link NotificationHub}
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param priority      打开通知时使用的优先级，通知已经打开时不起作用
+     * @return
+     */
+    public Observable<byte[]> notify(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority) {
+        return m_notificationHub.share(mac, serviceUUID, characterUUID, false, notifySource(mac, serviceUUID, characterUUID, priority));
+    }
+
+    /**
+     * 打开通知后再执行{@code then}，通知已经打开时直接执行，用于先打开应答通知再写命令的场景，
+     * 不依赖操作在调度队列中的先后顺序
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param priority
+     * @param then          出错时结束返回的数据流
+     * @return
+     */
+    public Observable<byte[]> notifyThen(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority, Completable then) {
+        return m_notificationHub.share(mac, serviceUUID, characterUUID, false, notifySource(mac, serviceUUID, characterUUID, priority), then);
+    }
+
+    private Callable<Observable<byte[]>> notifySource(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority) {
+        return () -> 0 == m_interceptors.length
+                ? notify0(mac, serviceUUID, characterUUID, priority, () -> m_notificationHub.ready(mac, serviceUUID, characterUUID, false))
+                : intercept(new GattRequest.Builder(GattOperation.NOTIFY, mac, serviceUUID, characterUUID).setPriority(priority).build());
+    }
+
+    /**
+     * 带背压的通知，订阅者处理不过来时按{@code backpressure}缓冲或丢弃，见{@link NotifyBackpressure}
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param backpressure
+     * @return
+     */
+    public Flowable<byte[]> notifyFlowable(String mac, UUID serviceUUID, UUID characterUUID, NotifyBackpressure backpressure) {
+        return backpressure.apply(notify(mac, serviceUUID, characterUUID));
+    }
+
+    /**
+     * 把通知合并成{@link FrameBatch}发出，下游每批处理一次，见{@link FrameBatcher}
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param maxFrames     每批最多帧数，攒够立即发出
+     * @param window        每批从第一帧到达起最多等待的时间
+     * @param unit
+     * @return
+     */
+    public Observable<FrameBatch> notifyBatched(String mac, UUID serviceUUID, UUID characterUUID, int maxFrames, long window, TimeUnit unit) {
+        return notify(mac, serviceUUID, characterUUID).lift(new FrameBatcher(maxFrames, unit.toNanos(window), Schedulers.computation()));
+    }
+
+    /**
+     * 以{@link Frame}的形式接收通知，数据复制到{@code pool}的环形缓冲区中，订阅者处理完必须调用{@link Frame#release()}<br>
+     * 蓝牙库每个通知已经是新分配的数组，这里会再复制一次，只适合需要跨线程暂存大量数据包并限制内存的场景，
+     * 收到即解码时直接用{@link #notify(String, UUID, UUID)}
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param pool
+     * @return
+     */
+    public Observable<Frame> notifyFrames(String mac, UUID serviceUUID, UUID characterUUID, FramePool pool) {
+        return notify(mac, serviceUUID, characterUUID).map(pool::acquire);
+    }
+
+    /**
+     * 只有打开通知(写CCCD)的过程参与调度排队，通知数据本身不占用调度窗口
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param priority
+     * @param ready         通知打开后调用，按共享时在{@link NotificationHub}中的key通知等待的命令，拦截器修改了请求时也不变
+     * @return
+     */
+    private Observable<byte[]> notify0(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority, Runnable ready) {
+        return Observable.<byte[]>create(emitter -> emitter.setDisposable(m_scheduler.schedule(mac, priority, Single.<Boolean>create(setup -> {
+            final long start = System.nanoTime();
+            m_transport.notify(mac, serviceUUID, characterUUID, new BleNotifyResponse() {
+                @Override
+                public void onNotify(final UUID service, final UUID character, final byte[] value) {
+                    if (service.equals(serviceUUID) && character.equals(characterUUID)) {
+                        m_metrics.recordNotification(mac, characterUUID, value.length);
+                        onTraffic(mac);
+                        emitter.onNext(value);
+                    }
+                }
+
+                @Override
+                public void onResponse(final int code) {
+                    if (code == REQUEST_SUCCESS) {
+                        m_metrics.recordLatency(GattOperation.NOTIFY, mac, characterUUID, System.nanoTime() - start);
+                        ready.run();
+                        setup.onSuccess(true);
+                    } else {
+                        m_metrics.recordError(GattOperation.NOTIFY, mac, characterUUID, code);
+                        @SuppressLint("DefaultLocale")
+                        String msg = String.format("notify %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
+                        setup.onError(new BluetoothException(msg));
+                    }
+                }
+            });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_NOTIFY))).subscribe(aBoolean -> {
+        }, emitter::tryOnError))).doFinally(() -> m_scheduler.schedule(mac, priority, Single.<Integer>create(emitter -> m_transport.unnotify(mac, serviceUUID, characterUUID, code -> {
+            Logger.i("unnotify %s %b", mac, code == REQUEST_SUCCESS);
+            emitter.onSuccess(code);
+        }))).subscribe(code -> {
+        }, throwable -> Logger.w("unnotify %s : %s", mac, throwable.toString())));
+    }
+
     public Single<byte[]> readDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID) {
-        return Single.create(emitter -> {
-            m_client.readDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, (code, data) -> {
+        return readDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, GattPriority.NORMAL);
+    }
+
+    public Single<byte[]> readDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, GattPriority priority) {
+        if (0 == m_interceptors.length) {
+            return readDescriptor0(mac, serviceUUID, characterUUID, descriptorUUID, priority);
+        }
+        return intercept(new GattRequest.Builder(GattOperation.READ_DESCRIPTOR, mac, serviceUUID, characterUUID).setDescriptorUUID(descriptorUUID).setPriority(priority).build())
+                .singleOrError();
+    }
+
+    private Single<byte[]> readDescriptor0(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, GattPriority priority) {
+        return m_scheduler.schedule(mac, priority, Single.<byte[]>create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.readDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, (code, data) -> {
                 if (code == REQUEST_SUCCESS) {
+                    m_metrics.recordLatency(GattOperation.READ_DESCRIPTOR, mac, characterUUID, System.nanoTime() - start);
+                    onTraffic(mac);
                     emitter.onSuccess(data);
                 } else {
+                    m_metrics.recordError(GattOperation.READ_DESCRIPTOR, mac, characterUUID, code);
                     @SuppressLint("DefaultLocale")
                     String msg = String.format("readDescriptor %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
                     emitter.onError(new BluetoothException(msg));
                 }
             });
-        });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_READ)));
     }
 
     public Single<Boolean> writeDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value) {
-        return Single.create(emitter -> {
-            m_client.writeDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, value, code -> {
+        return writeDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, value, GattPriority.NORMAL);
+    }
+
+    public Single<Boolean> writeDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value, GattPriority priority) {
+        if (0 == m_interceptors.length) {
+            return writeDescriptor0(mac, serviceUUID, characterUUID, descriptorUUID, value, priority);
+        }
+        return intercept(new GattRequest.Builder(GattOperation.WRITE_DESCRIPTOR, mac, serviceUUID, characterUUID).setDescriptorUUID(descriptorUUID).setValue(value).setPriority(priority).build())
+                .singleOrError().map(bytes -> true);
+    }
+
+    private Single<Boolean> writeDescriptor0(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value, GattPriority priority) {
+        return m_scheduler.schedule(mac, priority, Single.<Boolean>create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.writeDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, value, code -> {
                 if (code == REQUEST_SUCCESS) {
+                    m_metrics.recordLatency(GattOperation.WRITE_DESCRIPTOR, mac, characterUUID, System.nanoTime() - start);
+                    onTraffic(mac);
                     emitter.onSuccess(true);
                 } else {
+                    m_metrics.recordError(GattOperation.WRITE_DESCRIPTOR, mac, characterUUID, code);
                     @SuppressLint("DefaultLocale")
                     String msg = String.format("writeDescriptor %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
                     emitter.onError(new BluetoothException(msg));
                 }
 
             });
-        });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_WRITE)));
     }
 
     public Observable<byte[]> indicate(String mac, UUID serviceUUID, UUID characterUUID) {
-        return Observable.<byte[]>create(emitter -> m_client.indicate(mac, serviceUUID, characterUUID, new BleNotifyResponse() {
-            @Override
-            public void onNotify(final UUID service, final UUID character, final byte[] value) {
-                if (service.equals(serviceUUID) && character.equals(characterUUID)) {
-                    emitter.onNext(value);
+        return indicate(mac, serviceUUID, characterUUID, GattPriority.NORMAL);
+    }
+
+    public Observable<byte[]> indicate(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority) {
+        return m_notificationHub.share(mac, serviceUUID, characterUUID, true, () -> 0 == m_interceptors.length
+                ? indicate0(mac, serviceUUID, characterUUID, priority, () -> m_notificationHub.ready(mac, serviceUUID, characterUUID, true))
+                : intercept(new GattRequest.Builder(GattOperation.INDICATE, mac, serviceUUID, characterUUID).setPriority(priority).build()));
+    }
+
+    /**
+     * 带背压的指示，见{@link #notifyFlowable(String, UUID, UUID, NotifyBackpressure)}
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param backpressure
+     * @return
+     */
+    public Flowable<byte[]> indicateFlowable(String mac, UUID serviceUUID, UUID characterUUID, NotifyBackpressure backpressure) {
+        return backpressure.apply(indicate(mac, serviceUUID, characterUUID));
+    }
+
+    private Observable<byte[]> indicate0(String mac, UUID serviceUUID, UUID characterUUID, GattPriority priority, Runnable ready) {
+        return Observable.<byte[]>create(emitter -> emitter.setDisposable(m_scheduler.schedule(mac, priority, Single.<Boolean>create(setup -> {
+            final long start = System.nanoTime();
+            m_transport.indicate(mac, serviceUUID, characterUUID, new BleNotifyResponse() {
+                @Override
+                public void onNotify(final UUID service, final UUID character, final byte[] value) {
+                    if (service.equals(serviceUUID) && character.equals(characterUUID)) {
+                        m_metrics.recordNotification(mac, characterUUID, value.length);
+                        onTraffic(mac);
+                        emitter.onNext(value);
+                    }
                 }
-            }
 
-            @Override
-            public void onResponse(final int code) {
-                if (code != REQUEST_SUCCESS) {
-                    @SuppressLint("DefaultLocale")
-                    String msg = String.format("indicate %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
-                    emitter.onError(new BluetoothException(msg));
+                @Override
+                public void onResponse(final int code) {
+                    if (code == REQUEST_SUCCESS) {
+                        m_metrics.recordLatency(GattOperation.INDICATE, mac, characterUUID, System.nanoTime() - start);
+                        ready.run();
+                        setup.onSuccess(true);
+                    } else {
+                        m_metrics.recordError(GattOperation.INDICATE, mac, characterUUID, code);
+                        @SuppressLint("DefaultLocale")
+                        String msg = String.format("indicate %s @ %s : %s error = %d", mac, serviceUUID.toString(), characterUUID.toString(), code);
+                        setup.onError(new BluetoothException(msg));
+                    }
                 }
-            }
-        })).doFinally(() -> m_client.unindicate(mac, serviceUUID, characterUUID, code -> {
+            });
+        }).doOnDispose(() -> cancelRequest(mac, REQUEST_NOTIFY))).subscribe(aBoolean -> {
+        }, emitter::tryOnError))).doFinally(() -> m_scheduler.schedule(mac, priority, Single.<Integer>create(emitter -> m_transport.unindicate(mac, serviceUUID, characterUUID, code -> {
             Logger.w("unindicate %s %b", mac, code == REQUEST_SUCCESS);
-        }));
+            emitter.onSuccess(code);
+        }))).subscribe(code -> {
+        }, throwable -> Logger.w("unindicate %s : %s", mac, throwable.toString())));
     }
 
 
@@ -252,15 +805,50 @@ public abstract class BaseRxBluetooth {
      * @return
      */
     public Single<Float> readRssi(String mac) {
-        return Single.create(emitter -> m_client.readRssi(mac, (code, data) -> emitter.onSuccess(code == REQUEST_SUCCESS ? data.floatValue() : Float.NaN)));
+        return readRssi(mac, GattPriority.NORMAL);
+    }
+
+    /**
+     * 读取ble设备信号强度，和读写一样经过调度器排队，超时或没有读到返回 {@link Float#NaN}
+     *
+     * @param mac
+     * @param priority
+     * @return
+     */
+    public Single<Float> readRssi(String mac, GattPriority priority) {
+        return m_scheduler.schedule(mac, priority, Single.<Float>create(emitter -> m_transport.readRssi(mac, (code, data) -> emitter.onSuccess(code == REQUEST_SUCCESS ? data.floatValue() : Float.NaN)))
+                .doOnDispose(() -> cancelRequest(mac, REQUEST_RSSI)))
+                .onErrorReturnItem(Float.NaN);
+    }
+
+    /**
+     * 设备{@code mac}读写成功或收到通知时回调，用于记录最后通信时间
+     *
+     * @param mac
+     */
+    protected void onTraffic(String mac) {
+    }
+
+    /**
+     * 执行中的操作被取消(dispose或超时)时，把{@code type}类型的请求从蓝牙库的请求队列中移除，避免迟到的回调占用队列<br>
+     * 只有该设备没有其它执行中的操作时才清除，否则会误删其它订阅者的请求
+     *
+     * @param mac
+     * @param type
+     */
+    private void cancelRequest(String mac, int type) {
+        if (m_scheduler.getInFlight(mac) <= 1) {
+            Logger.i("cancelRequest %s type = %d", mac, type);
+            clearRequest(mac, type);
+        }
     }
 
     protected void clearRequest(String mac, int type) {
-        m_client.clearRequest(mac, type);
+        m_transport.clearRequest(mac, type);
     }
 
     protected void refreshCache(String mac) {
-        m_client.refreshCache(mac);
+        m_transport.refreshCache(mac);
     }
 
     /**
@@ -268,19 +856,22 @@ public abstract class BaseRxBluetooth {
      *
      * @param mac
      * @param options
-     * @return
+     * @return 服务发现的结果
      */
     @SuppressLint("DefaultLocale")
-    protected Single<Pair<BluetoothStatus, BleGattProfile>> connect0(String mac, BleConnectOptions options) {
-        return Single.<Pair<BluetoothStatus, BleGattProfile>>create(emitter -> {
-            m_client.connect(mac, options, (code, data) -> {
+    protected Single<BleGattProfile> connect0(String mac, BleConnectOptions options) {
+        return Single.<BleGattProfile>create(emitter -> {
+            final long start = System.nanoTime();
+            m_transport.connect(mac, options, (code, data) -> {
                 if (code == REQUEST_SUCCESS) {
-                    emitter.onSuccess(Pair.create(BluetoothStatus.CONNECTED, data));
+                    m_metrics.recordLatency(GattOperation.CONNECT, mac, null, System.nanoTime() - start);
+                    emitter.onSuccess(data);
                 } else {
+                    m_metrics.recordError(GattOperation.CONNECT, mac, null, code);
                     emitter.onError(new BluetoothException(String.format("connect code = %d", code)));
                 }
             });
-        }).subscribeOn(AndroidSchedulers.mainThread());
+        });
     }
 
     /**
@@ -291,31 +882,164 @@ public abstract class BaseRxBluetooth {
      */
     protected Single<BluetoothStatus> disconnect0(String mac) {
         Logger.i("disconnect0 准备断开蓝牙%s", mac);
-        final BleConnectStatusListener[] listeners = new BleConnectStatusListener[1];
+        final BluetoothTransport.OnConnectStatusChangedListener[] listeners = new BluetoothTransport.OnConnectStatusChangedListener[1];
         return Single.
                 <BluetoothStatus>create(emitter -> {
-                    /*BleConnectStatusListener 构造函数中需要looper*/
-                    Looper looper = Looper.myLooper();
-                    if (looper == null) {
-                        Looper.prepare();
-                    }
-                    listeners[0] = new BleConnectStatusListener() {
-                        @Override
-                        public void onConnectStatusChanged(final String address, final int status) {
-                            Logger.i("disconnect0 接收到断开蓝牙%s, 状态%d", address, status);
-                            if (address.equals(mac) && !emitter.isDisposed()) {
-                                emitter.onSuccess(BluetoothStatus.valueOf(status));
-                            }
+                    listeners[0] = (address, status) -> {
+                        Logger.i("disconnect0 接收到断开蓝牙%s, 状态%d", address, status);
+                        //忽略断开前迟到的连接回调
+                        if (address.equals(mac) && BluetoothStatus.DISCONNECTED == BluetoothStatus.valueOf(status) && !emitter.isDisposed()) {
+                            emitter.onSuccess(BluetoothStatus.DISCONNECTED);
                         }
                     };
-                    m_client.registerConnectStatusListener(mac, listeners[0]);
-                    m_client.disconnect(mac);
+                    m_transport.registerConnectStatusListener(mac, listeners[0]);
+                    m_transport.disconnect(mac);
                     Logger.i("disconnect0 准备断开蓝牙%s", mac);
                 })
-                .doFinally(() -> m_client.unregisterConnectStatusListener(mac, listeners[0]));
+                .doFinally(() -> m_transport.unregisterConnectStatusListener(mac, listeners[0]));
+    }
+
+    private Observable<byte[]> intercept(GattRequest request) {
+        final GattInterceptor[] interceptors = m_interceptors;
+        return Observable.defer(() -> new InterceptorChain(interceptors, 0, request, request).proceed(request));
     }
 
-    private void stopSearch() {
-        m_client.stopSearch();
+    /**
+     * 责任链最后一环，执行真正的蓝牙操作
+     *
+     * @param request
+     * @param origin  拦截器修改之前的请求，通知打开后按它在{@link NotificationHub}中的key通知等待的命令
+     * @return
+     */
+    private Observable<byte[]> execute(GattRequest request, GattRequest origin) {
+        String mac = request.getMac();
+        UUID serviceUUID = request.getServiceUUID();
+        UUID characterUUID = request.getCharacterUUID();
+        GattPriority priority = request.getPriority();
+        switch (request.getOperation()) {
+            case READ:
+                return read0(mac, serviceUUID, characterUUID, priority).toObservable();
+            case WRITE:
+                return write0(mac, serviceUUID, characterUUID, request.getValue(), priority).map(aBoolean -> request.getValue()).toObservable();
+            case WRITE_NO_RSP:
+                return writeNoRsp0(mac, serviceUUID, characterUUID, request.getValue(), priority).map(aBoolean -> request.getValue()).toObservable();
+            case READ_DESCRIPTOR:
+                return readDescriptor0(mac, serviceUUID, characterUUID, request.getDescriptorUUID(), priority).toObservable();
+            case WRITE_DESCRIPTOR:
+                return writeDescriptor0(mac, serviceUUID, characterUUID, request.getDescriptorUUID(), request.getValue(), priority).map(aBoolean -> request.getValue()).toObservable();
+            case NOTIFY:
+                return notify0(mac, serviceUUID, characterUUID, priority, () -> m_notificationHub.ready(origin.getMac(), origin.getServiceUUID(), origin.getCharacterUUID(), false));
+            case INDICATE:
+                return indicate0(mac, serviceUUID, characterUUID, priority, () -> m_notificationHub.ready(origin.getMac(), origin.getServiceUUID(), origin.getCharacterUUID(), true));
+            default:
+                return Observable.error(new BluetoothException("unsupported operation " + request.getOperation()));
+        }
+    }
+
+    private final class InterceptorChain implements GattInterceptor.Chain {
+        private final GattInterceptor[] m_chain;
+        private final int m_index;
+        private final GattRequest m_request;
+        private final GattRequest m_origin;
+
+        InterceptorChain(GattInterceptor[] chain, int index, GattRequest request, GattRequest origin) {
+            m_chain = chain;
+            m_index = index;
+            m_request = request;
+            m_origin = origin;
+        }
+
+        @Override
+        public GattRequest request() {
+            return m_request;
+        }
+
+        @Override
+        public Observable<byte[]> proceed(GattRequest request) {
+            if (m_index >= m_chain.length) {
+                return execute(request, m_origin);
+            }
+            return m_chain[m_index].intercept(new InterceptorChain(m_chain, m_index + 1, request, m_origin));
+        }
+    }
+
+    /**
+     * 没有进行中的扫描时用{@code request}开始扫描，否则加入进行中的扫描，{@code emitter}结束时退出
+     *
+     * @param request
+     * @param emitter
+     * @param response
+     */
+    private void joinSearch(SearchRequest request, ObservableEmitter<?> emitter, SearchResponse response) {
+        final SharedSearch search;
+        synchronized (m_searchLock) {
+            boolean start = null == m_search;
+            if (start) {
+                m_search = new SharedSearch();
+            }
+            search = m_search;
+            search.m_responses.add(response);
+            if (start) {
+                m_transport.search(request, search);
+            }
+        }
+        emitter.setCancellable(() -> leaveSearch(search, response));
+    }
+
+    /**
+     * 最后一个搜索退出时停止扫描
+     *
+     * @param search
+     * @param response
+     */
+    private void leaveSearch(SharedSearch search, SearchResponse response) {
+        synchronized (m_searchLock) {
+            search.m_responses.remove(response);
+            if (search.m_responses.isEmpty() && m_search == search) {
+                m_search = null;
+                m_transport.stopSearch();
+            }
+        }
+    }
+
+    /**
+     * 一次底层扫描，把回调分发给所有加入的搜索，每次开始扫描都创建新的实例，上一次扫描迟到的回调不会结束新的搜索
+     */
+    private final class SharedSearch implements SearchResponse {
+        private final List<SearchResponse> m_responses = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onSearchStarted() {
+        }
+
+        @Override
+        public void onDeviceFounded(SearchResult device) {
+            for (SearchResponse response : m_responses) {
+                response.onDeviceFounded(device);
+            }
+        }
+
+        @Override
+        public void onSearchStopped() {
+            for (SearchResponse response : finish()) {
+                response.onSearchStopped();
+            }
+        }
+
+        @Override
+        public void onSearchCanceled() {
+            for (SearchResponse response : finish()) {
+                response.onSearchCanceled();
+            }
+        }
+
+        private List<SearchResponse> finish() {
+            synchronized (m_searchLock) {
+                if (m_search == this) {
+                    m_search = null;
+                }
+            }
+            return new ArrayList<>(m_responses);
+        }
     }
 }
@@ -3,10 +3,16 @@ package com.jack.rx.bluetooth;
 
 import com.inuker.bluetooth.library.model.BleGattProfile;
 import com.inuker.bluetooth.library.model.BleGattService;
+import com.jack.rx.bluetooth.transfer.ReliableTransfer;
+import com.jack.rx.bluetooth.transfer.TransferProgress;
+import com.jack.rx.bluetooth.transfer.TransferSession;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.ObservableTransformer;
 import io.reactivex.Single;
@@ -61,16 +67,166 @@ public abstract class BluetoothHolder {
         return this.m_rxBluetooth.write(m_mac, serviceUUID, characterUUID, value);
     }
 
+    public Single<Boolean> write(UUID serviceUUID, UUID characterUUID, byte[] value, GattPriority priority) {
+        return this.m_rxBluetooth.write(m_mac, serviceUUID, characterUUID, value, priority);
+    }
+
+    /**
+     * 批量写入，见{@link BaseRxBluetooth#bulkWrite(String, UUID, UUID, byte[], int)}
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @param payload
+     * @return
+     */
+    public Flowable<BulkWriteProgress> bulkWrite(UUID serviceUUID, UUID characterUUID, byte[] payload) {
+        return this.m_rxBluetooth.bulkWrite(m_mac, serviceUUID, characterUUID, payload);
+    }
+
+    /**
+     * 按当前MTU创建可靠传输会话，断线重连后继续传输时复用这个会话
+     *
+     * @param payload
+     * @return
+     */
+    public TransferSession newTransferSession(byte[] payload) {
+        return TransferSession.forFrameLength(payload, m_rxBluetooth.getMtu(m_mac) - BaseRxBluetooth.ATT_HEADER_LEN);
+    }
+
+    /**
+     * 可靠传输，见{@link BaseRxBluetooth#transfer(String, UUID, UUID, UUID, TransferSession, int)}
+     *
+     * @param serviceUUID
+     * @param dataCharacterUUID
+     * @param ackCharacterUUID
+     * @param session
+     * @return
+     */
+    public Flowable<TransferProgress> transfer(UUID serviceUUID, UUID dataCharacterUUID, UUID ackCharacterUUID, TransferSession session) {
+        return this.m_rxBluetooth.transfer(m_mac, serviceUUID, dataCharacterUUID, ackCharacterUUID, session, ReliableTransfer.DEFAULT_WINDOW);
+    }
+
+    /**
+     * 通知数据在{@link DecodeExecutor}中本设备的串行线程上经过{@link #notifyTransformer(UUID, UUID)}解码，不占用蓝牙回调线程
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @param <T>
+     * @return
+     */
     public <T> Observable<T> notify(UUID serviceUUID, UUID characterUUID) {
         return this.m_rxBluetooth.notify(m_mac, serviceUUID, characterUUID)
+                .observeOn(m_rxBluetooth.getDecodeExecutor().scheduler(m_mac))
                 .compose(notifyTransformer(serviceUUID, characterUUID));
     }
 
+    /**
+     * 带背压的{@link #notify(UUID, UUID)}，解码前后都按{@code backpressure}限制缓冲:<br>
+     * 1, 解码线程处理不过来时，原始通知在交给解码线程之前缓冲或丢弃，交接队列最多{@link NotifyBackpressure#getCapacity()}个;<br>
+     * 2, 订阅者处理不过来时，缓冲或丢弃完整的解码结果;<br>
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @param backpressure
+     * @param <T>
+     * @return
+     */
+    public <T> Flowable<T> notifyFlowable(UUID serviceUUID, UUID characterUUID, NotifyBackpressure backpressure) {
+        return backpressure.apply(backpressure.apply(this.m_rxBluetooth.notify(m_mac, serviceUUID, characterUUID))
+                .observeOn(m_rxBluetooth.getDecodeExecutor().scheduler(m_mac), false, backpressure.getCapacity())
+                .toObservable()
+                .compose(this.<T>notifyTransformer(serviceUUID, characterUUID)));
+    }
+
+    /**
+     * 批量接收通知，见{@link BaseRxBluetooth#notifyBatched(String, UUID, UUID, int, long, TimeUnit)}，在本设备的串行解码线程上发出
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @param maxFrames
+     * @param window
+     * @param unit
+     * @return
+     */
+    public Observable<FrameBatch> notifyBatched(UUID serviceUUID, UUID characterUUID, int maxFrames, long window, TimeUnit unit) {
+        return this.m_rxBluetooth.notifyBatched(m_mac, serviceUUID, characterUUID, maxFrames, window, unit)
+                .observeOn(m_rxBluetooth.getDecodeExecutor().scheduler(m_mac));
+    }
+
+    /**
+     * 以{@link Frame}的形式接收通知，见{@link BaseRxBluetooth#notifyFrames(String, UUID, UUID, FramePool)}<br>
+     * 与{@link #notify(UUID, UUID)}一样在本设备的串行解码线程上发出
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @param pool
+     * @return
+     */
+    public Observable<Frame> notifyFrames(UUID serviceUUID, UUID characterUUID, FramePool pool) {
+        return this.m_rxBluetooth.notifyFrames(m_mac, serviceUUID, characterUUID, pool)
+                .observeOn(m_rxBluetooth.getDecodeExecutor().scheduler(m_mac));
+    }
+
+    /**
+     * 先打开应答通知再写命令，返回第一个被{@code correlator}匹配的应答，超时以{@link java.util.concurrent.TimeoutException}结束<br>
+     * 命令在通知打开成功后才写入，见{@link BaseRxBluetooth#notifyThen(String, UUID, UUID, GattPriority, io.reactivex.Completable)}，不会漏掉应答
+     *
+     * @param transaction
+     * @param correlator
+     * @param <R>
+     * @return
+     */
+    public <R> Single<R> transact(Transaction transaction, ResponseCorrelator<R> correlator) {
+        return armed(transaction)
+                .concatMapMaybe(value -> Maybe.fromCallable(() -> correlator.match(value)))
+                .firstOrError()
+                .timeout(transaction.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 与{@link #transact(Transaction, ResponseCorrelator)}相同，但发出命令后的所有通知，适用于一条命令对应连续数据的协议，
+     * 只有第一个通知受超时限制
+     *
+     * @param transaction
+     * @return
+     */
+    public Observable<byte[]> stream(Transaction transaction) {
+        return firstTimeout(armed(transaction), transaction);
+    }
+
+    /**
+     * 以{@link Frame}的形式接收{@link #stream(Transaction)}，见{@link #notifyFrames(UUID, UUID, FramePool)}
+     *
+     * @param transaction
+     * @param pool
+     * @return
+     */
+    public Observable<Frame> streamFrames(Transaction transaction, FramePool pool) {
+        return firstTimeout(armed(transaction).map(pool::acquire), transaction);
+    }
+
     public <T> Single<T> read(UUID serviceUUID, UUID characterUUID) {
         return this.m_rxBluetooth.read(m_mac, serviceUUID, characterUUID)
                 .compose(readTransformer(serviceUUID, characterUUID));
     }
 
+    /**
+     * 应答通知打开后再写命令，应答在本设备的串行解码线程上发出
+     *
+     * @param transaction
+     * @return
+     */
+    private Observable<byte[]> armed(Transaction transaction) {
+        return m_rxBluetooth.notifyThen(m_mac, transaction.getResponseService(), transaction.getResponseCharacter(), transaction.getPriority(),
+                m_rxBluetooth.write(m_mac, transaction.getCommandService(), transaction.getCommandCharacter(), transaction.getCommand(), transaction.getPriority())
+                        .ignoreElement())
+                .observeOn(m_rxBluetooth.getDecodeExecutor().scheduler(m_mac));
+    }
+
+    private static <T> Observable<T> firstTimeout(Observable<T> source, Transaction transaction) {
+        return source.timeout(Observable.timer(transaction.getTimeoutMillis(), TimeUnit.MILLISECONDS), item -> Observable.never());
+    }
+
     /**
      * {@link BaseRxBluetooth#notify(String, UUID, UUID)} 接口返回的数据转成所需的类型
      *
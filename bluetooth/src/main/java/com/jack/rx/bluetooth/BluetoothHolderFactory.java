@@ -20,4 +20,13 @@ public interface BluetoothHolderFactory {
      * @return
      */
     Single<? extends BluetoothHolder> create(String mac, BleGattProfile bleGattProfile);
+
+    /**
+     * 该工厂创建的设备断线后使用的重连策略，返回null时使用{@link RxBluetooth#setReconnectPolicy(ReconnectPolicy)}
+     *
+     * @return
+     */
+    default ReconnectPolicy getReconnectPolicy() {
+        return null;
+    }
 }
@@ -36,35 +36,53 @@ public final class BluetoothInfo {
     }
 
 
+    @Override
+    public String toString() {
+        return "BluetoothInfo{" +
+                "mac='" + (null == m_bluetoothHolder ? null : m_bluetoothHolder.getMac()) + '\'' +
+                ", status=" + m_bluetoothStatus +
+                ", power=" + m_power +
+                ", rssi=" + m_rssi +
+                '}';
+    }
+
     public static class Builder {
-        private BluetoothInfo m_info;
+        private float m_power = Float.NaN;
+        private float m_rssi = Float.NaN;
+        private BluetoothStatus m_bluetoothStatus = BluetoothStatus.UNKNOWN;
+        private BluetoothHolder m_bluetoothHolder;
 
         public Builder() {
 
         }
 
         public Builder setPower(final float power) {
-            m_info.m_power = power;
+            m_power = power;
             return this;
         }
 
         public Builder setBluetoothHolder(final BluetoothHolder bluetoothHolder) {
-            m_info.m_bluetoothHolder = bluetoothHolder;
+            m_bluetoothHolder = bluetoothHolder;
             return this;
         }
 
         public Builder setBluetoothStatus(final BluetoothStatus bluetoothStatus) {
-            m_info.m_bluetoothStatus = bluetoothStatus;
+            m_bluetoothStatus = bluetoothStatus;
             return this;
         }
 
         public Builder setRssi(final float rssi) {
-            m_info.m_rssi = rssi;
+            m_rssi = rssi;
             return this;
         }
 
         public BluetoothInfo build() {
-            return m_info;
+            BluetoothInfo info = new BluetoothInfo();
+            info.m_power = m_power;
+            info.m_rssi = m_rssi;
+            info.m_bluetoothStatus = m_bluetoothStatus;
+            info.m_bluetoothHolder = m_bluetoothHolder;
+            return info;
         }
     }
 }
@@ -0,0 +1,84 @@
+package com.jack.rx.bluetooth;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 批量写入进度，由{@link BaseRxBluetooth#bulkWrite(String, java.util.UUID, java.util.UUID, byte[])}每写完一帧发出一次
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class BulkWriteProgress {
+    private final long m_bytesWritten;
+    private final long m_totalBytes;
+    private final int m_frames;
+    private final int m_frameSize;
+    private final long m_elapsedNanos;
+
+    BulkWriteProgress(long bytesWritten, long totalBytes, int frames, int frameSize, long elapsedNanos) {
+        m_bytesWritten = bytesWritten;
+        m_totalBytes = totalBytes;
+        m_frames = frames;
+        m_frameSize = frameSize;
+        m_elapsedNanos = elapsedNanos;
+    }
+
+    public long getBytesWritten() {
+        return m_bytesWritten;
+    }
+
+    /**
+     * 总字节数，写入{@link io.reactivex.Flowable}时未知，返回-1
+     *
+     * @return
+     */
+    public long getTotalBytes() {
+        return m_totalBytes;
+    }
+
+    public int getFrames() {
+        return m_frames;
+    }
+
+    /**
+     * 按协商MTU计算的单帧最大长度
+     *
+     * @return
+     */
+    public int getFrameSize() {
+        return m_frameSize;
+    }
+
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(m_elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 平均吞吐量，字节/秒
+     *
+     * @return
+     */
+    public float getThroughput() {
+        return m_elapsedNanos <= 0 ? 0.0f : m_bytesWritten * 1e9f / m_elapsedNanos;
+    }
+
+    /**
+     * 完成百分比 [0, 1]，总字节数未知时返回{@link Float#NaN}
+     *
+     * @return
+     */
+    public float getFraction() {
+        return m_totalBytes < 0 ? Float.NaN : (0 == m_totalBytes ? 1.0f : (float) m_bytesWritten / m_totalBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkWriteProgress{" +
+                "bytesWritten=" + m_bytesWritten +
+                ", totalBytes=" + m_totalBytes +
+                ", frames=" + m_frames +
+                ", frameSize=" + m_frameSize +
+                ", throughput=" + getThroughput() +
+                '}';
+    }
+}
@@ -0,0 +1,277 @@
+package com.jack.rx.bluetooth;
+
+import com.orhanobut.logger.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.CompletableEmitter;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * 描述: 连接槽位管理，限制同时连接的设备数量<br>
+ * 1, 已占用槽位数小于{@link #m_maxSlots}时直接分配;<br>
+ * 2, 否则按最后通信时间淘汰空闲超过{@link #m_idleMillis}的设备(LRU)，淘汰完成后分配，还在连接中的设备不会被淘汰;<br>
+ * 3, 没有可淘汰的设备时按{@link GattPriority}排队等待，同优先级先到先得;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ConnectionSlotManager {
+    /**
+     * android协议栈同时连接超过7个设备后容易出现连接超时
+     */
+    public static final int DEFAULT_MAX_SLOTS = 7;
+    public static final long DEFAULT_IDLE_MILLIS = 30_000;
+
+    private final Evictor m_evictor;
+    private final Map<String, Slot> m_slots = new HashMap<>(8);
+    private final PriorityQueue<Waiter> m_waiters = new PriorityQueue<>();
+    private volatile int m_maxSlots = DEFAULT_MAX_SLOTS;
+    private volatile long m_idleMillis = DEFAULT_IDLE_MILLIS;
+    private long m_sequence = 0;
+    private Disposable m_retryEvict;
+
+    ConnectionSlotManager(Evictor evictor) {
+        m_evictor = evictor;
+    }
+
+    public void setMaxSlots(int maxSlots) {
+        if (maxSlots <= 0) {
+            throw new IllegalArgumentException("maxSlots = " + maxSlots);
+        }
+        m_maxSlots = maxSlots;
+        grant();
+    }
+
+    public int getMaxSlots() {
+        return m_maxSlots;
+    }
+
+    /**
+     * 最后通信时间超过{@code idle}的设备才会被淘汰
+     *
+     * @param idle
+     * @param unit
+     */
+    public void setIdleTimeout(long idle, TimeUnit unit) {
+        m_idleMillis = unit.toMillis(idle);
+    }
+
+    public synchronized int getUsedSlots() {
+        return m_slots.size();
+    }
+
+    public synchronized int getWaiting() {
+        return m_waiters.size();
+    }
+
+    /**
+     * 设备{@code mac}最后一次通信的时间，没有占用槽位时返回0
+     *
+     * @param mac
+     * @return {@link System#currentTimeMillis()}
+     */
+    public synchronized long getLastTraffic(String mac) {
+        Slot slot = m_slots.get(mac);
+        return null == slot ? 0 : slot.m_lastTraffic;
+    }
+
+    /**
+     * 为{@code mac}申请一个槽位，已占用槽位的设备直接完成
+     *
+     * @param mac
+     * @param priority
+     * @return
+     */
+    Completable acquire(String mac, GattPriority priority) {
+        return Completable.create(emitter -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (m_slots.containsKey(mac)) {
+                    emitter.onComplete();
+                    return;
+                }
+                if (m_waiters.isEmpty() && m_slots.size() < m_maxSlots) {
+                    m_slots.put(mac, new Slot());
+                    emitter.onComplete();
+                    return;
+                }
+                waiter = new Waiter(mac, priority, m_sequence++, emitter);
+                m_waiters.offer(waiter);
+            }
+            emitter.setCancellable(() -> {
+                synchronized (ConnectionSlotManager.this) {
+                    m_waiters.remove(waiter);
+                }
+            });
+            Logger.i("ConnectionSlotManager %s 等待连接槽位, 排队%d", mac, getWaiting());
+            evictIdle();
+        });
+    }
+
+    /**
+     * 释放{@code mac}占用的槽位，并分配给等待的设备
+     *
+     * @param mac
+     */
+    void release(String mac) {
+        synchronized (this) {
+            if (null == m_slots.remove(mac)) {
+                return;
+            }
+        }
+        grant();
+    }
+
+    /**
+     * 设备{@code mac}连接成功，之后才参与空闲淘汰，空闲时间从此刻开始计算
+     *
+     * @param mac
+     */
+    void connected(String mac) {
+        synchronized (this) {
+            Slot slot = m_slots.get(mac);
+            if (null == slot) {
+                return;
+            }
+            slot.m_connecting = false;
+            slot.m_lastTraffic = System.currentTimeMillis();
+        }
+        evictIdle();
+    }
+
+    /**
+     * 记录设备{@code mac}的通信时间
+     *
+     * @param mac
+     */
+    void touch(String mac) {
+        Slot slot;
+        synchronized (this) {
+            slot = m_slots.get(mac);
+        }
+        if (null != slot) {
+            slot.m_lastTraffic = System.currentTimeMillis();
+        }
+    }
+
+    private void grant() {
+        List<Waiter> granted = null;
+        synchronized (this) {
+            while (!m_waiters.isEmpty() && m_slots.size() < m_maxSlots) {
+                Waiter waiter = m_waiters.poll();
+                if (waiter.m_emitter.isDisposed()) {
+                    continue;
+                }
+                m_slots.put(waiter.m_mac, new Slot());
+                if (null == granted) {
+                    granted = new ArrayList<>(2);
+                }
+                granted.add(waiter);
+            }
+        }
+        if (null != granted) {
+            for (Waiter waiter : granted) {
+                waiter.m_emitter.onComplete();
+            }
+        }
+        evictIdle();
+    }
+
+    /**
+     * 有设备在等待时，淘汰最久没有通信且已经空闲的设备；没有可淘汰的设备时，等最早空闲的设备到期后重试
+     */
+    private void evictIdle() {
+        String victim = null;
+        synchronized (this) {
+            int evicting = 0;
+            for (Slot slot : m_slots.values()) {
+                if (slot.m_evicting) {
+                    ++evicting;
+                }
+            }
+            if (m_waiters.size() <= evicting) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long oldest = Long.MAX_VALUE;
+            Iterator<Map.Entry<String, Slot>> iterator = m_slots.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Slot> entry = iterator.next();
+                Slot slot = entry.getValue();
+                //连接耗时可能超过空闲时间，此时淘汰只会释放槽位而不会中断连接
+                if (!slot.m_evicting && !slot.m_connecting && slot.m_lastTraffic < oldest) {
+                    oldest = slot.m_lastTraffic;
+                    victim = entry.getKey();
+                }
+            }
+            if (null == victim) {
+                return;
+            }
+            if (now - oldest >= m_idleMillis) {
+                m_slots.get(victim).m_evicting = true;
+            } else {
+                victim = null;
+                if (null != m_retryEvict) {
+                    m_retryEvict.dispose();
+                }
+                m_retryEvict = Completable.timer(m_idleMillis - (now - oldest), TimeUnit.MILLISECONDS, Schedulers.computation())
+                        .subscribe(this::evictIdle);
+            }
+        }
+        if (null != victim) {
+            final String mac = victim;
+            Logger.i("ConnectionSlotManager 淘汰空闲设备%s", mac);
+            m_evictor.evict(mac).subscribe(() -> release(mac), throwable -> {
+                Logger.e("ConnectionSlotManager 淘汰%s失败 : %s", mac, throwable.getMessage());
+                synchronized (ConnectionSlotManager.this) {
+                    Slot slot = m_slots.get(mac);
+                    if (null != slot) {
+                        slot.m_evicting = false;
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 淘汰设备，一般为断开连接
+     */
+    interface Evictor {
+        Completable evict(String mac);
+    }
+
+    private static final class Slot {
+        private volatile long m_lastTraffic = System.currentTimeMillis();
+        private boolean m_evicting = false;
+        private boolean m_connecting = true;
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final String m_mac;
+        private final GattPriority m_priority;
+        private final long m_sequence;
+        private final CompletableEmitter m_emitter;
+
+        Waiter(String mac, GattPriority priority, long sequence, CompletableEmitter emitter) {
+            m_mac = mac;
+            m_priority = priority;
+            m_sequence = sequence;
+            m_emitter = emitter;
+        }
+
+        @Override
+        public int compareTo(Waiter o) {
+            int result = m_priority.compareTo(o.m_priority);
+            return 0 != result ? result : Long.compare(m_sequence, o.m_sequence);
+        }
+    }
+}
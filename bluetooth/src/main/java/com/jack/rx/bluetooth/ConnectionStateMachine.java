@@ -0,0 +1,113 @@
+package com.jack.rx.bluetooth;
+
+import com.orhanobut.logger.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.functions.Function;
+
+/**
+ * 描述: 按设备(mac)维护的连接状态机<br>
+ * 1, 状态由连接状态监听、连接/断开的结果驱动，第一次切换或订阅时用{@link BaseRxBluetooth#getConnectStatus(String)}初始化;<br>
+ * 2, 每个设备的当前状态保存在{@link StatusDispatcher}的通道中，订阅时立刻得到当前状态，不需要等待或轮询;<br>
+ * 3, {@link #awaitSettled(String, long, TimeUnit)}在{@link BluetoothStatus#CONNECTING}/{@link BluetoothStatus#DISCONNECTING}时等待稳定状态;<br>
+ * 4, 设备释放后通道被删除，订阅者转到重新创建的通道，只查询状态时不创建通道;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class ConnectionStateMachine {
+    private final StatusDispatcher m_dispatcher;
+    private final Function<String, BluetoothStatus> m_probe;
+
+    ConnectionStateMachine(StatusDispatcher dispatcher, Function<String, BluetoothStatus> probe) {
+        m_dispatcher = dispatcher;
+        m_probe = probe;
+    }
+
+    /**
+     * 设备{@code mac}的当前状态
+     *
+     * @param mac
+     * @return
+     */
+    BluetoothStatus getState(String mac) {
+        StatusDispatcher.Channel channel = m_dispatcher.find(mac);
+        return null == channel ? probe(mac) : channel.getStatus();
+    }
+
+    /**
+     * 切换设备{@code mac}的状态，状态没有变化时不发出
+     *
+     * @param mac
+     * @param status
+     * @return 切换前的状态
+     */
+    BluetoothStatus transition(String mac, BluetoothStatus status) {
+        BluetoothStatus previous;
+        //通道刚好被删除时在新通道上切换
+        do {
+            previous = m_dispatcher.dispatch(channel(mac), status);
+        } while (null == previous);
+        if (previous == status) {
+            return previous;
+        }
+        Logger.i("ConnectionStateMachine %s : %s -> %s", mac, previous, status);
+        return previous;
+    }
+
+    /**
+     * 订阅设备{@code mac}的状态，立刻发出当前状态，通道被删除后继续订阅新的通道
+     *
+     * @param mac
+     * @return
+     */
+    Observable<BluetoothStatus> observe(String mac) {
+        return Observable.defer(() -> channel(mac).observe())
+                .repeat()
+                .distinctUntilChanged();
+    }
+
+    /**
+     * 设备{@code mac}释放后删除通道
+     *
+     * @param mac
+     */
+    void release(String mac) {
+        m_dispatcher.remove(mac);
+    }
+
+    /**
+     * 等待设备{@code mac}进入{@link BluetoothStatus#CONNECTED}或{@link BluetoothStatus#DISCONNECTED}，
+     * 当前已经是稳定状态时立刻返回，超时后返回{@link BaseRxBluetooth#getConnectStatus(String)}的结果
+     *
+     * @param mac
+     * @param timeout
+     * @param unit
+     * @return
+     */
+    Single<BluetoothStatus> awaitSettled(String mac, long timeout, TimeUnit unit) {
+        return observe(mac)
+                .filter(status -> BluetoothStatus.CONNECTED == status || BluetoothStatus.DISCONNECTED == status)
+                .firstOrError()
+                .timeout(timeout, unit, Single.fromCallable(() -> m_probe.apply(mac)));
+    }
+
+    private StatusDispatcher.Channel channel(String mac) {
+        StatusDispatcher.Channel channel = m_dispatcher.find(mac);
+        if (null != channel) {
+            return channel;
+        }
+        return m_dispatcher.channel(mac, probe(mac));
+    }
+
+    private BluetoothStatus probe(String mac) {
+        try {
+            return m_probe.apply(mac);
+        } catch (Exception e) {
+            return BluetoothStatus.UNKNOWN;
+        }
+    }
+}
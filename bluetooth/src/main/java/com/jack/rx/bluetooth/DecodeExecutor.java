@@ -0,0 +1,112 @@
+package com.jack.rx.bluetooth;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * 描述: 通知数据的解码线程<br>
+ * 1, 每个设备一个串行执行器，同一设备的数据按到达顺序解码;<br>
+ * 2, 所有设备共享一个大小为CPU核数的线程池，不同设备并行解码;<br>
+ * 3, 同一设备的任务串行执行，一个设备最多占用一个线程，解码慢的设备只会拖慢自己，
+ * 但慢设备数量达到线程数时其它设备也要等待;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class DecodeExecutor {
+    private final Executor m_pool;
+    private final ConcurrentMap<String, Scheduler> m_schedulers = new ConcurrentHashMap<>(8);
+
+    public DecodeExecutor() {
+        this(newPool(Runtime.getRuntime().availableProcessors()));
+    }
+
+    public DecodeExecutor(Executor pool) {
+        m_pool = pool;
+    }
+
+    /**
+     * 设备{@code mac}的串行解码{@link Scheduler}
+     *
+     * @param mac
+     * @return
+     */
+    public Scheduler scheduler(String mac) {
+        Scheduler scheduler = m_schedulers.get(mac);
+        if (null == scheduler) {
+            Scheduler created = Schedulers.from(new SerialExecutor(m_pool));
+            scheduler = m_schedulers.putIfAbsent(mac, created);
+            if (null == scheduler) {
+                scheduler = created;
+            }
+        }
+        return scheduler;
+    }
+
+    private static ExecutorService newPool(int threads) {
+        final AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "rx-bluetooth-decode-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * 在共享线程池上按提交顺序逐个执行
+     */
+    private static final class SerialExecutor implements Executor, Runnable {
+        private final Executor m_pool;
+        /**
+         * 由this锁保护
+         */
+        private final ArrayDeque<Runnable> m_tasks = new ArrayDeque<>();
+        private boolean m_scheduled = false;
+
+        SerialExecutor(Executor pool) {
+            m_pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            synchronized (this) {
+                m_tasks.offer(command);
+                if (m_scheduled) {
+                    return;
+                }
+                m_scheduled = true;
+            }
+            m_pool.execute(this);
+        }
+
+        /**
+         * observeOn把整个排空循环作为一个任务提交，在这里限制任务个数并不能限制占用线程的时间，所以执行到队列为空
+         */
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    task = m_tasks.poll();
+                    if (null == task) {
+                        m_scheduled = false;
+                        return;
+                    }
+                }
+                task.run();
+            }
+        }
+    }
+}
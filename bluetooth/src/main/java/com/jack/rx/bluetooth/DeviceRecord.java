@@ -0,0 +1,161 @@
+package com.jack.rx.bluetooth;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 描述: {@link DeviceRegistry}中保存的设备信息
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class DeviceRecord {
+    private final String m_mac;
+    private final String m_profileFingerprint;
+    private final String m_holderType;
+    private final String m_manufacturer;
+    private final String m_firmware;
+    private final long m_lastSeen;
+
+    private DeviceRecord(Builder builder) {
+        m_mac = builder.m_mac;
+        m_profileFingerprint = builder.m_profileFingerprint;
+        m_holderType = builder.m_holderType;
+        m_manufacturer = builder.m_manufacturer;
+        m_firmware = builder.m_firmware;
+        m_lastSeen = builder.m_lastSeen;
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    /**
+     * 服务发现得到的service/character布局摘要，见{@link DeviceRegistry#fingerprint(com.inuker.bluetooth.library.model.BleGattProfile)}
+     *
+     * @return
+     */
+    public String getProfileFingerprint() {
+        return m_profileFingerprint;
+    }
+
+    /**
+     * 解析出的{@link BluetoothHolder}类型，由{@link BluetoothHolderFactory}自行约定
+     *
+     * @return
+     */
+    public String getHolderType() {
+        return m_holderType;
+    }
+
+    public String getManufacturer() {
+        return m_manufacturer;
+    }
+
+    public String getFirmware() {
+        return m_firmware;
+    }
+
+    public long getLastSeen() {
+        return m_lastSeen;
+    }
+
+    public Builder newBuilder() {
+        return new Builder(m_mac)
+                .setProfileFingerprint(m_profileFingerprint)
+                .setHolderType(m_holderType)
+                .setManufacturer(m_manufacturer)
+                .setFirmware(m_firmware)
+                .setLastSeen(m_lastSeen);
+    }
+
+    /**
+     * 除{@link #getLastSeen()}以外的信息是否相同
+     *
+     * @param other
+     * @return
+     */
+    boolean sameInfo(DeviceRecord other) {
+        return m_mac.equals(other.m_mac)
+                && equals(m_profileFingerprint, other.m_profileFingerprint)
+                && equals(m_holderType, other.m_holderType)
+                && equals(m_manufacturer, other.m_manufacturer)
+                && equals(m_firmware, other.m_firmware);
+    }
+
+    private static boolean equals(String a, String b) {
+        return null == a ? null == b : a.equals(b);
+    }
+
+    JSONObject toJson() throws JSONException {
+        return new JSONObject()
+                .put("mac", m_mac)
+                .putOpt("profile", m_profileFingerprint)
+                .putOpt("holder", m_holderType)
+                .putOpt("manufacturer", m_manufacturer)
+                .putOpt("firmware", m_firmware)
+                .put("lastSeen", m_lastSeen);
+    }
+
+    static DeviceRecord fromJson(JSONObject json) throws JSONException {
+        return new Builder(json.getString("mac"))
+                .setProfileFingerprint(json.optString("profile", null))
+                .setHolderType(json.optString("holder", null))
+                .setManufacturer(json.optString("manufacturer", null))
+                .setFirmware(json.optString("firmware", null))
+                .setLastSeen(json.optLong("lastSeen"))
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceRecord{" +
+                "mac='" + m_mac + '\'' +
+                ", holderType='" + m_holderType + '\'' +
+                ", manufacturer='" + m_manufacturer + '\'' +
+                ", firmware='" + m_firmware + '\'' +
+                '}';
+    }
+
+    public static class Builder {
+        private final String m_mac;
+        private String m_profileFingerprint;
+        private String m_holderType;
+        private String m_manufacturer;
+        private String m_firmware;
+        private long m_lastSeen = System.currentTimeMillis();
+
+        public Builder(String mac) {
+            m_mac = mac;
+        }
+
+        public Builder setProfileFingerprint(final String profileFingerprint) {
+            m_profileFingerprint = profileFingerprint;
+            return this;
+        }
+
+        public Builder setHolderType(final String holderType) {
+            m_holderType = holderType;
+            return this;
+        }
+
+        public Builder setManufacturer(final String manufacturer) {
+            m_manufacturer = manufacturer;
+            return this;
+        }
+
+        public Builder setFirmware(final String firmware) {
+            m_firmware = firmware;
+            return this;
+        }
+
+        public Builder setLastSeen(final long lastSeen) {
+            m_lastSeen = lastSeen;
+            return this;
+        }
+
+        public DeviceRecord build() {
+            return new DeviceRecord(this);
+        }
+    }
+}
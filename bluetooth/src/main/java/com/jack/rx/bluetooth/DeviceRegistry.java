@@ -0,0 +1,151 @@
+package com.jack.rx.bluetooth;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.inuker.bluetooth.library.model.BleGattCharacter;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.inuker.bluetooth.library.model.BleGattService;
+import com.orhanobut.logger.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 描述: 按mac持久化的设备注册表<br>
+ * 1, 保存解析出的设备类型、厂家和固件信息，以及服务发现得到的service/character布局的SHA-256摘要，不保存布局本身;<br>
+ * 2, 重连已知设备时{@link BluetoothHolderFactory}可以直接创建对应的{@link BluetoothHolder}，不需要再读取厂家信息;<br>
+ * 3, 摘要变化(例如固件升级)时记录失效;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class DeviceRegistry {
+    private static final String PREFERENCES_NAME = "rx_bluetooth_devices";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SharedPreferences m_preferences;
+    private final Map<String, DeviceRecord> m_records = new ConcurrentHashMap<>(8);
+
+    /**
+     * @param context 为null时只保存在内存中
+     */
+    DeviceRegistry(Context context) {
+        m_preferences = null == context ? null : context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        load();
+    }
+
+    public DeviceRecord get(String mac) {
+        return m_records.get(mac);
+    }
+
+    /**
+     * 查找设备{@code mac}的记录，{@code profile}与记录的摘要不一致时删除记录
+     *
+     * @param mac
+     * @param profile 本次连接服务发现得到的profile
+     * @return 不存在或已失效时返回null
+     */
+    public DeviceRecord lookup(String mac, BleGattProfile profile) {
+        DeviceRecord record = m_records.get(mac);
+        if (null == record) {
+            return null;
+        }
+        if (!fingerprint(profile).equals(record.getProfileFingerprint())) {
+            Logger.i("DeviceRegistry %s profile变化, 记录失效", mac);
+            remove(mac);
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * 保存设备记录，与已有记录相比只有{@link DeviceRecord#getLastSeen()}变化时只更新内存，不写入{@link SharedPreferences}
+     *
+     * @param record
+     */
+    public void put(DeviceRecord record) {
+        DeviceRecord previous = m_records.put(record.getMac(), record);
+        if (null != previous && previous.sameInfo(record)) {
+            return;
+        }
+        if (null != m_preferences) {
+            try {
+                m_preferences.edit().putString(record.getMac(), record.toJson().toString()).apply();
+            } catch (JSONException e) {
+                Logger.e("DeviceRegistry put %s : %s", record.getMac(), e.getMessage());
+            }
+        }
+    }
+
+    public void remove(String mac) {
+        m_records.remove(mac);
+        if (null != m_preferences) {
+            m_preferences.edit().remove(mac).apply();
+        }
+    }
+
+    public Collection<DeviceRecord> getAll() {
+        return Collections.unmodifiableCollection(m_records.values());
+    }
+
+    /**
+     * profile中service/character布局的摘要，UUID排序后拼接再取SHA-256<br>
+     * 旧版本保存的32位摘要与之不同，升级后第一次连接时记录失效并重新读取设备信息
+     *
+     * @param profile
+     * @return 64位16进制字符串
+     */
+    public static String fingerprint(BleGattProfile profile) {
+        List<String> uuids = new ArrayList<>(16);
+        for (BleGattService service : profile.getServices()) {
+            String serviceUUID = service.getUUID().toString();
+            uuids.add(serviceUUID);
+            for (BleGattCharacter character : service.getCharacters()) {
+                uuids.add(serviceUUID + "/" + character.getUuid().toString());
+            }
+        }
+        Collections.sort(uuids);
+        StringBuilder sb = new StringBuilder(uuids.size() * 40);
+        for (String uuid : uuids) {
+            sb.append(uuid).append(';');
+        }
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(Charset.forName("UTF-8")));
+        } catch (NoSuchAlgorithmException e) {
+            //所有平台都必须支持SHA-256
+            throw new IllegalStateException(e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; ++i) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX[digest[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    private void load() {
+        if (null == m_preferences) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : m_preferences.getAll().entrySet()) {
+            try {
+                DeviceRecord record = DeviceRecord.fromJson(new JSONObject(String.valueOf(entry.getValue())));
+                m_records.put(record.getMac(), record);
+            } catch (JSONException e) {
+                Logger.e("DeviceRegistry load %s : %s", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.jack.rx.bluetooth;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+
+/**
+ * 描述: 所有设备的健康采样<br>
+ * 1, 每轮最多{@code parallelism}个设备同时读取电量和信号强度，未连接的设备只记录状态，信号强度的读取以{@link GattPriority#LOW}经过调度器排队;<br>
+ * 2, 每轮的期限为一个采样周期，单个设备的超时按 期限 / 轮次 分配，超时记为{@link Float#NaN}，不阻塞整轮采样;<br>
+ * 3, 到期后还没开始读取的设备只记录状态，下一轮从这些设备开始;<br>
+ * 4, 上一轮没有结束时跳过本次定时;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class FleetHealthPoller {
+    /**
+     * 单个设备读取电量和信号强度至少需要的时间
+     */
+    static final long MIN_SAMPLE_TIMEOUT_MILLIS = 300;
+
+    private final RxBluetooth m_rxBluetooth;
+    /**
+     * 下一轮开始采样的位置，到期未采样的设备下一轮优先
+     */
+    private int m_cursor = 0;
+
+    FleetHealthPoller(RxBluetooth rxBluetooth) {
+        m_rxBluetooth = rxBluetooth;
+    }
+
+    Observable<FleetSnapshot> poll(long interval, TimeUnit unit, int parallelism) {
+        final long deadlineMillis = unit.toMillis(interval);
+        return Observable.interval(0, interval, unit)
+                .toFlowable(BackpressureStrategy.DROP)
+                .concatMapSingle(tick -> round(m_rxBluetooth.getConnectedBluetoothStatus(), parallelism, deadlineMillis), 1)
+                .toObservable();
+    }
+
+    /**
+     * 一轮采样，在{@code deadlineMillis}内结束
+     *
+     * @param holders
+     * @param parallelism
+     * @param deadlineMillis 整轮的期限
+     * @return
+     */
+    Single<FleetSnapshot> round(Collection<BluetoothHolder> holders, int parallelism, long deadlineMillis) {
+        return Single.defer(() -> {
+            final List<BluetoothHolder> targets = rotate(holders);
+            final long timestamp = System.currentTimeMillis();
+            final long start = System.nanoTime();
+            final long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+            final int waves = Math.max(1, (targets.size() + parallelism - 1) / parallelism);
+            final long timeoutMillis = Math.min(deadlineMillis, Math.max(MIN_SAMPLE_TIMEOUT_MILLIS, deadlineMillis / waves));
+            final int[] sampled = {0};
+            return Flowable.fromIterable(targets)
+                    .flatMapSingle(holder -> {
+                        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remainingMillis <= 0) {
+                            return Single.just(unsampled(holder));
+                        }
+                        ++sampled[0];
+                        return sample(holder, Math.min(timeoutMillis, remainingMillis));
+                    }, false, parallelism)
+                    .toList(Math.max(1, targets.size()))
+                    .doOnSuccess(infos -> advance(sampled[0], targets.size()))
+                    .map(infos -> new FleetSnapshot(infos, timestamp, System.nanoTime() - start));
+        });
+    }
+
+    Single<BluetoothInfo> sample(BluetoothHolder holder, long timeoutMillis) {
+        return Single.defer(() -> {
+            String mac = holder.getMac();
+            BluetoothStatus status = m_rxBluetooth.getConnectionState(mac);
+            if (BluetoothStatus.CONNECTED != status) {
+                return Single.just(unsampled(holder));
+            }
+            return Single.zip(holder.readPower().firstOrError()
+                            .timeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                            .onErrorReturnItem(Float.NaN),
+                    m_rxBluetooth.readRssi(mac, GattPriority.LOW)
+                            .timeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                            .onErrorReturnItem(Float.NaN),
+                    (power, rssi) -> new BluetoothInfo.Builder()
+                            .setBluetoothHolder(holder)
+                            .setBluetoothStatus(status)
+                            .setPower(power)
+                            .setRssi(rssi)
+                            .build());
+        });
+    }
+
+    private BluetoothInfo unsampled(BluetoothHolder holder) {
+        return new BluetoothInfo.Builder()
+                .setBluetoothHolder(holder)
+                .setBluetoothStatus(m_rxBluetooth.getConnectionState(holder.getMac()))
+                .build();
+    }
+
+    private synchronized List<BluetoothHolder> rotate(Collection<BluetoothHolder> holders) {
+        List<BluetoothHolder> targets = new ArrayList<>(holders);
+        if (!targets.isEmpty()) {
+            Collections.rotate(targets, -(m_cursor % targets.size()));
+        }
+        return targets;
+    }
+
+    private synchronized void advance(int sampled, int size) {
+        m_cursor = sampled >= size ? 0 : m_cursor + sampled;
+    }
+}
@@ -0,0 +1,67 @@
+package com.jack.rx.bluetooth;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 一轮健康采样中所有设备的状态、电量、信号强度，由{@link RxBluetooth#fleetHealthObservable(long, TimeUnit, int)}发出
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class FleetSnapshot {
+    private final List<BluetoothInfo> m_infos;
+    private final long m_timestampMillis;
+    private final long m_elapsedNanos;
+
+    FleetSnapshot(List<BluetoothInfo> infos, long timestampMillis, long elapsedNanos) {
+        m_infos = Collections.unmodifiableList(infos);
+        m_timestampMillis = timestampMillis;
+        m_elapsedNanos = elapsedNanos;
+    }
+
+    public List<BluetoothInfo> getInfos() {
+        return m_infos;
+    }
+
+    /**
+     * @param mac
+     * @return 本轮没有采样该设备时返回null
+     */
+    public BluetoothInfo get(String mac) {
+        for (BluetoothInfo info : m_infos) {
+            if (mac.equals(info.getBluetoothHolder().getMac())) {
+                return info;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 本轮采样开始的时间
+     *
+     * @return {@link System#currentTimeMillis()}
+     */
+    public long getTimestamp() {
+        return m_timestampMillis;
+    }
+
+    /**
+     * 本轮采样的耗时
+     *
+     * @param unit
+     * @return
+     */
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(m_elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "FleetSnapshot{" +
+                "devices=" + m_infos.size() +
+                ", elapsed=" + TimeUnit.NANOSECONDS.toMillis(m_elapsedNanos) + "ms" +
+                '}';
+    }
+}
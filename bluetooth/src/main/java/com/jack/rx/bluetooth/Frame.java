@@ -0,0 +1,87 @@
+package com.jack.rx.bluetooth;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 描述: 通知数据帧，指向{@link FramePool}环形缓冲区中的一段<br>
+ * 1, 数据位于{@link #array()}的[{@link #offset()}, {@link #offset()} + {@link #length()})区间，解码时直接读取，不需要复制;<br>
+ * 2, 使用完必须调用{@link #release()}归还缓冲区，归还后不能再访问数据;<br>
+ * 3, 每次{@link FramePool#acquire(byte[])}都返回新的{@link Frame}，只复用缓冲区，已经归还的旧{@link Frame}再次{@link #release()}不会归还别人正在使用的缓冲区;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class Frame {
+    private static final AtomicIntegerFieldUpdater<Frame> RELEASED = AtomicIntegerFieldUpdater.newUpdater(Frame.class, "m_released");
+
+    private final FramePool m_pool;
+    private final FramePool.Slot m_slot;
+    private final byte[] m_array;
+    private final int m_offset;
+    private final int m_length;
+    private final long m_timestampNanos;
+    private volatile int m_released = 0;
+
+    Frame(FramePool pool, FramePool.Slot slot, byte[] value, long timestampNanos) {
+        m_pool = pool;
+        m_slot = slot;
+        m_array = slot.m_array;
+        m_offset = slot.m_offset;
+        m_length = value.length;
+        m_timestampNanos = timestampNanos;
+        System.arraycopy(value, 0, m_array, m_offset, value.length);
+    }
+
+    public byte[] array() {
+        return m_array;
+    }
+
+    public int offset() {
+        return m_offset;
+    }
+
+    public int length() {
+        return m_length;
+    }
+
+    public byte get(int index) {
+        return m_array[m_offset + index];
+    }
+
+    /**
+     * 收到通知时的{@link System#nanoTime()}
+     *
+     * @return
+     */
+    public long timestampNanos() {
+        return m_timestampNanos;
+    }
+
+    /**
+     * 复制出数据，用于需要长期持有的场景
+     *
+     * @return
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(m_array, m_offset, m_offset + m_length);
+    }
+
+    /**
+     * 归还到{@link FramePool}，重复调用无效
+     */
+    public void release() {
+        if (RELEASED.compareAndSet(this, 0, 1) && null != m_pool) {
+            m_pool.recycle(m_slot);
+        }
+    }
+
+    /**
+     * 是否来自环形缓冲区，false表示缓冲区不足时额外分配的帧
+     *
+     * @return
+     */
+    public boolean isPooled() {
+        return null != m_pool;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jack.rx.bluetooth;
+
+/**
+ * 描述: 一批合并发出的通知数据，保留每一帧的到达时间
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class FrameBatch {
+    private final byte[][] m_frames;
+    private final long[] m_timestamps;
+
+    FrameBatch(byte[][] frames, long[] timestamps) {
+        m_frames = frames;
+        m_timestamps = timestamps;
+    }
+
+    public int size() {
+        return m_frames.length;
+    }
+
+    public byte[] get(int index) {
+        return m_frames[index];
+    }
+
+    /**
+     * 第{@code index}帧到达的时间
+     *
+     * @param index
+     * @return {@link System#nanoTime()}
+     */
+    public long getTimestampNanos(int index) {
+        return m_timestamps[index];
+    }
+
+    /**
+     * 第一帧到最后一帧的时间跨度
+     *
+     * @return
+     */
+    public long getSpanNanos() {
+        return m_timestamps[m_timestamps.length - 1] - m_timestamps[0];
+    }
+
+    public int getTotalBytes() {
+        int total = 0;
+        for (byte[] frame : m_frames) {
+            total += frame.length;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameBatch{" +
+                "size=" + m_frames.length +
+                ", totalBytes=" + getTotalBytes() +
+                ", spanNanos=" + getSpanNanos() +
+                '}';
+    }
+}
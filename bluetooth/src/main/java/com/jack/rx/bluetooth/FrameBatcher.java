@@ -0,0 +1,149 @@
+package com.jack.rx.bluetooth;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.ObservableOperator;
+import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * 描述: 把通知合并成{@link FrameBatch}<br>
+ * 1, 攒够{@link #m_maxFrames}帧立即发出;<br>
+ * 2, 不够时从这一批第一帧到达起{@link #m_windowNanos}后发出;<br>
+ * 3, 发出在锁内进行，下游应尽快切换线程;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class FrameBatcher implements ObservableOperator<FrameBatch, byte[]> {
+    private final int m_maxFrames;
+    private final long m_windowNanos;
+    private final Scheduler m_scheduler;
+
+    FrameBatcher(int maxFrames, long windowNanos, Scheduler scheduler) {
+        if (maxFrames <= 0 || windowNanos <= 0) {
+            throw new IllegalArgumentException("maxFrames and window must be > 0");
+        }
+        m_maxFrames = maxFrames;
+        m_windowNanos = windowNanos;
+        m_scheduler = scheduler;
+    }
+
+    @Override
+    public Observer<? super byte[]> apply(Observer<? super FrameBatch> observer) {
+        return new BatchObserver(observer, m_maxFrames, m_windowNanos, m_scheduler.createWorker());
+    }
+
+    private static final class BatchObserver implements Observer<byte[]>, Disposable {
+        private final Observer<? super FrameBatch> m_downstream;
+        private final long m_windowNanos;
+        private final Scheduler.Worker m_worker;
+        private final byte[][] m_frames;
+        private final long[] m_timestamps;
+        private Disposable m_upstream;
+        /**
+         * 以下字段由this锁保护
+         */
+        private int m_size = 0;
+        private long m_generation = 0;
+        private Disposable m_timer;
+        private boolean m_done = false;
+
+        BatchObserver(Observer<? super FrameBatch> downstream, int maxFrames, long windowNanos, Scheduler.Worker worker) {
+            m_downstream = downstream;
+            m_windowNanos = windowNanos;
+            m_worker = worker;
+            m_frames = new byte[maxFrames][];
+            m_timestamps = new long[maxFrames];
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            m_upstream = d;
+            m_downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(byte[] value) {
+            long now = System.nanoTime();
+            synchronized (this) {
+                if (m_done) {
+                    return;
+                }
+                if (0 == m_size) {
+                    final long generation = m_generation;
+                    m_timer = m_worker.schedule(() -> flush(generation), m_windowNanos, TimeUnit.NANOSECONDS);
+                }
+                m_frames[m_size] = value;
+                m_timestamps[m_size] = now;
+                if (++m_size == m_frames.length) {
+                    emit();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (this) {
+                if (m_done) {
+                    return;
+                }
+                m_done = true;
+                Arrays.fill(m_frames, 0, m_size, null);
+                m_size = 0;
+            }
+            m_worker.dispose();
+            m_downstream.onError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (m_done) {
+                    return;
+                }
+                if (m_size > 0) {
+                    emit();
+                }
+                m_done = true;
+            }
+            m_worker.dispose();
+            m_downstream.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            m_upstream.dispose();
+            m_worker.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return m_upstream.isDisposed();
+        }
+
+        private synchronized void flush(long generation) {
+            if (!m_done && generation == m_generation && m_size > 0) {
+                emit();
+            }
+        }
+
+        /**
+         * 调用者持有this锁
+         */
+        private void emit() {
+            FrameBatch batch = new FrameBatch(Arrays.copyOf(m_frames, m_size), Arrays.copyOf(m_timestamps, m_size));
+            Arrays.fill(m_frames, 0, m_size, null);
+            m_size = 0;
+            //过期的定时器在flush中按generation忽略
+            ++m_generation;
+            if (null != m_timer) {
+                m_timer.dispose();
+                m_timer = null;
+            }
+            m_downstream.onNext(batch);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.jack.rx.bluetooth;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 描述: {@link Frame}的环形缓冲池<br>
+ * 1, 预先分配{@code slots * slotSize}字节的环形缓冲区，之后收到通知只复制数据，不再分配缓冲区;<br>
+ * 2, 缓冲区用完或者数据超过{@code slotSize}时，额外分配一个不入池的{@link Frame}，并计入{@link #getMissCount()};<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class FramePool {
+    public static final int DEFAULT_SLOTS = 256;
+    /**
+     * ATT属性值最大长度
+     */
+    public static final int DEFAULT_SLOT_SIZE = 512;
+
+    private final int m_slotSize;
+    private final ArrayBlockingQueue<Slot> m_free;
+    private final AtomicLong m_missCount = new AtomicLong();
+
+    public FramePool() {
+        this(DEFAULT_SLOTS, DEFAULT_SLOT_SIZE);
+    }
+
+    public FramePool(int slots, int slotSize) {
+        if (slots <= 0 || slotSize <= 0) {
+            throw new IllegalArgumentException("slots and slotSize must be > 0");
+        }
+        m_slotSize = slotSize;
+        m_free = new ArrayBlockingQueue<>(slots);
+        byte[] ring = new byte[slots * slotSize];
+        for (int i = 0; i < slots; ++i) {
+            m_free.offer(new Slot(ring, i * slotSize));
+        }
+    }
+
+    /**
+     * 取出一段空闲的缓冲区复制{@code value}，返回新的{@link Frame}
+     *
+     * @param value
+     * @return
+     */
+    public Frame acquire(byte[] value) {
+        Slot slot = value.length <= m_slotSize ? m_free.poll() : null;
+        if (null == slot) {
+            m_missCount.incrementAndGet();
+            return new Frame(null, new Slot(new byte[value.length], 0), value, System.nanoTime());
+        }
+        return new Frame(this, slot, value, System.nanoTime());
+    }
+
+    /**
+     * 空闲的缓冲区数量
+     *
+     * @return
+     */
+    public int available() {
+        return m_free.size();
+    }
+
+    /**
+     * 池中没有空闲缓冲区而额外分配的次数
+     *
+     * @return
+     */
+    public long getMissCount() {
+        return m_missCount.get();
+    }
+
+    void recycle(Slot slot) {
+        m_free.offer(slot);
+    }
+
+    /**
+     * 环形缓冲区中的一段
+     */
+    static final class Slot {
+        final byte[] m_array;
+        final int m_offset;
+
+        Slot(byte[] array, int offset) {
+            m_array = array;
+            m_offset = offset;
+        }
+    }
+}
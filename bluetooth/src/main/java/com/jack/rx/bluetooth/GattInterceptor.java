@@ -0,0 +1,22 @@
+package com.jack.rx.bluetooth;
+
+import io.reactivex.Observable;
+
+/**
+ * 描述: GATT操作拦截器，按注册顺序组成责任链，最后一环执行真正的蓝牙操作<br>
+ * 1, 读操作发出读到的数据，写操作发出写入的数据，通知发出每一次收到的数据;<br>
+ * 2, 拦截器可以修改请求后调用{@link Chain#proceed(GattRequest)}，也可以不调用直接返回结果(例如缓存);<br>
+ * 3, 通知被多个订阅者共享，拦截器只在打开通知时经过一次;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public interface GattInterceptor {
+    Observable<byte[]> intercept(Chain chain);
+
+    interface Chain {
+        GattRequest request();
+
+        Observable<byte[]> proceed(GattRequest request);
+    }
+}
@@ -0,0 +1,21 @@
+package com.jack.rx.bluetooth;
+
+/**
+ * 描述: GATT操作类型，用于指标统计
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public enum GattOperation {
+    //连接，包含服务发现
+    CONNECT,
+    READ,
+    WRITE,
+    WRITE_NO_RSP,
+    //打开通知(写CCCD)
+    NOTIFY,
+    INDICATE,
+    READ_DESCRIPTOR,
+    WRITE_DESCRIPTOR,
+    REQUEST_MTU
+}
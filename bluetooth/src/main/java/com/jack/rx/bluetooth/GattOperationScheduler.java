@@ -0,0 +1,387 @@
+package com.jack.rx.bluetooth;
+
+import android.annotation.SuppressLint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * 描述: 按设备(mac)串行化GATT操作的调度器<br>
+ * 1, 每个设备按{@link GattPriority}分通道排队，高优先级通道先出队;<br>
+ * 2, 每个设备同时执行的操作不超过{@link #m_maxInFlightPerDevice};<br>
+ * 3, 所有设备同时执行的操作不超过{@link #m_maxInFlight}，可以执行的设备按先后排队轮流获得窗口;<br>
+ * 4, 执行超过超时时间的操作以{@link TimeoutException}结束并被取消，立即释放窗口，排队时间不计入超时;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class GattOperationScheduler {
+    public static final int DEFAULT_MAX_IN_FLIGHT_PER_DEVICE = 1;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    public static final long DEFAULT_OPERATION_TIMEOUT_MILLIS = 10_000;
+
+    private final int m_maxInFlightPerDevice;
+    private final int m_maxInFlight;
+    private final Map<String, DeviceQueue> m_queues = new HashMap<>(8);
+    /**
+     * 有操作排队且设备窗口未满的设备，按变为可执行的先后排序
+     */
+    private final ArrayDeque<DeviceQueue> m_ready = new ArrayDeque<>(8);
+    private volatile long m_timeoutMillis = DEFAULT_OPERATION_TIMEOUT_MILLIS;
+    private int m_inFlight = 0;
+
+    public GattOperationScheduler() {
+        this(DEFAULT_MAX_IN_FLIGHT_PER_DEVICE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public GattOperationScheduler(int maxInFlightPerDevice, int maxInFlight) {
+        if (maxInFlightPerDevice <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlightPerDevice and maxInFlight must be > 0");
+        }
+        m_maxInFlightPerDevice = maxInFlightPerDevice;
+        m_maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 设置操作的默认超时时间，小于等于0表示不超时
+     *
+     * @param timeout
+     * @param unit
+     */
+    public void setOperationTimeout(long timeout, TimeUnit unit) {
+        m_timeoutMillis = unit.toMillis(timeout);
+    }
+
+    public long getOperationTimeoutMillis() {
+        return m_timeoutMillis;
+    }
+
+    public int getMaxInFlightPerDevice() {
+        return m_maxInFlightPerDevice;
+    }
+
+    public int getMaxInFlight() {
+        return m_maxInFlight;
+    }
+
+    /**
+     * 订阅时将{@code operation}放入{@code mac}对应的{@code priority}通道排队，轮到时才订阅{@code operation}，使用默认超时时间
+     *
+     * @param mac
+     * @param priority
+     * @param operation
+     * @param <T>
+     * @return
+     */
+    public <T> Single<T> schedule(String mac, GattPriority priority, Single<T> operation) {
+        return schedule(mac, priority, -1, operation);
+    }
+
+    /**
+     * 见{@link #schedule(String, GattPriority, Single)}
+     *
+     * @param mac
+     * @param priority
+     * @param timeoutMillis 从开始执行算起的超时时间，小于0使用默认超时时间，等于0表示不超时
+     * @param operation
+     * @param <T>
+     * @return
+     */
+    public <T> Single<T> schedule(String mac, GattPriority priority, long timeoutMillis, Single<T> operation) {
+        return Single.create(emitter -> {
+            Task<T> task = new Task<>(mac, priority, timeoutMillis < 0 ? m_timeoutMillis : timeoutMillis, operation, emitter);
+            emitter.setCancellable(task::cancel);
+            enqueue(task);
+        });
+    }
+
+    /**
+     * 设备{@code mac}排队中的操作数量
+     *
+     * @param mac
+     * @return
+     */
+    public synchronized int getQueueDepth(String mac) {
+        DeviceQueue queue = m_queues.get(mac);
+        return null == queue ? 0 : queue.size();
+    }
+
+    /**
+     * 设备{@code mac}在{@code priority}通道排队中的操作数量
+     *
+     * @param mac
+     * @param priority
+     * @return
+     */
+    public synchronized int getQueueDepth(String mac, GattPriority priority) {
+        DeviceQueue queue = m_queues.get(mac);
+        return null == queue ? 0 : queue.m_lanes.get(priority.ordinal()).size();
+    }
+
+    /**
+     * 所有设备排队中的操作数量
+     *
+     * @return
+     */
+    public synchronized int getQueueDepth() {
+        int depth = 0;
+        for (DeviceQueue queue : m_queues.values()) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    public synchronized int getInFlight(String mac) {
+        DeviceQueue queue = m_queues.get(mac);
+        return null == queue ? 0 : queue.m_inFlight;
+    }
+
+    public synchronized int getInFlight() {
+        return m_inFlight;
+    }
+
+    /**
+     * 有操作排队或执行中的设备数量
+     *
+     * @return
+     */
+    synchronized int getDeviceCount() {
+        return m_queues.size();
+    }
+
+    private void enqueue(Task<?> task) {
+        synchronized (this) {
+            DeviceQueue queue = m_queues.get(task.m_mac);
+            if (null == queue) {
+                queue = new DeviceQueue();
+                m_queues.put(task.m_mac, queue);
+            }
+            queue.m_lanes.get(task.m_priority.ordinal()).offer(task);
+            markReady(queue);
+        }
+        drain();
+    }
+
+    /**
+     * 在窗口允许的情况下，按先后从可执行的设备各取一个操作，设备还能执行时排到最后，锁外执行
+     */
+    private void drain() {
+        List<Task<?>> ready = null;
+        synchronized (this) {
+            DeviceQueue queue;
+            while (m_inFlight < m_maxInFlight && null != (queue = m_ready.poll())) {
+                queue.m_inReady = false;
+                Task<?> task = queue.poll();
+                task.m_state = Task.RUNNING;
+                ++queue.m_inFlight;
+                ++m_inFlight;
+                markReady(queue);
+                if (null == ready) {
+                    ready = new ArrayList<>(4);
+                }
+                ready.add(task);
+            }
+        }
+        if (null != ready) {
+            for (Task<?> task : ready) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * 释放{@code task}占用的窗口
+     *
+     * @param task
+     */
+    private void finish(Task<?> task) {
+        synchronized (this) {
+            if (Task.RUNNING != task.m_state) {
+                return;
+            }
+            task.m_state = Task.DONE;
+            --m_inFlight;
+            DeviceQueue queue = m_queues.get(task.m_mac);
+            if (null != queue) {
+                --queue.m_inFlight;
+                markReady(queue);
+                removeIfIdle(task.m_mac, queue);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * 取消{@code task}，排队中直接移出队列
+     *
+     * @param task
+     * @return 是否是执行中，执行中的操作由调用者取消后再{@link #finish(Task)}释放窗口
+     */
+    private synchronized boolean cancel(Task<?> task) {
+        if (Task.QUEUED == task.m_state) {
+            task.m_state = Task.DONE;
+            DeviceQueue queue = m_queues.get(task.m_mac);
+            if (null != queue) {
+                queue.m_lanes.get(task.m_priority.ordinal()).remove(task);
+                if (queue.m_inReady && 0 == queue.size()) {
+                    queue.m_inReady = false;
+                    m_ready.remove(queue);
+                }
+                removeIfIdle(task.m_mac, queue);
+            }
+            return false;
+        }
+        return Task.RUNNING == task.m_state;
+    }
+
+    /**
+     * 设备有操作排队且窗口未满时排到可执行队列末尾
+     *
+     * @param queue
+     */
+    private void markReady(DeviceQueue queue) {
+        if (!queue.m_inReady && queue.m_inFlight < m_maxInFlightPerDevice && queue.size() > 0) {
+            queue.m_inReady = true;
+            m_ready.offer(queue);
+        }
+    }
+
+    /**
+     * 设备没有排队和执行中的操作时移除，不再通信的设备不会一直留在表里
+     *
+     * @param mac
+     * @param queue
+     */
+    private void removeIfIdle(String mac, DeviceQueue queue) {
+        if (0 == queue.m_inFlight && 0 == queue.size()) {
+            m_queues.remove(mac);
+        }
+    }
+
+    private static final class DeviceQueue {
+        private final List<ArrayDeque<Task<?>>> m_lanes = new ArrayList<>(GattPriority.values().length);
+        private int m_inFlight = 0;
+        /**
+         * 是否在{@link GattOperationScheduler#m_ready}中
+         */
+        private boolean m_inReady = false;
+
+        DeviceQueue() {
+            for (int i = 0; i < GattPriority.values().length; ++i) {
+                m_lanes.add(new ArrayDeque<>());
+            }
+        }
+
+        Task<?> poll() {
+            for (ArrayDeque<Task<?>> lane : m_lanes) {
+                Task<?> task = lane.poll();
+                if (null != task) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        int size() {
+            int size = 0;
+            for (ArrayDeque<Task<?>> lane : m_lanes) {
+                size += lane.size();
+            }
+            return size;
+        }
+    }
+
+    private final class Task<T> implements SingleObserver<T> {
+        static final int QUEUED = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+
+        private final String m_mac;
+        private final GattPriority m_priority;
+        private final long m_timeoutMillis;
+        private final Single<T> m_operation;
+        private final SingleEmitter<T> m_emitter;
+        private final CompositeDisposable m_disposable = new CompositeDisposable();
+        private volatile Disposable m_timer;
+        /**
+         * 由{@link GattOperationScheduler}的锁保护
+         */
+        private int m_state = QUEUED;
+
+        Task(String mac, GattPriority priority, long timeoutMillis, Single<T> operation, SingleEmitter<T> emitter) {
+            m_mac = mac;
+            m_priority = priority;
+            m_timeoutMillis = timeoutMillis;
+            m_operation = operation;
+            m_emitter = emitter;
+        }
+
+        void run() {
+            if (m_timeoutMillis > 0) {
+                m_timer = Completable.timer(m_timeoutMillis, TimeUnit.MILLISECONDS).subscribe(this::timeout);
+                m_disposable.add(m_timer);
+            }
+            m_operation.subscribe(this);
+        }
+
+        /**
+         * 先取消操作再释放窗口，保证取消回调执行时同一设备的下一个操作还没有开始
+         */
+        void cancel() {
+            if (GattOperationScheduler.this.cancel(this)) {
+                m_disposable.dispose();
+                finish(this);
+            }
+        }
+
+        /**
+         * 操作正常结束时只停止计时，不能取消操作本身，否则会触发取消回调
+         */
+        private void stopTimer() {
+            Disposable timer = m_timer;
+            if (null != timer) {
+                timer.dispose();
+            }
+        }
+
+        @SuppressLint("DefaultLocale")
+        private void timeout() {
+            if (GattOperationScheduler.this.cancel(this)) {
+                m_disposable.dispose();
+                finish(this);
+                m_emitter.tryOnError(new TimeoutException(String.format("%s %s operation timed out after %dms", m_mac, m_priority, m_timeoutMillis)));
+            }
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            m_disposable.add(d);
+        }
+
+        @Override
+        public void onSuccess(T t) {
+            stopTimer();
+            finish(this);
+            m_emitter.onSuccess(t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            stopTimer();
+            finish(this);
+            m_emitter.tryOnError(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.jack.rx.bluetooth;
+
+/**
+ * 描述: GATT操作优先级通道，数值越小越先执行
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public enum GattPriority {
+    //控制命令，例如采集参数写入、补包请求
+    HIGH,
+    //普通读写
+    NORMAL,
+    //批量数据、电量等后台流量
+    LOW
+}
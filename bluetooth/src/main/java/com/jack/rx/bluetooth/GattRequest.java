@@ -0,0 +1,120 @@
+package com.jack.rx.bluetooth;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * 描述: 经过{@link GattInterceptor}的GATT请求，拦截器可以通过{@link #newBuilder()}修改后继续传递
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class GattRequest {
+    private final GattOperation m_operation;
+    private final String m_mac;
+    private final UUID m_serviceUUID;
+    private final UUID m_characterUUID;
+    private final UUID m_descriptorUUID;
+    private final byte[] m_value;
+    private final GattPriority m_priority;
+
+    private GattRequest(Builder builder) {
+        m_operation = builder.m_operation;
+        m_mac = builder.m_mac;
+        m_serviceUUID = builder.m_serviceUUID;
+        m_characterUUID = builder.m_characterUUID;
+        m_descriptorUUID = builder.m_descriptorUUID;
+        m_value = builder.m_value;
+        m_priority = builder.m_priority;
+    }
+
+    public GattOperation getOperation() {
+        return m_operation;
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    public UUID getServiceUUID() {
+        return m_serviceUUID;
+    }
+
+    public UUID getCharacterUUID() {
+        return m_characterUUID;
+    }
+
+    /**
+     * @return 非描述符操作返回null
+     */
+    public UUID getDescriptorUUID() {
+        return m_descriptorUUID;
+    }
+
+    /**
+     * @return 非写操作返回null
+     */
+    public byte[] getValue() {
+        return m_value;
+    }
+
+    public GattPriority getPriority() {
+        return m_priority;
+    }
+
+    public Builder newBuilder() {
+        return new Builder(m_operation, m_mac, m_serviceUUID, m_characterUUID)
+                .setDescriptorUUID(m_descriptorUUID)
+                .setValue(m_value)
+                .setPriority(m_priority);
+    }
+
+    @Override
+    public String toString() {
+        return "GattRequest{" +
+                "operation=" + m_operation +
+                ", mac='" + m_mac + '\'' +
+                ", serviceUUID=" + m_serviceUUID +
+                ", characterUUID=" + m_characterUUID +
+                ", descriptorUUID=" + m_descriptorUUID +
+                ", value=" + Arrays.toString(m_value) +
+                ", priority=" + m_priority +
+                '}';
+    }
+
+    public static class Builder {
+        private final GattOperation m_operation;
+        private final String m_mac;
+        private final UUID m_serviceUUID;
+        private final UUID m_characterUUID;
+        private UUID m_descriptorUUID;
+        private byte[] m_value;
+        private GattPriority m_priority = GattPriority.NORMAL;
+
+        public Builder(GattOperation operation, String mac, UUID serviceUUID, UUID characterUUID) {
+            m_operation = operation;
+            m_mac = mac;
+            m_serviceUUID = serviceUUID;
+            m_characterUUID = characterUUID;
+        }
+
+        public Builder setDescriptorUUID(UUID descriptorUUID) {
+            m_descriptorUUID = descriptorUUID;
+            return this;
+        }
+
+        public Builder setValue(byte[] value) {
+            m_value = value;
+            return this;
+        }
+
+        public Builder setPriority(GattPriority priority) {
+            m_priority = priority;
+            return this;
+        }
+
+        public GattRequest build() {
+            return new GattRequest(this);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.jack.rx.bluetooth;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.subjects.CompletableSubject;
+
+/**
+ * 描述: 按(mac, service, character)共享通知数据流<br>
+ * 1, 第一个订阅者打开通知(写CCCD)，之后的订阅者共享同一个数据流;<br>
+ * 2, 最后一个订阅者取消后，经过{@link #m_gracePeriodMillis}仍没有新的订阅者才关闭通知;<br>
+ * 3, 关闭后移除数据流，再次订阅会按当时的优先级、拦截器和等待时间重新打开通知;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class NotificationHub {
+    private final Map<Key, Stream> m_streams = new HashMap<>(16);
+    private volatile long m_gracePeriodMillis = 0;
+
+    /**
+     * 设置关闭通知前的等待时间，只对之后打开的通知生效
+     *
+     * @param gracePeriod
+     * @param unit
+     */
+    void setGracePeriod(long gracePeriod, TimeUnit unit) {
+        m_gracePeriodMillis = unit.toMillis(gracePeriod);
+    }
+
+    /**
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param indicate
+     * @param source        打开通知时才创建，使用的是最近一个订阅者的优先级和当时的拦截器
+     * @return
+     */
+    Observable<byte[]> share(String mac, UUID serviceUUID, UUID characterUUID, boolean indicate, Callable<Observable<byte[]>> source) {
+        return share(mac, serviceUUID, characterUUID, indicate, source, null);
+    }
+
+    /**
+     * 与{@link #share(String, UUID, UUID, boolean, Callable)}相同，通知打开(或已经打开)后再订阅{@code then}，
+     * {@code then}的错误也会结束返回的数据流
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param indicate
+     * @param source
+     * @param then
+     * @return
+     */
+    Observable<byte[]> share(String mac, UUID serviceUUID, UUID characterUUID, boolean indicate, Callable<Observable<byte[]>> source, Completable then) {
+        Key key = new Key(mac, serviceUUID, characterUUID, indicate);
+        return Observable.defer(() -> {
+            Stream stream;
+            synchronized (m_streams) {
+                stream = m_streams.get(key);
+                if (null == stream) {
+                    stream = new Stream(key, m_gracePeriodMillis);
+                    m_streams.put(key, stream);
+                }
+                stream.m_source = source;
+            }
+            if (null == then) {
+                return stream.m_shared;
+            }
+            //先订阅m_shared，需要打开通知时m_ready在这里被重置
+            final Stream current = stream;
+            return current.m_shared.mergeWith(Completable.defer(() -> current.m_ready).andThen(then));
+        });
+    }
+
+    /**
+     * 通知已经打开(CCCD写入成功)，由打开通知的操作调用
+     *
+     * @param mac
+     * @param serviceUUID
+     * @param characterUUID
+     * @param indicate
+     */
+    void ready(String mac, UUID serviceUUID, UUID characterUUID, boolean indicate) {
+        Stream stream;
+        synchronized (m_streams) {
+            stream = m_streams.get(new Key(mac, serviceUUID, characterUUID, indicate));
+        }
+        if (null != stream) {
+            stream.m_ready.onComplete();
+        }
+    }
+
+    /**
+     * 当前共享中的数据流数量，通知关闭后对应的数据流被移除
+     *
+     * @return
+     */
+    int getStreamCount() {
+        synchronized (m_streams) {
+            return m_streams.size();
+        }
+    }
+
+    private final class Stream {
+        private final Key m_key;
+        private final Observable<byte[]> m_shared;
+        /**
+         * 通知打开后完成；拦截器不经过真正的打开操作直接返回数据时，以第一个数据为准
+         */
+        private volatile CompletableSubject m_ready = CompletableSubject.create();
+        private volatile Callable<Observable<byte[]>> m_source;
+        /**
+         * 已打开的通知数，等待期结束后重新订阅时，旧的连接可能晚于新的连接结束
+         */
+        private int m_connections = 0;
+
+        Stream(Key key, long gracePeriodMillis) {
+            m_key = key;
+            Observable<byte[]> upstream = Observable.defer(() -> m_source.call())
+                    .doOnSubscribe(disposable -> onConnect())
+                    .doOnNext(value -> m_ready.onComplete())
+                    .doFinally(this::onDisconnect);
+            m_shared = gracePeriodMillis > 0
+                    ? upstream.publish().refCount(gracePeriodMillis, TimeUnit.MILLISECONDS)
+                    : upstream.publish().refCount();
+        }
+
+        private void onConnect() {
+            synchronized (m_streams) {
+                if (0 == m_connections++) {
+                    m_ready = CompletableSubject.create();
+                }
+                if (!m_streams.containsKey(m_key)) {
+                    m_streams.put(m_key, this);
+                }
+            }
+        }
+
+        private void onDisconnect() {
+            synchronized (m_streams) {
+                if (0 == --m_connections && m_streams.get(m_key) == this) {
+                    m_streams.remove(m_key);
+                }
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String m_mac;
+        private final UUID m_serviceUUID;
+        private final UUID m_characterUUID;
+        private final boolean m_indicate;
+
+        Key(String mac, UUID serviceUUID, UUID characterUUID, boolean indicate) {
+            m_mac = mac;
+            m_serviceUUID = serviceUUID;
+            m_characterUUID = characterUUID;
+            m_indicate = indicate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return m_indicate == key.m_indicate
+                    && m_mac.equals(key.m_mac)
+                    && m_serviceUUID.equals(key.m_serviceUUID)
+                    && m_characterUUID.equals(key.m_characterUUID);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = m_mac.hashCode();
+            result = 31 * result + m_serviceUUID.hashCode();
+            result = 31 * result + m_characterUUID.hashCode();
+            result = 31 * result + (m_indicate ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jack.rx.bluetooth;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+
+/**
+ * 描述: 通知转成{@link Flowable}时的背压策略，订阅者处理不过来时内存占用不超过{@code capacity}个数据<br>
+ * 1, {@link Strategy#BUFFER}: 缓冲区满后保留最早的数据，新到的数据替换缓冲区中最新的一个;<br>
+ * 2, {@link Strategy#DROP_OLDEST}: 缓冲区满后丢弃最早的数据;<br>
+ * 3, {@link Strategy#LATEST}: 只保留最新的一个数据;<br>
+ * 4, {@link Strategy#ERROR}: 缓冲区满后以{@link io.reactivex.exceptions.MissingBackpressureException}结束;<br>
+ * 丢弃的数量累计在{@link #getDroppedCount()}，同一个实例用于多个流时合并计数
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class NotifyBackpressure {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    public enum Strategy {
+        BUFFER,
+        DROP_OLDEST,
+        LATEST,
+        ERROR
+    }
+
+    private final Strategy m_strategy;
+    private final int m_capacity;
+    private final AtomicLong m_dropped = new AtomicLong();
+
+    private NotifyBackpressure(Strategy strategy, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        m_strategy = strategy;
+        m_capacity = capacity;
+    }
+
+    public static NotifyBackpressure buffer(int capacity) {
+        return new NotifyBackpressure(Strategy.BUFFER, capacity);
+    }
+
+    public static NotifyBackpressure dropOldest(int capacity) {
+        return new NotifyBackpressure(Strategy.DROP_OLDEST, capacity);
+    }
+
+    public static NotifyBackpressure latest() {
+        return new NotifyBackpressure(Strategy.LATEST, 1);
+    }
+
+    public static NotifyBackpressure error(int capacity) {
+        return new NotifyBackpressure(Strategy.ERROR, capacity);
+    }
+
+    public Strategy getStrategy() {
+        return m_strategy;
+    }
+
+    public int getCapacity() {
+        return m_capacity;
+    }
+
+    /**
+     * 因订阅者处理不过来而丢弃的数据数量
+     *
+     * @return
+     */
+    public long getDroppedCount() {
+        return m_dropped.get();
+    }
+
+    <T> Flowable<T> apply(Observable<T> source) {
+        Flowable<T> flowable = source.toFlowable(BackpressureStrategy.MISSING);
+        switch (m_strategy) {
+            case DROP_OLDEST:
+            case LATEST:
+                return flowable.onBackpressureBuffer(m_capacity, m_dropped::incrementAndGet, BackpressureOverflowStrategy.DROP_OLDEST);
+            case ERROR:
+                return flowable.onBackpressureBuffer(m_capacity, false, false, m_dropped::incrementAndGet);
+            case BUFFER:
+            default:
+                return flowable.onBackpressureBuffer(m_capacity, m_dropped::incrementAndGet, BackpressureOverflowStrategy.DROP_LATEST);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NotifyBackpressure{" +
+                "strategy=" + m_strategy +
+                ", capacity=" + m_capacity +
+                ", dropped=" + m_dropped +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.jack.rx.bluetooth;
+
+import android.annotation.SuppressLint;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 所有设备共享的重连预算，最多连续放行{@link #m_burst}次重连，之后每{@link #m_intervalMillis}放行一次
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ReconnectBudget {
+    private final int m_burst;
+    private final long m_intervalMillis;
+    /**
+     * 下一次重连的理论放行时间
+     */
+    private long m_theoreticalMillis = 0;
+
+    @SuppressLint("DefaultLocale")
+    public ReconnectBudget(int burst, long interval, TimeUnit unit) {
+        if (burst <= 0 || interval < 0) {
+            throw new IllegalArgumentException(String.format("burst = %d, interval = %d", burst, interval));
+        }
+        m_burst = burst;
+        m_intervalMillis = unit.toMillis(interval);
+    }
+
+    /**
+     * 不限制重连频率
+     *
+     * @return
+     */
+    public static ReconnectBudget unlimited() {
+        return new ReconnectBudget(1, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 预约一次最早在{@code delayMillis}之后的重连
+     *
+     * @param delayMillis
+     * @return 实际需要等待的毫秒
+     */
+    synchronized long reserve(long delayMillis) {
+        long now = System.currentTimeMillis();
+        long at = Math.max(now + delayMillis, m_theoreticalMillis - (m_burst - 1) * m_intervalMillis);
+        m_theoreticalMillis = Math.max(m_theoreticalMillis, at) + m_intervalMillis;
+        return at - now;
+    }
+}
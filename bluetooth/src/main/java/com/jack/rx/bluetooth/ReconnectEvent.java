@@ -0,0 +1,60 @@
+package com.jack.rx.bluetooth;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 一次断线重连的结果，由{@link RxBluetooth#reconnectObservable()}发出
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ReconnectEvent {
+    private final String m_mac;
+    private final boolean m_success;
+    private final int m_attempts;
+    private final long m_elapsedNanos;
+
+    ReconnectEvent(String mac, boolean success, int attempts, long elapsedNanos) {
+        m_mac = mac;
+        m_success = success;
+        m_attempts = attempts;
+        m_elapsedNanos = elapsedNanos;
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    /**
+     * false表示达到最大次数后放弃
+     *
+     * @return
+     */
+    public boolean isSuccess() {
+        return m_success;
+    }
+
+    public int getAttempts() {
+        return m_attempts;
+    }
+
+    /**
+     * 从断开到重连成功(或放弃)的时间
+     *
+     * @param unit
+     * @return
+     */
+    public long getTimeToReconnect(TimeUnit unit) {
+        return unit.convert(m_elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "ReconnectEvent{" +
+                "mac='" + m_mac + '\'' +
+                ", success=" + m_success +
+                ", attempts=" + m_attempts +
+                ", timeToReconnect=" + TimeUnit.NANOSECONDS.toMillis(m_elapsedNanos) + "ms" +
+                '}';
+    }
+}
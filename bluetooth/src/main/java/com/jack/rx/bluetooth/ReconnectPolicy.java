@@ -0,0 +1,219 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 断线重连策略<br>
+ * 1, 第n次重连前等待 min(maxDelay, initialDelay * multiplier^(n-1))，并按{@link Builder#setJitter(float)}随机缩短，避免大量设备同时重连;<br>
+ * 2, 连续重连{@link Builder#setMaxAttempts(int)}次失败后放弃;<br>
+ * 3, 使用同一个策略的所有设备共享一个熔断器，连续失败达到阈值后熔断，熔断期间暂停重连，到期后只放行一个设备试探，
+ * 试探成功后恢复，失败后重新熔断;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ReconnectPolicy {
+    private final BleConnectOptions m_connectOptions;
+    private final long m_initialDelayMillis;
+    private final long m_maxDelayMillis;
+    private final float m_multiplier;
+    private final float m_jitter;
+    private final int m_maxAttempts;
+    private final int m_breakerThreshold;
+    private final long m_breakerOpenMillis;
+    private final Random m_random = new Random();
+    /**
+     * 熔断器状态，由this的锁保护
+     */
+    private int m_consecutiveFailures = 0;
+    private long m_openUntilMillis = 0;
+    /**
+     * 半开状态下正在试探的调用方，null表示没有试探
+     */
+    private Object m_prober = null;
+
+    private ReconnectPolicy(Builder builder) {
+        m_connectOptions = builder.m_connectOptions;
+        m_initialDelayMillis = builder.m_initialDelayMillis;
+        m_maxDelayMillis = builder.m_maxDelayMillis;
+        m_multiplier = builder.m_multiplier;
+        m_jitter = builder.m_jitter;
+        m_maxAttempts = builder.m_maxAttempts;
+        m_breakerThreshold = builder.m_breakerThreshold;
+        m_breakerOpenMillis = builder.m_breakerOpenMillis;
+    }
+
+    public BleConnectOptions getConnectOptions() {
+        return m_connectOptions;
+    }
+
+    public int getMaxAttempts() {
+        return m_maxAttempts;
+    }
+
+    /**
+     * 第{@code attempt}次重连前的退避时间
+     *
+     * @param attempt 从1开始
+     * @return 毫秒
+     */
+    public long getBackoffMillis(int attempt) {
+        double delay = m_initialDelayMillis * Math.pow(m_multiplier, Math.max(0, attempt - 1));
+        long backoff = (long) Math.min(delay, m_maxDelayMillis);
+        if (m_jitter > 0 && backoff > 0) {
+            float random;
+            synchronized (m_random) {
+                random = m_random.nextFloat();
+            }
+            backoff -= (long) (backoff * m_jitter * random);
+        }
+        return backoff;
+    }
+
+    /**
+     * 熔断剩余时间，未熔断返回0
+     *
+     * @return 毫秒
+     */
+    public synchronized long getBreakerRemainingMillis() {
+        return Math.max(0, m_openUntilMillis - System.currentTimeMillis());
+    }
+
+    public synchronized boolean isBreakerOpen() {
+        return m_openUntilMillis > System.currentTimeMillis();
+    }
+
+    /**
+     * 重连前向熔断器申请放行，半开状态下只有第一个调用方得到放行
+     *
+     * @param owner 调用方，放弃重连时用{@link #release(Object)}归还
+     * @return 0表示放行，否则为重新申请前需要等待的毫秒
+     */
+    synchronized long tryAcquire(Object owner) {
+        if (0 == m_openUntilMillis) {
+            return 0;
+        }
+        long remaining = m_openUntilMillis - System.currentTimeMillis();
+        if (remaining > 0) {
+            return remaining;
+        }
+        if (null == m_prober || owner == m_prober) {
+            m_prober = owner;
+            return 0;
+        }
+        //等待试探结果
+        return Math.max(1, m_initialDelayMillis);
+    }
+
+    /**
+     * 放弃重连时归还试探资格
+     *
+     * @param owner
+     */
+    synchronized void release(Object owner) {
+        if (owner == m_prober) {
+            m_prober = null;
+        }
+    }
+
+    synchronized void onSuccess() {
+        m_consecutiveFailures = 0;
+        m_openUntilMillis = 0;
+        m_prober = null;
+    }
+
+    synchronized void onFailure() {
+        if (m_breakerThreshold <= 0) {
+            return;
+        }
+        if (++m_consecutiveFailures >= m_breakerThreshold) {
+            m_openUntilMillis = System.currentTimeMillis() + m_breakerOpenMillis;
+            m_prober = null;
+            //半开状态下再失败一次即重新熔断
+            m_consecutiveFailures = m_breakerThreshold - 1;
+        }
+    }
+
+    public static class Builder {
+        private BleConnectOptions m_connectOptions = new BleConnectOptions.Builder()
+                .setConnectRetry(3)               // 连接如果失败重试3次
+                .setConnectTimeout(5000)          // 连接超时5s
+                .setServiceDiscoverRetry(3)       // 发现服务如果失败重试3次
+                .setServiceDiscoverTimeout(5000)  // 发现服务超时5s
+                .build();
+        private long m_initialDelayMillis = 500;
+        private long m_maxDelayMillis = 60_000;
+        private float m_multiplier = 2;
+        private float m_jitter = 0.5f;
+        private int m_maxAttempts = 8;
+        private int m_breakerThreshold = 0;
+        private long m_breakerOpenMillis = 0;
+
+        public Builder() {
+
+        }
+
+        public Builder setConnectOptions(final BleConnectOptions connectOptions) {
+            m_connectOptions = connectOptions;
+            return this;
+        }
+
+        public Builder setInitialDelay(final long initialDelay, final TimeUnit unit) {
+            m_initialDelayMillis = unit.toMillis(initialDelay);
+            return this;
+        }
+
+        public Builder setMaxDelay(final long maxDelay, final TimeUnit unit) {
+            m_maxDelayMillis = unit.toMillis(maxDelay);
+            return this;
+        }
+
+        public Builder setMultiplier(final float multiplier) {
+            if (multiplier < 1) {
+                throw new IllegalArgumentException("multiplier = " + multiplier);
+            }
+            m_multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * 退避时间随机缩短的比例，0表示不随机，1表示在[0, delay]之间随机
+         *
+         * @param jitter
+         * @return
+         */
+        public Builder setJitter(final float jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("jitter = " + jitter);
+            }
+            m_jitter = jitter;
+            return this;
+        }
+
+        public Builder setMaxAttempts(final int maxAttempts) {
+            m_maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * 连续失败{@code threshold}次后熔断{@code open}，0表示不熔断
+         *
+         * @param threshold
+         * @param open
+         * @param unit
+         * @return
+         */
+        public Builder setCircuitBreaker(final int threshold, final long open, final TimeUnit unit) {
+            m_breakerThreshold = threshold;
+            m_breakerOpenMillis = unit.toMillis(open);
+            return this;
+        }
+
+        public ReconnectPolicy build() {
+            return new ReconnectPolicy(this);
+        }
+    }
+}
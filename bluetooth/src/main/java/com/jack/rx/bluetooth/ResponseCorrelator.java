@@ -0,0 +1,17 @@
+package com.jack.rx.bluetooth;
+
+/**
+ * 描述: 在{@link Transaction}的应答通知中找出本次命令的应答
+ *
+ * @param <R> 应答解析结果
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public interface ResponseCorrelator<R> {
+    /**
+     * @param value 收到的一次通知
+     * @return 不是本次命令的应答时返回null，继续等待
+     * @throws Exception 是本次命令的应答但表示失败，事务以这个异常结束
+     */
+    R match(byte[] value) throws Exception;
+}
@@ -4,10 +4,10 @@ import android.annotation.SuppressLint;
 import android.app.Application;
 import android.content.Context;
 import android.util.Log;
-import android.util.Pair;
 
-import com.inuker.bluetooth.library.connect.listener.BleConnectStatusListener;
 import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.jack.rx.bluetooth.scan.ScanService;
+import com.jack.rx.bluetooth.transport.BluetoothTransport;
 import com.orhanobut.logger.Logger;
 
 import java.util.Collection;
@@ -15,6 +15,9 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.subjects.PublishSubject;
@@ -27,48 +30,143 @@ import io.reactivex.subjects.PublishSubject;
  */
 @SuppressWarnings("ResultOfMethodCallIgnored")
 public final class RxBluetooth extends BaseRxBluetooth {
+    /**
+     * 已知设备正在连接/断开时，等待稳定状态的最长时间
+     */
+    private static final long SETTLE_TIMEOUT_SECONDS = 12;
+    private static final int DEFAULT_HEALTH_PARALLELISM = 4;
+    private static final long HEALTH_TIMEOUT_MILLIS = 5000;
     private static RxBluetooth m_rxBluetooth;
-    private final PublishSubject<Pair<String, BluetoothStatus>> m_bluetoothStatusBus = PublishSubject.create();
     private final PublishSubject<String> m_stopReconnect = PublishSubject.create();
     private final Map<String, BluetoothHolder> m_bluetoothMap = new ConcurrentHashMap<>(8);
-    private final BleConnectStatusListener m_connectStatusListener = new BleConnectStatusListener() {
+    private final PublishSubject<ReconnectEvent> m_reconnectEvents = PublishSubject.create();
+    private final Map<String, ReconnectPolicy> m_reconnectPolicies = new ConcurrentHashMap<>(8);
+    private volatile ReconnectPolicy m_reconnectPolicy = new ReconnectPolicy.Builder().build();
+    private volatile ReconnectBudget m_reconnectBudget = ReconnectBudget.unlimited();
+    private final StatusDispatcher m_statusDispatcher = new StatusDispatcher();
+    private final ConnectionStateMachine m_connectionState = new ConnectionStateMachine(m_statusDispatcher, this::getConnectStatus);
+    private final ConnectionSlotManager m_slotManager = new ConnectionSlotManager(mac -> disconnect(mac).ignoreElement());
+    private final BluetoothTransport.OnConnectStatusChangedListener m_connectStatusListener = new BluetoothTransport.OnConnectStatusChangedListener() {
         @Override
         public void onConnectStatusChanged(final String mac, final int status) {
             final BluetoothStatus bluetoothStatus = BluetoothStatus.valueOf(status);
-            m_bluetoothStatusBus.onNext(Pair.create(mac, bluetoothStatus));
+            final BluetoothStatus previous = m_connectionState.transition(mac, bluetoothStatus);
             if (BluetoothStatus.CONNECTED != bluetoothStatus) {
-                autoConnect(mac, new BleConnectOptions.Builder()
-                                .setConnectRetry(3)               // 连接如果失败重试3次
-                                .setConnectTimeout(5000)          // 连接超时5s
-                                .setServiceDiscoverRetry(3)       // 发现服务如果失败重试3次
-                                .setServiceDiscoverTimeout(5000)  // 发现服务超时5s
-                                .build(),
-                        m_bluetoothMap.get(mac));
+                resetMtu(mac);
+                if (BluetoothStatus.DISCONNECTING == previous) {
+                    Logger.i("蓝牙%s主动断开, 不重连", mac);
+                    m_transport.unregisterConnectStatusListener(mac, this);
+                    return;
+                }
+                autoConnect(mac, getReconnectPolicy(mac), m_bluetoothMap.get(mac));
             }
         }
 
+        /**
+         * 按{@code policy}退避重连，每次尝试前还要从{@link #m_reconnectBudget}取得预算，并在退避结束时取得熔断器的放行
+         *
+         * @param mac
+         * @param policy
+         * @param holder
+         */
         @SuppressLint("CheckResult")
-        private void autoConnect(String mac, BleConnectOptions options, BluetoothHolder holder) {
-            connectByMac(mac, options, (mac1, bleGattProfile) -> Single.just(holder))
+        private void autoConnect(String mac, ReconnectPolicy policy, BluetoothHolder holder) {
+            final long start = System.nanoTime();
+            final int[] attempts = {0};
+            Single.defer(() -> {
+                long delay = Math.max(policy.getBackoffMillis(++attempts[0]), policy.getBreakerRemainingMillis());
+                delay = m_reconnectBudget.reserve(delay);
+                Logger.i("autoConnect %s 第%d次重连, 等待%dms", mac, attempts[0], delay);
+                return Completable.timer(delay, TimeUnit.MILLISECONDS)
+                        .andThen(awaitBreaker(policy, attempts))
+                        .doOnComplete(() -> m_connectionState.transition(mac, BluetoothStatus.CONNECTING))
+                        .andThen(connectByMac(mac, policy.getConnectOptions(), (mac1, bleGattProfile) -> Single.just(holder)))
+                        .doOnError(throwable -> policy.onFailure())
+                        .doOnDispose(() -> policy.release(attempts));
+            })
+                    .retry((count, throwable) -> count < policy.getMaxAttempts())
                     .takeUntil(m_stopReconnect.filter(s -> s.equals(mac)).take(1).singleOrError())
-                    .doOnSubscribe(disposable -> m_bluetoothStatusBus.onNext(Pair.create(mac, BluetoothStatus.CONNECTING)))
-                    .retry(3)
-                    .doFinally(() -> m_client.unregisterConnectStatusListener(mac, m_connectStatusListener))
+                    .doFinally(() -> m_transport.unregisterConnectStatusListener(mac, m_connectStatusListener))
                     .subscribe(bluetoothHolder -> {
+                                policy.onSuccess();
+                                m_metrics.recordReconnect(mac, true);
+                                m_reconnectEvents.onNext(new ReconnectEvent(mac, true, attempts[0], System.nanoTime() - start));
                             },
                             throwable -> {
                                 m_bluetoothMap.remove(mac);
-                                m_bluetoothStatusBus.onNext(Pair.create(mac, BluetoothStatus.DISCONNECTED));
+                                m_slotManager.release(mac);
+                                m_connectionState.transition(mac, BluetoothStatus.DISCONNECTED);
+                                m_metrics.recordReconnect(mac, false);
+                                m_reconnectEvents.onNext(new ReconnectEvent(mac, false, attempts[0], System.nanoTime() - start));
                             });
         }
+
+        /**
+         * 退避结束时再检查一次熔断器，退避期间熔断或者其他设备正在半开试探时继续等待，不计入重连次数
+         *
+         * @param policy
+         * @param owner
+         * @return
+         */
+        private Completable awaitBreaker(ReconnectPolicy policy, Object owner) {
+            return Completable.defer(() -> {
+                long wait = policy.tryAcquire(owner);
+                return 0 == wait
+                        ? Completable.complete()
+                        : Completable.timer(wait, TimeUnit.MILLISECONDS).andThen(awaitBreaker(policy, owner));
+            });
+        }
     };
 
-    private RxBluetooth(final Context client) {
-        super(client);
+    private final DeviceRegistry m_deviceRegistry;
+    private final FleetHealthPoller m_healthPoller = new FleetHealthPoller(this);
+    private final DecodeExecutor m_decodeExecutor = new DecodeExecutor();
+    private ScanService m_scanService;
+    private final SessionStore m_sessionStore;
+
+    private RxBluetooth(final Context client, GattOperationScheduler scheduler) {
+        super(client, scheduler);
+        m_deviceRegistry = new DeviceRegistry(client);
+        m_sessionStore = new SessionStore(client);
+    }
+
+    private RxBluetooth(final BluetoothTransport transport, GattOperationScheduler scheduler) {
+        super(transport, scheduler);
+        m_deviceRegistry = new DeviceRegistry(null);
+        m_sessionStore = new SessionStore(null);
     }
 
     public static void init(Application application) {
-        m_rxBluetooth = new RxBluetooth(application);
+        init(application, new GattOperationScheduler());
+    }
+
+    /**
+     * 使用指定的GATT调度器初始化，调度器决定每个设备和所有设备同时执行的操作数量
+     *
+     * @param application
+     * @param scheduler
+     */
+    public static void init(Application application, GattOperationScheduler scheduler) {
+        m_rxBluetooth = new RxBluetooth(application, scheduler);
+    }
+
+    /**
+     * 使用指定的传输层初始化，例如{@link com.jack.rx.bluetooth.transport.SimulatedTransport}
+     *
+     * @param transport
+     */
+    public static void init(BluetoothTransport transport) {
+        init(transport, new GattOperationScheduler());
+    }
+
+    /**
+     * 使用指定的传输层和GATT调度器初始化
+     *
+     * @param transport
+     * @param scheduler
+     */
+    public static void init(BluetoothTransport transport, GattOperationScheduler scheduler) {
+        m_rxBluetooth = new RxBluetooth(transport, scheduler);
     }
 
     public static RxBluetooth getInstance() {
@@ -83,29 +181,194 @@ public final class RxBluetooth extends BaseRxBluetooth {
     }
 
     /**
-     * 获取蓝牙设备电量，信号强度
+     * 获取所有设备的电量，信号强度，最多{@link #DEFAULT_HEALTH_PARALLELISM}个设备同时读取，读完后结束
+     *
      * @return
      */
     public Observable<BluetoothInfo> bluetoothStatusObservable() {
-        return Observable.fromIterable(getConnectedBluetoothStatus())
-                .concatMap(bluetoothHolder -> m_bluetoothStatusBus.filter(pair -> pair.first.equals(bluetoothHolder.getMac()))
-                        .map(statusPair -> statusPair.second)
-                        .startWith(getConnectStatus(bluetoothHolder.getMac()))
-                        .join(bluetoothHolder.readPower(),
-                                bluetoothStatus -> Observable.empty(),
-                                power -> Observable.empty(),
-                                (bluetoothStatus, power) -> new BluetoothInfo.Builder()
-                                        .setBluetoothStatus(bluetoothStatus)
-                                        .setPower(power))
-                        .join(readRssi(bluetoothHolder.getMac()).toObservable(),
-                                builder -> Observable.empty(),
-                                rssi -> Observable.empty(),
-                                (builder, rssi) -> builder.setRssi(rssi).build()));
+        return Flowable.fromIterable(getConnectedBluetoothStatus())
+                .flatMapSingle(bluetoothHolder -> m_healthPoller.sample(bluetoothHolder, HEALTH_TIMEOUT_MILLIS), false, DEFAULT_HEALTH_PARALLELISM)
+                .toObservable();
+    }
+
+    /**
+     * 每{@code interval}对所有设备做一轮健康采样，最多{@code parallelism}个设备同时读取，每轮在{@code interval}内结束
+     *
+     * @param interval
+     * @param unit
+     * @param parallelism
+     * @return
+     */
+    public Observable<FleetSnapshot> fleetHealthObservable(long interval, TimeUnit unit, int parallelism) {
+        return m_healthPoller.poll(interval, unit, parallelism);
+    }
+
+    /**
+     * 默认的断线重连策略
+     *
+     * @param policy
+     */
+    public void setReconnectPolicy(ReconnectPolicy policy) {
+        m_reconnectPolicy = policy;
+    }
+
+    /**
+     * 设备{@code mac}单独使用的重连策略，优先于{@link BluetoothHolderFactory#getReconnectPolicy()}
+     *
+     * @param mac
+     * @param policy
+     */
+    public void setReconnectPolicy(String mac, ReconnectPolicy policy) {
+        m_reconnectPolicies.put(mac, policy);
+    }
+
+    private ReconnectPolicy getReconnectPolicy(String mac) {
+        ReconnectPolicy policy = m_reconnectPolicies.get(mac);
+        return null == policy ? m_reconnectPolicy : policy;
+    }
+
+    /**
+     * 所有设备共享的重连预算，断电恢复时避免所有设备同时重连
+     *
+     * @param budget
+     */
+    public void setReconnectBudget(ReconnectBudget budget) {
+        m_reconnectBudget = budget;
+    }
+
+    /**
+     * 每次断线重连成功或放弃时发出，可用于统计重连耗时
+     *
+     * @return
+     */
+    public Observable<ReconnectEvent> reconnectObservable() {
+        return m_reconnectEvents;
+    }
+
+    /**
+     * 设备{@code mac}的当前连接状态，不查询协议栈
+     *
+     * @param mac
+     * @return
+     */
+    public BluetoothStatus getConnectionState(String mac) {
+        return m_connectionState.getState(mac);
+    }
+
+    /**
+     * 订阅设备{@code mac}的连接状态，订阅时立刻发出当前状态
+     *
+     * @param mac
+     * @return
+     */
+    public Observable<BluetoothStatus> connectionStateObservable(String mac) {
+        return m_connectionState.observe(mac);
+    }
+
+    /**
+     * 所有设备的连接状态变化，订阅时先发出每个已知设备的当前状态
+     *
+     * @return
+     */
+    public Observable<StatusEvent> fleetStatusObservable() {
+        return m_statusDispatcher.fleet();
+    }
+
+    /**
+     * 已知设备的注册表，使用{@link #init(BluetoothTransport)}初始化时只保存在内存中
+     *
+     * @return
+     */
+    public DeviceRegistry getDeviceRegistry() {
+        return m_deviceRegistry;
+    }
+
+    /**
+     * 已连接设备的会话快照，使用{@link #init(BluetoothTransport)}初始化时只保存在内存中
+     *
+     * @return
+     */
+    public SessionStore getSessionStore() {
+        return m_sessionStore;
+    }
+
+    /**
+     * 恢复上次进程中连接的设备，最多{@code maxConcurrency}个设备同时连接，单个设备失败不影响其他设备
+     *
+     * @param options
+     * @param maxConcurrency
+     * @return 恢复成功的设备
+     */
+    public Observable<BluetoothHolder> restoreSession(BleConnectOptions options, int maxConcurrency) {
+        return Flowable.defer(() -> Flowable.fromIterable(m_sessionStore.getEntries()))
+                .flatMapMaybe(entry -> {
+                    BluetoothHolderFactory factory;
+                    try {
+                        factory = Class.forName(entry.getFactoryClass()).asSubclass(BluetoothHolderFactory.class).getDeclaredConstructor().newInstance();
+                    } catch (Exception e) {
+                        Logger.e("restoreSession %s 无法创建 %s : %s", entry.getMac(), entry.getFactoryClass(), e.getMessage());
+                        m_sessionStore.remove(entry.getMac());
+                        return Maybe.<BluetoothHolder>empty();
+                    }
+                    return connect(entry.getMac(), options, factory, GattPriority.HIGH)
+                            .doOnError(throwable -> Logger.e("restoreSession %s 失败 : %s", entry.getMac(), throwable.getMessage()))
+                            .toMaybe()
+                            .onErrorComplete();
+                }, false, maxConcurrency)
+                .toObservable();
+    }
+
+    /**
+     * 默认配置的共享扫描，需要其他占空比或过滤条件时用{@link ScanService.Builder}创建
+     *
+     * @return
+     */
+    public synchronized ScanService getScanService() {
+        if (null == m_scanService) {
+            m_scanService = new ScanService.Builder(this).build();
+        }
+        return m_scanService;
+    }
+
+    /**
+     * 通知数据的解码线程，{@link BluetoothHolder#notify(UUID, UUID)}在这里按设备串行解码
+     *
+     * @return
+     */
+    public DecodeExecutor getDecodeExecutor() {
+        return m_decodeExecutor;
+    }
+
+    /**
+     * 连接槽位管理，可设置同时连接的设备数量和空闲淘汰时间
+     *
+     * @return
+     */
+    public ConnectionSlotManager getConnectionSlotManager() {
+        return m_slotManager;
+    }
+
+    @Override
+    protected void onTraffic(String mac) {
+        m_slotManager.touch(mac);
     }
 
     public Single<BluetoothHolder> connect(String mac, BleConnectOptions options, BluetoothHolderFactory factory) {
+        return connect(mac, options, factory, GattPriority.NORMAL);
+    }
+
+    /**
+     * 连接设备{@code mac}，没有空闲槽位时按{@code priority}排队，见{@link ConnectionSlotManager}
+     *
+     * @param mac
+     * @param options
+     * @param factory
+     * @param priority
+     * @return
+     */
+    public Single<BluetoothHolder> connect(String mac, BleConnectOptions options, BluetoothHolderFactory factory, GattPriority priority) {
         if (m_bluetoothMap.containsKey(mac)) {
-            return bluetoothStatusObservable(mac).map(bluetoothStatus -> {
+            return m_connectionState.awaitSettled(mac, SETTLE_TIMEOUT_SECONDS, TimeUnit.SECONDS).map(bluetoothStatus -> {
                 if (bluetoothStatus == BluetoothStatus.CONNECTED) {
                     return m_bluetoothMap.get(mac);
                 } else {
@@ -113,23 +376,52 @@ public final class RxBluetooth extends BaseRxBluetooth {
                 }
             });
         } else {
-            return connectByMac(mac, options, factory);
+            ReconnectPolicy policy = factory.getReconnectPolicy();
+            if (null != policy && !m_reconnectPolicies.containsKey(mac)) {
+                m_reconnectPolicies.put(mac, policy);
+            }
+            return m_slotManager.acquire(mac, priority)
+                    .doOnComplete(() -> m_connectionState.transition(mac, BluetoothStatus.CONNECTING))
+                    .andThen(connectByMac(mac, options, factory))
+                    .doOnSuccess(bluetoothHolder -> {
+                        m_slotManager.connected(mac);
+                        saveSession(mac, factory);
+                    })
+                    .doOnError(throwable -> {
+                        m_slotManager.release(mac);
+                        m_connectionState.transition(mac, BluetoothStatus.DISCONNECTED);
+                    })
+                    .doOnDispose(() -> {
+                        if (!m_bluetoothMap.containsKey(mac)) {
+                            m_slotManager.release(mac);
+                            m_connectionState.transition(mac, getConnectStatus(mac));
+                        }
+                    });
         }
     }
 
+    /**
+     * 断开设备{@code mac}，先停止重连并切换到{@link BluetoothStatus#DISCONNECTING}，断开后不会自动重连
+     *
+     * @param mac
+     * @return
+     */
     public Single<BluetoothStatus> disconnect(String mac) {
         if (m_bluetoothMap.containsKey(mac)) {
-            return bluetoothStatusObservable(mac)
-                    .doOnSubscribe(disposable -> m_stopReconnect.onNext(mac))
-                    .flatMap(bluetoothStatus -> {
-                        if (bluetoothStatus == BluetoothStatus.DISCONNECTED) {
-                            Logger.i("检查到蓝牙状态%s", bluetoothStatus);
-                            return Single.just(BluetoothStatus.DISCONNECTED);
-                        } else {
-                            Logger.i("准备断开蓝牙状态%s", bluetoothStatus);
-                            return disconnect0(mac).doFinally(() -> m_bluetoothMap.remove(mac));
-                        }
-                    });
+            return Single.defer(() -> {
+                m_stopReconnect.onNext(mac);
+                BluetoothStatus previous = m_connectionState.transition(mac, BluetoothStatus.DISCONNECTING);
+                if (previous == BluetoothStatus.DISCONNECTED) {
+                    Logger.i("检查到蓝牙状态%s", previous);
+                    m_connectionState.transition(mac, BluetoothStatus.DISCONNECTED);
+                    return Single.just(BluetoothStatus.DISCONNECTED);
+                } else {
+                    Logger.i("准备断开蓝牙状态%s", previous);
+                    return disconnect0(mac)
+                            .doOnSuccess(bluetoothStatus -> m_connectionState.transition(mac, bluetoothStatus));
+                }
+            }).doOnEvent((bluetoothStatus, throwable) -> release(mac))
+                    .doOnDispose(() -> release(mac));
         } else {
             Logger.i("蓝牙%s未连接", mac);
             return Single.just(BluetoothStatus.DISCONNECTED);
@@ -137,28 +429,40 @@ public final class RxBluetooth extends BaseRxBluetooth {
     }
 
     /**
-     * 1, 订阅6s之后，查到当前设备状态(立刻查询，可能错误，因为状态不立马反映出来),如果得到{@link BluetoothStatus#CONNECTED}则结束;<br>
-     * 2, 状态总线上，开启一个12s窗口，如果得到{@link BluetoothStatus#CONNECTED}则结束;<br>
+     * 断开结束时释放设备，在结果发出之前执行，断开后立刻重连不会再拿到旧的设备<br>
+     * 迟到的连接状态回调不再处理，状态通道随设备一起删除
      *
      * @param mac
-     * @return
      */
-    private Single<BluetoothStatus> bluetoothStatusObservable(String mac) {
-        return m_bluetoothStatusBus.filter(pair -> pair.first.equals(mac) && pair.second == BluetoothStatus.CONNECTED)
-                .takeLast(1, 12, TimeUnit.SECONDS)
-                .map(stringBluetoothStatusPair -> stringBluetoothStatusPair.second)
-                .mergeWith(Observable.timer(6, TimeUnit.SECONDS)
-                        .map(aLong -> getConnectStatus(mac))
-                        .filter(bluetoothStatus -> bluetoothStatus == BluetoothStatus.CONNECTED))
-                .first(BluetoothStatus.DISCONNECTED);
+    private void release(String mac) {
+        m_sessionStore.remove(mac);
+        m_bluetoothMap.remove(mac);
+        m_slotManager.release(mac);
+        resetMtu(mac);
+        m_transport.unregisterConnectStatusListener(mac, m_connectStatusListener);
+        m_connectionState.release(mac);
+    }
+
+    /**
+     * 只记录可以通过无参构造函数重新创建的工厂，lambda和匿名类无法恢复
+     *
+     * @param mac
+     * @param factory
+     */
+    private void saveSession(String mac, BluetoothHolderFactory factory) {
+        Class<?> factoryClass = factory.getClass();
+        if (factoryClass.isSynthetic() || factoryClass.isAnonymousClass() || factoryClass.isLocalClass()) {
+            return;
+        }
+        m_sessionStore.save(mac, factoryClass.getName());
     }
 
     private Single<BluetoothHolder> connectByMac(String mac, BleConnectOptions options, BluetoothHolderFactory factory) {
         return connect0(mac, options)
-                .flatMap(profilePair -> factory.create(mac, profilePair.second).map(bluetoothHolder -> {
+                .flatMap(profile -> factory.create(mac, profile).map(bluetoothHolder -> {
                     m_bluetoothMap.put(mac, bluetoothHolder);
-                    m_bluetoothStatusBus.onNext(Pair.create(mac, BluetoothStatus.CONNECTED));
-                    m_client.registerConnectStatusListener(mac, m_connectStatusListener);
+                    m_connectionState.transition(mac, BluetoothStatus.CONNECTED);
+                    m_transport.registerConnectStatusListener(mac, m_connectStatusListener);
                     return bluetoothHolder;
                 }));
     }
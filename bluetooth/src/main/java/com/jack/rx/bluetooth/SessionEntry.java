@@ -0,0 +1,92 @@
+package com.jack.rx.bluetooth;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 描述: {@link SessionStore}中保存的一个已连接设备
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class SessionEntry {
+    private final String m_mac;
+    private final String m_factoryClass;
+    private final Map<String, String> m_extras;
+
+    SessionEntry(String mac, String factoryClass, Map<String, String> extras) {
+        m_mac = mac;
+        m_factoryClass = factoryClass;
+        m_extras = Collections.unmodifiableMap(extras);
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    /**
+     * 创建{@link BluetoothHolder}的{@link BluetoothHolderFactory}类名，恢复时通过无参构造函数创建
+     *
+     * @return
+     */
+    public String getFactoryClass() {
+        return m_factoryClass;
+    }
+
+    /**
+     * 设备上正在进行的订阅等附加信息，由{@link BluetoothHolder}自行约定
+     *
+     * @return
+     */
+    public Map<String, String> getExtras() {
+        return m_extras;
+    }
+
+    public String getExtra(String key) {
+        return m_extras.get(key);
+    }
+
+    SessionEntry withExtra(String key, String value) {
+        Map<String, String> extras = new HashMap<>(m_extras);
+        if (null == value) {
+            extras.remove(key);
+        } else {
+            extras.put(key, value);
+        }
+        return new SessionEntry(m_mac, m_factoryClass, extras);
+    }
+
+    JSONObject toJson() throws JSONException {
+        return new JSONObject()
+                .put("mac", m_mac)
+                .put("factory", m_factoryClass)
+                .put("extras", new JSONObject(m_extras));
+    }
+
+    static SessionEntry fromJson(JSONObject json) throws JSONException {
+        Map<String, String> extras = new HashMap<>(4);
+        JSONObject extrasJson = json.optJSONObject("extras");
+        if (null != extrasJson) {
+            Iterator<String> keys = extrasJson.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                extras.put(key, extrasJson.getString(key));
+            }
+        }
+        return new SessionEntry(json.getString("mac"), json.getString("factory"), extras);
+    }
+
+    @Override
+    public String toString() {
+        return "SessionEntry{" +
+                "mac='" + m_mac + '\'' +
+                ", factoryClass='" + m_factoryClass + '\'' +
+                ", extras=" + m_extras +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.jack.rx.bluetooth;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.orhanobut.logger.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 描述: 已连接设备的会话快照，进程重启后由{@link RxBluetooth#restoreSession(com.inuker.bluetooth.library.connect.options.BleConnectOptions, int)}恢复<br>
+ * 1, 连接成功时记录设备和{@link BluetoothHolderFactory}，主动断开时删除;<br>
+ * 2, {@link BluetoothHolder}可以记录正在进行的订阅参数，恢复连接后重新订阅;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class SessionStore {
+    private static final String PREFERENCES_NAME = "rx_bluetooth_session";
+
+    private final SharedPreferences m_preferences;
+    private final Map<String, SessionEntry> m_entries = new ConcurrentHashMap<>(8);
+
+    /**
+     * @param context 为null时只保存在内存中
+     */
+    SessionStore(Context context) {
+        m_preferences = null == context ? null : context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        load();
+    }
+
+    public SessionEntry get(String mac) {
+        return m_entries.get(mac);
+    }
+
+    public List<SessionEntry> getEntries() {
+        return new ArrayList<>(m_entries.values());
+    }
+
+    /**
+     * 记录设备{@code mac}正在进行的订阅等附加信息
+     *
+     * @param mac
+     * @param key
+     * @param value 为null时删除
+     */
+    public synchronized void putExtra(String mac, String key, String value) {
+        SessionEntry entry = m_entries.get(mac);
+        if (null != entry) {
+            persist(entry.withExtra(key, value));
+        }
+    }
+
+    public void removeExtra(String mac, String key) {
+        putExtra(mac, key, null);
+    }
+
+    synchronized void save(String mac, String factoryClass) {
+        SessionEntry entry = m_entries.get(mac);
+        if (null == entry || !factoryClass.equals(entry.getFactoryClass())) {
+            persist(new SessionEntry(mac, factoryClass, new HashMap<>(4)));
+        }
+    }
+
+    synchronized void remove(String mac) {
+        m_entries.remove(mac);
+        if (null != m_preferences) {
+            m_preferences.edit().remove(mac).apply();
+        }
+    }
+
+    private void persist(SessionEntry entry) {
+        m_entries.put(entry.getMac(), entry);
+        if (null != m_preferences) {
+            try {
+                m_preferences.edit().putString(entry.getMac(), entry.toJson().toString()).apply();
+            } catch (JSONException e) {
+                Logger.e("SessionStore persist %s : %s", entry.getMac(), e.getMessage());
+            }
+        }
+    }
+
+    private void load() {
+        if (null == m_preferences) {
+            return;
+        }
+        for (Map.Entry<String, ?> item : m_preferences.getAll().entrySet()) {
+            try {
+                SessionEntry entry = SessionEntry.fromJson(new JSONObject(String.valueOf(item.getValue())));
+                m_entries.put(entry.getMac(), entry);
+            } catch (JSONException e) {
+                Logger.e("SessionStore load %s : %s", item.getKey(), e.getMessage());
+            }
+        }
+    }
+}
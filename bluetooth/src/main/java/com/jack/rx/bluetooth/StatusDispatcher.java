@@ -0,0 +1,214 @@
+package com.jack.rx.bluetooth;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * 描述: 按mac索引的连接状态分发<br>
+ * 1, 每个设备一个重放最新状态的通道，分发时按mac直接找到通道，不需要每个订阅者过滤所有设备的事件;<br>
+ * 2, {@link StatusEvent}按(mac, status)缓存，分发不创建事件对象;<br>
+ * 3, 所有设备的状态汇总到一个车队数据流，订阅时先发出每个设备的当前状态;<br>
+ * 4, 通道锁内只切换状态并按切换顺序入队，锁外由一个线程依次发出到串行化的subject和车队发射器，订阅者的回调不阻塞任何通道的切换;<br>
+ * 5, 设备释放后{@link #remove(String)}删除通道，通道的订阅者收到完成;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class StatusDispatcher {
+    /**
+     * 通道删除后在队列中排在所有状态之后，发出完成
+     */
+    private static final Object COMPLETE = new Object();
+
+    private final ConcurrentMap<String, Channel> m_channels = new ConcurrentHashMap<>(8);
+    /**
+     * 车队数据流的订阅者，都是{@link ObservableEmitter#serialize()}后的发射器，多个通道同时发出时排队而不阻塞
+     */
+    private final List<ObservableEmitter<StatusEvent>> m_fleet = new CopyOnWriteArrayList<>();
+
+    /**
+     * 获取设备{@code mac}的通道，不存在时以{@code initial}创建
+     *
+     * @param mac
+     * @param initial
+     * @return
+     */
+    Channel channel(String mac, BluetoothStatus initial) {
+        Channel channel = m_channels.get(mac);
+        if (null == channel) {
+            Channel created = new Channel(mac, initial);
+            channel = m_channels.putIfAbsent(mac, created);
+            if (null == channel) {
+                channel = created;
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * 查找设备{@code mac}的通道
+     *
+     * @param mac
+     * @return 不存在时返回null
+     */
+    Channel find(String mac) {
+        return m_channels.get(mac);
+    }
+
+    /**
+     * 删除设备{@code mac}的通道，已经入队的状态发出后通道的订阅者收到完成
+     *
+     * @param mac
+     */
+    void remove(String mac) {
+        Channel channel = m_channels.remove(mac);
+        if (null != channel) {
+            synchronized (channel) {
+                channel.m_removed = true;
+                channel.m_pending.offer(COMPLETE);
+            }
+            drain(channel);
+        }
+    }
+
+    /**
+     * 切换{@code channel}的状态并发出到车队数据流，状态没有变化时不发出，同一通道的状态按切换顺序发出<br>
+     * 其他线程正在发出该通道的状态时只入队，由该线程发出
+     *
+     * @param channel
+     * @param status
+     * @return 切换前的状态，通道已经被删除时返回null
+     */
+    BluetoothStatus dispatch(Channel channel, BluetoothStatus status) {
+        BluetoothStatus previous;
+        synchronized (channel) {
+            if (channel.m_removed) {
+                return null;
+            }
+            previous = channel.m_status;
+            if (previous == status) {
+                return previous;
+            }
+            channel.m_status = status;
+            channel.m_pending.offer(status);
+        }
+        drain(channel);
+        return previous;
+    }
+
+    /**
+     * 所有设备的状态变化，订阅时先发出每个设备的当前状态<br>
+     * 先登记再把每个通道的当前状态排进该通道的队列，订阅的同时发生的切换不会丢失也不会被旧状态覆盖，但同一状态可能连续发出两次
+     *
+     * @return
+     */
+    Observable<StatusEvent> fleet() {
+        return Observable.create(source -> {
+            ObservableEmitter<StatusEvent> emitter = source.serialize();
+            m_fleet.add(emitter);
+            emitter.setCancellable(() -> m_fleet.remove(emitter));
+            for (Channel channel : m_channels.values()) {
+                synchronized (channel) {
+                    if (channel.m_removed) {
+                        continue;
+                    }
+                    channel.m_pending.offer(new Snapshot(emitter, channel.getEvent()));
+                }
+                drain(channel);
+            }
+        });
+    }
+
+    /**
+     * 在锁外依次发出{@code channel}队列中的状态，同一时刻只有一个线程发出
+     *
+     * @param channel
+     */
+    private void drain(Channel channel) {
+        if (0 != channel.m_wip.getAndIncrement()) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Object item;
+            while (null != (item = channel.m_pending.poll())) {
+                if (item instanceof BluetoothStatus) {
+                    BluetoothStatus status = (BluetoothStatus) item;
+                    channel.m_subject.onNext(status);
+                    StatusEvent event = channel.m_events[status.ordinal()];
+                    for (ObservableEmitter<StatusEvent> emitter : m_fleet) {
+                        emitter.onNext(event);
+                    }
+                } else if (item instanceof Snapshot) {
+                    Snapshot snapshot = (Snapshot) item;
+                    snapshot.m_emitter.onNext(snapshot.m_event);
+                } else if (COMPLETE == item) {
+                    channel.m_subject.onComplete();
+                }
+            }
+            missed = channel.m_wip.addAndGet(-missed);
+        } while (0 != missed);
+    }
+
+    static final class Channel {
+        private final Subject<BluetoothStatus> m_subject;
+        private final StatusEvent[] m_events;
+        /**
+         * 在通道锁内按切换顺序入队，在锁外发出
+         */
+        private final Queue<Object> m_pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger m_wip = new AtomicInteger();
+        private volatile BluetoothStatus m_status;
+        private boolean m_removed;
+
+        private Channel(String mac, BluetoothStatus initial) {
+            m_subject = BehaviorSubject.createDefault(initial).toSerialized();
+            m_status = initial;
+            BluetoothStatus[] statuses = BluetoothStatus.values();
+            m_events = new StatusEvent[statuses.length];
+            for (BluetoothStatus status : statuses) {
+                m_events[status.ordinal()] = new StatusEvent(mac, status);
+            }
+        }
+
+        BluetoothStatus getStatus() {
+            return m_status;
+        }
+
+        StatusEvent getEvent() {
+            return m_events[m_status.ordinal()];
+        }
+
+        /**
+         * 订阅时立刻发出最近发出的状态，通道被删除后完成
+         *
+         * @return
+         */
+        Observable<BluetoothStatus> observe() {
+            return m_subject;
+        }
+    }
+
+    /**
+     * 新的车队订阅者在某个通道上的当前状态
+     */
+    private static final class Snapshot {
+        private final ObservableEmitter<StatusEvent> m_emitter;
+        private final StatusEvent m_event;
+
+        private Snapshot(ObservableEmitter<StatusEvent> emitter, StatusEvent event) {
+            m_emitter = emitter;
+            m_event = event;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.jack.rx.bluetooth;
+
+/**
+ * 描述: 设备连接状态变化，每个(mac, status)只创建一次，由{@link RxBluetooth#fleetStatusObservable()}发出
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class StatusEvent {
+    private final String m_mac;
+    private final BluetoothStatus m_status;
+
+    StatusEvent(String mac, BluetoothStatus status) {
+        m_mac = mac;
+        m_status = status;
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    public BluetoothStatus getStatus() {
+        return m_status;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusEvent{" +
+                "mac='" + m_mac + '\'' +
+                ", status=" + m_status +
+                '}';
+    }
+}
@@ -0,0 +1,121 @@
+package com.jack.rx.bluetooth;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 一次"写命令-收应答"的事务，见{@link BluetoothHolder#transact(Transaction, ResponseCorrelator)}
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class Transaction {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private final UUID m_commandService;
+    private final UUID m_commandCharacter;
+    private final byte[] m_command;
+    private final UUID m_responseService;
+    private final UUID m_responseCharacter;
+    private final long m_timeoutMillis;
+    private final GattPriority m_priority;
+
+    private Transaction(Builder builder) {
+        m_commandService = builder.m_commandService;
+        m_commandCharacter = builder.m_commandCharacter;
+        m_command = builder.m_command;
+        m_responseService = builder.m_responseService;
+        m_responseCharacter = builder.m_responseCharacter;
+        m_timeoutMillis = builder.m_timeoutMillis;
+        m_priority = builder.m_priority;
+    }
+
+    public UUID getCommandService() {
+        return m_commandService;
+    }
+
+    public UUID getCommandCharacter() {
+        return m_commandCharacter;
+    }
+
+    public byte[] getCommand() {
+        return m_command;
+    }
+
+    public UUID getResponseService() {
+        return m_responseService;
+    }
+
+    public UUID getResponseCharacter() {
+        return m_responseCharacter;
+    }
+
+    /**
+     * 从发出命令到收到第一个应答的超时时间
+     *
+     * @return
+     */
+    public long getTimeoutMillis() {
+        return m_timeoutMillis;
+    }
+
+    public GattPriority getPriority() {
+        return m_priority;
+    }
+
+    @Override
+    public String toString() {
+        return "Transaction{" +
+                "commandCharacter=" + m_commandCharacter +
+                ", responseCharacter=" + m_responseCharacter +
+                ", timeoutMillis=" + m_timeoutMillis +
+                ", priority=" + m_priority +
+                '}';
+    }
+
+    public static class Builder {
+        private UUID m_commandService;
+        private UUID m_commandCharacter;
+        private byte[] m_command;
+        private UUID m_responseService;
+        private UUID m_responseCharacter;
+        private long m_timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+        private GattPriority m_priority = GattPriority.NORMAL;
+
+        public Builder setCommand(UUID serviceUUID, UUID characterUUID, byte[] command) {
+            m_commandService = serviceUUID;
+            m_commandCharacter = characterUUID;
+            m_command = command;
+            return this;
+        }
+
+        public Builder setResponse(UUID serviceUUID, UUID characterUUID) {
+            m_responseService = serviceUUID;
+            m_responseCharacter = characterUUID;
+            return this;
+        }
+
+        public Builder setTimeout(long timeout, TimeUnit unit) {
+            m_timeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * 打开通知和写命令使用同一个优先级，保证打开通知先于命令执行
+         *
+         * @param priority
+         * @return
+         */
+        public Builder setPriority(GattPriority priority) {
+            m_priority = priority;
+            return this;
+        }
+
+        public Transaction build() {
+            if (null == m_command || null == m_responseCharacter) {
+                throw new IllegalStateException("command and response must be set");
+            }
+            return new Transaction(this);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.jack.rx.bluetooth.metrics;
+
+import com.jack.rx.bluetooth.GattOperation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.reactivex.Observable;
+
+/**
+ * 描述: GATT操作指标<br>
+ * 1, 按(mac, character)记录各操作的延迟直方图、失败错误码、通知次数和字节数;<br>
+ * 2, 按mac记录断线重连次数;<br>
+ * 3, 记录路径只有哈希查找和原子自增，快照时才分配对象;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class BluetoothMetrics {
+    /**
+     * 连接等设备级操作使用的character
+     */
+    private static final UUID DEVICE = new UUID(0, 0);
+
+    private final ConcurrentMap<String, ConcurrentMap<UUID, Entry>> m_entries = new ConcurrentHashMap<>(8);
+    private final ConcurrentMap<String, AtomicLong> m_reconnects = new ConcurrentHashMap<>(8);
+    private final ConcurrentMap<String, AtomicLong> m_reconnectFailures = new ConcurrentHashMap<>(8);
+
+    /**
+     * @param operation
+     * @param mac
+     * @param character 设备级操作为null
+     * @param nanos
+     */
+    public void recordLatency(GattOperation operation, String mac, UUID character, long nanos) {
+        entry(mac, character).latency(operation).recordNanos(nanos);
+    }
+
+    /**
+     * 记录失败的请求
+     *
+     * @param operation
+     * @param mac
+     * @param character 设备级操作为null
+     * @param code      返回码，见{@link com.inuker.bluetooth.library.Constants}
+     */
+    public void recordError(GattOperation operation, String mac, UUID character, int code) {
+        Entry entry = entry(mac, character);
+        String key = operation.name() + ':' + code;
+        AtomicLong count = entry.m_errors.get(key);
+        if (null == count) {
+            AtomicLong created = new AtomicLong();
+            count = entry.m_errors.putIfAbsent(key, created);
+            if (null == count) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    public void recordNotification(String mac, UUID character, int bytes) {
+        Entry entry = entry(mac, character);
+        long now = System.nanoTime();
+        if (0 == entry.m_notifications.getAndIncrement()) {
+            entry.m_firstNotifyNanos = now;
+        }
+        entry.m_notificationBytes.addAndGet(bytes);
+        entry.m_lastNotifyNanos = now;
+    }
+
+    public void recordReconnect(String mac, boolean success) {
+        ConcurrentMap<String, AtomicLong> counters = success ? m_reconnects : m_reconnectFailures;
+        AtomicLong count = counters.get(mac);
+        if (null == count) {
+            AtomicLong created = new AtomicLong();
+            count = counters.putIfAbsent(mac, created);
+            if (null == count) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    public MetricsSnapshot snapshot() {
+        List<CharacteristicMetrics> characteristics = new ArrayList<>(m_entries.size() * 4);
+        for (Map.Entry<String, ConcurrentMap<UUID, Entry>> device : m_entries.entrySet()) {
+            for (Map.Entry<UUID, Entry> item : device.getValue().entrySet()) {
+                Entry entry = item.getValue();
+                Map<GattOperation, HistogramSnapshot> latencies = new EnumMap<>(GattOperation.class);
+                for (GattOperation operation : GattOperation.values()) {
+                    LatencyHistogram histogram = entry.m_latencies.get(operation.ordinal());
+                    if (null != histogram) {
+                        latencies.put(operation, histogram.snapshot());
+                    }
+                }
+                Map<String, Long> errors = new HashMap<>(entry.m_errors.size());
+                for (Map.Entry<String, AtomicLong> error : entry.m_errors.entrySet()) {
+                    errors.put(error.getKey(), error.getValue().get());
+                }
+                characteristics.add(new CharacteristicMetrics(device.getKey(),
+                        DEVICE.equals(item.getKey()) ? null : item.getKey(),
+                        latencies,
+                        errors,
+                        entry.m_notifications.get(),
+                        entry.m_notificationBytes.get(),
+                        entry.m_lastNotifyNanos - entry.m_firstNotifyNanos));
+            }
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), characteristics, counts(m_reconnects), counts(m_reconnectFailures));
+    }
+
+    /**
+     * 每{@code interval}发出一次快照
+     *
+     * @param interval
+     * @param unit
+     * @return
+     */
+    public Observable<MetricsSnapshot> snapshots(long interval, TimeUnit unit) {
+        return Observable.interval(interval, unit).map(tick -> snapshot());
+    }
+
+    /**
+     * 清空所有指标
+     */
+    public void reset() {
+        m_entries.clear();
+        m_reconnects.clear();
+        m_reconnectFailures.clear();
+    }
+
+    private Entry entry(String mac, UUID character) {
+        ConcurrentMap<UUID, Entry> device = m_entries.get(mac);
+        if (null == device) {
+            ConcurrentMap<UUID, Entry> created = new ConcurrentHashMap<>(8);
+            device = m_entries.putIfAbsent(mac, created);
+            if (null == device) {
+                device = created;
+            }
+        }
+        UUID key = null == character ? DEVICE : character;
+        Entry entry = device.get(key);
+        if (null == entry) {
+            Entry created = new Entry();
+            entry = device.putIfAbsent(key, created);
+            if (null == entry) {
+                entry = created;
+            }
+        }
+        return entry;
+    }
+
+    private static Map<String, Long> counts(ConcurrentMap<String, AtomicLong> counters) {
+        Map<String, Long> counts = new HashMap<>(counters.size());
+        for (Map.Entry<String, AtomicLong> counter : counters.entrySet()) {
+            counts.put(counter.getKey(), counter.getValue().get());
+        }
+        return counts;
+    }
+
+    private static final class Entry {
+        private final AtomicReferenceArray<LatencyHistogram> m_latencies = new AtomicReferenceArray<>(GattOperation.values().length);
+        private final ConcurrentMap<String, AtomicLong> m_errors = new ConcurrentHashMap<>(4);
+        private final AtomicLong m_notifications = new AtomicLong();
+        private final AtomicLong m_notificationBytes = new AtomicLong();
+        private volatile long m_firstNotifyNanos;
+        private volatile long m_lastNotifyNanos;
+
+        LatencyHistogram latency(GattOperation operation) {
+            LatencyHistogram histogram = m_latencies.get(operation.ordinal());
+            if (null == histogram) {
+                m_latencies.compareAndSet(operation.ordinal(), null, new LatencyHistogram());
+                histogram = m_latencies.get(operation.ordinal());
+            }
+            return histogram;
+        }
+    }
+}
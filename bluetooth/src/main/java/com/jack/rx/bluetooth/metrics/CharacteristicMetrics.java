@@ -0,0 +1,101 @@
+package com.jack.rx.bluetooth.metrics;
+
+import com.jack.rx.bluetooth.GattOperation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 描述: 一个(mac, character)的指标快照，连接等设备级操作的character为null
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class CharacteristicMetrics {
+    private final String m_mac;
+    private final UUID m_character;
+    private final Map<GattOperation, HistogramSnapshot> m_latencies;
+    private final Map<String, Long> m_errors;
+    private final long m_notifications;
+    private final long m_notificationBytes;
+    private final long m_notificationSpanNanos;
+
+    CharacteristicMetrics(String mac, UUID character, Map<GattOperation, HistogramSnapshot> latencies, Map<String, Long> errors,
+                          long notifications, long notificationBytes, long notificationSpanNanos) {
+        m_mac = mac;
+        m_character = character;
+        m_latencies = Collections.unmodifiableMap(latencies);
+        m_errors = Collections.unmodifiableMap(errors);
+        m_notifications = notifications;
+        m_notificationBytes = notificationBytes;
+        m_notificationSpanNanos = notificationSpanNanos;
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    public UUID getCharacter() {
+        return m_character;
+    }
+
+    public Map<GattOperation, HistogramSnapshot> getLatencies() {
+        return m_latencies;
+    }
+
+    /**
+     * @param operation
+     * @return 没有记录时返回null
+     */
+    public HistogramSnapshot getLatency(GattOperation operation) {
+        return m_latencies.get(operation);
+    }
+
+    /**
+     * 失败次数，key为"操作:错误码"，例如"READ:-1"
+     *
+     * @return
+     */
+    public Map<String, Long> getErrors() {
+        return m_errors;
+    }
+
+    public long getNotifications() {
+        return m_notifications;
+    }
+
+    public long getNotificationBytes() {
+        return m_notificationBytes;
+    }
+
+    /**
+     * 第一次到最后一次通知之间的平均通知频率
+     *
+     * @return 次/秒
+     */
+    public double getNotificationRate() {
+        return m_notificationSpanNanos <= 0 ? 0 : (m_notifications - 1) * 1e9 / m_notificationSpanNanos;
+    }
+
+    /**
+     * 第一次到最后一次通知之间的平均吞吐量
+     *
+     * @return 字节/秒
+     */
+    public double getNotificationThroughput() {
+        return m_notificationSpanNanos <= 0 ? 0 : m_notificationBytes * 1e9 / m_notificationSpanNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "CharacteristicMetrics{" +
+                "mac='" + m_mac + '\'' +
+                ", character=" + m_character +
+                ", latencies=" + m_latencies +
+                ", errors=" + m_errors +
+                ", notifications=" + m_notifications +
+                ", notificationBytes=" + m_notificationBytes +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.jack.rx.bluetooth.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: {@link LatencyHistogram}的快照，以微秒为单位
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class HistogramSnapshot {
+    private final long[] m_counts;
+    private final long m_count;
+    private final long m_sum;
+    private final long m_max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        m_counts = counts;
+        m_count = count;
+        m_sum = sum;
+        m_max = max;
+    }
+
+    public long getCount() {
+        return m_count;
+    }
+
+    public long getMax(TimeUnit unit) {
+        return unit.convert(m_max, TimeUnit.MICROSECONDS);
+    }
+
+    public double getMeanMicros() {
+        return 0 == m_count ? Double.NaN : (double) m_sum / m_count;
+    }
+
+    /**
+     * 百分位延迟，返回所在桶的上界
+     *
+     * @param percentile (0, 100]
+     * @return 微秒，没有记录时返回0
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        for (long count : m_counts) {
+            total += count;
+        }
+        if (0 == total) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < m_counts.length; ++i) {
+            seen += m_counts[i];
+            if (seen >= Math.max(1, target)) {
+                return Math.min(LatencyHistogram.upperBound(i), m_max);
+            }
+        }
+        return m_max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + m_count +
+                ", mean=" + (long) getMeanMicros() + "us" +
+                ", p50=" + getPercentileMicros(50) + "us" +
+                ", p99=" + getPercentileMicros(99) + "us" +
+                ", max=" + m_max + "us" +
+                '}';
+    }
+}
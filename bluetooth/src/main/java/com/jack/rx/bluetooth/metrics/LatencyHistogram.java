@@ -0,0 +1,75 @@
+package com.jack.rx.bluetooth.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 描述: 对数-线性分桶的延迟直方图(类似HdrHistogram)，以微秒为单位<br>
+ * 1, 每个2的幂区间再线性分为{@link #SUB_BUCKETS}个桶，相对误差不超过1/{@link #SUB_BUCKETS};<br>
+ * 2, 记录只做原子自增，不分配对象，不加锁;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * 最大约2^40us，即12天
+     */
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray m_counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong m_count = new AtomicLong();
+    private final AtomicLong m_sum = new AtomicLong();
+    private final AtomicLong m_max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        m_counts.incrementAndGet(index(micros));
+        m_count.incrementAndGet();
+        m_sum.addAndGet(micros);
+        long max = m_max.get();
+        while (micros > max && !m_max.compareAndSet(max, micros)) {
+            max = m_max.get();
+        }
+    }
+
+    public long getCount() {
+        return m_count.get();
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] = m_counts.get(i);
+        }
+        return new HistogramSnapshot(counts, m_count.get(), m_sum.get(), m_max.get());
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶{@code index}的上界(包含)
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jack.rx.bluetooth.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 描述: {@link BluetoothMetrics}的快照
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class MetricsSnapshot {
+    private final long m_timestampMillis;
+    private final List<CharacteristicMetrics> m_characteristics;
+    private final Map<String, Long> m_reconnects;
+    private final Map<String, Long> m_reconnectFailures;
+
+    MetricsSnapshot(long timestampMillis, List<CharacteristicMetrics> characteristics,
+                    Map<String, Long> reconnects, Map<String, Long> reconnectFailures) {
+        m_timestampMillis = timestampMillis;
+        m_characteristics = Collections.unmodifiableList(characteristics);
+        m_reconnects = Collections.unmodifiableMap(reconnects);
+        m_reconnectFailures = Collections.unmodifiableMap(reconnectFailures);
+    }
+
+    public long getTimestamp() {
+        return m_timestampMillis;
+    }
+
+    public List<CharacteristicMetrics> getCharacteristics() {
+        return m_characteristics;
+    }
+
+    /**
+     * 每个设备断线重连成功的次数
+     *
+     * @return
+     */
+    public Map<String, Long> getReconnects() {
+        return m_reconnects;
+    }
+
+    /**
+     * 每个设备断线重连放弃的次数
+     *
+     * @return
+     */
+    public Map<String, Long> getReconnectFailures() {
+        return m_reconnectFailures;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "characteristics=" + m_characteristics +
+                ", reconnects=" + m_reconnects +
+                ", reconnectFailures=" + m_reconnectFailures +
+                '}';
+    }
+}
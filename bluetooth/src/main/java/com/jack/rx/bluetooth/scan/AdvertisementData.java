@@ -0,0 +1,226 @@
+package com.jack.rx.bluetooth.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 描述: 解析广播包(scanRecord)中的AD结构，只保留扫描过滤和广播解析需要的字段
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class AdvertisementData {
+    private static final int TYPE_FLAGS = 0x01;
+    private static final int TYPE_UUID16_INCOMPLETE = 0x02;
+    private static final int TYPE_UUID16_COMPLETE = 0x03;
+    private static final int TYPE_UUID32_INCOMPLETE = 0x04;
+    private static final int TYPE_UUID32_COMPLETE = 0x05;
+    private static final int TYPE_UUID128_INCOMPLETE = 0x06;
+    private static final int TYPE_UUID128_COMPLETE = 0x07;
+    private static final int TYPE_NAME_SHORT = 0x08;
+    private static final int TYPE_NAME_COMPLETE = 0x09;
+    private static final int TYPE_TX_POWER = 0x0A;
+    private static final int TYPE_SERVICE_DATA_UUID16 = 0x16;
+    private static final int TYPE_MANUFACTURER_DATA = 0xFF;
+    private static final long BASE_UUID_LSB = 0x800000805F9B34FBL;
+    private static final long BASE_UUID_MSB = 0x0000000000001000L;
+    private static final AdvertisementData EMPTY = new AdvertisementData(-1, Collections.emptyList(), null,
+            Integer.MIN_VALUE, Collections.emptyMap(), Collections.emptyMap());
+
+    private final int m_flags;
+    private final List<UUID> m_serviceUuids;
+    private final String m_localName;
+    private final int m_txPower;
+    private final Map<Integer, byte[]> m_manufacturerData;
+    private final Map<UUID, byte[]> m_serviceData;
+
+    private AdvertisementData(int flags, List<UUID> serviceUuids, String localName, int txPower,
+                              Map<Integer, byte[]> manufacturerData, Map<UUID, byte[]> serviceData) {
+        m_flags = flags;
+        m_serviceUuids = serviceUuids;
+        m_localName = localName;
+        m_txPower = txPower;
+        m_manufacturerData = manufacturerData;
+        m_serviceData = serviceData;
+    }
+
+    /**
+     * 解析广播包，格式错误的AD结构之后的数据会被忽略
+     *
+     * @param scanRecord
+     * @return
+     */
+    public static AdvertisementData parse(byte[] scanRecord) {
+        if (null == scanRecord || 0 == scanRecord.length) {
+            return EMPTY;
+        }
+        int flags = -1;
+        List<UUID> serviceUuids = null;
+        String localName = null;
+        int txPower = Integer.MIN_VALUE;
+        Map<Integer, byte[]> manufacturerData = null;
+        Map<UUID, byte[]> serviceData = null;
+        int index = 0;
+        while (index < scanRecord.length) {
+            int length = scanRecord[index] & 0xFF;
+            if (0 == length || index + length >= scanRecord.length) {
+                break;
+            }
+            int type = scanRecord[index + 1] & 0xFF;
+            int offset = index + 2;
+            int dataLength = length - 1;
+            switch (type) {
+                case TYPE_FLAGS:
+                    if (dataLength >= 1) {
+                        flags = scanRecord[offset] & 0xFF;
+                    }
+                    break;
+                case TYPE_UUID16_INCOMPLETE:
+                case TYPE_UUID16_COMPLETE:
+                    serviceUuids = addUuids(serviceUuids, scanRecord, offset, dataLength, 2);
+                    break;
+                case TYPE_UUID32_INCOMPLETE:
+                case TYPE_UUID32_COMPLETE:
+                    serviceUuids = addUuids(serviceUuids, scanRecord, offset, dataLength, 4);
+                    break;
+                case TYPE_UUID128_INCOMPLETE:
+                case TYPE_UUID128_COMPLETE:
+                    serviceUuids = addUuids(serviceUuids, scanRecord, offset, dataLength, 16);
+                    break;
+                case TYPE_NAME_SHORT:
+                case TYPE_NAME_COMPLETE:
+                    localName = new String(scanRecord, offset, dataLength);
+                    break;
+                case TYPE_TX_POWER:
+                    if (dataLength >= 1) {
+                        txPower = scanRecord[offset];
+                    }
+                    break;
+                case TYPE_SERVICE_DATA_UUID16:
+                    if (dataLength >= 2) {
+                        if (null == serviceData) {
+                            serviceData = new HashMap<>(2);
+                        }
+                        serviceData.put(uuid(scanRecord, offset, 2), copy(scanRecord, offset + 2, dataLength - 2));
+                    }
+                    break;
+                case TYPE_MANUFACTURER_DATA:
+                    if (dataLength >= 2) {
+                        if (null == manufacturerData) {
+                            manufacturerData = new HashMap<>(2);
+                        }
+                        int companyId = (scanRecord[offset] & 0xFF) | ((scanRecord[offset + 1] & 0xFF) << 8);
+                        manufacturerData.put(companyId, copy(scanRecord, offset + 2, dataLength - 2));
+                    }
+                    break;
+                default:
+                    break;
+            }
+            index += length + 1;
+        }
+        return new AdvertisementData(flags,
+                null == serviceUuids ? Collections.<UUID>emptyList() : serviceUuids,
+                localName,
+                txPower,
+                null == manufacturerData ? Collections.<Integer, byte[]>emptyMap() : manufacturerData,
+                null == serviceData ? Collections.<UUID, byte[]>emptyMap() : serviceData);
+    }
+
+    /**
+     * 16位UUID转换为完整的UUID
+     *
+     * @param uuid16
+     * @return
+     */
+    public static UUID fromUuid16(int uuid16) {
+        return new UUID(BASE_UUID_MSB | ((long) (uuid16 & 0xFFFF) << 32), BASE_UUID_LSB);
+    }
+
+    public int getFlags() {
+        return m_flags;
+    }
+
+    public List<UUID> getServiceUuids() {
+        return m_serviceUuids;
+    }
+
+    public boolean containsServiceUuid(UUID uuid) {
+        return m_serviceUuids.contains(uuid) || m_serviceData.containsKey(uuid);
+    }
+
+    /**
+     * @return 广播中没有名字时返回null
+     */
+    public String getLocalName() {
+        return m_localName;
+    }
+
+    /**
+     * @return 广播中没有发射功率时返回{@link Integer#MIN_VALUE}
+     */
+    public int getTxPower() {
+        return m_txPower;
+    }
+
+    public Map<Integer, byte[]> getManufacturerData() {
+        return m_manufacturerData;
+    }
+
+    /**
+     * 厂家自定义数据，不包含2字节的厂家ID
+     *
+     * @param companyId
+     * @return 不存在时返回null
+     */
+    public byte[] getManufacturerData(int companyId) {
+        return m_manufacturerData.get(companyId);
+    }
+
+    public Map<UUID, byte[]> getServiceData() {
+        return m_serviceData;
+    }
+
+    public byte[] getServiceData(UUID serviceUuid) {
+        return m_serviceData.get(serviceUuid);
+    }
+
+    private static List<UUID> addUuids(List<UUID> uuids, byte[] scanRecord, int offset, int dataLength, int uuidLength) {
+        if (null == uuids) {
+            uuids = new ArrayList<>(2);
+        }
+        for (int i = 0; i + uuidLength <= dataLength; i += uuidLength) {
+            uuids.add(uuid(scanRecord, offset + i, uuidLength));
+        }
+        return uuids;
+    }
+
+    /**
+     * 广播中的UUID为小端序
+     */
+    private static UUID uuid(byte[] bytes, int offset, int length) {
+        if (16 == length) {
+            long lsb = 0;
+            long msb = 0;
+            for (int i = 0; i < 8; ++i) {
+                lsb |= (long) (bytes[offset + i] & 0xFF) << (8 * i);
+                msb |= (long) (bytes[offset + 8 + i] & 0xFF) << (8 * i);
+            }
+            return new UUID(msb, lsb);
+        }
+        long value = 0;
+        for (int i = 0; i < length; ++i) {
+            value |= (long) (bytes[offset + i] & 0xFF) << (8 * i);
+        }
+        return new UUID(BASE_UUID_MSB | (value << 32), BASE_UUID_LSB);
+    }
+
+    private static byte[] copy(byte[] bytes, int offset, int length) {
+        byte[] copy = new byte[length];
+        System.arraycopy(bytes, offset, copy, 0, length);
+        return copy;
+    }
+}
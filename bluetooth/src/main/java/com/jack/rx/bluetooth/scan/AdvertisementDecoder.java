@@ -0,0 +1,17 @@
+package com.jack.rx.bluetooth.scan;
+
+/**
+ * 描述: 从广播包中解析传感器数据，不需要建立GATT连接，见{@link ScanService#broadcasts(AdvertisementDecoder)}
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public interface AdvertisementDecoder<T> {
+    /**
+     * 解析扫描结果中的厂家数据或服务数据
+     *
+     * @param result
+     * @return 不是该解码器支持的广播时返回null
+     */
+    T decode(ScanResult result);
+}
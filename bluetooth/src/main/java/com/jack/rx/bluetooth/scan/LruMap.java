@@ -0,0 +1,26 @@
+package com.jack.rx.bluetooth.scan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 描述: 按访问顺序淘汰的有界Map，非线程安全
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    private final int m_maxSize;
+
+    LruMap(int maxSize) {
+        super(Math.min(maxSize, 64), 0.75f, true);
+        m_maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > m_maxSize;
+    }
+}
@@ -0,0 +1,122 @@
+package com.jack.rx.bluetooth.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 描述: 扫描过滤条件，在{@link com.jack.rx.bluetooth.BaseRxBluetooth#search(com.inuker.bluetooth.library.search.SearchRequest, ScanFilter, int, java.util.concurrent.TimeUnit)}
+ * 的扫描回调中执行，不满足条件的广播不会进入Rx<br>
+ * 1, 各条件之间为"与"，多个服务UUID之间为"或";<br>
+ * 2, 先比较信号强度和名字，需要时才解析广播包;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ScanFilter {
+    /**
+     * 不过滤，只丢弃rssi为0的无效结果
+     */
+    public static final ScanFilter ALL = new Builder().build();
+
+    private final List<UUID> m_serviceUuids;
+    private final String m_namePrefix;
+    private final int m_companyId;
+    private final byte[] m_manufacturerPrefix;
+    private final int m_minRssi;
+
+    private ScanFilter(Builder builder) {
+        //Builder可以继续使用，不影响已经创建的过滤条件
+        m_serviceUuids = Collections.unmodifiableList(new ArrayList<>(builder.m_serviceUuids));
+        m_namePrefix = builder.m_namePrefix;
+        m_companyId = builder.m_companyId;
+        m_manufacturerPrefix = builder.m_manufacturerPrefix;
+        m_minRssi = builder.m_minRssi;
+    }
+
+    public boolean matches(ScanResult result) {
+        int rssi = result.getRawRssi();
+        if (0 == rssi || rssi < m_minRssi) {
+            return false;
+        }
+        if (null != m_namePrefix) {
+            String name = result.getName();
+            if (null == name || !name.startsWith(m_namePrefix)) {
+                return false;
+            }
+        }
+        if (m_serviceUuids.isEmpty() && m_companyId < 0) {
+            return true;
+        }
+        AdvertisementData advertisement = result.getAdvertisement();
+        if (!m_serviceUuids.isEmpty()) {
+            boolean found = false;
+            for (UUID uuid : m_serviceUuids) {
+                if (advertisement.containsServiceUuid(uuid)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        if (m_companyId >= 0) {
+            byte[] data = advertisement.getManufacturerData(m_companyId);
+            if (null == data || data.length < m_manufacturerPrefix.length) {
+                return false;
+            }
+            for (int i = 0; i < m_manufacturerPrefix.length; ++i) {
+                if (data[i] != m_manufacturerPrefix[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static class Builder {
+        private final List<UUID> m_serviceUuids = new ArrayList<>(2);
+        private String m_namePrefix;
+        private int m_companyId = -1;
+        private byte[] m_manufacturerPrefix = new byte[0];
+        private int m_minRssi = Integer.MIN_VALUE;
+
+        public Builder() {
+
+        }
+
+        public Builder addServiceUuid(final UUID serviceUuid) {
+            m_serviceUuids.add(serviceUuid);
+            return this;
+        }
+
+        public Builder setNamePrefix(final String namePrefix) {
+            m_namePrefix = namePrefix;
+            return this;
+        }
+
+        /**
+         * 广播中包含{@code companyId}的厂家数据，且数据以{@code prefix}开头
+         *
+         * @param companyId
+         * @param prefix    不包含厂家ID，可以为空数组
+         * @return
+         */
+        public Builder setManufacturerData(final int companyId, final byte[] prefix) {
+            m_companyId = companyId;
+            m_manufacturerPrefix = null == prefix ? new byte[0] : prefix.clone();
+            return this;
+        }
+
+        public Builder setMinRssi(final int minRssi) {
+            m_minRssi = minRssi;
+            return this;
+        }
+
+        public ScanFilter build() {
+            return new ScanFilter(this);
+        }
+    }
+}
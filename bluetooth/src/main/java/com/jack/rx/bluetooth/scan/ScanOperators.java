@@ -0,0 +1,101 @@
+package com.jack.rx.bluetooth.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+
+/**
+ * 描述: 扫描结果处理操作符，状态按订阅者隔离<br>
+ * 1, {@link #dedup(int)} 按地址去重;<br>
+ * 2, {@link #smoothRssi(float, int)} 信号强度指数加权平均;<br>
+ * 3, {@link #deviceTable(long, TimeUnit, int)} 按时间窗口批量发出设备表;<br>
+ * 4, {@link #decode(AdvertisementDecoder)} 解析广播中的传感器数据;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ScanOperators {
+    private ScanOperators() {
+
+    }
+
+    /**
+     * 每个地址只发出第一次扫描结果，最多记住最近的{@code maxSize}个地址
+     *
+     * @param maxSize
+     * @return
+     */
+    public static ObservableTransformer<ScanResult, ScanResult> dedup(int maxSize) {
+        return upstream -> Observable.defer(() -> {
+            LruMap<String, Boolean> seen = new LruMap<>(maxSize);
+            return upstream.filter(result -> null == seen.put(result.getAddress(), Boolean.TRUE));
+        });
+    }
+
+    /**
+     * 按地址对信号强度做指数加权平均: rssi = rssi + alpha * (raw - rssi)
+     *
+     * @param alpha   (0, 1]，越小越平滑
+     * @param maxSize 最多记住最近的{@code maxSize}个地址
+     * @return
+     */
+    public static ObservableTransformer<ScanResult, ScanResult> smoothRssi(float alpha, int maxSize) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha = " + alpha);
+        }
+        return upstream -> Observable.defer(() -> {
+            LruMap<String, float[]> averages = new LruMap<>(maxSize);
+            return upstream.map(result -> {
+                float[] average = averages.get(result.getAddress());
+                if (null == average) {
+                    average = new float[]{result.getRawRssi()};
+                    averages.put(result.getAddress(), average);
+                } else {
+                    average[0] += alpha * (result.getRawRssi() - average[0]);
+                }
+                return result.withRssi(average[0]);
+            });
+        });
+    }
+
+    /**
+     * 用{@code decoder}解析广播，不能解析的扫描结果被丢弃
+     *
+     * @param decoder
+     * @param <T>
+     * @return
+     */
+    public static <T> ObservableTransformer<ScanResult, T> decode(AdvertisementDecoder<T> decoder) {
+        return upstream -> upstream.flatMapMaybe(result -> Maybe.fromCallable(() -> decoder.decode(result)));
+    }
+
+    /**
+     * 维护最近{@code maxSize}个设备的设备表，每个{@code window}最多发出一次，窗口内没有扫描结果时不发出
+     *
+     * @param window
+     * @param unit
+     * @param maxSize
+     * @return 按最近出现排序的设备表快照
+     */
+    public static ObservableTransformer<ScanResult, List<ScannedDevice>> deviceTable(long window, TimeUnit unit, int maxSize) {
+        return upstream -> Observable.defer(() -> {
+            LruMap<String, ScannedDevice> table = new LruMap<>(maxSize);
+            return upstream.buffer(window, unit)
+                    .filter(batch -> !batch.isEmpty())
+                    .map(batch -> {
+                        for (ScanResult result : batch) {
+                            ScannedDevice previous = table.get(result.getAddress());
+                            table.put(result.getAddress(), new ScannedDevice(result, result.getRssi(), null == previous ? 1 : previous.getCount() + 1));
+                        }
+                        List<ScannedDevice> snapshot = new ArrayList<>(table.values());
+                        Collections.reverse(snapshot);
+                        return snapshot;
+                    });
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.jack.rx.bluetooth.scan;
+
+import com.inuker.bluetooth.library.search.SearchResult;
+
+/**
+ * 描述: 一次扫描结果，广播包只在第一次使用时解析一次
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ScanResult {
+    private final SearchResult m_searchResult;
+    private final long m_timestampNanos;
+    private final float m_rssi;
+    private AdvertisementData m_advertisement;
+
+    public ScanResult(SearchResult searchResult) {
+        this(searchResult, searchResult.rssi, System.nanoTime(), null);
+    }
+
+    private ScanResult(SearchResult searchResult, float rssi, long timestampNanos, AdvertisementData advertisement) {
+        m_searchResult = searchResult;
+        m_rssi = rssi;
+        m_timestampNanos = timestampNanos;
+        m_advertisement = advertisement;
+    }
+
+    public SearchResult getSearchResult() {
+        return m_searchResult;
+    }
+
+    public String getAddress() {
+        return m_searchResult.getAddress();
+    }
+
+    /**
+     * @return 没有名字时返回null
+     */
+    public String getName() {
+        String name = m_searchResult.getName();
+        return null == name || "NULL".equals(name) ? null : name;
+    }
+
+    /**
+     * 信号强度，经过{@link ScanOperators#smoothRssi(float, int)}后为平滑值
+     *
+     * @return
+     */
+    public float getRssi() {
+        return m_rssi;
+    }
+
+    public int getRawRssi() {
+        return m_searchResult.rssi;
+    }
+
+    public long getTimestampNanos() {
+        return m_timestampNanos;
+    }
+
+    public AdvertisementData getAdvertisement() {
+        AdvertisementData advertisement = m_advertisement;
+        if (null == advertisement) {
+            advertisement = AdvertisementData.parse(m_searchResult.scanRecord);
+            m_advertisement = advertisement;
+        }
+        return advertisement;
+    }
+
+    ScanResult withRssi(float rssi) {
+        return new ScanResult(m_searchResult, rssi, m_timestampNanos, m_advertisement);
+    }
+}
@@ -0,0 +1,209 @@
+package com.jack.rx.bluetooth.scan;
+
+import android.annotation.SuppressLint;
+
+import com.inuker.bluetooth.library.search.SearchRequest;
+import com.jack.rx.bluetooth.BaseRxBluetooth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.BehaviorSubject;
+
+/**
+ * 描述: 多个订阅者共享的持续扫描<br>
+ * 1, 第一个订阅者开始扫描，最后一个订阅者取消后停止，所有订阅者共享同一个底层扫描;<br>
+ * 2, 按占空比扫描: 每{@link Builder#setScanInterval(long, TimeUnit)}扫描{@link Builder#setScanWindow(long, TimeUnit)}，
+ * 窗口越大发现越快，间隔越大越省电;<br>
+ * 3, 维护最近出现的设备表，{@link #devices()}的订阅者立刻得到当前设备表，超过{@link Builder#setExpiry(long, TimeUnit)}没有出现的设备被移除;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ScanService {
+    private final long m_windowMillis;
+    private final long m_intervalMillis;
+    private final long m_expiryNanos;
+    private final LruMap<String, ScannedDevice> m_table;
+    private final BehaviorSubject<List<ScannedDevice>> m_tableSubject = BehaviorSubject.createDefault(Collections.<ScannedDevice>emptyList());
+    private final Observable<ScanResult> m_results;
+    private final Observable<List<ScannedDevice>> m_tableUpdates;
+
+    private ScanService(Builder builder) {
+        m_windowMillis = builder.m_windowMillis;
+        m_intervalMillis = builder.m_intervalMillis;
+        m_expiryNanos = builder.m_expiryNanos;
+        m_table = new LruMap<>(builder.m_maxDevices);
+        final BaseRxBluetooth rxBluetooth = builder.m_rxBluetooth;
+        final ScanFilter filter = builder.m_filter;
+        final SearchRequest request = new SearchRequest.Builder()
+                .searchBluetoothLeDevice((int) m_windowMillis)
+                .build();
+        long pauseMillis = Math.max(0, m_intervalMillis - m_windowMillis);
+        m_results = Observable.defer(() -> rxBluetooth.search(request, filter, (int) m_windowMillis, TimeUnit.MILLISECONDS))
+                .repeatWhen(completed -> 0 == pauseMillis ? completed : completed.delay(pauseMillis, TimeUnit.MILLISECONDS))
+                .compose(ScanOperators.smoothRssi(builder.m_rssiAlpha, builder.m_maxDevices))
+                .share();
+        m_tableUpdates = m_results.buffer(builder.m_tableWindowMillis, TimeUnit.MILLISECONDS)
+                .map(this::update)
+                .share();
+    }
+
+    /**
+     * 扫描结果，订阅期间保持扫描
+     *
+     * @return
+     */
+    public Observable<ScanResult> results() {
+        return m_results;
+    }
+
+    /**
+     * 设备表，订阅时立刻发出当前设备表，之后设备表变化时批量发出，订阅期间保持扫描
+     *
+     * @return 按最近出现排序
+     */
+    public Observable<List<ScannedDevice>> devices() {
+        return Observable.merge(m_tableSubject, m_tableUpdates.ignoreElements().<List<ScannedDevice>>toObservable())
+                .distinctUntilChanged();
+    }
+
+    /**
+     * 广播模式采集，从所有设备的广播中解析数据，不占用连接槽位，订阅期间保持扫描
+     *
+     * @param decoder
+     * @param <T>
+     * @return
+     */
+    public <T> Observable<T> broadcasts(AdvertisementDecoder<T> decoder) {
+        return m_results.compose(ScanOperators.decode(decoder));
+    }
+
+    /**
+     * 当前设备表，不会开始扫描
+     *
+     * @return
+     */
+    public List<ScannedDevice> getDevices() {
+        return m_tableSubject.getValue();
+    }
+
+    public long getScanWindow(TimeUnit unit) {
+        return unit.convert(m_windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public long getScanInterval(TimeUnit unit) {
+        return unit.convert(m_intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private List<ScannedDevice> update(List<ScanResult> batch) {
+        List<ScannedDevice> snapshot;
+        synchronized (m_table) {
+            boolean changed = !batch.isEmpty();
+            for (ScanResult result : batch) {
+                ScannedDevice previous = m_table.get(result.getAddress());
+                m_table.put(result.getAddress(), new ScannedDevice(result, result.getRssi(), null == previous ? 1 : previous.getCount() + 1));
+            }
+            long now = System.nanoTime();
+            Iterator<Map.Entry<String, ScannedDevice>> iterator = m_table.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().getValue().getLastSeenNanos() > m_expiryNanos) {
+                    iterator.remove();
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return m_tableSubject.getValue();
+            }
+            snapshot = new ArrayList<>(m_table.values());
+        }
+        Collections.reverse(snapshot);
+        snapshot = Collections.unmodifiableList(snapshot);
+        m_tableSubject.onNext(snapshot);
+        return snapshot;
+    }
+
+    public static class Builder {
+        private final BaseRxBluetooth m_rxBluetooth;
+        private ScanFilter m_filter = ScanFilter.ALL;
+        private long m_windowMillis = 4000;
+        private long m_intervalMillis = 10000;
+        private long m_tableWindowMillis = 500;
+        private long m_expiryNanos = TimeUnit.SECONDS.toNanos(60);
+        private int m_maxDevices = 512;
+        private float m_rssiAlpha = 0.3f;
+
+        public Builder(BaseRxBluetooth rxBluetooth) {
+            m_rxBluetooth = rxBluetooth;
+        }
+
+        public Builder setFilter(final ScanFilter filter) {
+            m_filter = filter;
+            return this;
+        }
+
+        /**
+         * 每个周期中扫描的时间
+         *
+         * @param window
+         * @param unit
+         * @return
+         */
+        public Builder setScanWindow(final long window, final TimeUnit unit) {
+            m_windowMillis = unit.toMillis(window);
+            return this;
+        }
+
+        /**
+         * 扫描周期，等于扫描窗口时连续扫描
+         *
+         * @param interval
+         * @param unit
+         * @return
+         */
+        public Builder setScanInterval(final long interval, final TimeUnit unit) {
+            m_intervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * 设备表最多每{@code window}发出一次
+         *
+         * @param window
+         * @param unit
+         * @return
+         */
+        public Builder setTableWindow(final long window, final TimeUnit unit) {
+            m_tableWindowMillis = unit.toMillis(window);
+            return this;
+        }
+
+        public Builder setExpiry(final long expiry, final TimeUnit unit) {
+            m_expiryNanos = unit.toNanos(expiry);
+            return this;
+        }
+
+        public Builder setMaxDevices(final int maxDevices) {
+            m_maxDevices = maxDevices;
+            return this;
+        }
+
+        public Builder setRssiAlpha(final float rssiAlpha) {
+            m_rssiAlpha = rssiAlpha;
+            return this;
+        }
+
+        @SuppressLint("DefaultLocale")
+        public ScanService build() {
+            if (m_windowMillis <= 0 || m_intervalMillis < m_windowMillis) {
+                throw new IllegalArgumentException(String.format("window = %dms, interval = %dms", m_windowMillis, m_intervalMillis));
+            }
+            return new ScanService(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.jack.rx.bluetooth.scan;
+
+/**
+ * 描述: 设备表中的一个设备，由{@link ScanOperators#deviceTable(long, java.util.concurrent.TimeUnit, int)}发出
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ScannedDevice {
+    private final ScanResult m_lastResult;
+    private final float m_rssi;
+    private final int m_count;
+
+    ScannedDevice(ScanResult lastResult, float rssi, int count) {
+        m_lastResult = lastResult;
+        m_rssi = rssi;
+        m_count = count;
+    }
+
+    public String getAddress() {
+        return m_lastResult.getAddress();
+    }
+
+    public String getName() {
+        return m_lastResult.getName();
+    }
+
+    /**
+     * 最后一次收到的广播
+     *
+     * @return
+     */
+    public ScanResult getLastResult() {
+        return m_lastResult;
+    }
+
+    public float getRssi() {
+        return m_rssi;
+    }
+
+    /**
+     * 收到广播的次数
+     *
+     * @return
+     */
+    public int getCount() {
+        return m_count;
+    }
+
+    public long getLastSeenNanos() {
+        return m_lastResult.getTimestampNanos();
+    }
+
+    @Override
+    public String toString() {
+        return "ScannedDevice{" +
+                "address='" + getAddress() + '\'' +
+                ", name='" + getName() + '\'' +
+                ", rssi=" + m_rssi +
+                ", count=" + m_count +
+                '}';
+    }
+}
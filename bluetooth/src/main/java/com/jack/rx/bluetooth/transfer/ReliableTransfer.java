@@ -0,0 +1,385 @@
+package com.jack.rx.bluetooth.transfer;
+
+import com.jack.rx.bluetooth.BluetoothException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 描述: 基于滑动窗口和选择确认的可靠传输发送端，不依赖蓝牙和Rx，时间由调用者传入<br>
+ * 1, 发送START，外设以ACK回报已收到的分片，断线重连后只补发缺少的分片;<br>
+ * 2, 最多{@link Builder#setWindow(int)}个分片未确认，收到确认后窗口滑动;<br>
+ * 3, 比某个分片后发出的分片已被确认而它没有，立即重传这一个分片(选择重传);<br>
+ * 4, 超过重传超时仍未确认的分片重传，超时时间按往返时间估算并在超时后加倍;<br>
+ * 5, 全部确认后发送END，外设校验CRC后应答;<br>
+ * 所有方法线程安全，{@link Listener}的回调在调用者线程上执行
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class ReliableTransfer {
+    public static final int DEFAULT_WINDOW = 32;
+    public static final long DEFAULT_RETRANSMIT_TIMEOUT_MILLIS = 500;
+    public static final long MIN_RETRANSMIT_TIMEOUT_MILLIS = 50;
+    public static final long MAX_RETRANSMIT_TIMEOUT_MILLIS = 5000;
+    public static final int DEFAULT_MAX_RETRIES = 8;
+
+    private static final int IDLE = 0;
+    private static final int STARTING = 1;
+    private static final int SENDING = 2;
+    private static final int ENDING = 3;
+    private static final int DONE = 4;
+
+    public interface Listener {
+        void onProgress(TransferProgress progress);
+
+        void onComplete(TransferProgress progress);
+
+        void onError(Exception e);
+    }
+
+    private final TransferSession m_session;
+    private final TransferLink m_link;
+    private final Listener m_listener;
+    private final int m_window;
+    private final long m_minRtoNanos;
+    private final long m_maxRtoNanos;
+    private final int m_maxRetries;
+
+    private final BitSet m_acked;
+    private final long[] m_sentAt;
+    /**
+     * 分片最后一次发出的序号，用于判断后发出的分片是否已经先到达
+     */
+    private final long[] m_sendStamp;
+    private final byte[] m_sendCount;
+
+    private int m_state = IDLE;
+    private int m_base = 0;
+    private int m_next = 0;
+    private long m_stamp = 0;
+    private long m_rtoNanos;
+    private long m_srttNanos = -1;
+    private long m_rttVarNanos = 0;
+    private int m_retries = 0;
+    private long m_controlSentAt;
+    private long m_startNanos;
+    private long m_bytesAcked = 0;
+    private long m_bytesResumed = 0;
+    private long m_fragmentsSent = 0;
+    private long m_retransmits = 0;
+
+    private ReliableTransfer(Builder builder) {
+        m_session = builder.m_session;
+        m_link = builder.m_link;
+        m_listener = builder.m_listener;
+        m_window = builder.m_window;
+        m_rtoNanos = builder.m_rtoNanos;
+        m_minRtoNanos = Math.min(builder.m_rtoNanos, TimeUnit.MILLISECONDS.toNanos(MIN_RETRANSMIT_TIMEOUT_MILLIS));
+        m_maxRtoNanos = Math.max(builder.m_rtoNanos, TimeUnit.MILLISECONDS.toNanos(MAX_RETRANSMIT_TIMEOUT_MILLIS));
+        m_maxRetries = builder.m_maxRetries;
+        int fragments = m_session.getFragmentCount();
+        m_acked = new BitSet(fragments);
+        m_sentAt = new long[fragments];
+        m_sendStamp = new long[fragments];
+        m_sendCount = new byte[fragments];
+    }
+
+    public TransferSession getSession() {
+        return m_session;
+    }
+
+    public synchronized boolean isDone() {
+        return DONE == m_state;
+    }
+
+    public synchronized void start(long nowNanos) {
+        if (IDLE != m_state) {
+            return;
+        }
+        m_state = STARTING;
+        m_startNanos = nowNanos;
+        sendControl(m_session.startFrame(), nowNanos);
+    }
+
+    /**
+     * 停止传输，不再发送也不再回调，已确认的状态保留在外设中，可以用同一个会话恢复
+     */
+    public synchronized void cancel() {
+        m_state = DONE;
+    }
+
+    /**
+     * 收到外设的应答
+     *
+     * @param frame
+     * @param nowNanos
+     */
+    public synchronized void onReceive(byte[] frame, long nowNanos) {
+        if (DONE == m_state || IDLE == m_state || frame.length < TransferProtocol.END_ACK_LEN
+                || TransferProtocol.getInt(frame, 1) != m_session.getTransferId()) {
+            return;
+        }
+        if (TransferProtocol.ACK == frame[0] && frame.length >= TransferProtocol.ACK_LEN) {
+            onAck(TransferProtocol.getShort(frame, 5), TransferProtocol.bitmap(frame), nowNanos);
+        } else if (TransferProtocol.END_ACK == frame[0] && ENDING == m_state) {
+            onEndAck(frame[5], nowNanos);
+        }
+    }
+
+    /**
+     * 定时调用，检查超时重传，调用间隔应小于重传超时时间
+     *
+     * @param nowNanos
+     */
+    public synchronized void onTick(long nowNanos) {
+        switch (m_state) {
+            case STARTING:
+            case ENDING:
+                if (nowNanos - m_controlSentAt >= m_rtoNanos) {
+                    if (timeout()) {
+                        sendControl(STARTING == m_state ? m_session.startFrame() : m_session.endFrame(), nowNanos);
+                    }
+                }
+                break;
+            case SENDING:
+                boolean expired = false;
+                for (int seq = m_acked.nextClearBit(m_base); seq < m_next; seq = m_acked.nextClearBit(seq + 1)) {
+                    if (nowNanos - m_sentAt[seq] >= m_rtoNanos) {
+                        if (!expired) {
+                            expired = true;
+                            if (!timeout()) {
+                                return;
+                            }
+                        }
+                        sendData(seq, nowNanos);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onAck(int cumulative, long bitmap, long nowNanos) {
+        int fragments = m_session.getFragmentCount();
+        if (STARTING == m_state) {
+            //外设回报的状态为准，外设丢失状态时从头开始
+            m_acked.clear();
+            m_bytesAcked = 0;
+            Arrays.fill(m_sentAt, 0);
+            Arrays.fill(m_sendCount, (byte) 0);
+            mark(cumulative, bitmap);
+            m_bytesResumed = m_bytesAcked;
+            m_base = m_acked.nextClearBit(0);
+            m_next = m_base;
+            m_retries = 0;
+            m_state = SENDING;
+            m_listener.onProgress(progress(nowNanos));
+            pump(nowNanos);
+            return;
+        }
+        if (SENDING != m_state) {
+            return;
+        }
+        long before = m_bytesAcked;
+        int newest = mark(cumulative, bitmap);
+        m_base = m_acked.nextClearBit(m_base);
+        if (newest >= 0) {
+            if (1 == m_sendCount[newest]) {
+                sampleRtt(nowNanos - m_sentAt[newest]);
+            }
+            //链路按顺序送达，比它先发出却没有确认的分片已经丢失
+            long stamp = m_sendStamp[newest];
+            for (int seq = m_base; seq < m_next; seq = m_acked.nextClearBit(seq + 1)) {
+                if (m_sendStamp[seq] < stamp) {
+                    sendData(seq, nowNanos);
+                }
+            }
+        }
+        if (m_bytesAcked != before) {
+            m_retries = 0;
+            m_listener.onProgress(progress(nowNanos));
+        }
+        if (m_base >= fragments) {
+            m_state = ENDING;
+            m_retries = 0;
+            sendControl(m_session.endFrame(), nowNanos);
+        } else {
+            pump(nowNanos);
+        }
+    }
+
+    private void onEndAck(int status, long nowNanos) {
+        switch (status) {
+            case TransferProtocol.STATUS_OK:
+                m_state = DONE;
+                m_listener.onComplete(progress(nowNanos));
+                break;
+            case TransferProtocol.STATUS_INCOMPLETE:
+                //外设丢失了状态，重新同步
+                m_state = STARTING;
+                m_retries = 0;
+                sendControl(m_session.startFrame(), nowNanos);
+                break;
+            default:
+                m_state = DONE;
+                m_listener.onError(new BluetoothException("transfer " + m_session.getTransferId() + " rejected by peripheral, status = " + status));
+                break;
+        }
+    }
+
+    /**
+     * 记录确认的分片
+     *
+     * @param cumulative
+     * @param bitmap
+     * @return 这次新确认的分片中最后发出的一个，没有新确认时返回-1
+     */
+    private int mark(int cumulative, long bitmap) {
+        int fragments = m_session.getFragmentCount();
+        int newest = -1;
+        int end = Math.min(cumulative, fragments);
+        for (int seq = m_acked.nextClearBit(0); seq < end; seq = m_acked.nextClearBit(seq + 1)) {
+            newest = ack(seq, newest);
+        }
+        while (0 != bitmap) {
+            int seq = cumulative + 1 + Long.numberOfTrailingZeros(bitmap);
+            bitmap &= bitmap - 1;
+            if (seq < fragments && !m_acked.get(seq)) {
+                newest = ack(seq, newest);
+            }
+        }
+        return newest;
+    }
+
+    private int ack(int seq, int newest) {
+        m_acked.set(seq);
+        m_bytesAcked += m_session.fragmentLength(seq);
+        return m_sendCount[seq] > 0 && (newest < 0 || m_sendStamp[seq] > m_sendStamp[newest]) ? seq : newest;
+    }
+
+    /**
+     * 窗口内还没发过的分片
+     *
+     * @param nowNanos
+     */
+    private void pump(long nowNanos) {
+        int limit = Math.min(m_session.getFragmentCount(), m_base + m_window);
+        for (; m_next < limit; ++m_next) {
+            if (!m_acked.get(m_next)) {
+                sendData(m_next, nowNanos);
+            }
+        }
+        if (0 == m_session.getFragmentCount()) {
+            m_state = ENDING;
+            sendControl(m_session.endFrame(), nowNanos);
+        }
+    }
+
+    private void sendData(int seq, long nowNanos) {
+        if (m_sendCount[seq] > 0) {
+            ++m_retransmits;
+        }
+        if (m_sendCount[seq] < Byte.MAX_VALUE) {
+            ++m_sendCount[seq];
+        }
+        m_sentAt[seq] = nowNanos;
+        m_sendStamp[seq] = ++m_stamp;
+        ++m_fragmentsSent;
+        m_link.send(m_session.dataFrame(seq));
+    }
+
+    private void sendControl(byte[] frame, long nowNanos) {
+        m_controlSentAt = nowNanos;
+        m_link.send(frame);
+    }
+
+    /**
+     * 重传超时加倍
+     *
+     * @return 是否还可以重试，超过次数时结束传输
+     */
+    private boolean timeout() {
+        if (++m_retries > m_maxRetries) {
+            m_state = DONE;
+            m_listener.onError(new BluetoothException("transfer " + m_session.getTransferId() + " timed out after " + m_maxRetries + " retries"));
+            return false;
+        }
+        m_rtoNanos = Math.min(m_rtoNanos * 2, m_maxRtoNanos);
+        return true;
+    }
+
+    /**
+     * 按RFC 6298估算重传超时，只使用没有重传过的分片的往返时间
+     *
+     * @param rttNanos
+     */
+    private void sampleRtt(long rttNanos) {
+        if (m_srttNanos < 0) {
+            m_srttNanos = rttNanos;
+            m_rttVarNanos = rttNanos / 2;
+        } else {
+            m_rttVarNanos = (3 * m_rttVarNanos + Math.abs(m_srttNanos - rttNanos)) / 4;
+            m_srttNanos = (7 * m_srttNanos + rttNanos) / 8;
+        }
+        m_rtoNanos = Math.max(m_minRtoNanos, Math.min(m_maxRtoNanos, m_srttNanos + 4 * m_rttVarNanos));
+    }
+
+    private TransferProgress progress(long nowNanos) {
+        return new TransferProgress(m_bytesAcked, m_bytesResumed, m_session.getTotalLength(), m_acked.cardinality(), m_session.getFragmentCount(),
+                m_fragmentsSent, m_retransmits, nowNanos - m_startNanos);
+    }
+
+    public static class Builder {
+        private final TransferSession m_session;
+        private final TransferLink m_link;
+        private final Listener m_listener;
+        private int m_window = DEFAULT_WINDOW;
+        private long m_rtoNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_RETRANSMIT_TIMEOUT_MILLIS);
+        private int m_maxRetries = DEFAULT_MAX_RETRIES;
+
+        public Builder(TransferSession session, TransferLink link, Listener listener) {
+            m_session = session;
+            m_link = link;
+            m_listener = listener;
+        }
+
+        /**
+         * @param window 未确认分片的最大数量，不超过选择确认能覆盖的范围
+         * @return
+         */
+        public Builder setWindow(int window) {
+            m_window = Math.max(1, Math.min(window, TransferProtocol.MAX_WINDOW));
+            return this;
+        }
+
+        /**
+         * 收到往返时间样本之前使用的重传超时
+         *
+         * @param timeout
+         * @param unit
+         * @return
+         */
+        public Builder setRetransmitTimeout(long timeout, TimeUnit unit) {
+            m_rtoNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * 连续超时而没有任何新确认的最大次数
+         *
+         * @param maxRetries
+         * @return
+         */
+        public Builder setMaxRetries(int maxRetries) {
+            m_maxRetries = maxRetries;
+            return this;
+        }
+
+        public ReliableTransfer build() {
+            return new ReliableTransfer(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.jack.rx.bluetooth.transfer;
+
+/**
+ * 描述: {@link ReliableTransfer}向外设发送帧的通道，通常是无应答写，允许丢帧
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public interface TransferLink {
+    void send(byte[] frame);
+}
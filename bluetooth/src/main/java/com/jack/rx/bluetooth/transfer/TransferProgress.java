@@ -0,0 +1,98 @@
+package com.jack.rx.bluetooth.transfer;
+
+/**
+ * 描述: 可靠传输的进度，只统计外设已确认的数据
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class TransferProgress {
+    private final long m_bytesAcked;
+    private final long m_bytesResumed;
+    private final long m_totalBytes;
+    private final int m_fragmentsAcked;
+    private final int m_totalFragments;
+    private final long m_fragmentsSent;
+    private final long m_retransmits;
+    private final long m_elapsedNanos;
+
+    TransferProgress(long bytesAcked, long bytesResumed, long totalBytes, int fragmentsAcked, int totalFragments, long fragmentsSent, long retransmits, long elapsedNanos) {
+        m_bytesAcked = bytesAcked;
+        m_bytesResumed = bytesResumed;
+        m_totalBytes = totalBytes;
+        m_fragmentsAcked = fragmentsAcked;
+        m_totalFragments = totalFragments;
+        m_fragmentsSent = fragmentsSent;
+        m_retransmits = retransmits;
+        m_elapsedNanos = elapsedNanos;
+    }
+
+    public long getBytesAcked() {
+        return m_bytesAcked;
+    }
+
+    /**
+     * 开始时外设回报已经收到的字节数，断线重连后恢复传输时大于0
+     *
+     * @return
+     */
+    public long getBytesResumed() {
+        return m_bytesResumed;
+    }
+
+    public long getTotalBytes() {
+        return m_totalBytes;
+    }
+
+    public int getFragmentsAcked() {
+        return m_fragmentsAcked;
+    }
+
+    public int getTotalFragments() {
+        return m_totalFragments;
+    }
+
+    /**
+     * 本次连接发出的分片数量，包括重传
+     *
+     * @return
+     */
+    public long getFragmentsSent() {
+        return m_fragmentsSent;
+    }
+
+    public long getRetransmits() {
+        return m_retransmits;
+    }
+
+    public long getElapsedNanos() {
+        return m_elapsedNanos;
+    }
+
+    public float getPercent() {
+        return m_totalBytes <= 0 ? 100f : m_bytesAcked * 100f / m_totalBytes;
+    }
+
+    /**
+     * 本次连接开始以来新确认数据的平均速率，不包括恢复前已收到的数据
+     *
+     * @return 字节/秒
+     */
+    public double getThroughput() {
+        return m_elapsedNanos <= 0 ? 0 : (m_bytesAcked - m_bytesResumed) * 1e9 / m_elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferProgress{" +
+                "bytesAcked=" + m_bytesAcked +
+                ", bytesResumed=" + m_bytesResumed +
+                ", totalBytes=" + m_totalBytes +
+                ", fragmentsAcked=" + m_fragmentsAcked +
+                ", totalFragments=" + m_totalFragments +
+                ", fragmentsSent=" + m_fragmentsSent +
+                ", retransmits=" + m_retransmits +
+                ", elapsedNanos=" + m_elapsedNanos +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.jack.rx.bluetooth.transfer;
+
+/**
+ * 描述: 可靠传输的帧格式，多字节字段均为大端<br>
+ * 1, START  发送端->外设: [0x01][transferId:4][totalLength:4][fragmentSize:2][crc32:4];<br>
+ * 2, DATA   发送端->外设: [0x02][seq:2][payload];<br>
+ * 3, END    发送端->外设: [0x03][transferId:4];<br>
+ * 4, ACK    外设->发送端: [0x81][transferId:4][cumulative:2][bitmap:8]，cumulative之前的分片全部收到，
+ * bitmap第i位(从第0字节最低位起)表示分片cumulative+1+i已收到，START也以ACK应答，携带外设已有的接收状态;<br>
+ * 5, END_ACK 外设->发送端: [0x83][transferId:4][status:1];<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+final class TransferProtocol {
+    static final byte START = 0x01;
+    static final byte DATA = 0x02;
+    static final byte END = 0x03;
+    static final byte ACK = (byte) 0x81;
+    static final byte END_ACK = (byte) 0x83;
+
+    static final int START_LEN = 15;
+    static final int DATA_HEADER_LEN = 3;
+    static final int END_LEN = 5;
+    static final int BITMAP_LEN = 8;
+    static final int ACK_LEN = 7 + BITMAP_LEN;
+    static final int END_ACK_LEN = 6;
+
+    /**
+     * 选择确认能覆盖的最大窗口
+     */
+    static final int MAX_WINDOW = 1 + BITMAP_LEN * 8;
+    static final int MAX_FRAGMENTS = 0xFFFF;
+
+    static final int STATUS_OK = 0;
+    static final int STATUS_CRC_MISMATCH = 1;
+    static final int STATUS_INCOMPLETE = 2;
+
+    private TransferProtocol() {
+    }
+
+    static byte[] start(int transferId, int totalLength, int fragmentSize, int crc32) {
+        byte[] frame = new byte[START_LEN];
+        frame[0] = START;
+        putInt(frame, 1, transferId);
+        putInt(frame, 5, totalLength);
+        putShort(frame, 9, fragmentSize);
+        putInt(frame, 11, crc32);
+        return frame;
+    }
+
+    static byte[] data(int seq, byte[] payload, int offset, int length) {
+        byte[] frame = new byte[DATA_HEADER_LEN + length];
+        frame[0] = DATA;
+        putShort(frame, 1, seq);
+        System.arraycopy(payload, offset, frame, DATA_HEADER_LEN, length);
+        return frame;
+    }
+
+    static byte[] end(int transferId) {
+        byte[] frame = new byte[END_LEN];
+        frame[0] = END;
+        putInt(frame, 1, transferId);
+        return frame;
+    }
+
+    static byte[] ack(int transferId, int cumulative, long bitmap) {
+        byte[] frame = new byte[ACK_LEN];
+        frame[0] = ACK;
+        putInt(frame, 1, transferId);
+        putShort(frame, 5, cumulative);
+        for (int i = 0; i < BITMAP_LEN; ++i) {
+            frame[7 + i] = (byte) (bitmap >>> (i * 8));
+        }
+        return frame;
+    }
+
+    static byte[] endAck(int transferId, int status) {
+        byte[] frame = new byte[END_ACK_LEN];
+        frame[0] = END_ACK;
+        putInt(frame, 1, transferId);
+        frame[5] = (byte) status;
+        return frame;
+    }
+
+    static long bitmap(byte[] ack) {
+        long bitmap = 0;
+        for (int i = 0; i < BITMAP_LEN; ++i) {
+            bitmap |= (ack[7 + i] & 0xFFL) << (i * 8);
+        }
+        return bitmap;
+    }
+
+    static int getInt(byte[] frame, int offset) {
+        return (frame[offset] & 0xFF) << 24 | (frame[offset + 1] & 0xFF) << 16 | (frame[offset + 2] & 0xFF) << 8 | frame[offset + 3] & 0xFF;
+    }
+
+    static int getShort(byte[] frame, int offset) {
+        return (frame[offset] & 0xFF) << 8 | frame[offset + 1] & 0xFF;
+    }
+
+    private static void putInt(byte[] frame, int offset, int value) {
+        frame[offset] = (byte) (value >>> 24);
+        frame[offset + 1] = (byte) (value >>> 16);
+        frame[offset + 2] = (byte) (value >>> 8);
+        frame[offset + 3] = (byte) value;
+    }
+
+    private static void putShort(byte[] frame, int offset, int value) {
+        frame[offset] = (byte) (value >>> 8);
+        frame[offset + 1] = (byte) value;
+    }
+}
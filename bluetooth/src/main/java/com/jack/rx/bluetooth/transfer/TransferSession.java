@@ -0,0 +1,109 @@
+package com.jack.rx.bluetooth.transfer;
+
+import java.security.SecureRandom;
+import java.util.zip.CRC32;
+
+/**
+ * 描述: 一次可靠传输的数据和分片方式<br>
+ * 1, 断线重连后用同一个会话重新开始传输，外设按{@link #getTransferId()}识别并回报已收到的分片，只补发缺少的分片;<br>
+ * 2, 分片大小在创建时固定，重连后MTU变小时需要新建会话;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class TransferSession {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int m_transferId;
+    private final byte[] m_payload;
+    private final int m_fragmentSize;
+    private final int m_fragmentCount;
+    private final int m_crc32;
+
+    /**
+     * @param payload
+     * @param fragmentSize 每个分片的数据长度，不包括分片头
+     */
+    public TransferSession(byte[] payload, int fragmentSize) {
+        this(RANDOM.nextInt(), payload, fragmentSize);
+    }
+
+    /**
+     * @param transferId   进程重启后恢复传输时使用上次的id
+     * @param payload
+     * @param fragmentSize 每个分片的数据长度，不包括分片头
+     */
+    public TransferSession(int transferId, byte[] payload, int fragmentSize) {
+        if (fragmentSize <= 0) {
+            throw new IllegalArgumentException("fragmentSize must be > 0");
+        }
+        int fragmentCount = (payload.length + fragmentSize - 1) / fragmentSize;
+        if (fragmentCount > TransferProtocol.MAX_FRAGMENTS) {
+            throw new IllegalArgumentException("payload needs " + fragmentCount + " fragments, max is " + TransferProtocol.MAX_FRAGMENTS);
+        }
+        m_transferId = transferId;
+        m_payload = payload;
+        m_fragmentSize = fragmentSize;
+        m_fragmentCount = fragmentCount;
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        m_crc32 = (int) crc32.getValue();
+    }
+
+    /**
+     * 按写入帧的最大长度创建会话
+     *
+     * @param payload
+     * @param maxFrameLength 一次写入的最大长度，通常为MTU - 3
+     * @return
+     */
+    public static TransferSession forFrameLength(byte[] payload, int maxFrameLength) {
+        return new TransferSession(payload, maxFrameLength - TransferProtocol.DATA_HEADER_LEN);
+    }
+
+    public int getTransferId() {
+        return m_transferId;
+    }
+
+    public int getTotalLength() {
+        return m_payload.length;
+    }
+
+    public int getFragmentSize() {
+        return m_fragmentSize;
+    }
+
+    public int getFragmentCount() {
+        return m_fragmentCount;
+    }
+
+    public int getCrc32() {
+        return m_crc32;
+    }
+
+    int fragmentLength(int seq) {
+        return Math.min(m_fragmentSize, m_payload.length - seq * m_fragmentSize);
+    }
+
+    byte[] startFrame() {
+        return TransferProtocol.start(m_transferId, m_payload.length, m_fragmentSize, m_crc32);
+    }
+
+    byte[] dataFrame(int seq) {
+        return TransferProtocol.data(seq, m_payload, seq * m_fragmentSize, fragmentLength(seq));
+    }
+
+    byte[] endFrame() {
+        return TransferProtocol.end(m_transferId);
+    }
+
+    @Override
+    public String toString() {
+        return "TransferSession{" +
+                "transferId=" + m_transferId +
+                ", totalLength=" + m_payload.length +
+                ", fragmentSize=" + m_fragmentSize +
+                ", fragmentCount=" + m_fragmentCount +
+                '}';
+    }
+}
@@ -0,0 +1,256 @@
+package com.jack.rx.bluetooth.transport;
+
+import android.content.Context;
+import android.util.Pair;
+
+import com.inuker.bluetooth.library.BluetoothClient;
+import com.inuker.bluetooth.library.connect.listener.BleConnectStatusListener;
+import com.inuker.bluetooth.library.connect.listener.BluetoothStateListener;
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.connect.response.BleConnectResponse;
+import com.inuker.bluetooth.library.connect.response.BleMtuResponse;
+import com.inuker.bluetooth.library.connect.response.BleNotifyResponse;
+import com.inuker.bluetooth.library.connect.response.BleReadResponse;
+import com.inuker.bluetooth.library.connect.response.BleReadRssiResponse;
+import com.inuker.bluetooth.library.connect.response.BleUnnotifyResponse;
+import com.inuker.bluetooth.library.connect.response.BleWriteResponse;
+import com.inuker.bluetooth.library.search.SearchRequest;
+import com.inuker.bluetooth.library.search.SearchResult;
+import com.inuker.bluetooth.library.search.response.SearchResponse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 描述: 基于{@link BluetoothClient}的{@link BluetoothTransport}实现<br>
+ * 1, 所有调用在{@link BluetoothIoThread}上执行，调用方不需要在特定线程;<br>
+ * 2, 所有回调转发到{@link BluetoothIoThread}上，蓝牙库投递到UI线程的回调只做一次转发;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class BluetoothClientTransport implements BluetoothTransport {
+    private final BluetoothClient m_client;
+    private final BluetoothIoThread m_io;
+    private final Map<OnBluetoothStateChangedListener, BluetoothStateListener> m_stateListeners = new ConcurrentHashMap<>(2);
+    private final Map<Pair<String, OnConnectStatusChangedListener>, BleConnectStatusListener> m_connectStatusListeners = new ConcurrentHashMap<>(8);
+
+    public BluetoothClientTransport(Context context) {
+        this(context, new BluetoothIoThread());
+    }
+
+    public BluetoothClientTransport(Context context, BluetoothIoThread io) {
+        m_client = new BluetoothClient(context);
+        m_io = io;
+    }
+
+    public BluetoothIoThread getIoThread() {
+        return m_io;
+    }
+
+    @Override
+    public boolean isBluetoothOpened() {
+        return m_client.isBluetoothOpened();
+    }
+
+    @Override
+    public boolean isBleSupported() {
+        return m_client.isBleSupported();
+    }
+
+    @Override
+    public boolean openBluetooth() {
+        return m_client.openBluetooth();
+    }
+
+    @Override
+    public boolean closeBluetooth() {
+        return m_client.closeBluetooth();
+    }
+
+    @Override
+    public void registerBluetoothStateListener(OnBluetoothStateChangedListener listener) {
+        BluetoothStateListener stateListener = new BluetoothStateListener() {
+            @Override
+            public void onBluetoothStateChanged(final boolean openOrClosed) {
+                m_io.execute(() -> listener.onBluetoothStateChanged(openOrClosed));
+            }
+        };
+        m_stateListeners.put(listener, stateListener);
+        m_io.execute(() -> m_client.registerBluetoothStateListener(stateListener));
+    }
+
+    @Override
+    public void unregisterBluetoothStateListener(OnBluetoothStateChangedListener listener) {
+        if (null == listener) {
+            return;
+        }
+        BluetoothStateListener stateListener = m_stateListeners.remove(listener);
+        if (null != stateListener) {
+            m_io.execute(() -> m_client.unregisterBluetoothStateListener(stateListener));
+        }
+    }
+
+    @Override
+    public void search(SearchRequest request, SearchResponse response) {
+        m_io.execute(() -> m_client.search(request, new SearchResponse() {
+            @Override
+            public void onSearchStarted() {
+                m_io.execute(response::onSearchStarted);
+            }
+
+            @Override
+            public void onDeviceFounded(final SearchResult device) {
+                m_io.execute(() -> response.onDeviceFounded(device));
+            }
+
+            @Override
+            public void onSearchStopped() {
+                m_io.execute(response::onSearchStopped);
+            }
+
+            @Override
+            public void onSearchCanceled() {
+                m_io.execute(response::onSearchCanceled);
+            }
+        }));
+    }
+
+    @Override
+    public void stopSearch() {
+        m_io.execute(m_client::stopSearch);
+    }
+
+    @Override
+    public void connect(String mac, BleConnectOptions options, BleConnectResponse response) {
+        m_io.execute(() -> m_client.connect(mac, options, (code, data) -> m_io.execute(() -> response.onResponse(code, data))));
+    }
+
+    @Override
+    public void disconnect(String mac) {
+        m_io.execute(() -> m_client.disconnect(mac));
+    }
+
+    @Override
+    public int getConnectStatus(String mac) {
+        return m_client.getConnectStatus(mac);
+    }
+
+    /**
+     * {@link BleConnectStatusListener}构造函数中需要looper，在{@link BluetoothIoThread}上构造，回调也投递到这个线程<br>
+     * 同一个{@code listener}重复注册时沿用已有的包装，不会重复回调
+     *
+     * @param mac
+     * @param listener
+     */
+    @Override
+    public void registerConnectStatusListener(String mac, OnConnectStatusChangedListener listener) {
+        m_io.execute(() -> {
+            Pair<String, OnConnectStatusChangedListener> key = Pair.create(mac, listener);
+            if (m_connectStatusListeners.containsKey(key)) {
+                return;
+            }
+            BleConnectStatusListener statusListener = new BleConnectStatusListener() {
+                @Override
+                public void onConnectStatusChanged(final String address, final int status) {
+                    listener.onConnectStatusChanged(address, status);
+                }
+            };
+            m_connectStatusListeners.put(key, statusListener);
+            m_client.registerConnectStatusListener(mac, statusListener);
+        });
+    }
+
+    @Override
+    public void unregisterConnectStatusListener(String mac, OnConnectStatusChangedListener listener) {
+        if (null == listener) {
+            return;
+        }
+        m_io.execute(() -> {
+            BleConnectStatusListener statusListener = m_connectStatusListeners.remove(Pair.create(mac, listener));
+            if (null != statusListener) {
+                m_client.unregisterConnectStatusListener(mac, statusListener);
+            }
+        });
+    }
+
+    @Override
+    public void read(String mac, UUID serviceUUID, UUID characterUUID, BleReadResponse response) {
+        m_io.execute(() -> m_client.read(mac, serviceUUID, characterUUID, (code, data) -> m_io.execute(() -> response.onResponse(code, data))));
+    }
+
+    @Override
+    public void write(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response) {
+        m_io.execute(() -> m_client.write(mac, serviceUUID, characterUUID, value, code -> m_io.execute(() -> response.onResponse(code))));
+    }
+
+    @Override
+    public void writeNoRsp(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response) {
+        m_io.execute(() -> m_client.writeNoRsp(mac, serviceUUID, characterUUID, value, code -> m_io.execute(() -> response.onResponse(code))));
+    }
+
+    @Override
+    public void readDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, BleReadResponse response) {
+        m_io.execute(() -> m_client.readDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, (code, data) -> m_io.execute(() -> response.onResponse(code, data))));
+    }
+
+    @Override
+    public void writeDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value, BleWriteResponse response) {
+        m_io.execute(() -> m_client.writeDescriptor(mac, serviceUUID, characterUUID, descriptorUUID, value, code -> m_io.execute(() -> response.onResponse(code))));
+    }
+
+    @Override
+    public void notify(String mac, UUID serviceUUID, UUID characterUUID, BleNotifyResponse response) {
+        m_io.execute(() -> m_client.notify(mac, serviceUUID, characterUUID, forward(response)));
+    }
+
+    @Override
+    public void unnotify(String mac, UUID serviceUUID, UUID characterUUID, BleUnnotifyResponse response) {
+        m_io.execute(() -> m_client.unnotify(mac, serviceUUID, characterUUID, code -> m_io.execute(() -> response.onResponse(code))));
+    }
+
+    @Override
+    public void indicate(String mac, UUID serviceUUID, UUID characterUUID, BleNotifyResponse response) {
+        m_io.execute(() -> m_client.indicate(mac, serviceUUID, characterUUID, forward(response)));
+    }
+
+    @Override
+    public void unindicate(String mac, UUID serviceUUID, UUID characterUUID, BleUnnotifyResponse response) {
+        m_io.execute(() -> m_client.unindicate(mac, serviceUUID, characterUUID, code -> m_io.execute(() -> response.onResponse(code))));
+    }
+
+    @Override
+    public void readRssi(String mac, BleReadRssiResponse response) {
+        m_io.execute(() -> m_client.readRssi(mac, (code, data) -> m_io.execute(() -> response.onResponse(code, data))));
+    }
+
+    @Override
+    public void requestMtu(String mac, int mtu, BleMtuResponse response) {
+        m_io.execute(() -> m_client.requestMtu(mac, mtu, (code, data) -> m_io.execute(() -> response.onResponse(code, data))));
+    }
+
+    @Override
+    public void clearRequest(String mac, int type) {
+        m_io.execute(() -> m_client.clearRequest(mac, type));
+    }
+
+    @Override
+    public void refreshCache(String mac) {
+        m_io.execute(() -> m_client.refreshCache(mac));
+    }
+
+    private BleNotifyResponse forward(BleNotifyResponse response) {
+        return new BleNotifyResponse() {
+            @Override
+            public void onNotify(final UUID service, final UUID character, final byte[] value) {
+                m_io.execute(() -> response.onNotify(service, character, value));
+            }
+
+            @Override
+            public void onResponse(final int code) {
+                m_io.execute(() -> response.onResponse(code));
+            }
+        };
+    }
+}
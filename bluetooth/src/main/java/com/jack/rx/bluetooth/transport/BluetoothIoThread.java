@@ -0,0 +1,69 @@
+package com.jack.rx.bluetooth.transport;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+import io.reactivex.Scheduler;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+
+/**
+ * 描述: 蓝牙I/O专用线程<br>
+ * 1, 所有对{@link com.inuker.bluetooth.library.BluetoothClient}的调用和监听注册都在这个线程执行;<br>
+ * 2, 蓝牙库的回调转发到这个线程，高频通知不再占用UI线程;<br>
+ * 3, 线程自带looper，注册连接状态监听时不再需要在调用线程准备looper;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class BluetoothIoThread {
+    private final HandlerThread m_thread;
+    private final Handler m_handler;
+    private final Scheduler m_scheduler;
+
+    public BluetoothIoThread() {
+        this("rx-bluetooth-io");
+    }
+
+    public BluetoothIoThread(String name) {
+        m_thread = new HandlerThread(name, Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        m_thread.start();
+        m_handler = new Handler(m_thread.getLooper());
+        m_scheduler = AndroidSchedulers.from(m_thread.getLooper());
+    }
+
+    public Looper getLooper() {
+        return m_thread.getLooper();
+    }
+
+    /**
+     * 运行在蓝牙I/O线程上的{@link Scheduler}
+     *
+     * @return
+     */
+    public Scheduler getScheduler() {
+        return m_scheduler;
+    }
+
+    public boolean isCurrentThread() {
+        return Looper.myLooper() == m_thread.getLooper();
+    }
+
+    /**
+     * 已经在蓝牙I/O线程上时直接执行，否则按提交顺序排队执行
+     *
+     * @param runnable
+     */
+    public void execute(Runnable runnable) {
+        if (isCurrentThread()) {
+            runnable.run();
+        } else {
+            m_handler.post(runnable);
+        }
+    }
+
+    public void quit() {
+        m_thread.quit();
+    }
+}
@@ -0,0 +1,92 @@
+package com.jack.rx.bluetooth.transport;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.connect.response.BleConnectResponse;
+import com.inuker.bluetooth.library.connect.response.BleMtuResponse;
+import com.inuker.bluetooth.library.connect.response.BleNotifyResponse;
+import com.inuker.bluetooth.library.connect.response.BleReadResponse;
+import com.inuker.bluetooth.library.connect.response.BleReadRssiResponse;
+import com.inuker.bluetooth.library.connect.response.BleUnnotifyResponse;
+import com.inuker.bluetooth.library.connect.response.BleWriteResponse;
+import com.inuker.bluetooth.library.search.SearchRequest;
+import com.inuker.bluetooth.library.search.response.SearchResponse;
+
+import java.util.UUID;
+
+/**
+ * 描述: 蓝牙传输层接口，{@link com.jack.rx.bluetooth.BaseRxBluetooth}只通过该接口访问蓝牙<br>
+ * 1, {@link BluetoothClientTransport}: 基于{@link com.inuker.bluetooth.library.BluetoothClient}的真实实现;<br>
+ * 2, {@link SimulatedTransport}: 纯JVM的模拟外设实现，用于压测和离线调试;<br>
+ * 返回码和状态码沿用{@link com.inuker.bluetooth.library.Constants}
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public interface BluetoothTransport {
+
+    boolean isBluetoothOpened();
+
+    boolean isBleSupported();
+
+    boolean openBluetooth();
+
+    boolean closeBluetooth();
+
+    void registerBluetoothStateListener(OnBluetoothStateChangedListener listener);
+
+    void unregisterBluetoothStateListener(OnBluetoothStateChangedListener listener);
+
+    void search(SearchRequest request, SearchResponse response);
+
+    void stopSearch();
+
+    void connect(String mac, BleConnectOptions options, BleConnectResponse response);
+
+    void disconnect(String mac);
+
+    int getConnectStatus(String mac);
+
+    void registerConnectStatusListener(String mac, OnConnectStatusChangedListener listener);
+
+    void unregisterConnectStatusListener(String mac, OnConnectStatusChangedListener listener);
+
+    void read(String mac, UUID serviceUUID, UUID characterUUID, BleReadResponse response);
+
+    void write(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response);
+
+    void writeNoRsp(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response);
+
+    void readDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, BleReadResponse response);
+
+    void writeDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value, BleWriteResponse response);
+
+    void notify(String mac, UUID serviceUUID, UUID characterUUID, BleNotifyResponse response);
+
+    void unnotify(String mac, UUID serviceUUID, UUID characterUUID, BleUnnotifyResponse response);
+
+    void indicate(String mac, UUID serviceUUID, UUID characterUUID, BleNotifyResponse response);
+
+    void unindicate(String mac, UUID serviceUUID, UUID characterUUID, BleUnnotifyResponse response);
+
+    void readRssi(String mac, BleReadRssiResponse response);
+
+    void requestMtu(String mac, int mtu, BleMtuResponse response);
+
+    void clearRequest(String mac, int type);
+
+    void refreshCache(String mac);
+
+    /**
+     * 设备连接状态变化监听，{@code status}取值见{@link com.jack.rx.bluetooth.BluetoothStatus}
+     */
+    interface OnConnectStatusChangedListener {
+        void onConnectStatusChanged(String mac, int status);
+    }
+
+    /**
+     * 手机蓝牙开关状态变化监听
+     */
+    interface OnBluetoothStateChangedListener {
+        void onBluetoothStateChanged(boolean openOrClosed);
+    }
+}
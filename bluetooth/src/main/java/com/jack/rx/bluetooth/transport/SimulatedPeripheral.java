@@ -0,0 +1,382 @@
+package com.jack.rx.bluetooth.transport;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.inuker.bluetooth.library.connect.response.BleNotifyResponse;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 描述: {@link SimulatedTransport}中的虚拟外设，可配置延迟、MTU和丢包率<br>
+ * 通过{@link #notify(UUID, UUID, byte[])}模拟外设主动上报数据，
+ * 通过{@link WriteHandler}模拟外设对写入命令的响应
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class SimulatedPeripheral {
+    public static final int DEFAULT_MTU = 23;
+    /**
+     * ATT协议头长度，单包有效数据长度为 mtu - ATT_HEADER_LEN
+     */
+    public static final int ATT_HEADER_LEN = 3;
+
+    private final String m_mac;
+    private final String m_name;
+    private final byte[] m_scanRecord;
+    private final BluetoothDevice m_device;
+    private final long m_latencyMillis;
+    private final long m_latencyJitterMillis;
+    private final float m_lossRate;
+    private final BleGattProfile m_profile;
+    private final WriteHandler m_writeHandler;
+    private final Map<UUID, Map<UUID, byte[]>> m_values = new ConcurrentHashMap<>(4);
+    private final Map<String, byte[]> m_descriptors = new ConcurrentHashMap<>(4);
+    private final Map<String, List<BleNotifyResponse>> m_subscriptions = new ConcurrentHashMap<>(4);
+    private final int m_maxMtu;
+    private volatile int m_mtu = DEFAULT_MTU;
+    private volatile int m_rssi;
+    private volatile boolean m_connected = false;
+    private volatile boolean m_advertising = true;
+    private volatile SimulatedTransport m_transport;
+
+    private SimulatedPeripheral(Builder builder) {
+        m_mac = builder.m_mac;
+        m_name = builder.m_name;
+        m_scanRecord = builder.m_scanRecord;
+        m_device = builder.m_device;
+        m_latencyMillis = builder.m_latencyMillis;
+        m_latencyJitterMillis = builder.m_latencyJitterMillis;
+        m_lossRate = builder.m_lossRate;
+        m_maxMtu = builder.m_mtu;
+        m_rssi = builder.m_rssi;
+        m_writeHandler = builder.m_writeHandler;
+        for (Map.Entry<UUID, Map<UUID, byte[]>> entry : builder.m_values.entrySet()) {
+            m_values.put(entry.getKey(), new ConcurrentHashMap<>(entry.getValue()));
+        }
+        m_profile = null != builder.m_profile ? builder.m_profile : buildProfile(builder.m_values);
+    }
+
+    public String getMac() {
+        return m_mac;
+    }
+
+    public String getName() {
+        return m_name;
+    }
+
+    /**
+     * 当前协商的MTU，连接后为{@link #DEFAULT_MTU}，通过requestMtu协商
+     *
+     * @return
+     */
+    public int getMtu() {
+        return m_mtu;
+    }
+
+    /**
+     * 外设支持的最大MTU
+     *
+     * @return
+     */
+    public int getMaxMtu() {
+        return m_maxMtu;
+    }
+
+    public void setMtu(int mtu) {
+        m_mtu = mtu;
+    }
+
+    public int getRssi() {
+        return m_rssi;
+    }
+
+    public void setRssi(int rssi) {
+        m_rssi = rssi;
+    }
+
+    public boolean isConnected() {
+        return m_connected;
+    }
+
+    public boolean isAdvertising() {
+        return m_advertising;
+    }
+
+    public void setAdvertising(boolean advertising) {
+        m_advertising = advertising;
+    }
+
+    public byte[] getValue(UUID serviceUUID, UUID characterUUID) {
+        Map<UUID, byte[]> characters = m_values.get(serviceUUID);
+        return null == characters ? null : characters.get(characterUUID);
+    }
+
+    public void setValue(UUID serviceUUID, UUID characterUUID, byte[] value) {
+        Map<UUID, byte[]> characters = m_values.get(serviceUUID);
+        if (null == characters) {
+            characters = new ConcurrentHashMap<>(4);
+            m_values.put(serviceUUID, characters);
+        }
+        characters.put(characterUUID, value);
+    }
+
+    /**
+     * 中心设备是否已经打开了特征的通知，打开之前{@link #notify(UUID, UUID, byte[])}的数据会被丢弃
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @return
+     */
+    public boolean isNotifying(UUID serviceUUID, UUID characterUUID) {
+        List<BleNotifyResponse> responses = m_subscriptions.get(key(serviceUUID, characterUUID));
+        return null != responses && !responses.isEmpty();
+    }
+
+    /**
+     * 外设主动上报数据，超过MTU的部分被截断，按丢包率丢弃
+     *
+     * @param serviceUUID
+     * @param characterUUID
+     * @param value
+     */
+    public void notify(UUID serviceUUID, UUID characterUUID, byte[] value) {
+        SimulatedTransport transport = m_transport;
+        if (null != transport && m_connected) {
+            transport.deliverNotify(this, serviceUUID, characterUUID, value);
+        }
+    }
+
+    /**
+     * 模拟链路丢失，已连接的情况下断开并通知状态监听
+     */
+    public void linkLoss() {
+        SimulatedTransport transport = m_transport;
+        if (null != transport) {
+            transport.dropLink(this);
+        }
+    }
+
+    long getLatencyMillis() {
+        return m_latencyMillis;
+    }
+
+    long getLatencyJitterMillis() {
+        return m_latencyJitterMillis;
+    }
+
+    float getLossRate() {
+        return m_lossRate;
+    }
+
+    BleGattProfile getProfile() {
+        return m_profile;
+    }
+
+    byte[] getScanRecord() {
+        return m_scanRecord;
+    }
+
+    BluetoothDevice getDevice() {
+        return m_device;
+    }
+
+    WriteHandler getWriteHandler() {
+        return m_writeHandler;
+    }
+
+    void setTransport(SimulatedTransport transport) {
+        m_transport = transport;
+    }
+
+    void setConnected(boolean connected) {
+        m_connected = connected;
+        if (!connected) {
+            m_subscriptions.clear();
+            m_mtu = DEFAULT_MTU;
+        }
+    }
+
+    boolean containsCharacter(UUID serviceUUID, UUID characterUUID) {
+        Map<UUID, byte[]> characters = m_values.get(serviceUUID);
+        return null != characters && characters.containsKey(characterUUID);
+    }
+
+    byte[] getDescriptor(UUID serviceUUID, UUID characterUUID, UUID descriptorUUID) {
+        return m_descriptors.get(key(serviceUUID, characterUUID) + descriptorUUID);
+    }
+
+    void setDescriptor(UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value) {
+        m_descriptors.put(key(serviceUUID, characterUUID) + descriptorUUID, value);
+    }
+
+    void subscribe(UUID serviceUUID, UUID characterUUID, BleNotifyResponse response) {
+        String key = key(serviceUUID, characterUUID);
+        List<BleNotifyResponse> responses = m_subscriptions.get(key);
+        if (null == responses) {
+            responses = new CopyOnWriteArrayList<>();
+            m_subscriptions.put(key, responses);
+        }
+        responses.add(response);
+    }
+
+    void unsubscribe(UUID serviceUUID, UUID characterUUID) {
+        m_subscriptions.remove(key(serviceUUID, characterUUID));
+    }
+
+    List<BleNotifyResponse> getSubscriptions(UUID serviceUUID, UUID characterUUID) {
+        return m_subscriptions.get(key(serviceUUID, characterUUID));
+    }
+
+    private static String key(UUID serviceUUID, UUID characterUUID) {
+        return serviceUUID.toString() + characterUUID.toString();
+    }
+
+    /**
+     * 由声明的特征值构建{@link BleGattProfile}，{@link BluetoothGattCharacteristic}需要android运行环境，
+     * 纯JVM环境下(unitTests.returnDefaultValues)构建失败时返回空的服务发现结果，需要时用{@link Builder#setProfile(BleGattProfile)}指定
+     *
+     * @param values
+     * @return
+     */
+    private static BleGattProfile buildProfile(Map<UUID, Map<UUID, byte[]>> values) {
+        Map<UUID, Map<UUID, BluetoothGattCharacteristic>> services = new HashMap<>(values.size());
+        for (Map.Entry<UUID, Map<UUID, byte[]>> service : values.entrySet()) {
+            Map<UUID, BluetoothGattCharacteristic> characters = new HashMap<>(service.getValue().size());
+            for (UUID characterUUID : service.getValue().keySet()) {
+                characters.put(characterUUID, new BluetoothGattCharacteristic(characterUUID,
+                        BluetoothGattCharacteristic.PROPERTY_READ
+                                | BluetoothGattCharacteristic.PROPERTY_WRITE
+                                | BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE
+                                | BluetoothGattCharacteristic.PROPERTY_NOTIFY,
+                        BluetoothGattCharacteristic.PERMISSION_READ | BluetoothGattCharacteristic.PERMISSION_WRITE));
+            }
+            services.put(service.getKey(), characters);
+        }
+        try {
+            return new BleGattProfile(services);
+        } catch (RuntimeException e) {
+            return new BleGattProfile(Collections.<UUID, Map<UUID, BluetoothGattCharacteristic>>emptyMap());
+        }
+    }
+
+    /**
+     * 外设收到写入时的处理，可以在其中调用{@link SimulatedPeripheral#notify(UUID, UUID, byte[])}应答
+     */
+    public interface WriteHandler {
+        void onWrite(SimulatedPeripheral peripheral, UUID serviceUUID, UUID characterUUID, byte[] value);
+    }
+
+    public static class Builder {
+        private final String m_mac;
+        private final Map<UUID, Map<UUID, byte[]>> m_values = new HashMap<>(4);
+        private String m_name;
+        private byte[] m_scanRecord = new byte[0];
+        private BluetoothDevice m_device;
+        private long m_latencyMillis = 0;
+        private long m_latencyJitterMillis = 0;
+        private float m_lossRate = 0.0f;
+        private int m_mtu = DEFAULT_MTU;
+        private int m_rssi = -60;
+        private BleGattProfile m_profile;
+        private WriteHandler m_writeHandler;
+
+        public Builder(String mac) {
+            m_mac = mac;
+        }
+
+        public Builder setName(final String name) {
+            m_name = name;
+            return this;
+        }
+
+        public Builder setScanRecord(final byte[] scanRecord) {
+            m_scanRecord = scanRecord;
+            return this;
+        }
+
+        /**
+         * 搜索时上报的设备，不设置时尝试通过{@link android.bluetooth.BluetoothAdapter}获取，获取不到时只上报mac和名字
+         *
+         * @param device
+         * @return
+         */
+        public Builder setDevice(final BluetoothDevice device) {
+            m_device = device;
+            return this;
+        }
+
+        public Builder setLatency(final long latencyMillis, final long jitterMillis) {
+            m_latencyMillis = latencyMillis;
+            m_latencyJitterMillis = jitterMillis;
+            return this;
+        }
+
+        /**
+         * @param lossRate 丢包率 [0, 1]
+         * @return
+         */
+        public Builder setLossRate(final float lossRate) {
+            if (lossRate < 0.0f || lossRate > 1.0f) {
+                throw new IllegalArgumentException("lossRate = " + lossRate);
+            }
+            m_lossRate = lossRate;
+            return this;
+        }
+
+        /**
+         * 外设支持的最大MTU
+         *
+         * @param mtu
+         * @return
+         */
+        public Builder setMtu(final int mtu) {
+            m_mtu = mtu;
+            return this;
+        }
+
+        public Builder setRssi(final int rssi) {
+            m_rssi = rssi;
+            return this;
+        }
+
+        /**
+         * 指定服务发现的结果，不设置时由{@link #addCharacter(UUID, UUID, byte[])}声明的特征构建
+         *
+         * @param profile
+         * @return
+         */
+        public Builder setProfile(final BleGattProfile profile) {
+            m_profile = profile;
+            return this;
+        }
+
+        public Builder addCharacter(final UUID serviceUUID, final UUID characterUUID, final byte[] value) {
+            Map<UUID, byte[]> characters = m_values.get(serviceUUID);
+            if (null == characters) {
+                characters = new HashMap<>(4);
+                m_values.put(serviceUUID, characters);
+            }
+            characters.put(characterUUID, null == value ? new byte[0] : Arrays.copyOf(value, value.length));
+            return this;
+        }
+
+        public Builder setWriteHandler(final WriteHandler writeHandler) {
+            m_writeHandler = writeHandler;
+            return this;
+        }
+
+        public SimulatedPeripheral build() {
+            return new SimulatedPeripheral(this);
+        }
+    }
+}
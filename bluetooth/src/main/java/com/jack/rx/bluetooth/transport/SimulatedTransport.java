@@ -0,0 +1,577 @@
+package com.jack.rx.bluetooth.transport;
+
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.connect.response.BleConnectResponse;
+import com.inuker.bluetooth.library.connect.response.BleMtuResponse;
+import com.inuker.bluetooth.library.connect.response.BleNotifyResponse;
+import com.inuker.bluetooth.library.connect.response.BleReadResponse;
+import com.inuker.bluetooth.library.connect.response.BleReadRssiResponse;
+import com.inuker.bluetooth.library.connect.response.BleUnnotifyResponse;
+import com.inuker.bluetooth.library.connect.response.BleWriteResponse;
+import com.inuker.bluetooth.library.search.SearchRequest;
+import com.inuker.bluetooth.library.search.SearchResult;
+import com.inuker.bluetooth.library.search.response.SearchResponse;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.inuker.bluetooth.library.Constants.REQUEST_FAILED;
+import static com.inuker.bluetooth.library.Constants.REQUEST_SUCCESS;
+import static com.inuker.bluetooth.library.Constants.REQUEST_TIMEDOUT;
+import static com.inuker.bluetooth.library.Constants.STATUS_CONNECTED;
+import static com.inuker.bluetooth.library.Constants.STATUS_DEVICE_CONNECTED;
+import static com.inuker.bluetooth.library.Constants.STATUS_DEVICE_DISCONNECTED;
+import static com.inuker.bluetooth.library.Constants.STATUS_DISCONNECTED;
+
+/**
+ * 描述: 纯JVM的{@link BluetoothTransport}实现，不访问蓝牙硬件<br>
+ * 1, 所有回调在内部的{@link ScheduledExecutorService}线程上，按外设配置的延迟投递，
+ * 同一外设的应答、通知和连接状态回调与真实协议栈一样按发出顺序串行执行，延迟抖动不会打乱顺序;<br>
+ * 2, 需要应答的操作丢包时返回{@link com.inuker.bluetooth.library.Constants#REQUEST_TIMEDOUT}，
+ * 通知和无应答写入丢包时直接丢弃;<br>
+ * 3, 可以同时挂载上百个{@link SimulatedPeripheral}，用于压测{@link com.jack.rx.bluetooth.RxBluetooth};<br>
+ * 4, {@link #clearRequest(String, int)}只记录清除的请求类型，不影响已经发出的应答;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class SimulatedTransport implements BluetoothTransport {
+    private static final long ADVERTISE_INTERVAL_MILLIS = 100;
+
+    private final ScheduledExecutorService m_executor;
+    private final Random m_random = new Random();
+    private final Map<String, SimulatedPeripheral> m_peripherals = new ConcurrentHashMap<>(16);
+    private final ConcurrentMap<String, Lane> m_lanes = new ConcurrentHashMap<>(16);
+    private final Map<String, CopyOnWriteArrayList<OnConnectStatusChangedListener>> m_connectStatusListeners = new ConcurrentHashMap<>(16);
+    private final List<OnBluetoothStateChangedListener> m_stateListeners = new CopyOnWriteArrayList<>();
+    /**
+     * 每个设备被清除过的请求类型，按位或
+     */
+    private final Map<String, Integer> m_clearedRequests = new HashMap<>(16);
+    private volatile boolean m_opened = true;
+    private volatile ScheduledFuture<?> m_search;
+
+    public SimulatedTransport() {
+        this(Executors.newScheduledThreadPool(2));
+    }
+
+    public SimulatedTransport(ScheduledExecutorService executor) {
+        m_executor = executor;
+    }
+
+    public SimulatedTransport addPeripheral(SimulatedPeripheral peripheral) {
+        peripheral.setTransport(this);
+        m_peripherals.put(peripheral.getMac(), peripheral);
+        return this;
+    }
+
+    public SimulatedPeripheral removePeripheral(String mac) {
+        SimulatedPeripheral peripheral = m_peripherals.remove(mac);
+        if (null != peripheral) {
+            dropLink(peripheral);
+            peripheral.setTransport(null);
+        }
+        return peripheral;
+    }
+
+    public SimulatedPeripheral getPeripheral(String mac) {
+        return m_peripherals.get(mac);
+    }
+
+    public Collection<SimulatedPeripheral> getPeripherals() {
+        return m_peripherals.values();
+    }
+
+    public void shutdown() {
+        m_executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isBluetoothOpened() {
+        return m_opened;
+    }
+
+    @Override
+    public boolean isBleSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean openBluetooth() {
+        setOpened(true);
+        return true;
+    }
+
+    @Override
+    public boolean closeBluetooth() {
+        setOpened(false);
+        for (SimulatedPeripheral peripheral : m_peripherals.values()) {
+            dropLink(peripheral);
+        }
+        return true;
+    }
+
+    @Override
+    public void registerBluetoothStateListener(OnBluetoothStateChangedListener listener) {
+        m_stateListeners.add(listener);
+    }
+
+    @Override
+    public void unregisterBluetoothStateListener(OnBluetoothStateChangedListener listener) {
+        m_stateListeners.remove(listener);
+    }
+
+    @Override
+    public void search(SearchRequest request, SearchResponse response) {
+        stopSearch();
+        m_executor.execute(response::onSearchStarted);
+        m_search = m_executor.scheduleAtFixedRate(() -> {
+            for (SimulatedPeripheral peripheral : m_peripherals.values()) {
+                if (peripheral.isAdvertising() && !lost(peripheral)) {
+                    BluetoothDevice device = resolveDevice(peripheral);
+                    response.onDeviceFounded(null != device
+                            ? new SearchResult(device, peripheral.getRssi(), peripheral.getScanRecord())
+                            : new SimulatedSearchResult(peripheral));
+                }
+            }
+        }, ADVERTISE_INTERVAL_MILLIS, ADVERTISE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 是否正在扫描
+     *
+     * @return
+     */
+    public boolean isSearching() {
+        return null != m_search;
+    }
+
+    @Override
+    public void stopSearch() {
+        ScheduledFuture<?> search = m_search;
+        m_search = null;
+        if (null != search) {
+            search.cancel(false);
+        }
+    }
+
+    @Override
+    public void connect(String mac, BleConnectOptions options, BleConnectResponse response) {
+        SimulatedPeripheral peripheral = m_peripherals.get(mac);
+        if (null == peripheral || !m_opened) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED, null));
+            return;
+        }
+        respond(peripheral, () -> {
+            if (lost(peripheral)) {
+                response.onResponse(REQUEST_TIMEDOUT, null);
+            } else {
+                boolean changed = !peripheral.isConnected();
+                peripheral.setConnected(true);
+                response.onResponse(REQUEST_SUCCESS, peripheral.getProfile());
+                if (changed) {
+                    fireConnectStatus(mac, STATUS_CONNECTED);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void disconnect(String mac) {
+        SimulatedPeripheral peripheral = m_peripherals.get(mac);
+        if (null != peripheral) {
+            respond(peripheral, () -> dropLink(peripheral));
+        }
+    }
+
+    @Override
+    public int getConnectStatus(String mac) {
+        SimulatedPeripheral peripheral = m_peripherals.get(mac);
+        return null != peripheral && peripheral.isConnected() ? STATUS_DEVICE_CONNECTED : STATUS_DEVICE_DISCONNECTED;
+    }
+
+    @Override
+    public void registerConnectStatusListener(String mac, OnConnectStatusChangedListener listener) {
+        CopyOnWriteArrayList<OnConnectStatusChangedListener> listeners = m_connectStatusListeners.get(mac);
+        if (null == listeners) {
+            listeners = new CopyOnWriteArrayList<>();
+            m_connectStatusListeners.put(mac, listeners);
+        }
+        listeners.addIfAbsent(listener);
+    }
+
+    @Override
+    public void unregisterConnectStatusListener(String mac, OnConnectStatusChangedListener listener) {
+        List<OnConnectStatusChangedListener> listeners = m_connectStatusListeners.get(mac);
+        if (null != listeners) {
+            listeners.remove(listener);
+        }
+    }
+
+    @Override
+    public void read(String mac, UUID serviceUUID, UUID characterUUID, BleReadResponse response) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED, null));
+            return;
+        }
+        respond(peripheral, () -> {
+            if (lost(peripheral)) {
+                response.onResponse(REQUEST_TIMEDOUT, null);
+            } else if (!peripheral.containsCharacter(serviceUUID, characterUUID)) {
+                response.onResponse(REQUEST_FAILED, null);
+            } else {
+                byte[] value = peripheral.getValue(serviceUUID, characterUUID);
+                response.onResponse(REQUEST_SUCCESS, Arrays.copyOf(value, value.length));
+            }
+        });
+    }
+
+    @Override
+    public void write(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response) {
+        write(mac, serviceUUID, characterUUID, value, response, true);
+    }
+
+    @Override
+    public void writeNoRsp(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response) {
+        write(mac, serviceUUID, characterUUID, value, response, false);
+    }
+
+    @Override
+    public void readDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, BleReadResponse response) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED, null));
+            return;
+        }
+        respond(peripheral, () -> {
+            byte[] value = peripheral.getDescriptor(serviceUUID, characterUUID, descriptorUUID);
+            if (lost(peripheral)) {
+                response.onResponse(REQUEST_TIMEDOUT, null);
+            } else if (null == value) {
+                response.onResponse(REQUEST_FAILED, null);
+            } else {
+                response.onResponse(REQUEST_SUCCESS, Arrays.copyOf(value, value.length));
+            }
+        });
+    }
+
+    @Override
+    public void writeDescriptor(String mac, UUID serviceUUID, UUID characterUUID, UUID descriptorUUID, byte[] value, BleWriteResponse response) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED));
+            return;
+        }
+        respond(peripheral, () -> {
+            if (lost(peripheral)) {
+                response.onResponse(REQUEST_TIMEDOUT);
+            } else {
+                peripheral.setDescriptor(serviceUUID, characterUUID, descriptorUUID, Arrays.copyOf(value, value.length));
+                response.onResponse(REQUEST_SUCCESS);
+            }
+        });
+    }
+
+    @Override
+    public void notify(String mac, UUID serviceUUID, UUID characterUUID, BleNotifyResponse response) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED));
+            return;
+        }
+        respond(peripheral, () -> {
+            if (lost(peripheral)) {
+                response.onResponse(REQUEST_TIMEDOUT);
+            } else if (!peripheral.containsCharacter(serviceUUID, characterUUID)) {
+                response.onResponse(REQUEST_FAILED);
+            } else {
+                peripheral.subscribe(serviceUUID, characterUUID, response);
+                response.onResponse(REQUEST_SUCCESS);
+            }
+        });
+    }
+
+    @Override
+    public void unnotify(String mac, UUID serviceUUID, UUID characterUUID, BleUnnotifyResponse response) {
+        SimulatedPeripheral peripheral = m_peripherals.get(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED));
+            return;
+        }
+        respond(peripheral, () -> {
+            peripheral.unsubscribe(serviceUUID, characterUUID);
+            response.onResponse(REQUEST_SUCCESS);
+        });
+    }
+
+    @Override
+    public void indicate(String mac, UUID serviceUUID, UUID characterUUID, BleNotifyResponse response) {
+        notify(mac, serviceUUID, characterUUID, response);
+    }
+
+    @Override
+    public void unindicate(String mac, UUID serviceUUID, UUID characterUUID, BleUnnotifyResponse response) {
+        unnotify(mac, serviceUUID, characterUUID, response);
+    }
+
+    @Override
+    public void readRssi(String mac, BleReadRssiResponse response) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED, null));
+            return;
+        }
+        respond(peripheral, () -> response.onResponse(REQUEST_SUCCESS, peripheral.getRssi() + m_random.nextInt(5) - 2));
+    }
+
+    @Override
+    public void requestMtu(String mac, int mtu, BleMtuResponse response) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED, null));
+            return;
+        }
+        respond(peripheral, () -> {
+            if (lost(peripheral)) {
+                response.onResponse(REQUEST_TIMEDOUT, null);
+            } else {
+                peripheral.setMtu(Math.min(mtu, peripheral.getMaxMtu()));
+                response.onResponse(REQUEST_SUCCESS, peripheral.getMtu());
+            }
+        });
+    }
+
+    @Override
+    public void clearRequest(String mac, int type) {
+        synchronized (m_clearedRequests) {
+            Integer cleared = m_clearedRequests.get(mac);
+            m_clearedRequests.put(mac, null == cleared ? type : cleared | type);
+        }
+    }
+
+    /**
+     * 设备{@code mac}被清除过的请求类型，{@link com.inuker.bluetooth.library.Constants#REQUEST_READ}等按位或，没有清除过时返回0
+     *
+     * @param mac
+     * @return
+     */
+    public int getClearedRequests(String mac) {
+        synchronized (m_clearedRequests) {
+            Integer cleared = m_clearedRequests.get(mac);
+            return null == cleared ? 0 : cleared;
+        }
+    }
+
+    @Override
+    public void refreshCache(String mac) {
+
+    }
+
+    void deliverNotify(SimulatedPeripheral peripheral, UUID serviceUUID, UUID characterUUID, byte[] value) {
+        List<BleNotifyResponse> responses = peripheral.getSubscriptions(serviceUUID, characterUUID);
+        if (null == responses || responses.isEmpty()) {
+            return;
+        }
+        int length = Math.min(value.length, peripheral.getMtu() - SimulatedPeripheral.ATT_HEADER_LEN);
+        byte[] frame = Arrays.copyOf(value, length);
+        respond(peripheral, () -> {
+            if (!lost(peripheral)) {
+                for (BleNotifyResponse response : responses) {
+                    response.onNotify(serviceUUID, characterUUID, frame);
+                }
+            }
+        });
+    }
+
+    void dropLink(SimulatedPeripheral peripheral) {
+        if (peripheral.isConnected()) {
+            peripheral.setConnected(false);
+            fireConnectStatus(peripheral.getMac(), STATUS_DISCONNECTED);
+        }
+    }
+
+    private void write(String mac, UUID serviceUUID, UUID characterUUID, byte[] value, BleWriteResponse response, boolean ack) {
+        SimulatedPeripheral peripheral = connectedPeripheral(mac);
+        if (null == peripheral) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED));
+            return;
+        }
+        if (!ack && value.length > peripheral.getMtu() - SimulatedPeripheral.ATT_HEADER_LEN) {
+            m_executor.execute(() -> response.onResponse(REQUEST_FAILED));
+            return;
+        }
+        final byte[] copy = Arrays.copyOf(value, value.length);
+        respond(peripheral, () -> {
+            boolean lost = lost(peripheral);
+            if (!peripheral.containsCharacter(serviceUUID, characterUUID)) {
+                response.onResponse(REQUEST_FAILED);
+                return;
+            }
+            if (!lost) {
+                peripheral.setValue(serviceUUID, characterUUID, copy);
+            }
+            //无应答写入在发出时就已经回调成功
+            response.onResponse(lost && ack ? REQUEST_TIMEDOUT : REQUEST_SUCCESS);
+            SimulatedPeripheral.WriteHandler handler = peripheral.getWriteHandler();
+            if (!lost && null != handler) {
+                handler.onWrite(peripheral, serviceUUID, characterUUID, copy);
+            }
+        });
+    }
+
+    private SimulatedPeripheral connectedPeripheral(String mac) {
+        SimulatedPeripheral peripheral = m_peripherals.get(mac);
+        return null != peripheral && peripheral.isConnected() ? peripheral : null;
+    }
+
+    private void respond(SimulatedPeripheral peripheral, Runnable runnable) {
+        long delay = peripheral.getLatencyMillis();
+        if (peripheral.getLatencyJitterMillis() > 0) {
+            delay += (long) (m_random.nextDouble() * peripheral.getLatencyJitterMillis());
+        }
+        lane(peripheral.getMac()).post(runnable, TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    private Lane lane(String mac) {
+        Lane lane = m_lanes.get(mac);
+        if (null == lane) {
+            Lane created = new Lane();
+            lane = m_lanes.putIfAbsent(mac, created);
+            if (null == lane) {
+                lane = created;
+            }
+        }
+        return lane;
+    }
+
+    private boolean lost(SimulatedPeripheral peripheral) {
+        return peripheral.getLossRate() > 0 && m_random.nextFloat() < peripheral.getLossRate();
+    }
+
+    /**
+     * 所有监听在同一个回调中按注册顺序执行，不会与该外设的其它回调交错
+     */
+    private void fireConnectStatus(String mac, int status) {
+        List<OnConnectStatusChangedListener> listeners = m_connectStatusListeners.get(mac);
+        if (null != listeners) {
+            lane(mac).post(() -> {
+                for (OnConnectStatusChangedListener listener : listeners) {
+                    listener.onConnectStatusChanged(mac, status);
+                }
+            }, 0);
+        }
+    }
+
+    private void setOpened(boolean opened) {
+        m_opened = opened;
+        for (OnBluetoothStateChangedListener listener : m_stateListeners) {
+            m_executor.execute(() -> listener.onBluetoothStateChanged(opened));
+        }
+    }
+
+    /**
+     * 一个外设的回调队列，在共享的线程池上串行执行<br>
+     * 回调的到期时间不早于前一个回调，到期后按放入的顺序执行，同一时刻只有一个线程在执行
+     */
+    private final class Lane {
+        private final ArrayDeque<Runnable> m_tasks = new ArrayDeque<>(4);
+        private final ArrayDeque<Long> m_dues = new ArrayDeque<>(4);
+        private long m_lastDue = Long.MIN_VALUE;
+        private boolean m_draining = false;
+
+        void post(Runnable runnable, long delayNanos) {
+            long now = System.nanoTime();
+            long due;
+            synchronized (this) {
+                due = Math.max(now + delayNanos, m_lastDue);
+                m_lastDue = due;
+                m_tasks.offer(runnable);
+                m_dues.offer(due);
+            }
+            try {
+                m_executor.schedule(this::drain, due - now, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                //shutdown之后不再回调
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable runnable;
+                synchronized (this) {
+                    if (m_draining || m_tasks.isEmpty() || m_dues.peek() - System.nanoTime() > 0) {
+                        return;
+                    }
+                    m_draining = true;
+                    m_dues.poll();
+                    runnable = m_tasks.poll();
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    synchronized (this) {
+                        m_draining = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 纯JVM环境下没有{@link BluetoothAdapter}，没有通过{@link SimulatedPeripheral.Builder#setDevice(BluetoothDevice)}指定设备时返回null
+     *
+     * @param peripheral
+     * @return
+     */
+    private static BluetoothDevice resolveDevice(SimulatedPeripheral peripheral) {
+        if (null != peripheral.getDevice()) {
+            return peripheral.getDevice();
+        }
+        try {
+            BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+            return null == adapter ? null : adapter.getRemoteDevice(peripheral.getMac());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 没有{@link BluetoothDevice}时的扫描结果，地址和名字取自外设
+     */
+    private static final class SimulatedSearchResult extends SearchResult {
+        private final SimulatedPeripheral m_peripheral;
+
+        private SimulatedSearchResult(SimulatedPeripheral peripheral) {
+            super(null, peripheral.getRssi(), peripheral.getScanRecord());
+            m_peripheral = peripheral;
+        }
+
+        @Override
+        public String getName() {
+            return null == m_peripheral.getName() ? "NULL" : m_peripheral.getName();
+        }
+
+        @Override
+        public String getAddress() {
+            return m_peripheral.getMac();
+        }
+    }
+}
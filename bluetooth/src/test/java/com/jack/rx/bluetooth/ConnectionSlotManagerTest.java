@@ -0,0 +1,141 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link ConnectionSlotManager}的分配顺序和空闲淘汰
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ConnectionSlotManagerTest {
+    /**
+     * 被淘汰的设备
+     */
+    private final List<String> m_evicted = new ArrayList<>();
+    private ConnectionSlotManager m_manager;
+
+    @Before
+    public void setUp() {
+        //淘汰重试的定时器不在测试中触发
+        RxJavaPlugins.setComputationSchedulerHandler(scheduler -> new TestScheduler());
+        m_manager = new ConnectionSlotManager(mac -> {
+            m_evicted.add(mac);
+            return Completable.complete();
+        });
+        m_manager.setMaxSlots(1);
+        m_manager.setIdleTimeout(1, TimeUnit.HOURS);
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void grantsFreeSlotsImmediately() {
+        m_manager.setMaxSlots(2);
+        m_manager.acquire("d0", GattPriority.NORMAL).test().assertComplete();
+        m_manager.acquire("d1", GattPriority.NORMAL).test().assertComplete();
+        //已占用槽位的设备直接完成
+        m_manager.acquire("d0", GattPriority.LOW).test().assertComplete();
+        TestObserver<Void> waiting = m_manager.acquire("d2", GattPriority.HIGH).test();
+        waiting.assertNotComplete();
+        assertEquals(2, m_manager.getUsedSlots());
+        assertEquals(1, m_manager.getWaiting());
+        assertTrue(m_evicted.isEmpty());
+    }
+
+    @Test
+    public void grantsByPriorityThenArrival() {
+        m_manager.acquire("d0", GattPriority.NORMAL).test().assertComplete();
+        TestObserver<Void> low = m_manager.acquire("low", GattPriority.LOW).test();
+        TestObserver<Void> high1 = m_manager.acquire("high1", GattPriority.HIGH).test();
+        TestObserver<Void> high2 = m_manager.acquire("high2", GattPriority.HIGH).test();
+        assertEquals(3, m_manager.getWaiting());
+
+        m_manager.release("d0");
+        high1.assertComplete();
+        high2.assertNotComplete();
+        low.assertNotComplete();
+
+        m_manager.release("high1");
+        high2.assertComplete();
+        low.assertNotComplete();
+
+        m_manager.release("high2");
+        low.assertComplete();
+        assertEquals(0, m_manager.getWaiting());
+    }
+
+    @Test
+    public void skipsCancelledWaiters() {
+        m_manager.acquire("d0", GattPriority.NORMAL).test().assertComplete();
+        TestObserver<Void> cancelled = m_manager.acquire("d1", GattPriority.HIGH).test();
+        TestObserver<Void> next = m_manager.acquire("d2", GattPriority.LOW).test();
+        cancelled.dispose();
+        assertEquals(1, m_manager.getWaiting());
+
+        m_manager.release("d0");
+        next.assertComplete();
+        assertEquals(1, m_manager.getUsedSlots());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedIdleDevice() throws InterruptedException {
+        m_manager.setMaxSlots(2);
+        m_manager.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+        m_manager.acquire("d0", GattPriority.NORMAL).test().assertComplete();
+        m_manager.acquire("d1", GattPriority.NORMAL).test().assertComplete();
+        m_manager.connected("d0");
+        m_manager.connected("d1");
+        Thread.sleep(5);
+        m_manager.touch("d0");
+
+        TestObserver<Void> waiting = m_manager.acquire("d2", GattPriority.NORMAL).test();
+        assertEquals("[d1]", m_evicted.toString());
+        waiting.assertComplete();
+        assertEquals(0, m_manager.getLastTraffic("d1"));
+        assertEquals(2, m_manager.getUsedSlots());
+    }
+
+    @Test
+    public void neverEvictsDeviceStillConnecting() {
+        m_manager.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+        m_manager.acquire("d0", GattPriority.NORMAL).test().assertComplete();
+        //连接比空闲时间慢，淘汰只会释放槽位，连接还在继续
+        TestObserver<Void> waiting = m_manager.acquire("d1", GattPriority.HIGH).test();
+        waiting.assertNotComplete();
+        assertTrue(m_evicted.isEmpty());
+        assertEquals(1, m_manager.getUsedSlots());
+
+        //连接成功后才可以淘汰
+        m_manager.connected("d0");
+        assertEquals("[d0]", m_evicted.toString());
+        waiting.assertComplete();
+        assertEquals(1, m_manager.getUsedSlots());
+    }
+
+    @Test
+    public void keepsDevicesThatAreNotIdle() {
+        m_manager.acquire("d0", GattPriority.NORMAL).test().assertComplete();
+        m_manager.connected("d0");
+        TestObserver<Void> waiting = m_manager.acquire("d1", GattPriority.HIGH).test();
+        waiting.assertNotComplete();
+        assertTrue(m_evicted.isEmpty());
+    }
+}
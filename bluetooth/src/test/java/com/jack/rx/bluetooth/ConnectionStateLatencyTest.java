@@ -0,0 +1,116 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: 纯JVM测试已知设备connect/disconnect的延迟，使用{@link SimulatedTransport}模拟20ms的链路延迟<br>
+ * 改为状态机之前，已知设备的connect至少等待6s的{@link BaseRxBluetooth#getConnectStatus(String)}定时查询
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ConnectionStateLatencyTest {
+    private static final String MAC = "C0:00:00:00:00:01";
+    private static final int ROUNDS = 50;
+    private static final long LINK_LATENCY_MILLIS = 20;
+    private static final long POLLING_WINDOW_MILLIS = 6000;
+
+    private SimulatedTransport m_transport;
+    private RxBluetooth m_rxBluetooth;
+    private final BleConnectOptions m_options = new BleConnectOptions.Builder().build();
+    private final BluetoothHolderFactory m_factory = (mac, bleGattProfile) -> Single.just(new BenchmarkHolder(mac, m_rxBluetooth, bleGattProfile));
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        m_transport.addPeripheral(new SimulatedPeripheral.Builder(MAC)
+                .setName("benchmark")
+                .setLatency(LINK_LATENCY_MILLIS, 0)
+                .build());
+        RxBluetooth.init(m_transport);
+        m_rxBluetooth = RxBluetooth.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void connectKnownDevice() {
+        m_rxBluetooth.connect(MAC, m_options, m_factory).blockingGet();
+        long[] samples = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; ++i) {
+            long start = System.nanoTime();
+            BluetoothHolder holder = m_rxBluetooth.connect(MAC, m_options, m_factory).blockingGet();
+            samples[i] = System.nanoTime() - start;
+            assertEquals(MAC, holder.getMac());
+        }
+        report("connect(known)", samples);
+    }
+
+    @Test
+    public void disconnectKnownDevice() {
+        long[] samples = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; ++i) {
+            m_rxBluetooth.connect(MAC, m_options, m_factory).blockingGet();
+            long start = System.nanoTime();
+            BluetoothStatus status = m_rxBluetooth.disconnect(MAC).blockingGet();
+            samples[i] = System.nanoTime() - start;
+            assertEquals(BluetoothStatus.DISCONNECTED, status);
+        }
+        report("disconnect(known)", samples);
+    }
+
+    private static void report(String name, long[] samples) {
+        Arrays.sort(samples);
+        long median = TimeUnit.NANOSECONDS.toMicros(samples[samples.length / 2]);
+        long p95 = TimeUnit.NANOSECONDS.toMicros(samples[samples.length * 95 / 100]);
+        String msg = String.format(Locale.US, "%s median = %dus, p95 = %dus, speedup vs %dms polling = %.0fx",
+                name, median, p95, POLLING_WINDOW_MILLIS, POLLING_WINDOW_MILLIS * 1000.0 / Math.max(1, median));
+        assertTrue(msg, median < TimeUnit.MILLISECONDS.toMicros(LINK_LATENCY_MILLIS * 10));
+    }
+
+    private static final class BenchmarkHolder extends BluetoothHolder {
+        BenchmarkHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.just(100f);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
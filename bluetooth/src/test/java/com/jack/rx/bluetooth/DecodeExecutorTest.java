@@ -0,0 +1,93 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link DecodeExecutor}不同设备并行解码，同一设备保持顺序
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class DecodeExecutorTest {
+    private static final int FRAMES = 1000;
+
+    private final ExecutorService m_pool = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        m_pool.shutdownNow();
+    }
+
+    @Test
+    public void decodesDevicesInParallelAndKeepsOrderPerDevice() throws InterruptedException {
+        DecodeExecutor executor = new DecodeExecutor(m_pool);
+        //d0的第一帧等到d1解码完成才返回，两个设备串行执行时会超时
+        CountDownLatch d1Done = new CountDownLatch(1);
+        List<Integer> d0 = new ArrayList<>(FRAMES);
+        List<Integer> d1 = new ArrayList<>(FRAMES);
+
+        TestObserver<Integer> first = Observable.range(0, FRAMES)
+                .observeOn(executor.scheduler("d0"))
+                .doOnNext(frame -> {
+                    if (0 == frame) {
+                        assertTrue("设备之间没有并行", d1Done.await(5, TimeUnit.SECONDS));
+                    }
+                    d0.add(frame);
+                })
+                .test();
+        TestObserver<Integer> second = Observable.range(0, FRAMES)
+                .observeOn(executor.scheduler("d1"))
+                .doOnNext(d1::add)
+                .doOnComplete(d1Done::countDown)
+                .test();
+
+        second.awaitDone(5, TimeUnit.SECONDS).assertComplete();
+        first.awaitDone(5, TimeUnit.SECONDS).assertNoErrors().assertComplete();
+        for (int i = 0; i < FRAMES; ++i) {
+            assertEquals(i, (int) d0.get(i));
+            assertEquals(i, (int) d1.get(i));
+        }
+    }
+
+    @Test
+    public void sameDeviceSharesOneSerialLane() {
+        DecodeExecutor executor = new DecodeExecutor(m_pool);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        //同一设备的两个数据流，任意时刻最多一个在解码
+        TestObserver<Integer> a = Observable.range(0, FRAMES)
+                .observeOn(executor.scheduler("d0"))
+                .doOnNext(frame -> decode(running, overlaps))
+                .test();
+        TestObserver<Integer> b = Observable.range(0, FRAMES)
+                .observeOn(executor.scheduler("d0"))
+                .doOnNext(frame -> decode(running, overlaps))
+                .test();
+        a.awaitDone(5, TimeUnit.SECONDS).assertValueCount(FRAMES);
+        b.awaitDone(5, TimeUnit.SECONDS).assertValueCount(FRAMES);
+        assertEquals(0, overlaps.get());
+    }
+
+    private static void decode(AtomicInteger running, AtomicInteger overlaps) {
+        if (running.incrementAndGet() > 1) {
+            overlaps.incrementAndGet();
+        }
+        Thread.yield();
+        running.decrementAndGet();
+    }
+}
@@ -0,0 +1,155 @@
+package com.jack.rx.bluetooth;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.os.ParcelUuid;
+
+import com.inuker.bluetooth.library.model.BleGattCharacter;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.inuker.bluetooth.library.model.BleGattService;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link DeviceRegistry}的查找、摘要失效和持久化<br>
+ * 1, 用同一个{@link MemoryContext}创建新的{@link DeviceRegistry}模拟进程重启;<br>
+ * 2, JVM上android的UUID包装类没有实现，profile通过重写getter构造;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class DeviceRegistryTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID SERVICE_180A = UUID.fromString("0000180a-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER_2A29 = UUID.fromString("00002a29-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER_2A26 = UUID.fromString("00002a26-0000-1000-8000-00805f9b34fb");
+    private static final UUID SERVICE_FFE0 = UUID.fromString("0000ffe0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER_FFE4 = UUID.fromString("0000ffe4-0000-1000-8000-00805f9b34fb");
+
+    @Test
+    public void fingerprintIgnoresDiscoveryOrder() {
+        String fingerprint = DeviceRegistry.fingerprint(profile(service(SERVICE_180A, CHARACTER_2A29, CHARACTER_2A26), service(SERVICE_FFE0, CHARACTER_FFE4)));
+
+        assertEquals(64, fingerprint.length());
+        assertTrue(fingerprint.matches("[0-9a-f]+"));
+        assertEquals(fingerprint, DeviceRegistry.fingerprint(profile(service(SERVICE_FFE0, CHARACTER_FFE4), service(SERVICE_180A, CHARACTER_2A26, CHARACTER_2A29))));
+        //同样的UUID放在不同的service下摘要不同
+        assertNotEquals(fingerprint, DeviceRegistry.fingerprint(profile(service(SERVICE_180A, CHARACTER_2A29), service(SERVICE_FFE0, CHARACTER_FFE4, CHARACTER_2A26))));
+    }
+
+    @Test
+    public void lookupReturnsRecordForSameProfile() {
+        DeviceRegistry registry = new DeviceRegistry(new MemoryContext());
+        BleGattProfile profile = profile(service(SERVICE_180A, CHARACTER_2A29));
+        registry.put(record(profile, "1.0"));
+
+        DeviceRecord record = registry.lookup(MAC, profile(service(SERVICE_180A, CHARACTER_2A29)));
+        assertNotNull(record);
+        assertEquals("js100", record.getHolderType());
+        assertEquals("1.0", record.getFirmware());
+        assertNull(registry.lookup("00:00:00:00:00:02", profile));
+    }
+
+    @Test
+    public void fingerprintMismatchInvalidatesRecord() {
+        MemoryContext context = new MemoryContext();
+        DeviceRegistry registry = new DeviceRegistry(context);
+        registry.put(record(profile(service(SERVICE_180A, CHARACTER_2A29)), "1.0"));
+
+        //固件升级后多了一个特征
+        assertNull(registry.lookup(MAC, profile(service(SERVICE_180A, CHARACTER_2A29, CHARACTER_2A26))));
+        assertNull(registry.get(MAC));
+        assertNull(new DeviceRegistry(context).get(MAC));
+    }
+
+    @Test
+    public void recordsSurviveRestart() {
+        MemoryContext context = new MemoryContext();
+        BleGattProfile profile = profile(service(SERVICE_180A, CHARACTER_2A29));
+        new DeviceRegistry(context).put(record(profile, "1.0"));
+
+        DeviceRegistry restored = new DeviceRegistry(context);
+        DeviceRecord record = restored.lookup(MAC, profile);
+        assertNotNull(record);
+        assertEquals(DeviceRegistry.fingerprint(profile), record.getProfileFingerprint());
+        assertEquals("js100", record.getHolderType());
+        assertEquals("jack", record.getManufacturer());
+        assertEquals("1.0", record.getFirmware());
+        assertEquals(1000L, record.getLastSeen());
+        assertEquals(1, restored.getAll().size());
+    }
+
+    @Test
+    public void unchangedRecordIsNotWrittenAgain() {
+        MemoryContext context = new MemoryContext();
+        DeviceRegistry registry = new DeviceRegistry(context);
+        BleGattProfile profile = profile(service(SERVICE_180A, CHARACTER_2A29));
+        DeviceRecord record = record(profile, "1.0");
+        registry.put(record);
+        assertEquals(1, context.getWriteCount());
+
+        //重连已知设备只更新最后连接时间
+        registry.put(record.newBuilder().setLastSeen(2000L).build());
+        assertEquals(1, context.getWriteCount());
+        assertEquals(2000L, registry.get(MAC).getLastSeen());
+
+        registry.put(record.newBuilder().setFirmware("1.1").build());
+        assertEquals(2, context.getWriteCount());
+        assertEquals("1.1", new DeviceRegistry(context).get(MAC).getFirmware());
+    }
+
+    private static DeviceRecord record(BleGattProfile profile, String firmware) {
+        return new DeviceRecord.Builder(MAC)
+                .setProfileFingerprint(DeviceRegistry.fingerprint(profile))
+                .setHolderType("js100")
+                .setManufacturer("jack")
+                .setFirmware(firmware)
+                .setLastSeen(1000L)
+                .build();
+    }
+
+    private static BleGattProfile profile(BleGattService... services) {
+        List<BleGattService> list = new ArrayList<>(services.length);
+        Collections.addAll(list, services);
+        return new BleGattProfile(Collections.<UUID, Map<UUID, BluetoothGattCharacteristic>>emptyMap()) {
+            @Override
+            public List<BleGattService> getServices() {
+                return list;
+            }
+        };
+    }
+
+    private static BleGattService service(UUID serviceUUID, UUID... characterUUIDs) {
+        List<BleGattCharacter> characters = new ArrayList<>(characterUUIDs.length);
+        for (UUID characterUUID : characterUUIDs) {
+            characters.add(new BleGattCharacter(new ParcelUuid(characterUUID), 0, 0) {
+                @Override
+                public UUID getUuid() {
+                    return characterUUID;
+                }
+            });
+        }
+        return new BleGattService(serviceUUID, characters) {
+            @Override
+            public UUID getUUID() {
+                return serviceUUID;
+            }
+
+            @Override
+            public List<BleGattCharacter> getCharacters() {
+                return characters;
+            }
+        };
+    }
+}
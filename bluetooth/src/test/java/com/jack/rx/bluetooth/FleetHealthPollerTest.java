@@ -0,0 +1,138 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link FleetHealthPoller}每轮的期限和下一轮的起始位置<br>
+ * 1, 电量一直读不到时整轮仍在期限内结束，到期后没开始的设备只记录状态;<br>
+ * 2, 下一轮从上一轮到期未采样的设备开始;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class FleetHealthPollerTest {
+    private static final int DEVICES = 3;
+    private static final long DEADLINE_MILLIS = 500;
+    private static final float RSSI = -42;
+
+    private SimulatedTransport m_transport;
+    private final List<BluetoothHolder> m_holders = new ArrayList<>(DEVICES);
+    /**
+     * 按开始读取电量的顺序记录设备
+     */
+    private final List<String> m_sampled = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        for (int i = 0; i < DEVICES; ++i) {
+            m_transport.addPeripheral(new SimulatedPeripheral.Builder(mac(i))
+                    .setRssi((int) RSSI)
+                    .build());
+        }
+        RxBluetooth.init(m_transport);
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        BleConnectOptions options = new BleConnectOptions.Builder().build();
+        for (int i = 0; i < DEVICES; ++i) {
+            m_holders.add(rxBluetooth.connect(mac(i), options, (mac, profile) -> Single.just(new SilentHolder(mac, rxBluetooth, profile, m_sampled)))
+                    .timeout(5, TimeUnit.SECONDS)
+                    .blockingGet());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void roundEndsByDeadline() {
+        FleetHealthPoller poller = new FleetHealthPoller(RxBluetooth.getInstance());
+        //每次一个设备，单个超时300ms，第三个设备开始前已经到期
+        FleetSnapshot snapshot = poller.round(m_holders, 1, DEADLINE_MILLIS).blockingGet();
+
+        assertTrue(snapshot.toString(), snapshot.getElapsed(TimeUnit.MILLISECONDS) < DEADLINE_MILLIS + 200);
+        assertEquals(DEVICES, snapshot.getInfos().size());
+        assertEquals("[" + mac(0) + ", " + mac(1) + "]", m_sampled.toString());
+        for (int i = 0; i < DEVICES; ++i) {
+            BluetoothInfo info = snapshot.get(mac(i));
+            assertEquals(BluetoothStatus.CONNECTED, info.getBluetoothStatus());
+            assertTrue(Float.isNaN(info.getPower()));
+        }
+        //模拟外设的信号强度有抖动
+        assertEquals(RSSI, snapshot.get(mac(0)).getRssi(), 5);
+        assertTrue(Float.isNaN(snapshot.get(mac(2)).getRssi()));
+    }
+
+    @Test
+    public void nextRoundStartsWithUnsampledDevices() {
+        FleetHealthPoller poller = new FleetHealthPoller(RxBluetooth.getInstance());
+        poller.round(m_holders, 1, DEADLINE_MILLIS).blockingGet();
+        m_sampled.clear();
+
+        poller.round(m_holders, 1, DEADLINE_MILLIS).blockingGet();
+        assertEquals("[" + mac(2) + ", " + mac(0) + "]", m_sampled.toString());
+
+        //所有设备都采样过后从头开始
+        m_sampled.clear();
+        poller.round(m_holders, DEVICES, DEADLINE_MILLIS).blockingGet();
+        m_sampled.clear();
+        poller.round(m_holders, 1, DEADLINE_MILLIS).blockingGet();
+        assertEquals(mac(0), m_sampled.get(0));
+    }
+
+    private static String mac(int index) {
+        return String.format(Locale.US, "00:00:00:00:00:%02X", index);
+    }
+
+    /**
+     * 电量一直不应答的设备
+     */
+    private static final class SilentHolder extends BluetoothHolder {
+        private final List<String> m_sampled;
+
+        private SilentHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile, List<String> sampled) {
+            super(mac, rxBluetooth, bleGattProfile);
+            m_sampled = sampled;
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.<Float>never().doOnSubscribe(disposable -> m_sampled.add(getMac()));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * 描述: {@link FrameBatcher}按数量和时间窗口发出
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class FrameBatcherTest {
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final TestScheduler m_scheduler = new TestScheduler();
+    private final PublishSubject<byte[]> m_frames = PublishSubject.create();
+
+    @Test
+    public void flushesWhenBatchIsFull() {
+        TestObserver<FrameBatch> observer = m_frames.lift(new FrameBatcher(3, WINDOW_NANOS, m_scheduler)).test();
+        for (int i = 0; i < 7; ++i) {
+            m_frames.onNext(new byte[]{(byte) i});
+        }
+        observer.assertValueCount(2);
+        assertEquals(3, observer.values().get(0).size());
+        assertEquals(3, observer.values().get(1).get(0)[0]);
+
+        //满批次发出后原来的定时器失效，剩余的一帧在自己的窗口结束时发出
+        m_scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS);
+        observer.assertValueCount(3);
+        assertEquals(1, observer.values().get(2).size());
+        assertEquals(6, observer.values().get(2).get(0)[0]);
+    }
+
+    @Test
+    public void flushesWhenWindowEnds() {
+        TestObserver<FrameBatch> observer = m_frames.lift(new FrameBatcher(8, WINDOW_NANOS, m_scheduler)).test();
+        m_frames.onNext(new byte[]{0});
+        m_scheduler.advanceTimeBy(6, TimeUnit.MILLISECONDS);
+        m_frames.onNext(new byte[]{1, 1});
+        observer.assertNoValues();
+
+        //窗口从这一批第一帧开始计算
+        m_scheduler.advanceTimeBy(4, TimeUnit.MILLISECONDS);
+        observer.assertValueCount(1);
+        assertEquals(2, observer.values().get(0).size());
+        assertEquals(3, observer.values().get(0).getTotalBytes());
+
+        m_scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.assertValueCount(1);
+    }
+
+    @Test
+    public void flushesRemainderOnComplete() {
+        TestObserver<FrameBatch> observer = m_frames.lift(new FrameBatcher(8, WINDOW_NANOS, m_scheduler)).test();
+        m_frames.onNext(new byte[]{0});
+        m_frames.onNext(new byte[]{1});
+        m_frames.onComplete();
+        observer.assertValueCount(1).assertComplete();
+        assertEquals(2, observer.values().get(0).size());
+    }
+
+    @Test
+    public void dropsPendingFramesOnError() {
+        TestObserver<FrameBatch> observer = m_frames.lift(new FrameBatcher(8, WINDOW_NANOS, m_scheduler)).test();
+        m_frames.onNext(new byte[]{0});
+        m_frames.onError(new BluetoothException("lost"));
+        m_scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.assertNoValues().assertError(BluetoothException.class);
+    }
+
+    @Test
+    public void disposeStopsUpstream() {
+        TestObserver<FrameBatch> observer = m_frames.lift(new FrameBatcher(8, WINDOW_NANOS, m_scheduler)).test();
+        m_frames.onNext(new byte[]{0});
+        observer.dispose();
+        assertFalse(m_frames.hasObservers());
+        m_scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.assertNoValues();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBatch() {
+        new FrameBatcher(0, WINDOW_NANOS, m_scheduler);
+    }
+}
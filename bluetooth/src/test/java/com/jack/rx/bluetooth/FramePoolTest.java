@@ -0,0 +1,79 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link FramePool}的缓冲区复用和{@link Frame#release()}
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class FramePoolTest {
+
+    @Test
+    public void copiesValueIntoRing() {
+        FramePool pool = new FramePool(2, 4);
+        Frame frame = pool.acquire(new byte[]{1, 2, 3});
+
+        assertTrue(frame.isPooled());
+        assertEquals(3, frame.length());
+        assertEquals(2, frame.get(1));
+        assertEquals(2, frame.array()[frame.offset() + 1]);
+        assertArrayEquals(new byte[]{1, 2, 3}, frame.toByteArray());
+        assertEquals(1, pool.available());
+    }
+
+    @Test
+    public void releaseTwiceReturnsSlotOnce() {
+        FramePool pool = new FramePool(2, 4);
+        Frame frame = pool.acquire(new byte[]{1});
+        frame.release();
+        frame.release();
+        assertEquals(2, pool.available());
+    }
+
+    @Test
+    public void staleReleaseDoesNotFreeReusedSlot() {
+        FramePool pool = new FramePool(1, 4);
+        Frame stale = pool.acquire(new byte[]{1});
+        stale.release();
+
+        Frame current = pool.acquire(new byte[]{2});
+        assertNotSame(stale, current);
+        assertEquals(stale.offset(), current.offset());
+        //旧的持有者重复归还，缓冲区仍属于当前持有者
+        stale.release();
+        assertEquals(0, pool.available());
+        assertFalse(pool.acquire(new byte[]{3}).isPooled());
+        assertEquals(2, current.get(0));
+
+        current.release();
+        assertEquals(1, pool.available());
+    }
+
+    @Test
+    public void allocatesWhenExhaustedOrTooLong() {
+        FramePool pool = new FramePool(1, 4);
+        Frame pooled = pool.acquire(new byte[]{1});
+        Frame exhausted = pool.acquire(new byte[]{2});
+        Frame tooLong = pool.acquire(new byte[]{1, 2, 3, 4, 5});
+
+        assertFalse(exhausted.isPooled());
+        assertFalse(tooLong.isPooled());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, tooLong.toByteArray());
+        assertEquals(2, pool.getMissCount());
+
+        //额外分配的帧不进入池
+        exhausted.release();
+        tooLong.release();
+        assertEquals(0, pool.available());
+        pooled.release();
+        assertEquals(1, pool.available());
+    }
+}
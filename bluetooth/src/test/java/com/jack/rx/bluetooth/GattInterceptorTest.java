@@ -0,0 +1,171 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.disposables.Disposable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link GattInterceptor}责任链<br>
+ * 1, 按注册顺序执行，结果按相反顺序返回;<br>
+ * 2, 拦截器可以修改请求或者不调用下一环直接返回;<br>
+ * 3, 移除所有拦截器后不再经过责任链;<br>
+ * 4, 拦截器修改了通知的特征时，{@link BaseRxBluetooth#notifyThen(String, UUID, UUID, GattPriority, Completable)}的命令仍然执行;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class GattInterceptorTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID FIRST = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+    private static final UUID SECOND = UUID.fromString("0000fff2-0000-1000-8000-00805f9b34fb");
+
+    private SimulatedTransport m_transport;
+    private SimulatedPeripheral m_peripheral;
+    private RxBluetooth m_rxBluetooth;
+    private final List<String> m_calls = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        m_peripheral = new SimulatedPeripheral.Builder(MAC)
+                .addCharacter(SERVICE, FIRST, new byte[]{1})
+                .addCharacter(SERVICE, SECOND, new byte[]{2})
+                .build();
+        m_transport.addPeripheral(m_peripheral);
+        RxBluetooth.init(m_transport);
+        m_rxBluetooth = RxBluetooth.getInstance();
+        m_rxBluetooth.connect(MAC, new BleConnectOptions.Builder().build(), (mac, profile) -> Single.just(new PlainHolder(mac, m_rxBluetooth, profile)))
+                .timeout(5, TimeUnit.SECONDS)
+                .blockingGet();
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void runsInRegistrationOrder() {
+        m_rxBluetooth.addInterceptor(recording("a"));
+        m_rxBluetooth.addInterceptor(recording("b"));
+
+        byte[] value = m_rxBluetooth.read(MAC, SERVICE, FIRST).timeout(5, TimeUnit.SECONDS).blockingGet();
+        assertArrayEquals(new byte[]{1}, value);
+        assertEquals("[a request, b request, b response, a response]", m_calls.toString());
+    }
+
+    @Test
+    public void rewritesRequest() {
+        m_rxBluetooth.addInterceptor(chain -> {
+            GattRequest request = chain.request();
+            return chain.proceed(new GattRequest.Builder(request.getOperation(), request.getMac(), request.getServiceUUID(), SECOND)
+                    .setValue(request.getValue())
+                    .setPriority(request.getPriority())
+                    .build());
+        });
+
+        assertArrayEquals(new byte[]{2}, m_rxBluetooth.read(MAC, SERVICE, FIRST).timeout(5, TimeUnit.SECONDS).blockingGet());
+        m_rxBluetooth.write(MAC, SERVICE, FIRST, new byte[]{9}).timeout(5, TimeUnit.SECONDS).blockingGet();
+        assertArrayEquals(new byte[]{1}, m_peripheral.getValue(SERVICE, FIRST));
+        assertArrayEquals(new byte[]{9}, m_peripheral.getValue(SERVICE, SECOND));
+    }
+
+    @Test
+    public void shortCircuitsWithoutProceeding() {
+        GattInterceptor recording = recording("a");
+        m_rxBluetooth.addInterceptor(recording);
+        //缓存写入，不发往外设
+        m_rxBluetooth.addInterceptor(chain -> Observable.just(chain.request().getValue()));
+
+        assertTrue(m_rxBluetooth.write(MAC, SERVICE, FIRST, new byte[]{9}).timeout(5, TimeUnit.SECONDS).blockingGet());
+        assertArrayEquals(new byte[]{1}, m_peripheral.getValue(SERVICE, FIRST));
+        assertEquals("[a request, a response]", m_calls.toString());
+    }
+
+    @Test
+    public void skipsChainWithoutInterceptors() {
+        GattInterceptor recording = recording("a");
+        m_rxBluetooth.addInterceptor(recording);
+        m_rxBluetooth.removeInterceptor(recording);
+
+        assertArrayEquals(new byte[]{1}, m_rxBluetooth.read(MAC, SERVICE, FIRST).timeout(5, TimeUnit.SECONDS).blockingGet());
+        assertTrue(m_rxBluetooth.write(MAC, SERVICE, FIRST, new byte[]{9}).timeout(5, TimeUnit.SECONDS).blockingGet());
+        assertArrayEquals(new byte[]{9}, m_peripheral.getValue(SERVICE, FIRST));
+        assertTrue(m_calls.isEmpty());
+    }
+
+    @Test
+    public void runsCommandWhenNotifyIsRewritten() throws InterruptedException {
+        m_rxBluetooth.addInterceptor(chain -> {
+            GattRequest request = chain.request();
+            if (GattOperation.NOTIFY != request.getOperation()) {
+                return chain.proceed(request);
+            }
+            return chain.proceed(new GattRequest.Builder(GattOperation.NOTIFY, request.getMac(), request.getServiceUUID(), SECOND)
+                    .setPriority(request.getPriority())
+                    .build());
+        });
+        CountDownLatch command = new CountDownLatch(1);
+        Disposable disposable = m_rxBluetooth.notifyThen(MAC, SERVICE, FIRST, GattPriority.NORMAL, Completable.fromAction(command::countDown))
+                .subscribe();
+
+        assertTrue("打开通知后命令没有执行", command.await(5, TimeUnit.SECONDS));
+        assertTrue(m_peripheral.isNotifying(SERVICE, SECOND));
+        disposable.dispose();
+    }
+
+    private GattInterceptor recording(String name) {
+        return chain -> {
+            m_calls.add(name + " request");
+            return chain.proceed(chain.request()).doOnNext(value -> m_calls.add(name + " response"));
+        };
+    }
+
+    private static final class PlainHolder extends BluetoothHolder {
+
+        private PlainHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
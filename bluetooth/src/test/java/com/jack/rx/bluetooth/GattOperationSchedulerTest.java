@@ -0,0 +1,156 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.SingleSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link GattOperationScheduler}的公平性、取消和超时
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class GattOperationSchedulerTest {
+    private final TestScheduler m_clock = new TestScheduler();
+    /**
+     * 按开始执行的先后记录操作名
+     */
+    private final List<String> m_started = new ArrayList<>();
+    private final Map<String, SingleSubject<String>> m_running = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        RxJavaPlugins.setComputationSchedulerHandler(scheduler -> m_clock);
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void grantsFreedSlotsRoundRobinAcrossDevices() {
+        GattOperationScheduler scheduler = new GattOperationScheduler(1, 4);
+        for (int i = 0; i < 7; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                scheduler.schedule("d" + i, GattPriority.NORMAL, operation("d" + i + "-" + j)).subscribe();
+            }
+        }
+        assertEquals(4, m_started.size());
+        //每释放一个窗口，都交给最久没有执行过的设备
+        for (int i = 0; i < 17; ++i) {
+            complete(m_started.get(i));
+        }
+        List<String> firstRound = m_started.subList(0, 7);
+        for (int i = 0; i < 7; ++i) {
+            assertTrue(firstRound.toString(), firstRound.contains("d" + i + "-0"));
+        }
+        for (int i = 7; i < 14; ++i) {
+            assertTrue(m_started.toString(), m_started.get(i).endsWith("-1"));
+        }
+        assertEquals(21, m_started.size());
+    }
+
+    @Test
+    public void runsHigherPriorityLaneFirst() {
+        GattOperationScheduler scheduler = new GattOperationScheduler(1, 4);
+        scheduler.schedule("d0", GattPriority.NORMAL, operation("busy")).subscribe();
+        scheduler.schedule("d0", GattPriority.LOW, operation("low")).subscribe();
+        scheduler.schedule("d0", GattPriority.NORMAL, operation("normal")).subscribe();
+        scheduler.schedule("d0", GattPriority.HIGH, operation("high")).subscribe();
+        assertEquals(3, scheduler.getQueueDepth("d0"));
+        assertEquals(1, scheduler.getQueueDepth("d0", GattPriority.LOW));
+
+        complete("busy");
+        complete("high");
+        complete("normal");
+        complete("low");
+        assertEquals("[busy, high, normal, low]", m_started.toString());
+    }
+
+    @Test
+    public void cancelsQueuedAndRunningOperations() {
+        GattOperationScheduler scheduler = new GattOperationScheduler(1, 4);
+        TestObserver<String> running = scheduler.schedule("d0", GattPriority.NORMAL, operation("a")).test();
+        TestObserver<String> queued = scheduler.schedule("d0", GattPriority.NORMAL, operation("b")).test();
+        scheduler.schedule("d0", GattPriority.NORMAL, operation("c")).subscribe();
+        assertEquals(2, scheduler.getQueueDepth("d0"));
+
+        //排队中的操作直接移出队列，不会开始
+        queued.dispose();
+        assertEquals(1, scheduler.getQueueDepth("d0"));
+        //执行中的操作被取消并释放窗口
+        running.dispose();
+        assertFalse(m_running.get("a").hasObservers());
+        assertEquals("[a, c]", m_started.toString());
+        assertEquals(1, scheduler.getInFlight("d0"));
+
+        complete("c");
+        assertEquals(0, scheduler.getInFlight());
+        assertEquals(0, scheduler.getDeviceCount());
+    }
+
+    @Test
+    public void timesOutRunningOperationAndReleasesSlot() {
+        GattOperationScheduler scheduler = new GattOperationScheduler(1, 4);
+        TestObserver<String> stuck = scheduler.schedule("d0", GattPriority.NORMAL, 100, operation("stuck")).test();
+        TestObserver<String> next = scheduler.schedule("d0", GattPriority.NORMAL, 100, operation("next")).test();
+
+        //排队时间不计入超时
+        m_clock.advanceTimeBy(99, TimeUnit.MILLISECONDS);
+        stuck.assertNotTerminated();
+        m_clock.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        stuck.assertError(TimeoutException.class);
+        assertFalse(m_running.get("stuck").hasObservers());
+        assertEquals("[stuck, next]", m_started.toString());
+
+        m_clock.advanceTimeBy(99, TimeUnit.MILLISECONDS);
+        complete("next");
+        next.assertResult("next");
+        m_clock.advanceTimeBy(1, TimeUnit.SECONDS);
+        next.assertResult("next");
+        assertEquals(0, scheduler.getDeviceCount());
+    }
+
+    @Test
+    public void forgetsIdleDevices() {
+        GattOperationScheduler scheduler = new GattOperationScheduler(2, 8);
+        for (int i = 0; i < 50; ++i) {
+            scheduler.schedule("d" + i, GattPriority.NORMAL, Single.just(i)).subscribe();
+        }
+        scheduler.schedule("d0", GattPriority.NORMAL, Single.error(new BluetoothException("failed"))).test()
+                .assertError(BluetoothException.class);
+        assertEquals(0, scheduler.getDeviceCount());
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    private Single<String> operation(String name) {
+        return Single.defer(() -> {
+            m_started.add(name);
+            SingleSubject<String> subject = SingleSubject.create();
+            m_running.put(name, subject);
+            return subject;
+        });
+    }
+
+    private void complete(String name) {
+        m_running.get(name).onSuccess(name);
+    }
+}
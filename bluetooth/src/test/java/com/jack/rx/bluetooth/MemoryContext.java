@@ -0,0 +1,181 @@
+package com.jack.rx.bluetooth;
+
+import android.content.ContextWrapper;
+import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 描述: 单元测试用的{@link android.content.Context}，{@link SharedPreferences}保存在内存中<br>
+ * 1, 同一个实例按名称返回同一个{@link SharedPreferences}，用新的{@link SessionStore}等读取即模拟进程重启;<br>
+ * 2, {@link #getWriteCount()}统计提交次数;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class MemoryContext extends ContextWrapper {
+    private final Map<String, MemoryPreferences> m_preferences = new HashMap<>(4);
+    private final AtomicInteger m_writes = new AtomicInteger();
+
+    public MemoryContext() {
+        super(null);
+    }
+
+    @Override
+    public synchronized SharedPreferences getSharedPreferences(String name, int mode) {
+        MemoryPreferences preferences = m_preferences.get(name);
+        if (null == preferences) {
+            preferences = new MemoryPreferences();
+            m_preferences.put(name, preferences);
+        }
+        return preferences;
+    }
+
+    public int getWriteCount() {
+        return m_writes.get();
+    }
+
+    private final class MemoryPreferences implements SharedPreferences {
+        private final Map<String, Object> m_values = new HashMap<>(8);
+
+        @Override
+        public synchronized Map<String, ?> getAll() {
+            return new HashMap<>(m_values);
+        }
+
+        @Override
+        public synchronized String getString(String key, String defValue) {
+            Object value = m_values.get(key);
+            return null == value ? defValue : (String) value;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public synchronized Set<String> getStringSet(String key, Set<String> defValues) {
+            Object value = m_values.get(key);
+            return null == value ? defValues : (Set<String>) value;
+        }
+
+        @Override
+        public synchronized int getInt(String key, int defValue) {
+            Object value = m_values.get(key);
+            return null == value ? defValue : (Integer) value;
+        }
+
+        @Override
+        public synchronized long getLong(String key, long defValue) {
+            Object value = m_values.get(key);
+            return null == value ? defValue : (Long) value;
+        }
+
+        @Override
+        public synchronized float getFloat(String key, float defValue) {
+            Object value = m_values.get(key);
+            return null == value ? defValue : (Float) value;
+        }
+
+        @Override
+        public synchronized boolean getBoolean(String key, boolean defValue) {
+            Object value = m_values.get(key);
+            return null == value ? defValue : (Boolean) value;
+        }
+
+        @Override
+        public synchronized boolean contains(String key) {
+            return m_values.containsKey(key);
+        }
+
+        @Override
+        public Editor edit() {
+            return new MemoryEditor();
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        private final class MemoryEditor implements Editor {
+            //值为null表示删除
+            private final Map<String, Object> m_changes = new HashMap<>(4);
+            private boolean m_clear;
+
+            @Override
+            public Editor putString(String key, String value) {
+                m_changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putStringSet(String key, Set<String> values) {
+                m_changes.put(key, values);
+                return this;
+            }
+
+            @Override
+            public Editor putInt(String key, int value) {
+                m_changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putLong(String key, long value) {
+                m_changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putFloat(String key, float value) {
+                m_changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putBoolean(String key, boolean value) {
+                m_changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor remove(String key) {
+                m_changes.put(key, null);
+                return this;
+            }
+
+            @Override
+            public Editor clear() {
+                m_clear = true;
+                return this;
+            }
+
+            @Override
+            public boolean commit() {
+                synchronized (MemoryPreferences.this) {
+                    if (m_clear) {
+                        m_values.clear();
+                    }
+                    for (Map.Entry<String, Object> change : m_changes.entrySet()) {
+                        if (null == change.getValue()) {
+                            m_values.remove(change.getKey());
+                        } else {
+                            m_values.put(change.getKey(), change.getValue());
+                        }
+                    }
+                }
+                m_writes.incrementAndGet();
+                return true;
+            }
+
+            @Override
+            public void apply() {
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.CompletableSubject;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link NotificationHub}的共享、等待期、数据流回收和打开后执行
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class NotificationHubTest {
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+
+    private final TestScheduler m_clock = new TestScheduler();
+    /**
+     * 每次打开通知时记录所用的优先级
+     */
+    private final List<GattPriority> m_opened = new ArrayList<>();
+    private final PublishSubject<byte[]> m_values = PublishSubject.create();
+
+    @Before
+    public void setUp() {
+        RxJavaPlugins.setComputationSchedulerHandler(scheduler -> m_clock);
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void sharesOneNotificationAndForgetsItWhenClosed() {
+        NotificationHub hub = new NotificationHub();
+        Disposable first = hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.LOW)).subscribe();
+        Disposable second = hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.HIGH)).subscribe();
+        assertEquals(1, m_opened.size());
+        assertEquals(1, hub.getStreamCount());
+
+        first.dispose();
+        second.dispose();
+        assertEquals(0, hub.getStreamCount());
+        //重新打开时使用新订阅者的优先级
+        hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.HIGH)).subscribe().dispose();
+        assertEquals("[LOW, HIGH]", m_opened.toString());
+        assertEquals(0, hub.getStreamCount());
+    }
+
+    @Test
+    public void keepsNotificationOpenDuringGracePeriod() {
+        NotificationHub hub = new NotificationHub();
+        hub.setGracePeriod(2, TimeUnit.SECONDS);
+        hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL)).subscribe().dispose();
+        m_clock.advanceTimeBy(1, TimeUnit.SECONDS);
+        Disposable again = hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL)).subscribe();
+        assertEquals(1, m_opened.size());
+
+        again.dispose();
+        m_clock.advanceTimeBy(2, TimeUnit.SECONDS);
+        assertEquals(0, hub.getStreamCount());
+        //等待时间修改后，新打开的通知立即关闭
+        hub.setGracePeriod(0, TimeUnit.SECONDS);
+        hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL)).subscribe().dispose();
+        assertEquals(2, m_opened.size());
+        assertEquals(0, hub.getStreamCount());
+    }
+
+    @Test
+    public void doesNotShareAcrossCharactersOrIndicate() {
+        NotificationHub hub = new NotificationHub();
+        hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL)).subscribe();
+        hub.share("d0", SERVICE, CHARACTER, true, () -> open(GattPriority.NORMAL)).subscribe();
+        hub.share("d1", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL)).subscribe();
+        assertEquals(3, m_opened.size());
+        assertEquals(3, hub.getStreamCount());
+    }
+
+    @Test
+    public void runsCommandOnlyAfterNotificationIsReady() {
+        NotificationHub hub = new NotificationHub();
+        CompletableSubject first = CompletableSubject.create();
+        hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL), first).subscribe();
+        assertFalse(first.hasObservers());
+        hub.ready("d0", SERVICE, CHARACTER, false);
+        assertTrue(first.hasObservers());
+
+        //通知已经打开时直接执行
+        CompletableSubject second = CompletableSubject.create();
+        hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL), second).subscribe();
+        assertTrue(second.hasObservers());
+    }
+
+    @Test
+    public void treatsFirstValueAsReadyAndPropagatesCommandError() {
+        NotificationHub hub = new NotificationHub();
+        TestObserver<byte[]> observer = hub.share("d0", SERVICE, CHARACTER, false, () -> open(GattPriority.NORMAL),
+                Completable.error(new BluetoothException("write failed"))).test();
+        observer.assertNotTerminated();
+        //拦截器直接返回数据时没有打开通知的回调
+        m_values.onNext(new byte[]{1});
+        observer.assertError(BluetoothException.class);
+        assertEquals(0, hub.getStreamCount());
+    }
+
+    private Observable<byte[]> open(GattPriority priority) {
+        m_opened.add(priority);
+        return m_values;
+    }
+}
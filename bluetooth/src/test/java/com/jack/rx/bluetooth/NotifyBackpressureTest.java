@@ -0,0 +1,169 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link NotifyBackpressure}各策略在订阅者不请求数据时的缓冲和丢弃<br>
+ * 1, 发出{@link #COUNT}个数据后缓冲区只保留{@link #CAPACITY}个，丢弃数量精确;<br>
+ * 2, {@link BluetoothHolder#notifyFlowable(UUID, UUID, NotifyBackpressure)}解码前后两级缓冲合计丢弃的数量同样精确;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class NotifyBackpressureTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+    private static final int CAPACITY = 4;
+    private static final int COUNT = 100;
+
+    @Test
+    public void bufferKeepsEarliestAndReplacesNewest() {
+        NotifyBackpressure backpressure = NotifyBackpressure.buffer(CAPACITY);
+        TestSubscriber<Integer> subscriber = emit(backpressure);
+
+        assertEquals(COUNT - CAPACITY, backpressure.getDroppedCount());
+        subscriber.requestMore(Long.MAX_VALUE);
+        //缓冲区满后新到的数据替换缓冲区中最新的一个
+        subscriber.assertValues(0, 1, 2, COUNT - 1).assertNoErrors();
+    }
+
+    @Test
+    public void dropOldestKeepsNewest() {
+        NotifyBackpressure backpressure = NotifyBackpressure.dropOldest(CAPACITY);
+        TestSubscriber<Integer> subscriber = emit(backpressure);
+
+        assertEquals(COUNT - CAPACITY, backpressure.getDroppedCount());
+        subscriber.requestMore(Long.MAX_VALUE);
+        subscriber.assertValues(COUNT - 4, COUNT - 3, COUNT - 2, COUNT - 1).assertNoErrors();
+    }
+
+    @Test
+    public void latestKeepsOnlyLast() {
+        NotifyBackpressure backpressure = NotifyBackpressure.latest();
+        TestSubscriber<Integer> subscriber = emit(backpressure);
+
+        assertEquals(COUNT - 1, backpressure.getDroppedCount());
+        subscriber.requestMore(Long.MAX_VALUE);
+        subscriber.assertValues(COUNT - 1).assertNoErrors();
+    }
+
+    @Test
+    public void errorFailsOnFirstOverflow() {
+        NotifyBackpressure backpressure = NotifyBackpressure.error(CAPACITY);
+        TestSubscriber<Integer> subscriber = emit(backpressure);
+
+        //溢出后取消上游，后面的数据不再计数
+        assertEquals(1, backpressure.getDroppedCount());
+        subscriber.assertNoValues().assertError(MissingBackpressureException.class);
+    }
+
+    @Test
+    public void droppedCountIsSharedAcrossStreams() {
+        NotifyBackpressure backpressure = NotifyBackpressure.dropOldest(CAPACITY);
+        emit(backpressure);
+        emit(backpressure);
+
+        assertEquals(2 * (COUNT - CAPACITY), backpressure.getDroppedCount());
+    }
+
+    @Test
+    public void holderBuffersBeforeAndAfterDecode() throws InterruptedException {
+        SimulatedTransport transport = new SimulatedTransport();
+        SimulatedPeripheral peripheral = new SimulatedPeripheral.Builder(MAC)
+                .addCharacter(SERVICE, CHARACTER, new byte[0])
+                .build();
+        transport.addPeripheral(peripheral);
+        RxBluetooth.init(transport);
+        try {
+            RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+            BluetoothHolder holder = rxBluetooth.connect(MAC, new BleConnectOptions.Builder().build(), (mac, profile) -> Single.just(new FirstByteHolder(mac, rxBluetooth, profile)))
+                    .timeout(5, TimeUnit.SECONDS)
+                    .blockingGet();
+            NotifyBackpressure backpressure = NotifyBackpressure.dropOldest(CAPACITY);
+            TestSubscriber<Integer> subscriber = holder.<Integer>notifyFlowable(SERVICE, CHARACTER, backpressure).test(0);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!peripheral.isNotifying(SERVICE, CHARACTER)) {
+                assertTrue("通知未打开", System.currentTimeMillis() < deadline);
+                Thread.sleep(5);
+            }
+
+            for (int i = 0; i < COUNT; i++) {
+                peripheral.notify(SERVICE, CHARACTER, new byte[]{(byte) i});
+            }
+            //解码线程不阻塞，每个数据要么在某一级被丢弃，要么留在解码后的缓冲区
+            while (backpressure.getDroppedCount() < COUNT - CAPACITY) {
+                assertTrue("丢弃数量 " + backpressure.getDroppedCount(), System.currentTimeMillis() < deadline);
+                Thread.sleep(5);
+            }
+            Thread.sleep(50);
+            assertEquals(COUNT - CAPACITY, backpressure.getDroppedCount());
+
+            subscriber.requestMore(Long.MAX_VALUE);
+            subscriber.awaitCount(CAPACITY);
+            subscriber.assertValues(COUNT - 4, COUNT - 3, COUNT - 2, COUNT - 1).assertNoErrors();
+            subscriber.dispose();
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    /**
+     * 订阅者先不请求数据，同步发出{@link #COUNT}个数据
+     *
+     * @param backpressure
+     * @return
+     */
+    private static TestSubscriber<Integer> emit(NotifyBackpressure backpressure) {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        TestSubscriber<Integer> subscriber = backpressure.apply(subject).test(0);
+        for (int i = 0; i < COUNT; i++) {
+            subject.onNext(i);
+        }
+        subscriber.assertNoValues();
+        return subscriber;
+    }
+
+    private static final class FirstByteHolder extends BluetoothHolder {
+
+        private FirstByteHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream.map(value -> (int) value[0]);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link ReconnectBudget}的突发和限速
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ReconnectBudgetTest {
+
+    @Test
+    public void allowsBurstThenSpacesReconnects() {
+        ReconnectBudget budget = new ReconnectBudget(3, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(0, budget.reserve(0));
+        }
+        //之后每秒放行一次，允许调用本身耗时的误差
+        assertWithin(1000, budget.reserve(0));
+        assertWithin(2000, budget.reserve(0));
+    }
+
+    @Test
+    public void keepsRequestedDelay() {
+        ReconnectBudget budget = new ReconnectBudget(1, 100, TimeUnit.MILLISECONDS);
+        assertWithin(500, budget.reserve(500));
+        //晚于限速时间的预约不需要额外等待
+        assertWithin(900, budget.reserve(900));
+    }
+
+    @Test
+    public void unlimitedNeverWaits() {
+        ReconnectBudget budget = ReconnectBudget.unlimited();
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(0, budget.reserve(0));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBurst() {
+        new ReconnectBudget(0, 1, TimeUnit.SECONDS);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(expected + " != " + actual, actual <= expected && actual > expected - 50);
+    }
+}
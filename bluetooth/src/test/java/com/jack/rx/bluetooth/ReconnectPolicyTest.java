@@ -0,0 +1,81 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link ReconnectPolicy}的退避时间和熔断器
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ReconnectPolicyTest {
+
+    @Test
+    public void backoffGrowsUntilMaxDelay() {
+        ReconnectPolicy policy = new ReconnectPolicy.Builder()
+                .setInitialDelay(100, TimeUnit.MILLISECONDS)
+                .setMaxDelay(1, TimeUnit.SECONDS)
+                .setMultiplier(2)
+                .setJitter(0)
+                .build();
+        assertEquals(100, policy.getBackoffMillis(1));
+        assertEquals(200, policy.getBackoffMillis(2));
+        assertEquals(800, policy.getBackoffMillis(4));
+        assertEquals(1000, policy.getBackoffMillis(5));
+        assertEquals(1000, policy.getBackoffMillis(30));
+    }
+
+    @Test
+    public void jitterOnlyShortensBackoff() {
+        ReconnectPolicy policy = new ReconnectPolicy.Builder()
+                .setInitialDelay(1, TimeUnit.SECONDS)
+                .setJitter(0.25f)
+                .build();
+        for (int i = 0; i < 1000; ++i) {
+            long backoff = policy.getBackoffMillis(1);
+            assertTrue(String.valueOf(backoff), backoff > 750 && backoff <= 1000);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsJitterAboveOne() {
+        new ReconnectPolicy.Builder().setJitter(1.5f);
+    }
+
+    @Test
+    public void breakerLetsOneProbeThroughWhenHalfOpen() throws InterruptedException {
+        ReconnectPolicy policy = new ReconnectPolicy.Builder()
+                .setInitialDelay(10, TimeUnit.MILLISECONDS)
+                .setCircuitBreaker(2, 50, TimeUnit.MILLISECONDS)
+                .build();
+        Object first = new Object();
+        Object second = new Object();
+        assertEquals(0, policy.tryAcquire(first));
+        policy.onFailure();
+        policy.onFailure();
+        assertTrue(policy.isBreakerOpen());
+        assertTrue(policy.tryAcquire(first) > 0);
+
+        Thread.sleep(60);
+        assertEquals(0, policy.tryAcquire(first));
+        assertTrue(policy.tryAcquire(second) > 0);
+        //试探放弃后由其他调用方试探
+        policy.release(first);
+        assertEquals(0, policy.tryAcquire(second));
+
+        //试探失败重新熔断
+        policy.onFailure();
+        assertTrue(policy.isBreakerOpen());
+        Thread.sleep(60);
+        assertEquals(0, policy.tryAcquire(first));
+        policy.onSuccess();
+        assertFalse(policy.isBreakerOpen());
+        assertEquals(0, policy.tryAcquire(second));
+    }
+}
@@ -0,0 +1,181 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link BaseRxBluetooth#bulkWrite(String, UUID, UUID, Flowable, int)}经过{@link SimulatedTransport}的分帧写入<br>
+ * 1, 上游数据块不按帧对齐，外设收到的帧拼接后与原数据一致，只有最后一帧可以不满;<br>
+ * 2, 进度的字节数和帧数与外设收到的一致;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class RxBluetoothBulkWriteTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID DATA = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+    private static final int MTU = 64;
+
+    private SimulatedTransport m_transport;
+    private final List<byte[]> m_frames = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        m_transport.addPeripheral(new SimulatedPeripheral.Builder(MAC)
+                .addCharacter(SERVICE, DATA, new byte[0])
+                .setMtu(MTU)
+                .setWriteHandler((peripheral, serviceUUID, characterUUID, value) -> m_frames.add(value))
+                .build());
+        RxBluetooth.init(m_transport);
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        rxBluetooth.connect(MAC, new BleConnectOptions.Builder().build(), (mac, profile) -> Single.just(new IdleHolder(mac, rxBluetooth, profile)))
+                .timeout(5, TimeUnit.SECONDS)
+                .blockingGet();
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void reassemblesUnalignedChunks() throws InterruptedException {
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        int frameSize = SimulatedPeripheral.DEFAULT_MTU - SimulatedPeripheral.ATT_HEADER_LEN;
+        //空块、小于一帧、刚好一帧、跨多帧的块混在一起
+        int[] sizes = {7, 0, 33, 1, frameSize, 50, 19, 3};
+        Random random = new Random(3);
+        List<byte[]> chunks = new ArrayList<>(sizes.length);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        for (int size : sizes) {
+            byte[] chunk = new byte[size];
+            random.nextBytes(chunk);
+            chunks.add(chunk);
+            payload.write(chunk, 0, size);
+        }
+        int total = payload.size();
+
+        TestSubscriber<BulkWriteProgress> subscriber = rxBluetooth.bulkWrite(MAC, SERVICE, DATA, Flowable.fromIterable(chunks), 4).test();
+        assertTrue("写入没有结束", subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertNoErrors().assertComplete();
+
+        int frameCount = (total + frameSize - 1) / frameSize;
+        awaitFrames(frameCount);
+        for (int i = 0; i < frameCount - 1; i++) {
+            assertEquals(frameSize, m_frames.get(i).length);
+        }
+        assertEquals(total - (frameCount - 1) * frameSize, m_frames.get(frameCount - 1).length);
+        assertArrayEquals(payload.toByteArray(), concat(m_frames));
+        assertProgress(subscriber.values(), total, frameCount, frameSize);
+        assertEquals(-1, subscriber.values().get(0).getTotalBytes());
+        assertTrue(Float.isNaN(subscriber.values().get(0).getFraction()));
+    }
+
+    @Test
+    public void framesFollowNegotiatedMtu() throws InterruptedException {
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        assertEquals(MTU, (int) rxBluetooth.requestMtu(MAC, MTU).timeout(5, TimeUnit.SECONDS).blockingGet());
+        int frameSize = MTU - SimulatedPeripheral.ATT_HEADER_LEN;
+        byte[] payload = new byte[frameSize * 5 + 11];
+        new Random(5).nextBytes(payload);
+
+        TestSubscriber<BulkWriteProgress> subscriber = rxBluetooth.bulkWrite(MAC, SERVICE, DATA, payload, 2).test();
+        assertTrue("写入没有结束", subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertNoErrors().assertComplete();
+
+        awaitFrames(6);
+        assertArrayEquals(payload, concat(m_frames));
+        assertProgress(subscriber.values(), payload.length, 6, frameSize);
+        BulkWriteProgress last = subscriber.values().get(5);
+        assertEquals(payload.length, last.getTotalBytes());
+        assertEquals(1.0f, last.getFraction(), 0.0f);
+    }
+
+    /**
+     * 无应答写入先回调成功再交给外设，最后一帧可能在写入完成后才收到
+     */
+    private void awaitFrames(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (m_frames.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, m_frames.size());
+    }
+
+    /**
+     * 每帧发出一次进度，字节数和帧数逐次累加
+     */
+    private static void assertProgress(List<BulkWriteProgress> progresses, int total, int frameCount, int frameSize) {
+        assertEquals(frameCount, progresses.size());
+        long bytes = 0;
+        for (int i = 0; i < progresses.size(); i++) {
+            BulkWriteProgress progress = progresses.get(i);
+            assertEquals(i + 1, progress.getFrames());
+            assertEquals(frameSize, progress.getFrameSize());
+            assertTrue(progress.toString(), progress.getBytesWritten() > bytes);
+            bytes = progress.getBytesWritten();
+        }
+        assertEquals(total, bytes);
+    }
+
+    private static byte[] concat(List<byte[]> frames) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        synchronized (frames) {
+            for (byte[] frame : frames) {
+                out.write(frame, 0, frame.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static final class IdleHolder extends BluetoothHolder {
+
+        private IdleHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.disposables.Disposable;
+
+import static com.inuker.bluetooth.library.Constants.REQUEST_READ;
+import static com.inuker.bluetooth.library.Constants.REQUEST_RSSI;
+import static com.inuker.bluetooth.library.Constants.REQUEST_WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: 执行中的GATT操作被dispose时清除蓝牙库中对应类型的请求<br>
+ * 1, 外设的应答延迟足够长，dispose时操作一定在执行中;<br>
+ * 2, 每个设备允许2个操作同时执行，其它操作还在执行时不清除;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class RxBluetoothCancelTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+    private static final long LATENCY_MILLIS = 200;
+
+    private SimulatedTransport m_transport;
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        m_transport.addPeripheral(new SimulatedPeripheral.Builder(MAC)
+                .setLatency(LATENCY_MILLIS, 0)
+                .addCharacter(SERVICE, CHARACTER, new byte[]{1})
+                .build());
+        RxBluetooth.init(m_transport, new GattOperationScheduler(2, GattOperationScheduler.DEFAULT_MAX_IN_FLIGHT));
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        rxBluetooth.connect(MAC, new BleConnectOptions.Builder().build(), (mac, profile) -> Single.just(new IdleHolder(mac, rxBluetooth, profile)))
+                .timeout(5, TimeUnit.SECONDS)
+                .blockingGet();
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void disposingReadClearsReadRequest() throws InterruptedException {
+        assertCleared(RxBluetooth.getInstance().read(MAC, SERVICE, CHARACTER), REQUEST_READ);
+    }
+
+    @Test
+    public void disposingWriteClearsWriteRequest() throws InterruptedException {
+        assertCleared(RxBluetooth.getInstance().write(MAC, SERVICE, CHARACTER, new byte[]{2}), REQUEST_WRITE);
+    }
+
+    @Test
+    public void disposingRssiClearsRssiRequest() throws InterruptedException {
+        assertCleared(RxBluetooth.getInstance().readRssi(MAC), REQUEST_RSSI);
+    }
+
+    @Test
+    public void otherRunningOperationKeepsRequests() throws InterruptedException {
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        Disposable first = rxBluetooth.read(MAC, SERVICE, CHARACTER).subscribe(value -> {
+        }, throwable -> {
+        });
+        Disposable second = rxBluetooth.write(MAC, SERVICE, CHARACTER, new byte[]{2}).subscribe(value -> {
+        }, throwable -> {
+        });
+        awaitInFlight(2);
+
+        //清除会把另一个订阅者的请求也删掉
+        first.dispose();
+        assertEquals(0, m_transport.getClearedRequests(MAC));
+        second.dispose();
+        assertEquals(REQUEST_WRITE, m_transport.getClearedRequests(MAC));
+    }
+
+    @Test
+    public void completedOperationClearsNothing() {
+        RxBluetooth.getInstance().read(MAC, SERVICE, CHARACTER)
+                .timeout(5, TimeUnit.SECONDS)
+                .blockingGet();
+        assertEquals(0, m_transport.getClearedRequests(MAC));
+    }
+
+    private void assertCleared(Single<?> operation, int type) throws InterruptedException {
+        Disposable disposable = operation.subscribe(value -> {
+        }, throwable -> {
+        });
+        awaitInFlight(1);
+        assertEquals(0, m_transport.getClearedRequests(MAC));
+
+        disposable.dispose();
+        assertEquals(type, m_transport.getClearedRequests(MAC));
+    }
+
+    private static void awaitInFlight(int count) throws InterruptedException {
+        GattOperationScheduler scheduler = RxBluetooth.getInstance().getScheduler();
+        long deadline = System.currentTimeMillis() + LATENCY_MILLIS;
+        while (scheduler.getInFlight(MAC) < count) {
+            assertTrue("操作没有开始执行", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static final class IdleHolder extends BluetoothHolder {
+
+        private IdleHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
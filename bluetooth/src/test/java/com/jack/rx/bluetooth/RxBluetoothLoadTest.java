@@ -0,0 +1,166 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.disposables.CompositeDisposable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: 纯JVM压测，通过{@link SimulatedTransport}同时连接上百个设备并持续接收通知<br>
+ * 1, 所有设备都能连上并占用槽位;<br>
+ * 2, 没有丢包时每个设备收到的通知数量与外设发出的一致;<br>
+ * 3, 断开后释放全部槽位;<br>
+ * 4, 所有设备同时执行的GATT操作数量通过{@link RxBluetooth#init(com.jack.rx.bluetooth.transport.BluetoothTransport, GattOperationScheduler)}放宽;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class RxBluetoothLoadTest {
+    private static final int DEVICES = 200;
+    private static final int FRAMES = 50;
+    private static final int MAX_IN_FLIGHT = 32;
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+
+    private SimulatedTransport m_transport;
+    private final List<SimulatedPeripheral> m_peripherals = new ArrayList<>(DEVICES);
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        for (int i = 0; i < DEVICES; ++i) {
+            SimulatedPeripheral peripheral = new SimulatedPeripheral.Builder(mac(i))
+                    .setLatency(1, 4)
+                    .addCharacter(SERVICE, CHARACTER, new byte[0])
+                    .build();
+            m_peripherals.add(peripheral);
+            m_transport.addPeripheral(peripheral);
+        }
+        RxBluetooth.init(m_transport, new GattOperationScheduler(GattOperationScheduler.DEFAULT_MAX_IN_FLIGHT_PER_DEVICE, MAX_IN_FLIGHT));
+        RxBluetooth.getInstance().getConnectionSlotManager().setMaxSlots(DEVICES);
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void streamsNotificationsFromManyDevices() throws InterruptedException {
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        assertEquals(MAX_IN_FLIGHT, rxBluetooth.getScheduler().getMaxInFlight());
+        BleConnectOptions options = new BleConnectOptions.Builder().build();
+        List<BluetoothHolder> holders = Flowable.fromIterable(m_peripherals)
+                .flatMapSingle(peripheral -> rxBluetooth.connect(peripheral.getMac(), options, LoadHolder::create), false, 16)
+                .toList()
+                .timeout(30, TimeUnit.SECONDS)
+                .blockingGet();
+        assertEquals(DEVICES, holders.size());
+        assertEquals(DEVICES, rxBluetooth.getConnectionSlotManager().getUsedSlots());
+
+        AtomicIntegerArray received = new AtomicIntegerArray(DEVICES);
+        CountDownLatch done = new CountDownLatch(DEVICES * FRAMES);
+        CompositeDisposable disposable = new CompositeDisposable();
+        for (BluetoothHolder holder : holders) {
+            int index = index(holder.getMac());
+            disposable.add(holder.<byte[]>notify(SERVICE, CHARACTER).subscribe(value -> {
+                received.incrementAndGet(index);
+                done.countDown();
+            }));
+        }
+        for (SimulatedPeripheral peripheral : m_peripherals) {
+            awaitNotifying(peripheral);
+        }
+        for (int frame = 0; frame < FRAMES; ++frame) {
+            for (SimulatedPeripheral peripheral : m_peripherals) {
+                peripheral.notify(SERVICE, CHARACTER, new byte[]{(byte) frame, 1, 2, 3});
+            }
+        }
+        assertTrue("通知未全部送达", done.await(30, TimeUnit.SECONDS));
+        for (int i = 0; i < DEVICES; ++i) {
+            assertEquals(mac(i), FRAMES, received.get(i));
+        }
+
+        disposable.dispose();
+        Flowable.fromIterable(holders)
+                .flatMapSingle(holder -> rxBluetooth.disconnect(holder.getMac()), false, 16)
+                .ignoreElements()
+                .blockingAwait(30, TimeUnit.SECONDS);
+        //槽位在disconnect结束(doFinally)时释放，晚于订阅者收到结果
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (0 != rxBluetooth.getConnectionSlotManager().getUsedSlots() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, rxBluetooth.getConnectionSlotManager().getUsedSlots());
+    }
+
+    private static void awaitNotifying(SimulatedPeripheral peripheral) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!peripheral.isNotifying(SERVICE, CHARACTER)) {
+            assertTrue(peripheral.getMac() + " 通知未打开", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static String mac(int index) {
+        return String.format(Locale.US, "00:00:00:00:%02X:%02X", index >> 8, index & 0xFF);
+    }
+
+    private static int index(String mac) {
+        String[] parts = mac.split(":");
+        return Integer.parseInt(parts[4], 16) << 8 | Integer.parseInt(parts[5], 16);
+    }
+
+    /**
+     * 不解码，直接发出原始数据
+     */
+    private static final class LoadHolder extends BluetoothHolder {
+
+        private LoadHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        static Single<LoadHolder> create(String mac, BleGattProfile bleGattProfile) {
+            return Single.just(new LoadHolder(mac, RxBluetooth.getInstance(), bleGattProfile));
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
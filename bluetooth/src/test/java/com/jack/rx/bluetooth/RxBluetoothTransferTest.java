@@ -0,0 +1,159 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transfer.TransferProgress;
+import com.jack.rx.bluetooth.transfer.TransferReceiver;
+import com.jack.rx.bluetooth.transfer.TransferSession;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link BaseRxBluetooth#transfer(String, UUID, UUID, UUID, TransferSession, int)}经过{@link SimulatedTransport}的传输<br>
+ * 1, 上下行丢包时传输完整，取消后用同一个会话从外设已收到的位置继续;<br>
+ * 2, 链路断开时立即失败，不等重传次数用完;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class RxBluetoothTransferTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final String RECEIVER_MAC = "00:00:00:00:00:02";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID DATA = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+    private static final UUID ACK = UUID.fromString("0000fff2-0000-1000-8000-00805f9b34fb");
+
+    private SimulatedTransport m_transport;
+    private SimulatedPeripheral m_peripheral;
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        //外设不应答，传输停在等待确认
+        m_peripheral = new SimulatedPeripheral.Builder(MAC)
+                .addCharacter(SERVICE, DATA, new byte[0])
+                .addCharacter(SERVICE, ACK, new byte[0])
+                .build();
+        m_transport.addPeripheral(m_peripheral);
+        RxBluetooth.init(m_transport);
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void deliversPayloadWithLossAndResumes() throws InterruptedException {
+        TransferReceiver receiver = new TransferReceiver();
+        Random random = new Random(7);
+        AtomicBoolean startBeforeAck = new AtomicBoolean(false);
+        m_transport.addPeripheral(new SimulatedPeripheral.Builder(RECEIVER_MAC)
+                .addCharacter(SERVICE, DATA, new byte[0])
+                .addCharacter(SERVICE, ACK, new byte[0])
+                .setWriteHandler((peripheral, serviceUUID, characterUUID, value) -> {
+                    if (TransferReceiver.isStart(value) && !peripheral.isNotifying(SERVICE, ACK)) {
+                        startBeforeAck.set(true);
+                    }
+                    //上行和下行各丢10%
+                    if (random.nextFloat() < 0.1f) {
+                        return;
+                    }
+                    byte[] reply = receiver.receive(value);
+                    if (null != reply && random.nextFloat() >= 0.1f) {
+                        peripheral.notify(SERVICE, ACK, reply);
+                    }
+                })
+                .build());
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        rxBluetooth.connect(RECEIVER_MAC, new BleConnectOptions.Builder().build(), (mac, profile) -> Single.just(new IdleHolder(mac, rxBluetooth, profile)))
+                .timeout(5, TimeUnit.SECONDS)
+                .blockingGet();
+
+        byte[] payload = new byte[4096];
+        new Random(1).nextBytes(payload);
+        TransferSession session = TransferSession.forFrameLength(payload, SimulatedPeripheral.DEFAULT_MTU - SimulatedPeripheral.ATT_HEADER_LEN);
+        TestSubscriber<TransferProgress> first = rxBluetooth.transfer(RECEIVER_MAC, SERVICE, DATA, ACK, session, 8).test();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (receiver.receivedCount() < session.getFragmentCount() / 2) {
+            assertTrue("传输没有进展", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+        first.dispose();
+        first.assertNotComplete();
+
+        TestSubscriber<TransferProgress> second = rxBluetooth.transfer(RECEIVER_MAC, SERVICE, DATA, ACK, session, 8).test();
+        assertTrue("传输没有结束", second.await(20, TimeUnit.SECONDS));
+        second.assertNoErrors().assertComplete();
+        assertArrayEquals(payload, receiver.data());
+        TransferProgress completed = second.values().get(second.valueCount() - 1);
+        assertTrue(completed.toString(), completed.getBytesResumed() > 0);
+        assertFalse("确认通知打开前发送了START", startBeforeAck.get());
+    }
+
+    @Test
+    public void failsPromptlyWhenLinkIsLost() throws InterruptedException {
+        RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+        rxBluetooth.connect(MAC, new BleConnectOptions.Builder().build(), (mac, profile) -> Single.just(new IdleHolder(mac, rxBluetooth, profile)))
+                .timeout(5, TimeUnit.SECONDS)
+                .blockingGet();
+
+        TransferSession session = TransferSession.forFrameLength(new byte[4096], SimulatedPeripheral.DEFAULT_MTU - SimulatedPeripheral.ATT_HEADER_LEN);
+        TestSubscriber<TransferProgress> subscriber = rxBluetooth.transfer(MAC, SERVICE, DATA, ACK, session, 8).test();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!m_peripheral.isNotifying(SERVICE, ACK)) {
+            assertTrue("确认通知未打开", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+
+        //外设消失后无法重连，超时重传的写入失败
+        m_transport.removePeripheral(MAC);
+        //不等ReliableTransfer重传次数用完(约20s)
+        assertTrue("传输没有结束", subscriber.await(3, TimeUnit.SECONDS));
+        subscriber.assertError(BluetoothException.class);
+        subscriber.assertError(throwable -> !throwable.getMessage().contains("retries"));
+    }
+
+    private static final class IdleHolder extends BluetoothHolder {
+
+        private IdleHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.jack.rx.bluetooth;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.model.BleGattProfile;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link SessionStore}的JSON持久化和{@link RxBluetooth#restoreSession(BleConnectOptions, int)}<br>
+ * 1, 用同一个{@link MemoryContext}创建新的{@link SessionStore}模拟进程重启;<br>
+ * 2, 恢复时通过工厂类的无参构造函数创建工厂，无法创建的记录被删除;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class SessionStoreTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final String OTHER_MAC = "00:00:00:00:00:02";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+
+    @Test
+    public void entriesSurviveRestart() {
+        MemoryContext context = new MemoryContext();
+        SessionStore store = new SessionStore(context);
+        store.save(MAC, IdleFactory.class.getName());
+        store.putExtra(MAC, "param", "Temperature_Vibrate,Freq_1kHz,Point_1024,0");
+        store.putExtra(MAC, "stream", "on");
+        store.removeExtra(MAC, "stream");
+        store.save(OTHER_MAC, IdleFactory.class.getName());
+        store.remove(OTHER_MAC);
+
+        SessionStore restored = new SessionStore(context);
+        List<SessionEntry> entries = restored.getEntries();
+        assertEquals(1, entries.size());
+        SessionEntry entry = entries.get(0);
+        assertEquals(MAC, entry.getMac());
+        assertEquals(IdleFactory.class.getName(), entry.getFactoryClass());
+        assertEquals(1, entry.getExtras().size());
+        assertEquals("Temperature_Vibrate,Freq_1kHz,Point_1024,0", entry.getExtra("param"));
+        assertNull(restored.get(OTHER_MAC));
+    }
+
+    @Test
+    public void sameFactoryKeepsExtras() {
+        SessionStore store = new SessionStore(new MemoryContext());
+        store.save(MAC, IdleFactory.class.getName());
+        store.putExtra(MAC, "param", "1");
+        //重连成功时再次保存，不覆盖附加信息
+        store.save(MAC, IdleFactory.class.getName());
+        assertEquals("1", store.get(MAC).getExtra("param"));
+
+        store.save(MAC, "com.example.OtherFactory");
+        assertTrue(store.get(MAC).getExtras().isEmpty());
+    }
+
+    @Test
+    public void extrasOfUnknownDeviceAreIgnored() {
+        MemoryContext context = new MemoryContext();
+        SessionStore store = new SessionStore(context);
+        store.putExtra(MAC, "param", "1");
+
+        assertNull(store.get(MAC));
+        assertEquals(0, context.getWriteCount());
+    }
+
+    @Test
+    public void restoreCreatesFactoryByDeclaredConstructor() {
+        SimulatedTransport transport = new SimulatedTransport();
+        transport.addPeripheral(new SimulatedPeripheral.Builder(MAC)
+                .addCharacter(SERVICE, CHARACTER, new byte[0])
+                .build());
+        RxBluetooth.init(transport);
+        try {
+            RxBluetooth rxBluetooth = RxBluetooth.getInstance();
+            SessionStore store = rxBluetooth.getSessionStore();
+            store.save(MAC, IdleFactory.class.getName());
+            store.save(OTHER_MAC, "com.example.MissingFactory");
+
+            List<BluetoothHolder> holders = rxBluetooth.restoreSession(new BleConnectOptions.Builder().build(), 2)
+                    .toList()
+                    .timeout(5, TimeUnit.SECONDS)
+                    .blockingGet();
+            assertEquals(1, holders.size());
+            assertEquals(MAC, holders.get(0).getMac());
+            assertTrue(holders.get(0) instanceof IdleHolder);
+            assertNull(store.get(OTHER_MAC));
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    public static final class IdleFactory implements BluetoothHolderFactory {
+
+        @Override
+        public Single<? extends BluetoothHolder> create(String mac, BleGattProfile bleGattProfile) {
+            return Single.just(new IdleHolder(mac, RxBluetooth.getInstance(), bleGattProfile));
+        }
+    }
+
+    private static final class IdleHolder extends BluetoothHolder {
+
+        private IdleHolder(String mac, RxBluetooth rxBluetooth, BleGattProfile bleGattProfile) {
+            super(mac, rxBluetooth, bleGattProfile);
+        }
+
+        @Override
+        public Observable<Float> readPower() {
+            return Observable.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> ObservableTransformer<byte[], T> notifyTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Observable<T>) upstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected <T> SingleTransformer<byte[], T> readTransformer(UUID serviceUUID, UUID characterUUID) {
+            return upstream -> (Single<T>) upstream;
+        }
+    }
+}
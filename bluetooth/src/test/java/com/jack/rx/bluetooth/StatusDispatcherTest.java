@@ -0,0 +1,132 @@
+package com.jack.rx.bluetooth;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link StatusDispatcher}按通道分发和车队数据流<br>
+ * 1, 订阅者的回调在通道锁外执行，同一通道的切换不被慢的订阅者阻塞，发出顺序与切换顺序一致;<br>
+ * 2, 通道删除后订阅者收到完成，{@link ConnectionStateMachine#observe(String)}转到新的通道;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class StatusDispatcherTest {
+
+    @Test
+    public void fleetStartsWithCurrentStatusThenFollowsChanges() {
+        StatusDispatcher dispatcher = new StatusDispatcher();
+        StatusDispatcher.Channel d0 = dispatcher.channel("d0", BluetoothStatus.DISCONNECTED);
+        dispatcher.dispatch(d0, BluetoothStatus.CONNECTED);
+
+        TestObserver<StatusEvent> observer = dispatcher.fleet().test();
+        StatusDispatcher.Channel d1 = dispatcher.channel("d1", BluetoothStatus.DISCONNECTED);
+        assertEquals(BluetoothStatus.DISCONNECTED, dispatcher.dispatch(d1, BluetoothStatus.CONNECTING));
+        //状态没有变化时不发出
+        assertEquals(BluetoothStatus.CONNECTING, dispatcher.dispatch(d1, BluetoothStatus.CONNECTING));
+        observer.assertValues(d0.getEvent(), d1.getEvent());
+
+        observer.dispose();
+        dispatcher.dispatch(d1, BluetoothStatus.CONNECTED);
+        observer.assertValueCount(2);
+    }
+
+    @Test
+    public void slowSubscriberDoesNotBlockOtherChannels() throws InterruptedException {
+        StatusDispatcher dispatcher = new StatusDispatcher();
+        StatusDispatcher.Channel slow = dispatcher.channel("d0", BluetoothStatus.DISCONNECTED);
+        StatusDispatcher.Channel other = dispatcher.channel("d1", BluetoothStatus.DISCONNECTED);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestObserver<StatusEvent> fleet = dispatcher.fleet().test();
+        Disposable disposable = slow.observe().skip(1).subscribe(status -> {
+            entered.countDown();
+            release.await();
+        });
+        Thread thread = new Thread(() -> dispatcher.dispatch(slow, BluetoothStatus.CONNECTED));
+        thread.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        dispatcher.dispatch(other, BluetoothStatus.CONNECTING);
+        assertEquals(BluetoothStatus.CONNECTING, other.getStatus());
+        release.countDown();
+        thread.join(1_000);
+        disposable.dispose();
+        assertEquals(BluetoothStatus.CONNECTED, slow.getStatus());
+        assertTrue(fleet.values().contains(other.getEvent()));
+    }
+
+    @Test
+    public void slowSubscriberDoesNotBlockSameChannel() throws InterruptedException {
+        StatusDispatcher dispatcher = new StatusDispatcher();
+        StatusDispatcher.Channel channel = dispatcher.channel("d0", BluetoothStatus.DISCONNECTED);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestObserver<BluetoothStatus> observer = channel.observe().test();
+        Disposable disposable = channel.observe().skip(1).take(1).subscribe(status -> {
+            entered.countDown();
+            release.await();
+        });
+        Thread thread = new Thread(() -> dispatcher.dispatch(channel, BluetoothStatus.CONNECTING));
+        thread.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        //发出线程被阻塞时切换只入队，由发出线程按顺序发出
+        assertEquals(BluetoothStatus.CONNECTING, dispatcher.dispatch(channel, BluetoothStatus.CONNECTED));
+        assertEquals(BluetoothStatus.CONNECTED, dispatcher.dispatch(channel, BluetoothStatus.DISCONNECTING));
+        assertEquals(BluetoothStatus.DISCONNECTING, channel.getStatus());
+        release.countDown();
+        thread.join(1_000);
+        disposable.dispose();
+        observer.assertValues(BluetoothStatus.DISCONNECTED, BluetoothStatus.CONNECTING, BluetoothStatus.CONNECTED, BluetoothStatus.DISCONNECTING);
+    }
+
+    @Test
+    public void removedChannelCompletesAndRejectsDispatch() {
+        StatusDispatcher dispatcher = new StatusDispatcher();
+        StatusDispatcher.Channel channel = dispatcher.channel("d0", BluetoothStatus.CONNECTED);
+        TestObserver<BluetoothStatus> observer = channel.observe().test();
+        TestObserver<StatusEvent> fleet = dispatcher.fleet().test();
+
+        dispatcher.remove("d0");
+        observer.assertValues(BluetoothStatus.CONNECTED).assertComplete();
+        assertNull(dispatcher.find("d0"));
+        assertNull(dispatcher.dispatch(channel, BluetoothStatus.DISCONNECTED));
+        //车队数据流不随通道完成
+        fleet.assertNotComplete();
+
+        StatusDispatcher.Channel created = dispatcher.channel("d0", BluetoothStatus.DISCONNECTED);
+        dispatcher.dispatch(created, BluetoothStatus.CONNECTING);
+        fleet.assertValues(channel.getEvent(), created.getEvent());
+    }
+
+    @Test
+    public void stateMachineObserversFollowRecreatedChannel() {
+        AtomicReference<BluetoothStatus> probe = new AtomicReference<>(BluetoothStatus.CONNECTED);
+        StatusDispatcher dispatcher = new StatusDispatcher();
+        ConnectionStateMachine stateMachine = new ConnectionStateMachine(dispatcher, mac -> probe.get());
+        TestObserver<BluetoothStatus> observer = stateMachine.observe("d0").test();
+
+        stateMachine.transition("d0", BluetoothStatus.DISCONNECTING);
+        probe.set(BluetoothStatus.DISCONNECTED);
+        stateMachine.release("d0");
+        //只查询状态不创建通道
+        assertEquals(BluetoothStatus.DISCONNECTED, stateMachine.getState("d1"));
+        assertNull(dispatcher.find("d1"));
+
+        stateMachine.transition("d0", BluetoothStatus.CONNECTING);
+        observer.assertValues(BluetoothStatus.CONNECTED, BluetoothStatus.DISCONNECTING, BluetoothStatus.DISCONNECTED, BluetoothStatus.CONNECTING)
+                .assertNotComplete();
+        observer.dispose();
+    }
+}
@@ -0,0 +1,66 @@
+package com.jack.rx.bluetooth.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link LatencyHistogram}的分桶边界和百分位
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void smallValuesHaveExactBuckets() {
+        for (int micros = 0; micros < LatencyHistogram.SUB_BUCKETS; ++micros) {
+            assertEquals(micros, LatencyHistogram.index(micros));
+            assertEquals(micros, LatencyHistogram.upperBound(micros));
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int index = 0; index < LatencyHistogram.BUCKETS - 1; ++index) {
+            long upper = LatencyHistogram.upperBound(index);
+            assertEquals("upper " + upper, index, LatencyHistogram.index(upper));
+            assertEquals("lower " + (upper + 1), index + 1, LatencyHistogram.index(upper + 1));
+        }
+    }
+
+    @Test
+    public void relativeErrorIsBounded() {
+        for (long micros = LatencyHistogram.SUB_BUCKETS; micros < (1L << 40); micros = micros * 3 / 2 + 1) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.index(micros));
+            assertTrue(micros + " -> " + upper, upper >= micros);
+            assertTrue(micros + " -> " + upper, upper - micros < micros / LatencyHistogram.SUB_BUCKETS + 1);
+        }
+    }
+
+    @Test
+    public void hugeValuesGoToLastBucket() {
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(1L << 41));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void snapshotReportsPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; ++millis) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        //负数按0记录
+        histogram.recordNanos(-1);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(101, snapshot.getCount());
+        assertEquals(100, snapshot.getMax(TimeUnit.MILLISECONDS));
+        long p50 = snapshot.getPercentileMicros(50);
+        assertTrue(String.valueOf(p50), p50 >= 50_000 && p50 <= 50_000 * 9 / 8);
+        assertEquals(100_000, snapshot.getPercentileMicros(100));
+        assertEquals(0, new LatencyHistogram().snapshot().getPercentileMicros(99));
+    }
+}
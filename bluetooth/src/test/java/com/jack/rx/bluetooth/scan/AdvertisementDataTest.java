@@ -0,0 +1,106 @@
+package com.jack.rx.bluetooth.scan;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link AdvertisementData#parse(byte[])}对各类AD结构和格式错误广播包的解析
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class AdvertisementDataTest {
+    private static final UUID CUSTOM = UUID.fromString("12345678-9abc-def0-1122-334455667788");
+
+    @Test
+    public void parsesCommonStructures() {
+        AdvertisementData data = AdvertisementData.parse(bytes(
+                0x02, 0x01, 0x06,
+                0x05, 0x03, 0xF0, 0xFF, 0x0F, 0x18,
+                0x04, 0x09, 'J', 'S', '1',
+                0x02, 0x0A, 0xF4,
+                0x05, 0xFF, 0x34, 0x12, 0xAA, 0xBB,
+                0x04, 0x16, 0x0F, 0x18, 0x64,
+                0x00, 0x00));
+        assertEquals(0x06, data.getFlags());
+        assertEquals(Arrays.asList(AdvertisementData.fromUuid16(0xFFF0), AdvertisementData.fromUuid16(0x180F)), data.getServiceUuids());
+        assertEquals(UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb"), AdvertisementData.fromUuid16(0xFFF0));
+        assertEquals("JS1", data.getLocalName());
+        assertEquals(-12, data.getTxPower());
+        assertArrayEquals(bytes(0xAA, 0xBB), data.getManufacturerData(0x1234));
+        assertArrayEquals(bytes(0x64), data.getServiceData(AdvertisementData.fromUuid16(0x180F)));
+    }
+
+    @Test
+    public void parsesLittleEndian128BitUuids() {
+        byte[] record = new byte[2 + 16 * 2 + 1];
+        record[0] = 33;
+        record[1] = 0x07;
+        write128(record, 2, CUSTOM);
+        write128(record, 18, AdvertisementData.fromUuid16(0xFFF0));
+        //不足16字节的尾部被忽略
+        record[34] = 0x55;
+        AdvertisementData data = AdvertisementData.parse(Arrays.copyOf(record, 34));
+        assertEquals(Arrays.asList(CUSTOM, AdvertisementData.fromUuid16(0xFFF0)), data.getServiceUuids());
+        assertTrue(data.containsServiceUuid(CUSTOM));
+
+        record[0] = 34;
+        data = AdvertisementData.parse(record);
+        assertEquals(Arrays.asList(CUSTOM, AdvertisementData.fromUuid16(0xFFF0)), data.getServiceUuids());
+    }
+
+    @Test
+    public void returnsEmptyForMissingRecord() {
+        for (byte[] record : new byte[][]{null, new byte[0], bytes(0x00)}) {
+            AdvertisementData data = AdvertisementData.parse(record);
+            assertEquals(-1, data.getFlags());
+            assertEquals(Collections.<UUID>emptyList(), data.getServiceUuids());
+            assertNull(data.getLocalName());
+            assertEquals(Integer.MIN_VALUE, data.getTxPower());
+        }
+    }
+
+    @Test
+    public void stopsAtTruncatedStructure() {
+        //第二个结构声明长度9，但只剩3字节
+        AdvertisementData data = AdvertisementData.parse(bytes(0x02, 0x01, 0x06, 0x09, 0x09, 'J', 'S'));
+        assertEquals(0x06, data.getFlags());
+        assertNull(data.getLocalName());
+    }
+
+    @Test
+    public void ignoresStructuresWithoutPayload() {
+        AdvertisementData data = AdvertisementData.parse(bytes(0x01, 0x01));
+        assertEquals(-1, data.getFlags());
+        data = AdvertisementData.parse(bytes(0x01, 0x0A));
+        assertEquals(Integer.MIN_VALUE, data.getTxPower());
+        //厂家数据和服务数据不足2字节
+        data = AdvertisementData.parse(bytes(0x02, 0xFF, 0x34, 0x02, 0x16, 0x0F, 0x02, 0x01, 0x06));
+        assertTrue(data.getManufacturerData().isEmpty());
+        assertTrue(data.getServiceData().isEmpty());
+        assertEquals(0x06, data.getFlags());
+    }
+
+    private static void write128(byte[] record, int offset, UUID uuid) {
+        for (int i = 0; i < 8; ++i) {
+            record[offset + i] = (byte) (uuid.getLeastSignificantBits() >>> (8 * i));
+            record[offset + 8 + i] = (byte) (uuid.getMostSignificantBits() >>> (8 * i));
+        }
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jack.rx.bluetooth.scan;
+
+import com.inuker.bluetooth.library.search.SearchResult;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link ScanFilter}各条件的匹配，条件之间为"与"，服务UUID之间为"或"
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ScanFilterTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID FFF0 = AdvertisementData.fromUuid16(0xFFF0);
+    private static final UUID FFE0 = AdvertisementData.fromUuid16(0xFFE0);
+    private static final UUID BATTERY = AdvertisementData.fromUuid16(0x180F);
+    //服务UUID 0xFFF0，厂家0x1234的数据 AA BB CC
+    private static final byte[] RECORD = bytes(
+            0x03, 0x03, 0xF0, 0xFF,
+            0x06, 0xFF, 0x34, 0x12, 0xAA, 0xBB, 0xCC);
+
+    @Test
+    public void allRejectsOnlyInvalidRssi() {
+        assertTrue(ScanFilter.ALL.matches(result("JS100", -90, null)));
+        assertFalse(ScanFilter.ALL.matches(result("JS100", 0, RECORD)));
+    }
+
+    @Test
+    public void matchesRssiAndNamePrefix() {
+        ScanFilter filter = new ScanFilter.Builder()
+                .setMinRssi(-70)
+                .setNamePrefix("JS")
+                .build();
+        assertTrue(filter.matches(result("JS100", -70, null)));
+        assertFalse(filter.matches(result("JS100", -71, null)));
+        assertFalse(filter.matches(result("ZC1000", -50, null)));
+        //没有名字的设备
+        assertFalse(filter.matches(result(null, -50, null)));
+    }
+
+    @Test
+    public void matchesAnyServiceUuid() {
+        ScanFilter filter = new ScanFilter.Builder()
+                .addServiceUuid(FFE0)
+                .addServiceUuid(FFF0)
+                .build();
+        assertTrue(filter.matches(result(null, -50, RECORD)));
+        assertFalse(filter.matches(result(null, -50, bytes(0x03, 0x03, 0x0F, 0x18))));
+        assertFalse(filter.matches(result(null, -50, null)));
+    }
+
+    @Test
+    public void matchesManufacturerPrefix() {
+        assertTrue(manufacturer(0x1234, 0xAA, 0xBB).matches(result(null, -50, RECORD)));
+        assertTrue(manufacturer(0x1234).matches(result(null, -50, RECORD)));
+        assertFalse(manufacturer(0x1234, 0xAA, 0xBC).matches(result(null, -50, RECORD)));
+        //前缀比数据长
+        assertFalse(manufacturer(0x1234, 0xAA, 0xBB, 0xCC, 0xDD).matches(result(null, -50, RECORD)));
+        assertFalse(manufacturer(0x4321).matches(result(null, -50, RECORD)));
+    }
+
+    @Test
+    public void requiresAllConditions() {
+        ScanFilter filter = new ScanFilter.Builder()
+                .addServiceUuid(FFF0)
+                .setManufacturerData(0x1234, bytes(0xAA))
+                .setNamePrefix("JS")
+                .build();
+        assertTrue(filter.matches(result("JS100", -50, RECORD)));
+        assertFalse(filter.matches(result("ZC1000", -50, RECORD)));
+        assertFalse(filter.matches(result("JS100", -50, bytes(0x06, 0xFF, 0x34, 0x12, 0xAA, 0xBB, 0xCC))));
+    }
+
+    @Test
+    public void builderChangesDoNotAffectBuiltFilter() {
+        ScanFilter.Builder builder = new ScanFilter.Builder().addServiceUuid(BATTERY);
+        ScanFilter filter = builder.build();
+        builder.addServiceUuid(FFF0);
+
+        assertFalse(filter.matches(result(null, -50, RECORD)));
+        assertTrue(builder.build().matches(result(null, -50, RECORD)));
+    }
+
+    private static ScanFilter manufacturer(int companyId, int... prefix) {
+        return new ScanFilter.Builder()
+                .setManufacturerData(companyId, bytes(prefix))
+                .build();
+    }
+
+    private static ScanResult result(String name, int rssi, byte[] record) {
+        return new ScanResult(new SearchResult(null, rssi, record) {
+            @Override
+            public String getName() {
+                return null == name ? "NULL" : name;
+            }
+
+            @Override
+            public String getAddress() {
+                return MAC;
+            }
+        });
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
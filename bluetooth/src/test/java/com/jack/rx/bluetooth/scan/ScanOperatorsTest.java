@@ -0,0 +1,154 @@
+package com.jack.rx.bluetooth.scan;
+
+import com.inuker.bluetooth.library.search.SearchResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 描述: {@link ScanOperators}的去重、信号强度平滑和设备表<br>
+ * 1, 地址数量超过{@code maxSize}时按最近访问淘汰;<br>
+ * 2, 设备表的时间窗口用{@link TestScheduler}推进;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ScanOperatorsTest {
+    private TestScheduler m_scheduler;
+
+    @Before
+    public void setUp() {
+        m_scheduler = new TestScheduler();
+        RxJavaPlugins.setComputationSchedulerHandler(scheduler -> m_scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void dedupForgetsLeastRecentlySeen() {
+        Observable<ScanResult> results = Observable.just(result("a", -50), result("b", -50), result("a", -50),
+                result("c", -50), result("b", -50), result("a", -50))
+                .compose(ScanOperators.dedup(2));
+
+        //第二个a刷新了a的访问顺序，c淘汰b，之后的b淘汰a
+        assertEquals(addresses("a", "b", "c", "b", "a"), addresses(results.test().values()));
+        //每个订阅者有自己的状态
+        assertEquals(addresses("a", "b", "c", "b", "a"), addresses(results.test().values()));
+    }
+
+    @Test
+    public void smoothRssiAveragesPerAddress() {
+        List<ScanResult> values = Observable.just(result("a", -60), result("b", -80), result("a", -40), result("a", -40))
+                .compose(ScanOperators.smoothRssi(0.5f, 8))
+                .test()
+                .values();
+
+        assertEquals(-60f, values.get(0).getRssi(), 0f);
+        assertEquals(-80f, values.get(1).getRssi(), 0f);
+        assertEquals(-50f, values.get(2).getRssi(), 0f);
+        assertEquals(-45f, values.get(3).getRssi(), 0f);
+        //原始值不变
+        assertEquals(-40, values.get(3).getRawRssi());
+    }
+
+    @Test
+    public void smoothRssiRestartsEvictedAddress() {
+        List<ScanResult> values = Observable.just(result("a", -60), result("b", -80), result("a", -40))
+                .compose(ScanOperators.smoothRssi(0.5f, 1))
+                .test()
+                .values();
+
+        assertEquals(-40f, values.get(2).getRssi(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void smoothRssiRejectsZeroAlpha() {
+        ScanOperators.smoothRssi(0f, 8);
+    }
+
+    @Test
+    public void deviceTableEmitsOncePerWindow() {
+        PublishSubject<ScanResult> subject = PublishSubject.create();
+        TestObserver<List<ScannedDevice>> observer = subject.compose(ScanOperators.deviceTable(1, TimeUnit.SECONDS, 2)).test();
+
+        subject.onNext(result("a", -50));
+        subject.onNext(result("b", -60));
+        subject.onNext(result("a", -40));
+        m_scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.assertValueCount(1);
+        List<ScannedDevice> table = observer.values().get(0);
+        assertEquals(addresses("a", "b"), devices(table));
+        assertEquals(2, table.get(0).getCount());
+        assertEquals(-40f, table.get(0).getRssi(), 0f);
+        assertEquals(1, table.get(1).getCount());
+
+        //没有扫描结果的窗口不发出
+        m_scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.assertValueCount(1);
+
+        subject.onNext(result("c", -70));
+        m_scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.assertValueCount(2);
+        //最多保留2个设备，最早出现的b被淘汰
+        assertEquals(addresses("c", "a"), devices(observer.values().get(1)));
+    }
+
+    @Test
+    public void decodeDropsUnsupportedResults() {
+        Observable.just(result("a", -50), result("b", -50))
+                .compose(ScanOperators.decode(result -> "a".equals(result.getAddress()) ? result.getRawRssi() : null))
+                .test()
+                .assertValues(-50);
+    }
+
+    private static ScanResult result(String address, int rssi) {
+        return new ScanResult(new SearchResult(null, rssi, null) {
+            @Override
+            public String getName() {
+                return "NULL";
+            }
+
+            @Override
+            public String getAddress() {
+                return address;
+            }
+        });
+    }
+
+    private static List<String> addresses(String... addresses) {
+        return Arrays.asList(addresses);
+    }
+
+    private static List<String> addresses(List<ScanResult> results) {
+        List<String> list = new ArrayList<>(results.size());
+        for (ScanResult result : results) {
+            list.add(result.getAddress());
+        }
+        return list;
+    }
+
+    private static List<String> devices(List<ScannedDevice> devices) {
+        List<String> list = new ArrayList<>(devices.size());
+        for (ScannedDevice device : devices) {
+            list.add(device.getAddress());
+        }
+        return list;
+    }
+}
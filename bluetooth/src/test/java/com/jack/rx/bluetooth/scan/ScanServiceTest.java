@@ -0,0 +1,158 @@
+package com.jack.rx.bluetooth.scan;
+
+import com.inuker.bluetooth.library.search.SearchRequest;
+import com.jack.rx.bluetooth.RxBluetooth;
+import com.jack.rx.bluetooth.transport.SimulatedPeripheral;
+import com.jack.rx.bluetooth.transport.SimulatedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link ScanService}共享扫描、占空比、设备过期和设备表回放<br>
+ * 1, 多个订阅者共享同一个底层扫描，最后一个订阅者取消后才停止;<br>
+ * 2, {@link RxBluetooth#search(SearchRequest, int, TimeUnit)}结束时不会停掉共享扫描;<br>
+ * 3, 按占空比开关扫描;<br>
+ * 4, 超过期限没有出现的设备从设备表移除，新订阅者立刻得到当前设备表;<br>
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ScanServiceTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final long TIMEOUT_MILLIS = 3_000;
+
+    private SimulatedTransport m_transport;
+    private SimulatedPeripheral m_peripheral;
+
+    @Before
+    public void setUp() {
+        m_transport = new SimulatedTransport();
+        m_peripheral = new SimulatedPeripheral.Builder(MAC)
+                .setName("scan")
+                .build();
+        m_transport.addPeripheral(m_peripheral);
+        RxBluetooth.init(m_transport);
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void sharesScanUntilLastSubscriberLeaves() throws InterruptedException {
+        ScanService service = continuous().build();
+        TestObserver<ScanResult> first = service.results().test();
+        TestObserver<ScanResult> second = service.results().test();
+        await(() -> first.valueCount() > 0 && second.valueCount() > 0);
+        assertEquals(MAC, first.values().get(0).getAddress());
+
+        first.dispose();
+        int received = second.valueCount();
+        await(() -> second.valueCount() > received + 1);
+        assertTrue(m_transport.isSearching());
+
+        second.dispose();
+        assertFalse(m_transport.isSearching());
+    }
+
+    @Test
+    public void searchDoesNotStopSharedScan() throws InterruptedException {
+        ScanService service = continuous().build();
+        TestObserver<ScanResult> shared = service.results().test();
+        await(() -> shared.valueCount() > 0);
+
+        SearchRequest request = new SearchRequest.Builder().searchBluetoothLeDevice(300).build();
+        RxBluetooth.getInstance().search(request, 300, TimeUnit.MILLISECONDS)
+                .test()
+                .awaitDone(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .assertComplete();
+        assertTrue(m_transport.isSearching());
+        int received = shared.valueCount();
+        await(() -> shared.valueCount() > received + 1);
+        shared.dispose();
+        assertFalse(m_transport.isSearching());
+    }
+
+    @Test
+    public void scansInDutyCycle() throws InterruptedException {
+        ScanService service = new ScanService.Builder(RxBluetooth.getInstance())
+                .setScanWindow(200, TimeUnit.MILLISECONDS)
+                .setScanInterval(600, TimeUnit.MILLISECONDS)
+                .build();
+        TestObserver<ScanResult> observer = service.results().test();
+        int on = 0;
+        int off = 0;
+        int cycles = 0;
+        boolean searching = false;
+        for (long end = System.currentTimeMillis() + 1_500; System.currentTimeMillis() < end; Thread.sleep(10)) {
+            boolean now = m_transport.isSearching();
+            if (now) {
+                ++on;
+            } else {
+                ++off;
+            }
+            if (now && !searching) {
+                ++cycles;
+            }
+            searching = now;
+        }
+        observer.dispose();
+        //1.5s内至少开始两次扫描，关闭的时间多于扫描的时间
+        assertTrue("cycles = " + cycles, cycles >= 2);
+        assertTrue("on = " + on + ", off = " + off, off > on);
+        assertTrue(observer.valueCount() > 0);
+    }
+
+    @Test
+    public void removesExpiredDevicesAndReplaysTableToLateSubscribers() throws InterruptedException {
+        ScanService service = continuous()
+                .setTableWindow(50, TimeUnit.MILLISECONDS)
+                .setExpiry(300, TimeUnit.MILLISECONDS)
+                .build();
+        TestObserver<List<ScannedDevice>> early = service.devices().test();
+        await(() -> !service.getDevices().isEmpty());
+
+        TestObserver<List<ScannedDevice>> late = service.devices().test();
+        late.assertValueCount(1);
+        assertEquals(MAC, late.values().get(0).get(0).getAddress());
+
+        m_peripheral.setAdvertising(false);
+        await(() -> late.values().get(late.valueCount() - 1).isEmpty());
+        assertTrue(service.getDevices().isEmpty());
+        early.dispose();
+        late.dispose();
+    }
+
+    private static ScanService.Builder continuous() {
+        return new ScanService.Builder(RxBluetooth.getInstance())
+                .setScanWindow(500, TimeUnit.MILLISECONDS)
+                .setScanInterval(500, TimeUnit.MILLISECONDS);
+    }
+
+    private static void await(Callable<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        try {
+            while (!condition.call()) {
+                assertTrue("等待超时", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException | AssertionError e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
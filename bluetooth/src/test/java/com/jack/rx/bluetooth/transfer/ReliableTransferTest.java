@@ -0,0 +1,211 @@
+package com.jack.rx.bluetooth.transfer;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link ReliableTransfer}与内存中的外设端到端传输，链路按比例随机丢帧
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class ReliableTransferTest {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /**
+     * 单向链路延迟
+     */
+    private static final int LATENCY_TICKS = 5;
+    private static final int FRAGMENT_SIZE = 17;
+
+    @Test
+    public void deliversPayloadWithoutLoss() {
+        byte[] payload = payload(4096, 1);
+        Harness harness = new Harness(payload, 0, 0);
+        harness.run(60_000);
+
+        assertNull(harness.m_error);
+        assertNotNull(harness.m_completed);
+        assertArrayEquals(payload, harness.m_peripheral.data());
+        assertEquals(0, harness.m_completed.getRetransmits());
+        assertEquals(harness.m_session.getFragmentCount(), harness.m_completed.getFragmentsSent());
+    }
+
+    @Test
+    public void deliversPayloadWithInjectedLoss() {
+        byte[] payload = payload(20_000, 2);
+        Harness harness = new Harness(payload, 0.2, 0.2);
+        harness.run(600_000);
+
+        assertNull(harness.m_error);
+        assertNotNull(harness.m_completed);
+        assertArrayEquals(payload, harness.m_peripheral.data());
+        assertTrue(harness.m_completed.getRetransmits() > 0);
+        assertEquals(payload.length, harness.m_completed.getBytesAcked());
+    }
+
+    @Test
+    public void reportsMonotonicProgress() {
+        Harness harness = new Harness(payload(8192, 3), 0.1, 0.1);
+        harness.run(600_000);
+
+        assertNotNull(harness.m_completed);
+        long last = -1;
+        for (TransferProgress progress : harness.m_progress) {
+            assertTrue(progress.getBytesAcked() >= last);
+            last = progress.getBytesAcked();
+        }
+        assertEquals(100f, harness.m_completed.getPercent(), 0.001f);
+        assertTrue(harness.m_completed.getThroughput() > 0);
+    }
+
+    @Test
+    public void resumesAfterReconnect() {
+        byte[] payload = payload(10_000, 4);
+        Harness first = new Harness(payload, 0.1, 0.1);
+        //传到一半断开连接
+        first.runUntil(600_000, () -> first.m_peripheral.receivedCount() > first.m_session.getFragmentCount() / 2);
+        first.m_transfer.cancel();
+        assertNull(first.m_completed);
+        int received = first.m_peripheral.receivedCount();
+
+        Harness second = new Harness(first.m_session, first.m_peripheral, 0.1, 0.1);
+        second.run(600_000);
+
+        assertNull(second.m_error);
+        assertNotNull(second.m_completed);
+        assertArrayEquals(payload, second.m_peripheral.data());
+        assertTrue(second.m_completed.getBytesResumed() >= (long) received * FRAGMENT_SIZE - FRAGMENT_SIZE);
+        assertTrue(second.m_completed.getFragmentsSent() < second.m_session.getFragmentCount());
+    }
+
+    @Test
+    public void restartsWhenPeripheralLostState() {
+        byte[] payload = payload(3000, 5);
+        Harness first = new Harness(payload, 0, 0);
+        first.runUntil(600_000, () -> first.m_peripheral.receivedCount() > 50);
+        first.m_transfer.cancel();
+
+        Harness second = new Harness(first.m_session, new TransferReceiver(), 0, 0);
+        second.run(600_000);
+
+        assertNotNull(second.m_completed);
+        assertEquals(0, second.m_completed.getBytesResumed());
+        assertArrayEquals(payload, second.m_peripheral.data());
+    }
+
+    @Test
+    public void failsWhenPeripheralUnreachable() {
+        Harness harness = new Harness(payload(1000, 6), 1, 1);
+        harness.run(600_000);
+
+        assertNull(harness.m_completed);
+        assertNotNull(harness.m_error);
+        assertTrue(harness.m_transfer.isDone());
+    }
+
+    @Test
+    public void transfersEmptyPayload() {
+        Harness harness = new Harness(new byte[0], 0, 0);
+        harness.run(60_000);
+
+        assertNotNull(harness.m_completed);
+        assertEquals(0, harness.m_peripheral.data().length);
+    }
+
+    private static byte[] payload(int length, long seed) {
+        byte[] payload = new byte[length];
+        new Random(seed).nextBytes(payload);
+        return payload;
+    }
+
+    /**
+     * 用模拟时钟驱动发送端、链路和外设
+     */
+    private static final class Harness implements ReliableTransfer.Listener {
+        private final TransferSession m_session;
+        private final TransferReceiver m_peripheral;
+        private final ReliableTransfer m_transfer;
+        private final Random m_random = new Random(42);
+        private final double m_uplinkLoss;
+        private final double m_downlinkLoss;
+        /**
+         * 在途的帧及其到达时间
+         */
+        private final ArrayDeque<Object[]> m_uplink = new ArrayDeque<>();
+        private final ArrayDeque<Object[]> m_downlink = new ArrayDeque<>();
+        private final List<TransferProgress> m_progress = new ArrayList<>();
+        private long m_now = 1;
+        private TransferProgress m_completed;
+        private Exception m_error;
+
+        Harness(byte[] payload, double uplinkLoss, double downlinkLoss) {
+            this(new TransferSession(7, payload, FRAGMENT_SIZE), new TransferReceiver(), uplinkLoss, downlinkLoss);
+        }
+
+        Harness(TransferSession session, TransferReceiver peripheral, double uplinkLoss, double downlinkLoss) {
+            m_session = session;
+            m_peripheral = peripheral;
+            m_uplinkLoss = uplinkLoss;
+            m_downlinkLoss = downlinkLoss;
+            m_transfer = new ReliableTransfer.Builder(session, this::uplink, this)
+                    .setWindow(32)
+                    .setRetransmitTimeout(100, TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        void run(int maxTicks) {
+            runUntil(maxTicks, () -> false);
+        }
+
+        void runUntil(int maxTicks, BooleanSupplier stop) {
+            m_transfer.start(m_now);
+            for (int i = 0; i < maxTicks && !m_transfer.isDone() && !stop.getAsBoolean(); ++i) {
+                m_now += TICK_NANOS;
+                while (!m_uplink.isEmpty() && (long) m_uplink.peek()[0] <= m_now) {
+                    byte[] reply = m_peripheral.receive((byte[]) m_uplink.poll()[1]);
+                    if (null != reply && m_random.nextDouble() >= m_downlinkLoss) {
+                        m_downlink.offer(new Object[]{m_now + LATENCY_TICKS * TICK_NANOS, reply});
+                    }
+                }
+                while (!m_downlink.isEmpty() && (long) m_downlink.peek()[0] <= m_now) {
+                    m_transfer.onReceive((byte[]) m_downlink.poll()[1], m_now);
+                }
+                m_transfer.onTick(m_now);
+            }
+        }
+
+        private void uplink(byte[] frame) {
+            if (m_random.nextDouble() >= m_uplinkLoss) {
+                m_uplink.offer(new Object[]{m_now + LATENCY_TICKS * TICK_NANOS, frame});
+            }
+        }
+
+        @Override
+        public void onProgress(TransferProgress progress) {
+            m_progress.add(progress);
+        }
+
+        @Override
+        public void onComplete(TransferProgress progress) {
+            m_progress.add(progress);
+            m_completed = progress;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            m_error = e;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.jack.rx.bluetooth.transfer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * 描述: 测试用的外设接收端，每收到{@link #ACK_EVERY}个分片、发现缺口或收到重复分片时回报确认
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public final class TransferReceiver {
+    private static final int ACK_EVERY = 4;
+
+    private int m_transferId;
+    private byte[] m_buffer;
+    private int m_fragmentSize;
+    private int m_fragmentCount = -1;
+    private int m_crc32;
+    private final BitSet m_received = new BitSet();
+    private int m_sinceAck = 0;
+
+    public byte[] receive(byte[] frame) {
+        switch (frame[0]) {
+            case TransferProtocol.START:
+                int transferId = TransferProtocol.getInt(frame, 1);
+                if (null == m_buffer || transferId != m_transferId) {
+                    m_transferId = transferId;
+                    m_buffer = new byte[TransferProtocol.getInt(frame, 5)];
+                    m_fragmentSize = TransferProtocol.getShort(frame, 9);
+                    m_fragmentCount = (m_buffer.length + m_fragmentSize - 1) / m_fragmentSize;
+                    m_crc32 = TransferProtocol.getInt(frame, 11);
+                    m_received.clear();
+                }
+                return ack();
+            case TransferProtocol.DATA:
+                if (null == m_buffer) {
+                    return null;
+                }
+                int seq = TransferProtocol.getShort(frame, 1);
+                int cumulative = m_received.nextClearBit(0);
+                boolean duplicate = m_received.get(seq);
+                System.arraycopy(frame, TransferProtocol.DATA_HEADER_LEN, m_buffer, seq * m_fragmentSize, frame.length - TransferProtocol.DATA_HEADER_LEN);
+                m_received.set(seq);
+                if (duplicate || seq != cumulative || ++m_sinceAck >= ACK_EVERY || receivedCount() == m_fragmentCount) {
+                    return ack();
+                }
+                return null;
+            case TransferProtocol.END:
+                if (null == m_buffer || TransferProtocol.getInt(frame, 1) != m_transferId) {
+                    return TransferProtocol.endAck(TransferProtocol.getInt(frame, 1), TransferProtocol.STATUS_INCOMPLETE);
+                }
+                if (receivedCount() != m_fragmentCount) {
+                    return TransferProtocol.endAck(m_transferId, TransferProtocol.STATUS_INCOMPLETE);
+                }
+                CRC32 crc32 = new CRC32();
+                crc32.update(m_buffer, 0, m_buffer.length);
+                return TransferProtocol.endAck(m_transferId, (int) crc32.getValue() == m_crc32 ? TransferProtocol.STATUS_OK : TransferProtocol.STATUS_CRC_MISMATCH);
+            default:
+                return null;
+        }
+    }
+
+    public static boolean isStart(byte[] frame) {
+        return frame.length > 0 && TransferProtocol.START == frame[0];
+    }
+
+    public int receivedCount() {
+        return m_received.cardinality();
+    }
+
+    public byte[] data() {
+        return null == m_buffer ? new byte[0] : Arrays.copyOf(m_buffer, m_buffer.length);
+    }
+
+    private byte[] ack() {
+        m_sinceAck = 0;
+        int cumulative = m_received.nextClearBit(0);
+        long bitmap = 0;
+        for (int i = 0; i < TransferProtocol.BITMAP_LEN * 8; ++i) {
+            if (m_received.get(cumulative + 1 + i)) {
+                bitmap |= 1L << i;
+            }
+        }
+        return TransferProtocol.ack(m_transferId, cumulative, bitmap);
+    }
+}
@@ -0,0 +1,109 @@
+package com.jack.rx.bluetooth.transport;
+
+import com.inuker.bluetooth.library.connect.options.BleConnectOptions;
+import com.inuker.bluetooth.library.connect.response.BleNotifyResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.inuker.bluetooth.library.Constants.REQUEST_SUCCESS;
+import static com.inuker.bluetooth.library.Constants.STATUS_DISCONNECTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述: {@link SimulatedTransport}对同一外设的回调按发出顺序串行执行
+ *
+ * @author :jack.gu
+ * @since : 2026/10/18
+ */
+public class SimulatedTransportTest {
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final UUID SERVICE = UUID.fromString("0000fff0-0000-1000-8000-00805f9b34fb");
+    private static final UUID CHARACTER = UUID.fromString("0000fff1-0000-1000-8000-00805f9b34fb");
+    private static final int FRAMES = 500;
+
+    private SimulatedTransport m_transport;
+    private SimulatedPeripheral m_peripheral;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        m_transport = new SimulatedTransport();
+        //抖动远大于发送间隔，按到期时间投递会乱序
+        m_peripheral = new SimulatedPeripheral.Builder(MAC)
+                .setLatency(0, 20)
+                .addCharacter(SERVICE, CHARACTER, new byte[0])
+                .build();
+        m_transport.addPeripheral(m_peripheral);
+        CountDownLatch connected = new CountDownLatch(1);
+        m_transport.connect(MAC, new BleConnectOptions.Builder().build(), (code, data) -> connected.countDown());
+        assertTrue(connected.await(1, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        m_transport.shutdown();
+    }
+
+    @Test
+    public void deliversNotificationsInOrderOneAtATime() throws InterruptedException {
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>(FRAMES));
+        AtomicInteger concurrent = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(FRAMES);
+        CountDownLatch ready = new CountDownLatch(1);
+        m_transport.notify(MAC, SERVICE, CHARACTER, new BleNotifyResponse() {
+            @Override
+            public void onNotify(UUID service, UUID character, byte[] value) {
+                assertEquals(1, concurrent.incrementAndGet());
+                received.add((value[0] & 0xFF) << 8 | (value[1] & 0xFF));
+                concurrent.decrementAndGet();
+                done.countDown();
+            }
+
+            @Override
+            public void onResponse(int code) {
+                assertEquals(REQUEST_SUCCESS, code);
+                ready.countDown();
+            }
+        });
+        assertTrue(ready.await(1, TimeUnit.SECONDS));
+        for (int i = 0; i < FRAMES; ++i) {
+            m_peripheral.notify(SERVICE, CHARACTER, new byte[]{(byte) (i >> 8), (byte) i});
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < FRAMES; ++i) {
+            assertEquals(i, (int) received.get(i));
+        }
+    }
+
+    @Test
+    public void firesConnectStatusListenersInRegistrationOrder() throws InterruptedException {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>(2));
+        CountDownLatch done = new CountDownLatch(2);
+        //连接成功的状态回调可能还没执行完，只记录断开
+        m_transport.registerConnectStatusListener(MAC, (mac, status) -> {
+            if (STATUS_DISCONNECTED == status) {
+                calls.add("first");
+                done.countDown();
+            }
+        });
+        m_transport.registerConnectStatusListener(MAC, (mac, status) -> {
+            if (STATUS_DISCONNECTED == status) {
+                calls.add("second");
+                done.countDown();
+            }
+        });
+        m_transport.disconnect(MAC);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals("[first, second]", calls.toString());
+    }
+}